@@ -0,0 +1,23 @@
+package com.ecommerce.activity;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Время последнего входа и последнего запроса ({@code user-activity.*}).
+ *
+ * @param flushInterval  как часто узел пишет накопленные отметки в БД; на столько же они отстают
+ * @param seenResolution точность {@code last_seen_at}: запросы чаще этого интервала отметку не двигают
+ * @param batchSize      строк в одном пакете UPDATE
+ * @param maxPending     сколько пользователей узел держит в памяти; сверх этого новые отметки «был в сети» отбрасываются до сброса
+ */
+@ConfigurationProperties("user-activity")
+public record UserActivityProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("30s") Duration flushInterval,
+        @DefaultValue("60s") Duration seenResolution,
+        @DefaultValue("500") int batchSize,
+        @DefaultValue("200000") int maxPending) {
+}
@@ -0,0 +1,188 @@
+package com.ecommerce.activity;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Отложенная запись {@code last_login_at} и {@code last_seen_at}.
+ * <p>
+ * Вход и запросы только обновляют отметки пользователя в памяти узла — сколько бы их ни было за интервал,
+ * в БД уйдёт одна строка с последними значениями. Раз в {@code flush-interval} накопленное пишется пакетом
+ * UPDATE в порядке id (одинаковый порядок блокировок у всех узлов). Запись — слияние через GREATEST:
+ * устаревшее значение с другого узла или повтор после ошибки не отодвигают отметку назад. Версию строки
+ * и {@code updated_at} запись не трогает, поэтому с изменениями профиля не конфликтует.
+ * <p>
+ * Пользователь без новых отметок за целый интервал вытесняется из памяти.
+ */
+@Slf4j
+@Component
+public class UserActivityTracker {
+    /**
+     * GREATEST обёрнут в COALESCE с обеих сторон: пустой столбец или параметр не обнуляет результат
+     * и в БД, где GREATEST с NULL возвращает NULL.
+     */
+    private static final String MERGE = "UPDATE users "
+            + "SET last_seen_at = GREATEST(COALESCE(last_seen_at, ?), ?), "
+            + "last_login_at = GREATEST(COALESCE(last_login_at, ?), COALESCE(?, last_login_at)) WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UserActivityProperties properties;
+    private final long seenResolutionMillis;
+    private final ConcurrentHashMap<Long, Activity> pending = new ConcurrentHashMap<>();
+    private final Counter flushed;
+    private final Counter dropped;
+    private final Counter failures;
+    private final Timer flushTimer;
+
+    public UserActivityTracker(JdbcTemplate jdbcTemplate, UserActivityProperties properties, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.seenResolutionMillis = properties.seenResolution().toMillis();
+        this.flushed = Counter.builder("user.activity.flushed")
+                .description("Строки, записанные пакетным обновлением").register(meterRegistry);
+        this.dropped = Counter.builder("user.activity.dropped")
+                .description("Отметки, не принятые из-за переполнения").register(meterRegistry);
+        this.failures = meterRegistry.counter("user.activity.failures");
+        this.flushTimer = meterRegistry.timer("user.activity.flush");
+        Gauge.builder("user.activity.pending", pending, Map::size).register(meterRegistry);
+    }
+
+    public void loggedIn(long userId) {
+        if (properties.enabled()) {
+            long now = System.currentTimeMillis();
+            merge(userId, now, now);
+        }
+    }
+
+    /**
+     * Горячий путь — каждый аутентифицированный запрос. Пока отметка свежее {@code seen-resolution},
+     * обходится одним чтением из таблицы без блокировок.
+     */
+    public void seen(long userId) {
+        if (!properties.enabled()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        Activity activity = pending.get(userId);
+        if (activity != null && activity.seen > now - seenResolutionMillis) {
+            return;
+        }
+        merge(userId, now, 0);
+    }
+
+    @Scheduled(fixedDelayString = "${user-activity.flush-interval:30s}")
+    public synchronized void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<Pending> batch = new ArrayList<>();
+        for (Map.Entry<Long, Activity> entry : pending.entrySet()) {
+            Pending drained = entry.getValue().drain(entry.getKey());
+            if (drained != null) {
+                batch.add(drained);
+            } else {
+                pending.remove(entry.getKey(), entry.getValue());
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        batch.sort(Comparator.comparingLong(Pending::userId));
+
+        long started = System.nanoTime();
+        try {
+            jdbcTemplate.batchUpdate(MERGE, batch, properties.batchSize(), (statement, item) -> {
+                Timestamp seen = new Timestamp(item.seen());
+                statement.setTimestamp(1, seen);
+                statement.setTimestamp(2, seen);
+                Timestamp login = item.login() == 0 ? null : new Timestamp(item.login());
+                statement.setTimestamp(3, login);
+                statement.setTimestamp(4, login);
+                statement.setLong(5, item.userId());
+            });
+            flushed.increment(batch.size());
+            flushTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        } catch (DataAccessException e) {
+            // Часть пакетов могла записаться — повтор безопасен, слияние идемпотентно
+            failures.increment();
+            batch.forEach(item -> merge(item.userId(), item.seen(), item.login()));
+            log.warn("Не удалось записать активность {} пользователей, повтор при следующем сбросе: {}",
+                    batch.size(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    int pendingCount() {
+        return pending.size();
+    }
+
+    private void merge(long userId, long seen, long login) {
+        while (true) {
+            Activity activity = pending.get(userId);
+            if (activity == null) {
+                if (login == 0 && pending.size() >= properties.maxPending()) {
+                    dropped.increment();
+                    return;
+                }
+                activity = pending.computeIfAbsent(userId, id -> new Activity());
+            }
+            if (activity.merge(seen, login)) {
+                return;
+            }
+            // Запись вытеснена сбросом между чтением и обновлением — заводим новую
+            pending.remove(userId, activity);
+        }
+    }
+
+    private record Pending(long userId, long seen, long login) {
+    }
+
+    private static final class Activity {
+        volatile long seen;
+        private long login;
+        private boolean dirty;
+        private boolean evicted;
+
+        synchronized boolean merge(long seen, long login) {
+            if (evicted) {
+                return false;
+            }
+            this.seen = Math.max(this.seen, seen);
+            this.login = Math.max(this.login, login);
+            dirty = true;
+            return true;
+        }
+
+        /**
+         * Новые отметки для записи или {@code null}, если их не было с прошлого сброса — тогда запись вытесняется.
+         */
+        synchronized Pending drain(long userId) {
+            if (!dirty) {
+                evicted = true;
+                return null;
+            }
+            dirty = false;
+            return new Pending(userId, seen, login);
+        }
+    }
+}
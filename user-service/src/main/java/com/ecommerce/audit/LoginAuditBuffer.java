@@ -0,0 +1,126 @@
+package com.ecommerce.audit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ограниченная очередь событий входа: много писателей, один читатель, без блокировок и аллокаций.
+ * <p>
+ * Кольцо заранее заполненных ячеек (схема Д. Вьюкова): писатель занимает позицию CAS-ом по {@code tail},
+ * заполняет поля ячейки и публикует её записью volatile {@code sequence}. Читатель забирает ячейки
+ * по порядку, пока они опубликованы, и возвращает их писателям, сдвигая {@code sequence} на круг.
+ * Полная очередь не ждёт: {@link #offer} возвращает {@code false}, а что делать дальше, решает вызывающий.
+ */
+final class LoginAuditBuffer {
+    private final Slot[] slots;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    LoginAuditBuffer(int capacity) {
+        int size = capacity <= 2 ? 2 : Integer.highestOneBit(capacity - 1) << 1;
+        slots = new Slot[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = new Slot(i);
+        }
+        mask = size - 1;
+    }
+
+    boolean offer(long occurredAt, LoginOutcome outcome, String login, long userId, String clientIp) {
+        long position = tail.get();
+        while (true) {
+            Slot slot = slots[(int) (position & mask)];
+            long difference = slot.sequence - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slot.occurredAt = occurredAt;
+                    slot.outcome = outcome;
+                    slot.login = login;
+                    slot.userId = userId;
+                    slot.clientIp = clientIp;
+                    slot.sequence = position + 1;
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Переносит в {@code batch} до {@code batch.capacity()} опубликованных событий. Вызывается одним потоком.
+     *
+     * @return сколько событий перенесено
+     */
+    int drainTo(Batch batch) {
+        long position = head;
+        int count = 0;
+        while (count < batch.capacity()) {
+            Slot slot = slots[(int) (position & mask)];
+            if (slot.sequence != position + 1) {
+                break;
+            }
+            batch.occurredAt[count] = slot.occurredAt;
+            batch.outcome[count] = slot.outcome;
+            batch.login[count] = slot.login;
+            batch.userId[count] = slot.userId;
+            batch.clientIp[count] = slot.clientIp;
+            // Ссылки обнуляются, чтобы очередь не удерживала строки до следующего круга
+            slot.login = null;
+            slot.clientIp = null;
+            slot.sequence = position + slots.length;
+            position++;
+            count++;
+        }
+        head = position;
+        batch.size = count;
+        return count;
+    }
+
+    int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    int capacity() {
+        return slots.length;
+    }
+
+    private static final class Slot {
+        volatile long sequence;
+        long occurredAt;
+        LoginOutcome outcome;
+        String login;
+        long userId;
+        String clientIp;
+
+        Slot(long sequence) {
+            this.sequence = sequence;
+        }
+    }
+
+    /**
+     * Переиспользуемый пакет для записи в БД: столбцы событий в параллельных массивах.
+     */
+    static final class Batch {
+        final long[] occurredAt;
+        final LoginOutcome[] outcome;
+        final String[] login;
+        final long[] userId;
+        final String[] clientIp;
+        int size;
+
+        Batch(int capacity) {
+            occurredAt = new long[capacity];
+            outcome = new LoginOutcome[capacity];
+            login = new String[capacity];
+            userId = new long[capacity];
+            clientIp = new String[capacity];
+        }
+
+        int capacity() {
+            return occurredAt.length;
+        }
+    }
+}
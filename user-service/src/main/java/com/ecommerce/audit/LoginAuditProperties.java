@@ -0,0 +1,39 @@
+package com.ecommerce.audit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Журнал попыток входа ({@code login-audit.*}).
+ *
+ * @param capacity        ёмкость очереди в памяти (округляется вверх до степени двойки)
+ * @param batchSize       событий в одном многострочном INSERT
+ * @param flushInterval   как часто записывать неполный пакет
+ * @param overflow        что делать при полной очереди
+ * @param blockTimeout    сколько ждать места в очереди при {@link Overflow#BLOCK}, прежде чем отбросить событие
+ * @param shutdownTimeout сколько ждать дозаписи очереди при остановке; столько же повторяется пакет,
+ *                        который БД не принимает, прежде чем его отбросить
+ */
+@ConfigurationProperties("login-audit")
+public record LoginAuditProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("8192") int capacity,
+        @DefaultValue("500") int batchSize,
+        @DefaultValue("200ms") Duration flushInterval,
+        @DefaultValue("drop") Overflow overflow,
+        @DefaultValue("20ms") Duration blockTimeout,
+        @DefaultValue("10s") Duration shutdownTimeout) {
+
+    public enum Overflow {
+        /**
+         * Событие отбрасывается сразу: вход не замедляется, потери видны в {@code login.audit.dropped}.
+         */
+        DROP,
+        /**
+         * Вход ждёт места в очереди до {@code block-timeout} — давление передаётся вызывающему.
+         */
+        BLOCK
+    }
+}
@@ -0,0 +1,308 @@
+package com.ecommerce.audit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Журнал попыток входа без лишней работы на пути запроса: {@link #record} кладёт событие в
+ * {@link LoginAuditBuffer}, а отдельный поток пишет накопленное в {@code login_events} многострочными
+ * INSERT по {@code batch-size} строк — раз в {@code flush-interval} или сразу, пока очередь полна.
+ * <p>
+ * Пакет, который не удалось записать, не выбрасывается: поток повторяет его с растущей паузой (от
+ * {@code flush-interval} до {@link #MAX_RETRY_DELAY_NANOS}), а новые события тем временем копятся в очереди.
+ * Пакет отбрасывается, только если БД не принимает его дольше {@code shutdown-timeout}: иначе один
+ * неисправимый пакет остановил бы журнал навсегда.
+ * <p>
+ * При остановке поток дописывает всё, что успело попасть в очередь, повторяя неудачные пакеты до
+ * {@code shutdown-timeout}. Фаза жизненного цикла ниже, чем у веб-сервера: к этому моменту он уже
+ * не принимает запросы, а пул соединений ещё открыт.
+ * Метрики: {@code login.audit.events} (по исходу), {@code login.audit.dropped}, {@code login.audit.failed},
+ * {@code login.audit.queue}, {@code login.audit.flush}.
+ */
+@Slf4j
+@Component
+public class LoginAuditor implements SmartLifecycle {
+    static final int MAX_LOGIN_LENGTH = 100;
+    private static final String INSERT = "INSERT INTO login_events (occurred_at, outcome, login, user_id, client_ip) VALUES ";
+    private static final String ROW = "(?, ?, ?, ?, ?)";
+    private static final long MAX_RETRY_DELAY_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LoginAuditProperties properties;
+    private final LoginAuditBuffer buffer;
+    private final LoginAuditBuffer.Batch batch;
+    private final String[] insertBySize;
+    private final Counter[] recorded;
+    private final Counter dropped;
+    private final Counter failed;
+    private final Timer flushTimer;
+    private volatile boolean running;
+    private volatile Thread flusher;
+    private volatile boolean stopping;
+    private volatile long stopDeadline;
+    // Состояние повтора — только у потока журнала
+    private boolean retrying;
+    private long retryDelay;
+    private long giveUpAt;
+
+    public LoginAuditor(JdbcTemplate jdbcTemplate, LoginAuditProperties properties, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.buffer = new LoginAuditBuffer(properties.capacity());
+        this.batch = new LoginAuditBuffer.Batch(properties.batchSize());
+        this.insertBySize = new String[properties.batchSize() + 1];
+        this.recorded = new Counter[LoginOutcome.values().length];
+        for (LoginOutcome outcome : LoginOutcome.values()) {
+            recorded[outcome.ordinal()] = Counter.builder("login.audit.events")
+                    .tag("outcome", outcome.name().toLowerCase()).register(meterRegistry);
+        }
+        this.dropped = Counter.builder("login.audit.dropped")
+                .description("События, не попавшие в переполненную очередь").register(meterRegistry);
+        this.failed = Counter.builder("login.audit.failed")
+                .description("События, которые не удалось записать в БД").register(meterRegistry);
+        this.flushTimer = meterRegistry.timer("login.audit.flush");
+        Gauge.builder("login.audit.queue", buffer, LoginAuditBuffer::size).register(meterRegistry);
+    }
+
+    public void record(LoginOutcome outcome, String login) {
+        record(outcome, login, 0);
+    }
+
+    /**
+     * @param userId id пользователя или 0, если логин не найден
+     */
+    public void record(LoginOutcome outcome, String login, long userId) {
+        if (properties.enabled()) {
+            record(outcome, login, userId, currentClientIp());
+        }
+    }
+
+    /**
+     * Вариант для фильтров, где адрес клиента известен, а контекст запроса Spring ещё не выставлен.
+     */
+    public void record(LoginOutcome outcome, String login, long userId, String clientIp) {
+        if (!properties.enabled()) {
+            return;
+        }
+        if (login != null && login.length() > MAX_LOGIN_LENGTH) {
+            login = login.substring(0, MAX_LOGIN_LENGTH);
+        }
+        long now = System.currentTimeMillis();
+        if (buffer.offer(now, outcome, login, userId, clientIp)
+                || (properties.overflow() == LoginAuditProperties.Overflow.BLOCK && offerBlocking(now, outcome, login, userId, clientIp))) {
+            recorded[outcome.ordinal()].increment();
+        } else {
+            dropped.increment();
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!properties.enabled() || running) {
+            return;
+        }
+        running = true;
+        flusher = Thread.ofPlatform().name("login-audit").daemon(true).start(this::flushLoop);
+    }
+
+    @Override
+    public void stop() {
+        Thread thread = flusher;
+        if (thread == null) {
+            return;
+        }
+        stopDeadline = System.nanoTime() + properties.shutdownTimeout().toNanos();
+        stopping = true;
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            // Сверх shutdown-timeout — на последнюю попытку записи, начатую до срока
+            thread.join(properties.shutdownTimeout().toMillis() + 1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (thread.isAlive() || buffer.size() > 0) {
+            log.warn("Журнал входов остановлен, не дописано событий: {}", buffer.size());
+        }
+        flusher = null;
+        stopping = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        // Веб-сервер останавливается в фазе DEFAULT_PHASE - 2048: журнал — после него
+        return DEFAULT_PHASE - 4096;
+    }
+
+    /**
+     * Записывает один пакет: повторяет неудачный или берёт новый из очереди. Вызывается только потоком журнала
+     * (и тестами при остановленном потоке).
+     *
+     * @return сколько событий записано; 0 — очередь пуста или запись не удалась (тогда {@link #retrying()})
+     */
+    int flush() {
+        int count = retrying ? batch.size : buffer.drainTo(batch);
+        if (count == 0) {
+            return 0;
+        }
+        long started = System.nanoTime();
+        try {
+            jdbcTemplate.update(insertSql(count), this::bind);
+        } catch (DataAccessException e) {
+            onFailure(count, started, e);
+            return 0;
+        }
+        flushTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        retrying = false;
+        clearBatch(count);
+        return count;
+    }
+
+    boolean retrying() {
+        return retrying;
+    }
+
+    private void onFailure(int count, long now, DataAccessException e) {
+        if (!retrying) {
+            retrying = true;
+            retryDelay = properties.flushInterval().toNanos();
+            giveUpAt = now + properties.shutdownTimeout().toNanos();
+        } else {
+            retryDelay = Math.min(retryDelay * 2, MAX_RETRY_DELAY_NANOS);
+        }
+        if (stopping) {
+            giveUpAt = Math.min(giveUpAt, stopDeadline);
+        }
+        if (now - giveUpAt >= 0) {
+            failed.increment(count);
+            log.warn("Не удалось записать {} событий входа, пакет отброшен: {}", count, e.getMessage());
+            retrying = false;
+            clearBatch(count);
+        } else {
+            log.warn("Не удалось записать {} событий входа, повтор через {} мс: {}",
+                    count, TimeUnit.NANOSECONDS.toMillis(retryDelay), e.getMessage());
+        }
+    }
+
+    private void clearBatch(int count) {
+        Arrays.fill(batch.login, 0, count, null);
+        Arrays.fill(batch.clientIp, 0, count, null);
+    }
+
+    /**
+     * Пауза перед повтором, но не дальше срока, после которого пакет отбрасывается.
+     */
+    private void parkBeforeRetry() {
+        long deadline = stopping ? Math.min(giveUpAt, stopDeadline) : giveUpAt;
+        LockSupport.parkNanos(Math.max(0, Math.min(retryDelay, deadline - System.nanoTime())));
+    }
+
+    private void flushLoop() {
+        long interval = properties.flushInterval().toNanos();
+        while (running) {
+            try {
+                int written = flush();
+                if (retrying) {
+                    parkBeforeRetry();
+                } else if (written < batch.capacity()) {
+                    LockSupport.parkNanos(interval);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Ошибка записи журнала входов: {}", e.getMessage());
+                LockSupport.parkNanos(interval);
+            }
+        }
+        // Остановка: дописать всё, что уже принято в очередь, пока не истёк shutdown-timeout
+        int flushed = 0;
+        while (System.nanoTime() - stopDeadline < 0 || retrying) {
+            int count = flush();
+            if (retrying) {
+                parkBeforeRetry();
+            } else if (count == 0) {
+                break;
+            }
+            flushed += count;
+        }
+        int lost = 0;
+        for (int count = buffer.drainTo(batch); count > 0; count = buffer.drainTo(batch)) {
+            clearBatch(count);
+            lost += count;
+        }
+        if (lost > 0) {
+            failed.increment(lost);
+            log.warn("Журнал входов не успел до shutdown-timeout, отброшено событий: {}", lost);
+        }
+        log.info("Журнал входов остановлен, при остановке дописано событий: {}", flushed);
+    }
+
+    private boolean offerBlocking(long now, LoginOutcome outcome, String login, long userId, String clientIp) {
+        long deadline = System.nanoTime() + properties.blockTimeout().toNanos();
+        Thread thread = flusher;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+        while (System.nanoTime() < deadline) {
+            LockSupport.parkNanos(100_000);
+            if (buffer.offer(now, outcome, login, userId, clientIp)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void bind(PreparedStatement statement) throws SQLException {
+        int index = 1;
+        for (int i = 0; i < batch.size; i++) {
+            statement.setTimestamp(index++, new Timestamp(batch.occurredAt[i]));
+            statement.setString(index++, batch.outcome[i].name());
+            statement.setString(index++, batch.login[i]);
+            if (batch.userId[i] == 0) {
+                statement.setNull(index++, Types.BIGINT);
+            } else {
+                statement.setLong(index++, batch.userId[i]);
+            }
+            statement.setString(index++, batch.clientIp[i]);
+        }
+    }
+
+    private String insertSql(int rows) {
+        String sql = insertBySize[rows];
+        if (sql == null) {
+            StringBuilder builder = new StringBuilder(INSERT.length() + rows * (ROW.length() + 2)).append(INSERT);
+            for (int i = 0; i < rows; i++) {
+                builder.append(i == 0 ? "" : ", ").append(ROW);
+            }
+            sql = builder.toString();
+            insertBySize[rows] = sql;
+        }
+        return sql;
+    }
+
+    private static String currentClientIp() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes instanceof ServletRequestAttributes servlet ? servlet.getRequest().getRemoteAddr() : null;
+    }
+}
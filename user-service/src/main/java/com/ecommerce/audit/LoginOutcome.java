@@ -0,0 +1,15 @@
+package com.ecommerce.audit;
+
+public enum LoginOutcome {
+    SUCCESS,
+    UNKNOWN_LOGIN,
+    BAD_PASSWORD,
+    /**
+     * Аккаунт удаляется или анонимизирован.
+     */
+    ACCOUNT_CLOSED,
+    /**
+     * Запрос отклонён квотой до проверки учётных данных.
+     */
+    THROTTLED
+}
@@ -0,0 +1,35 @@
+package com.ecommerce.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Кэш профилей в памяти узла и его снимок на диске ({@code user-cache.*}).
+ *
+ * @param maxEntries       сколько профилей держать; сверх этого новые не принимаются до вытеснения холодных
+ * @param syncInterval     как часто сбрасывать профили, изменённые на других узлах, — верхняя граница их устаревания
+ * @param syncOverlap      запас при чтении изменений: поздно зафиксированные транзакции и расхождение часов
+ * @param snapshotPath     файл снимка — в нём персональные данные, поэтому каталог и файл создаются доступными
+ *                         только владельцу процесса; по умолчанию {@code ~/.user-service/user-cache.snapshot}
+ * @param snapshotInterval как часто записывать снимок
+ * @param snapshotEntries  сколько самых горячих профилей попадает в снимок
+ */
+@ConfigurationProperties("user-cache")
+public record UserCacheProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("100000") int maxEntries,
+        @DefaultValue("5s") Duration syncInterval,
+        @DefaultValue("10s") Duration syncOverlap,
+        Path snapshotPath,
+        @DefaultValue("5m") Duration snapshotInterval,
+        @DefaultValue("20000") int snapshotEntries) {
+
+    public UserCacheProperties {
+        snapshotPath = snapshotPath != null
+                ? snapshotPath
+                : Path.of(System.getProperty("user.home"), ".user-service", "user-cache.snapshot");
+    }
+}
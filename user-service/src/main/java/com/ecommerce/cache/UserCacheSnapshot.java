@@ -0,0 +1,189 @@
+package com.ecommerce.cache;
+
+import com.ecommerce.model.dto.response.UserResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+/**
+ * Двоичный снимок горячих профилей.
+ * <p>
+ * Заголовок: {@code magic}, версия формата, время записи, число записей и CRC32 тела. Запись: id,
+ * {@code updated_at} строки на момент кэширования (по нему снимок сверяется с БД при загрузке), счётчик
+ * обращений и поля {@link UserResponse}. Строки — длина в байтах UTF-8 ({@code -1} для null) и байты.
+ * Изменился состав полей — меняется {@link #FORMAT_VERSION}, и старые снимки просто не загружаются.
+ * <p>
+ * Пишется во временный файл рядом и подменяет прежний атомарным переименованием; читается через
+ * отображение файла в память, без копирования всего файла в кучу. В снимке email, имена и телефоны:
+ * на POSIX-системах создаваемый каталог получает права {@code rwx------}, файл — {@code rw-------}.
+ */
+final class UserCacheSnapshot {
+    static final int MAGIC = 0x55435331; // "UCS1"
+    static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 4 + 8;
+    private static final long NO_TIME = Long.MIN_VALUE;
+    private static final Set<PosixFilePermission> OWNER_ONLY_DIRECTORY = PosixFilePermissions.fromString("rwx------");
+    private static final Set<PosixFilePermission> OWNER_ONLY_FILE = PosixFilePermissions.fromString("rw-------");
+
+    private UserCacheSnapshot() {
+    }
+
+    record Entry(UserResponse response, LocalDateTime updatedAt, int hits) {
+    }
+
+    static void write(Path path, List<Entry> entries) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(entries.size() * 128);
+        DataOutputStream body = new DataOutputStream(bytes);
+        for (Entry entry : entries) {
+            UserResponse response = entry.response();
+            body.writeLong(response.getId());
+            writeTime(body, entry.updatedAt());
+            body.writeInt(entry.hits());
+            writeString(body, response.getUsername());
+            writeString(body, response.getEmail());
+            writeString(body, response.getFirstName());
+            writeString(body, response.getLastName());
+            writeString(body, response.getPhoneNumber());
+            writeString(body, response.getRole());
+            writeTime(body, response.getCreatedAt());
+        }
+        body.flush();
+        byte[] payload = bytes.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                .putInt(MAGIC)
+                .putInt(FORMAT_VERSION)
+                .putLong(System.currentTimeMillis())
+                .putInt(entries.size())
+                .putLong(crc.getValue())
+                .flip();
+        Path directory = path.toAbsolutePath().getParent();
+        boolean posix = directory.getFileSystem().supportedFileAttributeViews().contains("posix");
+        if (posix) {
+            Files.createDirectories(directory, PosixFilePermissions.asFileAttribute(OWNER_ONLY_DIRECTORY));
+        } else {
+            Files.createDirectories(directory);
+        }
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        // Оставшийся от сбоя временный файл мог быть создан с другими правами: файл всегда создаётся заново
+        Files.deleteIfExists(temp);
+        Set<StandardOpenOption> options = EnumSet.of(StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        try (FileChannel channel = posix
+                ? FileChannel.open(temp, options, PosixFilePermissions.asFileAttribute(OWNER_ONLY_FILE))
+                : FileChannel.open(temp, options)) {
+            ByteBuffer data = ByteBuffer.wrap(payload);
+            while (header.hasRemaining() || data.hasRemaining()) {
+                channel.write(new ByteBuffer[]{header, data});
+            }
+            channel.force(true);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * @throws IOException файл не читается, чужого формата или повреждён
+     */
+    static List<Entry> read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE) {
+                throw new IOException("снимок короче заголовка");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("не снимок кэша профилей");
+            }
+            int version = buffer.getInt();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("версия формата " + version + ", ожидалась " + FORMAT_VERSION);
+            }
+            buffer.getLong();
+            int count = buffer.getInt();
+            long expectedCrc = buffer.getLong();
+            CRC32 crc = new CRC32();
+            crc.update(buffer.slice());
+            if (crc.getValue() != expectedCrc) {
+                throw new IOException("контрольная сумма не совпадает");
+            }
+
+            List<Entry> entries = new ArrayList<>(count);
+            try {
+                for (int i = 0; i < count; i++) {
+                    long id = buffer.getLong();
+                    LocalDateTime updatedAt = readTime(buffer);
+                    int hits = buffer.getInt();
+                    UserResponse response = UserResponse.builder()
+                            .id(id)
+                            .username(readString(buffer))
+                            .email(readString(buffer))
+                            .firstName(readString(buffer))
+                            .lastName(readString(buffer))
+                            .phoneNumber(readString(buffer))
+                            .role(readString(buffer))
+                            .createdAt(readTime(buffer))
+                            .build();
+                    entries.add(new Entry(response, updatedAt, hits));
+                }
+            } catch (RuntimeException e) {
+                throw new IOException("тело снимка не разбирается: " + e, e);
+            }
+            return entries;
+        }
+    }
+
+    private static void writeTime(DataOutputStream out, LocalDateTime time) throws IOException {
+        if (time == null) {
+            out.writeLong(NO_TIME);
+            out.writeInt(0);
+        } else {
+            out.writeLong(time.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(time.getNano());
+        }
+    }
+
+    private static LocalDateTime readTime(ByteBuffer buffer) {
+        long seconds = buffer.getLong();
+        int nanos = buffer.getInt();
+        return seconds == NO_TIME ? null : LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
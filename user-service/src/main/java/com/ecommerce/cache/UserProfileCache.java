@@ -0,0 +1,261 @@
+package com.ecommerce.cache;
+
+import com.ecommerce.model.dto.response.UserResponse;
+import com.ecommerce.outbox.OutboxMessage;
+import com.ecommerce.outbox.UserProfilesUpdatedEvent;
+import com.ecommerce.repository.UserRepository;
+import com.ecommerce.resilience.CircuitBreaker;
+import com.ecommerce.resilience.CircuitBreakers;
+import com.ecommerce.security.TokenVersionReceivedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Горячие профили пользователей в памяти узла.
+ * <p>
+ * Свои изменения сбрасывают запись сразу после фиксации (по событию outbox). Изменения на других узлах
+ * видны через {@code updated_at}: раз в {@code sync-interval} узел читает недавно изменённые id — так же,
+ * как {@link com.ecommerce.security.TokenVersionCache} читает версии токенов. Удаление строки {@code updated_at}
+ * не оставляет, поэтому профиль удалённого на другом узле аккаунта сбрасывается по рассылке отзыва его токенов
+ * ({@link TokenVersionReceivedEvent}) и не попадает в следующий снимок.
+ * <p>
+ * Вытеснение — по частоте со старением, когда кэш заполнен на 90%: при синхронизации записи без обращений
+ * удаляются, у остальных счётчик делится пополам. Пока кэш полон, новые профили не принимаются.
+ * <p>
+ * Самые горячие записи периодически и при остановке пишутся в {@link UserCacheSnapshot}. При старте
+ * (раннер, до готовности) снимок загружается и сверяется с БД по {@code updated_at}: в кэш попадают
+ * только профили, не менявшиеся с момента записи снимка, — перезапущенный узел сразу отвечает из памяти.
+ */
+@Slf4j
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+public class UserProfileCache implements ApplicationRunner {
+    private static final int VALIDATE_BATCH_SIZE = 1000;
+
+    private final UserRepository userRepository;
+    private final UserCacheProperties properties;
+    private final ConcurrentHashMap<Long, CachedProfile> entries = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter restored;
+    private final MeterRegistry meterRegistry;
+    private final CircuitBreaker database;
+    private volatile LocalDateTime syncedUpTo = LocalDateTime.now();
+
+    public UserProfileCache(UserRepository userRepository, UserCacheProperties properties, MeterRegistry meterRegistry,
+                            CircuitBreakers circuitBreakers) {
+        this.userRepository = userRepository;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.database = circuitBreakers.database();
+        this.hits = meterRegistry.counter("user.cache.requests", "result", "hit");
+        this.misses = meterRegistry.counter("user.cache.requests", "result", "miss");
+        this.restored = Counter.builder("user.cache.snapshot.restored")
+                .description("Профили, загруженные из снимка после сверки с БД").register(meterRegistry);
+        Gauge.builder("user.cache.size", entries, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * @return профиль или {@code null}; возвращается общий экземпляр — изменять его нельзя
+     */
+    public UserResponse get(long userId) {
+        if (!properties.enabled()) {
+            return null;
+        }
+        CachedProfile cached = entries.get(userId);
+        if (cached == null) {
+            misses.increment();
+            return null;
+        }
+        cached.hits++;
+        hits.increment();
+        return cached.response;
+    }
+
+    /**
+     * @param updatedAt {@code updated_at} строки, из которой построен профиль
+     */
+    public void put(UserResponse response, LocalDateTime updatedAt) {
+        if (properties.enabled() && entries.size() < properties.maxEntries()) {
+            entries.put(response.getId(), new CachedProfile(response, updatedAt, 1));
+        }
+    }
+
+    public void invalidate(long userId) {
+        entries.remove(userId);
+    }
+
+    @TransactionalEventListener
+    public void onCommitted(OutboxMessage message) {
+        invalidate(message.aggregateId());
+    }
+
+    @TransactionalEventListener
+    public void onProfilesCommitted(UserProfilesUpdatedEvent event) {
+        event.userIds().forEach(this::invalidate);
+    }
+
+    @EventListener
+    public void onTokenVersionReceived(TokenVersionReceivedEvent event) {
+        invalidate(event.userId());
+    }
+
+    /**
+     * Сбрасывает профили, изменённые с прошлой синхронизации (с запасом {@code sync-overlap}), и вытесняет холодные.
+     * Пока БД недоступна, профили не сбрасываются: кэш отдаёт, возможно, устаревшие данные, а после восстановления
+     * синхронизация начинает с последней удачной точки.
+     */
+    @Scheduled(fixedDelayString = "${user-cache.sync-interval:5s}")
+    public void sync() {
+        if (entries.isEmpty()) {
+            syncedUpTo = LocalDateTime.now();
+            return;
+        }
+        LocalDateTime queryStarted = LocalDateTime.now();
+        List<UserRepository.UpdatedAtView> changes = database.execute(
+                () -> userRepository.findByUpdatedAtGreaterThanEqual(syncedUpTo.minus(properties.syncOverlap())),
+                e -> null);
+        if (changes == null) {
+            log.debug("Синхронизация кэша профилей пропущена: БД недоступна");
+            return;
+        }
+        for (UserRepository.UpdatedAtView changed : changes) {
+            CachedProfile cached = entries.get(changed.getId());
+            if (cached != null && !Objects.equals(cached.updatedAt, changed.getUpdatedAt())) {
+                entries.remove(changed.getId(), cached);
+            }
+        }
+        syncedUpTo = queryStarted;
+
+        if (entries.size() >= properties.maxEntries() * 9L / 10) {
+            evictCold();
+        }
+    }
+
+    void evictCold() {
+        entries.values().removeIf(cached -> {
+            if (cached.hits == 0) {
+                return true;
+            }
+            cached.hits >>>= 1;
+            return false;
+        });
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (properties.enabled()) {
+            restoreSnapshot();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${user-cache.snapshot-interval:5m}",
+            initialDelayString = "${user-cache.snapshot-interval:5m}")
+    public void writeSnapshot() {
+        if (!properties.enabled() || entries.isEmpty()) {
+            return;
+        }
+        long started = System.nanoTime();
+        // Счётчики меняются во время сортировки: сортируются копии, где значение зафиксировано один раз
+        List<UserCacheSnapshot.Entry> hottest = entries.values().stream()
+                .map(cached -> new UserCacheSnapshot.Entry(cached.response, cached.updatedAt, cached.hits))
+                .sorted(Comparator.comparingInt(UserCacheSnapshot.Entry::hits).reversed())
+                .limit(properties.snapshotEntries())
+                .toList();
+        try {
+            UserCacheSnapshot.write(properties.snapshotPath(), hottest);
+            meterRegistry.timer("user.cache.snapshot.write").record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            log.debug("Снимок кэша профилей записан: {} записей в {}", hottest.size(), properties.snapshotPath());
+        } catch (IOException e) {
+            log.warn("Не удалось записать снимок кэша профилей {}: {}", properties.snapshotPath(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void writeSnapshotOnShutdown() {
+        writeSnapshot();
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return сколько профилей загружено из снимка
+     */
+    int restoreSnapshot() {
+        if (!Files.exists(properties.snapshotPath())) {
+            log.info("Снимка кэша профилей нет ({}), кэш наполнится запросами", properties.snapshotPath());
+            return 0;
+        }
+        long started = System.nanoTime();
+        List<UserCacheSnapshot.Entry> snapshot;
+        try {
+            snapshot = UserCacheSnapshot.read(properties.snapshotPath());
+        } catch (NoSuchFileException e) {
+            return 0;
+        } catch (IOException e) {
+            log.warn("Снимок кэша профилей {} пропущен: {}", properties.snapshotPath(), e.getMessage());
+            return 0;
+        }
+
+        int loaded = 0;
+        for (int from = 0; from < snapshot.size(); from += VALIDATE_BATCH_SIZE) {
+            List<UserCacheSnapshot.Entry> chunk = snapshot.subList(from, Math.min(from + VALIDATE_BATCH_SIZE, snapshot.size()));
+            Map<Long, UserCacheSnapshot.Entry> byId = new HashMap<>(chunk.size() * 2);
+            chunk.forEach(entry -> byId.put(entry.response().getId(), entry));
+            for (UserRepository.UpdatedAtView current : userRepository.findByIdIn(new ArrayList<>(byId.keySet()))) {
+                UserCacheSnapshot.Entry entry = byId.get(current.getId());
+                // Строка изменилась после записи снимка — профиль устарел
+                if (Objects.equals(entry.updatedAt(), current.getUpdatedAt()) && entries.size() < properties.maxEntries()) {
+                    entries.putIfAbsent(current.getId(), new CachedProfile(entry.response(), entry.updatedAt(),
+                            Math.max(1, entry.hits())));
+                    loaded++;
+                }
+            }
+        }
+        restored.increment(loaded);
+        log.info("Кэш профилей восстановлен из снимка за {} мс: {} из {} записей актуальны",
+                (System.nanoTime() - started) / 1_000_000, loaded, snapshot.size());
+        return loaded;
+    }
+
+    private static final class CachedProfile {
+        final UserResponse response;
+        final LocalDateTime updatedAt;
+        /**
+         * Число обращений (со старением); гонки при инкременте допустимы — это оценка.
+         */
+        volatile int hits;
+
+        CachedProfile(UserResponse response, LocalDateTime updatedAt, int hits) {
+            this.response = response;
+            this.updatedAt = updatedAt;
+            this.hits = hits;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.ecommerce.changes;
+
+import com.ecommerce.model.entity.OutboxEvent;
+import com.ecommerce.repository.OutboxEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Чтение общей таблицы outbox по возрастанию id — одинаково на всех узлах, кто бы ни записал событие.
+ * <p>
+ * IDENTITY выдаёт id при вставке, а транзакции фиксируются в своём порядке: строка с меньшим id может стать
+ * видна позже большей. Пропущенный id («дыра») запоминается и перечитывается, пока строка не появится
+ * или не истечёт {@code gap-timeout} — тогда транзакция считается откатившейся.
+ * {@link #watermark()} — наибольший id, до которого включительно всё уже прочитано: с него безопасно
+ * продолжать чтение после переподключения.
+ * <p>
+ * Не потокобезопасен: {@link #poll()} вызывается из одного потока, {@link #watermark()} — из любых.
+ */
+@Slf4j
+final class OutboxTail {
+    private static final int PAGE_SIZE = 500;
+    private static final int MAX_PAGES_PER_POLL = 20;
+    private static final int GAP_QUERY_SIZE = 1000;
+    /**
+     * Больший скачок id — не транзакции в полёте (например, сброс последовательности): такие дыры не отслеживаются.
+     */
+    private static final long MAX_TRACKED_JUMP = 10_000;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final long gapTimeoutNanos;
+    private final int startupLookback;
+    /**
+     * Пропущенный id → момент, когда его заметили ({@link System#nanoTime()}).
+     */
+    private final TreeMap<Long, Long> gaps = new TreeMap<>();
+    private boolean initialized;
+    private long cursor;
+    private volatile long watermark = -1;
+
+    OutboxTail(OutboxEventRepository outboxEventRepository, Duration gapTimeout, int startupLookback) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.gapTimeoutNanos = gapTimeout.toNanos();
+        this.startupLookback = startupLookback;
+    }
+
+    /**
+     * Новые строки и строки, закрывшие дыры, в порядке id; первый вызов только находит начальную позицию.
+     */
+    List<OutboxEvent> poll() {
+        if (!initialized) {
+            initialize();
+            return List.of();
+        }
+        List<OutboxEvent> found = new ArrayList<>(fillGaps());
+        for (int pages = 0; pages < MAX_PAGES_PER_POLL; pages++) {
+            List<OutboxEvent> page = outboxEventRepository.findByIdGreaterThanOrderByIdAsc(cursor, Limit.of(PAGE_SIZE));
+            for (OutboxEvent event : page) {
+                trackGaps(event.getId());
+                cursor = event.getId();
+                found.add(event);
+            }
+            if (page.size() < PAGE_SIZE) {
+                break;
+            }
+        }
+        expireGaps();
+        watermark = gaps.isEmpty() ? cursor : gaps.firstKey() - 1;
+        return found;
+    }
+
+    /**
+     * {@code -1}, пока начальная позиция не найдена.
+     */
+    long watermark() {
+        return watermark;
+    }
+
+    int gapCount() {
+        return gaps.size();
+    }
+
+    /**
+     * Начинает с последней строки; id, которых нет среди последних {@code startup-lookback},
+     * могут принадлежать транзакциям, ещё не зафиксированным на других узлах, и становятся дырами.
+     * Id ниже первой найденной строки не в счёт — их удалила очистка отправленных событий.
+     * Пустая таблица позиции не даёт: перед первой прочитанной строкой дыры не ищутся.
+     */
+    private void initialize() {
+        long max = outboxEventRepository.findMaxId();
+        long from = Math.max(0, max - startupLookback);
+        long expected = -1;
+        long now = System.nanoTime();
+        for (long id : outboxEventRepository.findIdsGreaterThan(from)) {
+            for (; expected >= 0 && expected < id; expected++) {
+                gaps.put(expected, now);
+            }
+            expected = id + 1;
+        }
+        cursor = max;
+        watermark = gaps.isEmpty() ? cursor : gaps.firstKey() - 1;
+        initialized = true;
+        log.info("Чтение outbox для потока изменений начато с id {}, незакрытых id: {}", cursor, gaps.size());
+    }
+
+    private List<OutboxEvent> fillGaps() {
+        if (gaps.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = new ArrayList<>(gaps.keySet());
+        List<OutboxEvent> filled = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += GAP_QUERY_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + GAP_QUERY_SIZE));
+            for (OutboxEvent event : outboxEventRepository.findAllById(chunk)) {
+                gaps.remove(event.getId());
+                filled.add(event);
+            }
+        }
+        filled.sort((a, b) -> Long.compare(a.getId(), b.getId()));
+        return filled;
+    }
+
+    private void trackGaps(long id) {
+        if (cursor == 0) {
+            return;
+        }
+        if (id - cursor > MAX_TRACKED_JUMP) {
+            log.warn("Скачок id outbox с {} до {}: пропущенные id не отслеживаются", cursor, id);
+            return;
+        }
+        long now = System.nanoTime();
+        for (long missing = cursor + 1; missing < id; missing++) {
+            gaps.put(missing, now);
+        }
+    }
+
+    private void expireGaps() {
+        long now = System.nanoTime();
+        Iterator<Map.Entry<Long, Long>> iterator = gaps.entrySet().iterator();
+        while (iterator.hasNext()) {
+            if (now - iterator.next().getValue() >= gapTimeoutNanos) {
+                iterator.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.ecommerce.changes;
+
+import java.util.List;
+
+/**
+ * Данные SSE-события: чей профиль изменился, до какой версии и какие поля — без самих значений.
+ */
+public record UserChangeNotification(long userId, long version, List<String> changed) {
+}
@@ -0,0 +1,210 @@
+package com.ecommerce.changes;
+
+import com.ecommerce.model.entity.OutboxEvent;
+import com.ecommerce.outbox.OutboxMessage;
+import com.ecommerce.outbox.UserEventType;
+import com.ecommerce.repository.OutboxEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Поток изменений пользователей для инвалидации кэшей у потребителей. Стирание аккаунта ({@code UserErased},
+ * версия {@link Long#MAX_VALUE}) тоже приходит сюда: потребитель удаляет свою копию персональных данных.
+ * <p>
+ * Источник — общая таблица outbox, которую каждый узел читает сам ({@link OutboxTail}), поэтому подписчик
+ * любого узла получает изменения, зафиксированные на всех узлах, с задержкой не больше {@code poll-interval}.
+ * <p>
+ * Id SSE-события — позиция, с которой безопасно продолжить: id записи outbox, но не больше
+ * {@link OutboxTail#watermark()}. Пока транзакция с меньшим id не зафиксирована, id событий не уходит дальше
+ * неё, и после переподключения с {@code Last-Event-ID} дочитывание из outbox начнётся до неё: уведомление
+ * может прийти дважды, но не теряется.
+ * <p>
+ * У каждого подписчика своя очередь и виртуальный поток: медленный потребитель не задерживает остальных,
+ * а при переполнении очереди соединение закрывается, и клиент дочитывает пропущенное после переподключения.
+ */
+@Slf4j
+@Component
+public class UserChangeStream {
+    private static final int REPLAY_PAGE_SIZE = 500;
+    private static final Set<String> STREAMED_TYPES = Set.of(UserEventType.USER_REGISTERED.eventName(),
+            UserEventType.USER_PROFILE_UPDATED.eventName(), UserEventType.USER_ERASED.eventName());
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxTail tail;
+    private final Duration timeout;
+    private final Duration heartbeat;
+    private final int queueCapacity;
+    private final Set<Subscriber> subscribers = new CopyOnWriteArraySet<>();
+
+    public UserChangeStream(OutboxEventRepository outboxEventRepository,
+                            @Value("${user-changes.timeout:30m}") Duration timeout,
+                            @Value("${user-changes.heartbeat:15s}") Duration heartbeat,
+                            @Value("${user-changes.queue-capacity:1000}") int queueCapacity,
+                            @Value("${user-changes.gap-timeout:60s}") Duration gapTimeout,
+                            @Value("${user-changes.startup-lookback:10000}") int startupLookback) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.tail = new OutboxTail(outboxEventRepository, gapTimeout, startupLookback);
+        this.timeout = timeout;
+        this.heartbeat = heartbeat;
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * @param lastEventId курсор клиента; {@code null} — только новые события
+     */
+    public SseEmitter subscribe(Long lastEventId) {
+        return subscribe(lastEventId, new SseEmitter(timeout.toMillis()));
+    }
+
+    SseEmitter subscribe(Long lastEventId, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(emitter, lastEventId);
+        subscribers.add(subscriber);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        subscriber.thread = Thread.ofVirtual().name("user-changes-", subscribers.size()).start(subscriber);
+        return emitter;
+    }
+
+    /**
+     * Читает outbox и раздаёт новые изменения подписчикам. Идёт и без подписчиков: позиция чтения
+     * и незакрытые id должны быть известны к моменту, когда подписчик придёт.
+     */
+    @Scheduled(fixedDelayString = "${user-changes.poll-interval:250ms}")
+    public void poll() {
+        List<OutboxEvent> events;
+        try {
+            events = tail.poll();
+        } catch (RuntimeException e) {
+            log.warn("Не удалось прочитать outbox для потока изменений, повтор на следующем такте: {}", e.getMessage());
+            return;
+        }
+        long watermark = tail.watermark();
+        for (OutboxEvent event : events) {
+            if (!STREAMED_TYPES.contains(event.getEventType())) {
+                continue;
+            }
+            Change change = new Change(OutboxMessage.from(event), watermark);
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(change);
+            }
+        }
+    }
+
+    int subscriberCount() {
+        return subscribers.size();
+    }
+
+    private final class Subscriber implements Runnable {
+        private final SseEmitter emitter;
+        private final Long lastEventId;
+        private final BlockingQueue<Change> queue = new ArrayBlockingQueue<>(queueCapacity);
+        private volatile boolean closed;
+        private volatile Thread thread;
+
+        private Subscriber(SseEmitter emitter, Long lastEventId) {
+            this.emitter = emitter;
+            this.lastEventId = lastEventId;
+        }
+
+        void offer(Change change) {
+            if (!queue.offer(change)) {
+                log.warn("Подписчик потока изменений не успевает читать, соединение закрыто");
+                emitter.complete();
+                close();
+            }
+        }
+
+        void close() {
+            closed = true;
+            subscribers.remove(this);
+            Thread current = thread;
+            if (current != null && current != Thread.currentThread()) {
+                current.interrupt();
+            }
+        }
+
+        /**
+         * Подписчик уже получает новые события, пока дочитывает пропущенное: что придёт и оттуда, и оттуда,
+         * отправится дважды, но ничего не выпадет между дочитыванием и живым потоком.
+         */
+        @Override
+        public void run() {
+            try {
+                if (lastEventId != null) {
+                    replay(lastEventId);
+                }
+                while (!closed) {
+                    Change change = queue.poll(heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+                    if (change == null) {
+                        emitter.send(SseEmitter.event().comment("keep-alive"));
+                    } else {
+                        send(change.message(), change.watermark());
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Подписчик потока изменений отключился: {}", e.getMessage());
+            } finally {
+                close();
+            }
+        }
+
+        /**
+         * Граница чтения берётся один раз, до первой страницы: всё, что она покрывает, уже зафиксировано
+         * и попадёт в дочитывание. Зафиксированное позже придёт через очередь, после дочитывания.
+         */
+        private void replay(long fromId) throws IOException {
+            long watermark = tail.watermark();
+            long cursor = fromId;
+            List<OutboxEvent> page;
+            do {
+                page = outboxEventRepository.findByIdGreaterThanOrderByIdAsc(cursor, Limit.of(REPLAY_PAGE_SIZE));
+                for (OutboxEvent event : page) {
+                    if (STREAMED_TYPES.contains(event.getEventType())) {
+                        send(OutboxMessage.from(event), watermark);
+                    }
+                    cursor = event.getId();
+                }
+            } while (page.size() == REPLAY_PAGE_SIZE && !closed);
+        }
+
+        private void send(OutboxMessage message, long watermark) throws IOException {
+            emitter.send(SseEmitter.event()
+                    .id(Long.toString(resumeId(message.id(), watermark)))
+                    .name(message.eventType())
+                    .data(new UserChangeNotification(message.aggregateId(), message.aggregateVersion(), message.changedFields()),
+                            MediaType.APPLICATION_JSON));
+        }
+
+        /**
+         * Не дальше границы, известной, когда событие прочитано (всё до неё уже в очереди раньше него),
+         * и не раньше курсора, с которым подписчик пришёл: всё до него он уже получил.
+         */
+        private long resumeId(long id, long watermark) {
+            long floor = lastEventId == null ? 0 : lastEventId;
+            return watermark < 0 ? floor : Math.max(floor, Math.min(id, watermark));
+        }
+    }
+
+    /**
+     * Изменение и граница чтения outbox на момент, когда оно прочитано.
+     */
+    private record Change(OutboxMessage message, long watermark) {
+    }
+}
@@ -0,0 +1,10 @@
+package com.ecommerce.config;
+
+import com.ecommerce.resilience.CircuitBreakerProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(CircuitBreakerProperties.class)
+public class CircuitBreakerConfig {
+}
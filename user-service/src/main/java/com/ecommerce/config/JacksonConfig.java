@@ -0,0 +1,72 @@
+package com.ecommerce.config;
+
+import com.ecommerce.serialization.ResponseJsonHttpMessageConverter;
+import com.ecommerce.serialization.ResponseSerializationModule;
+import com.ecommerce.serialization.ResponseWriters;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.NativeDetector;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+@RequiredArgsConstructor
+public class JacksonConfig implements WebMvcConfigurer {
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder;
+
+    @Value("${serialization.binary-formats.enabled:false}")
+    private boolean binaryFormatsEnabled;
+
+    @Bean
+    public static Module responseSerializationModule() {
+        return new ResponseSerializationModule();
+    }
+
+    /**
+     * Blackbird заменяет рефлексивные геттеры/сеттеры остальных DTO на сгенерированные лямбды.
+     * В native image генерация классов во время работы недоступна, там остаётся рефлексия.
+     */
+    @Bean
+    public static Jackson2ObjectMapperBuilderCustomizer blackbirdCustomizer() {
+        return builder -> {
+            if (!NativeDetector.inNativeImage()) {
+                builder.postConfigurer(mapper -> mapper.registerModule(new BlackbirdModule()));
+            }
+        };
+    }
+
+    @Bean
+    public ResponseWriters responseWriters() {
+        return new ResponseWriters(objectMapper);
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(0, new ResponseJsonHttpMessageConverter(responseWriters()));
+
+        // Smile/CBOR для внутренних клиентов — только по явному Accept и если включено в настройках
+        converters.removeIf(converter -> converter instanceof MappingJackson2SmileHttpMessageConverter
+                || converter instanceof MappingJackson2CborHttpMessageConverter);
+        if (binaryFormatsEnabled) {
+            converters.add(new MappingJackson2SmileHttpMessageConverter(
+                    objectMapperBuilder.getObject().factory(new SmileFactory()).build()));
+            converters.add(new MappingJackson2CborHttpMessageConverter(
+                    objectMapperBuilder.getObject().factory(new CBORFactory()).build()));
+        }
+    }
+}
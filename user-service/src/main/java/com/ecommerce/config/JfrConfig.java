@@ -0,0 +1,10 @@
+package com.ecommerce.config;
+
+import com.ecommerce.diagnostics.JfrProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(JfrProperties.class)
+public class JfrConfig {
+}
@@ -0,0 +1,10 @@
+package com.ecommerce.config;
+
+import com.ecommerce.audit.LoginAuditProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(LoginAuditProperties.class)
+public class LoginAuditConfig {
+}
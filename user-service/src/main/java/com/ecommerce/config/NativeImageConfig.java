@@ -0,0 +1,106 @@
+package com.ecommerce.config;
+
+import com.ecommerce.changes.UserChangeNotification;
+import com.ecommerce.exception.ErrorResponse;
+import com.ecommerce.id.HibernateIdGenerator;
+import com.ecommerce.model.dto.request.UserLoginRequest;
+import com.ecommerce.model.dto.request.UserRegistrationRequest;
+import com.ecommerce.model.dto.request.UserSearchRequest;
+import com.ecommerce.model.dto.request.UserUpdateRequest;
+import com.ecommerce.model.dto.response.AuthResponse;
+import com.ecommerce.model.dto.response.UserPageResponse;
+import com.ecommerce.model.dto.response.UserResponse;
+import com.ecommerce.model.dto.response.UserSuggestionResponse;
+import com.ecommerce.model.entity.OutboxEvent;
+import com.ecommerce.model.entity.User;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import java.util.List;
+
+/**
+ * Метаданные достижимости для сборки native image (профиль {@code native}).
+ * На JVM ни на что не влияет: хинты читаются только Spring AOT при сборке.
+ */
+@Configuration(proxyBeanMethods = false)
+@ImportRuntimeHints(NativeImageConfig.UserServiceRuntimeHints.class)
+@RegisterReflectionForBinding({
+        UserRegistrationRequest.class,
+        UserLoginRequest.class,
+        UserUpdateRequest.class,
+        UserSearchRequest.class,
+        UserResponse.class,
+        UserPageResponse.class,
+        UserSuggestionResponse.class,
+        AuthResponse.class,
+        ErrorResponse.class,
+        UserChangeNotification.class
+})
+public class NativeImageConfig {
+
+    /**
+     * jjwt-api находит реализацию по имени класса ({@code Classes.newInstance}/{@code Classes.forName}),
+     * а сериализатор JSON — через {@link java.util.ServiceLoader}; статический анализ GraalVM этого не видит.
+     */
+    static final List<String> JJWT_REFLECTIVE_TYPES = List.of(
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtHeaderBuilder",
+            "io.jsonwebtoken.impl.DefaultClaimsBuilder",
+            "io.jsonwebtoken.impl.io.StandardCompressionAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardSecureDigestAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardEncryptionAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyOperations",
+            "io.jsonwebtoken.impl.security.StandardHashAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardCurves",
+            "io.jsonwebtoken.impl.security.KeysBridge",
+            "io.jsonwebtoken.impl.security.JwksBridge",
+            "io.jsonwebtoken.impl.security.DefaultDynamicJwkBuilder",
+            "io.jsonwebtoken.impl.security.DefaultJwkParserBuilder",
+            "io.jsonwebtoken.impl.security.DefaultJwkSetBuilder",
+            "io.jsonwebtoken.impl.security.DefaultJwkSetParserBuilder",
+            "io.jsonwebtoken.impl.security.DefaultKeyOperationBuilder",
+            "io.jsonwebtoken.impl.security.DefaultKeyOperationPolicyBuilder",
+            "io.jsonwebtoken.jackson.io.JacksonSerializer",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer"
+    );
+
+    static class UserServiceRuntimeHints implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            JJWT_REFLECTIVE_TYPES.forEach(type -> hints.reflection().registerType(
+                    TypeReference.of(type),
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.INVOKE_PUBLIC_METHODS,
+                    MemberCategory.DECLARED_FIELDS));
+            hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.*");
+
+            // Колбэки @PrePersist/@PreUpdate и enum роли Hibernate вызывает рефлексией
+            hints.reflection().registerType(User.class,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.INVOKE_DECLARED_METHODS,
+                    MemberCategory.DECLARED_FIELDS);
+            hints.reflection().registerType(OutboxEvent.class,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.INVOKE_DECLARED_METHODS,
+                    MemberCategory.DECLARED_FIELDS);
+            // Генератор @GeneratedId Hibernate создаёт через контейнер бинов по классу из аннотации
+            hints.reflection().registerType(HibernateIdGenerator.class,
+                    MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+            hints.reflection().registerType(User.UserRole.class,
+                    MemberCategory.INVOKE_PUBLIC_METHODS,
+                    MemberCategory.DECLARED_FIELDS);
+
+            hints.resources().registerPattern("db/changelog-master.yml");
+            hints.resources().registerPattern("db/scripts/*.sql");
+            hints.resources().registerPattern("redis/*.lua");
+        }
+    }
+}
@@ -1,9 +1,14 @@
 package com.ecommerce.config;
 
+import com.ecommerce.idempotency.IdempotencyService;
+import com.ecommerce.ratelimit.RateLimitFilter;
 import com.ecommerce.security.JwtAuthenticationFilter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
@@ -11,11 +16,14 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.util.List;
 
 @EnableWebSecurity
@@ -23,6 +31,10 @@ import java.util.List;
 @RequiredArgsConstructor
 public class SecurityConfig {
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final RateLimitFilter rateLimitFilter;
+
+    @Value("${internal.api-token:}")
+    private String internalApiToken;
 
     @Bean
     public PasswordEncoder passwordEncoder() {
@@ -35,18 +47,38 @@ public class SecurityConfig {
                 .csrf(AbstractHttpConfigurer::disable)
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(authz -> authz
-                .requestMatchers("/api/auth/**").permitAll()
+                .requestMatchers(JwtAuthenticationFilter.PUBLIC_PATH_PREFIX + "**").permitAll()
+                .requestMatchers("/api/admin/**").hasRole("ADMIN")
+                .requestMatchers("/actuator/health/**").permitAll()
+                .requestMatchers("/actuator/**").access(internalTokenAuthorization())
+                .requestMatchers(JwtAuthenticationFilter.INTERNAL_PATH_PREFIX + "**").access(internalTokenAuthorization())
                 .anyRequest().authenticated()).addFilterBefore(
-                        jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+                        jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class);
         return http.build();
     }
 
+    /**
+     * Внутренние эндпоинты вызываются сервисами, а не пользователями: доступ по общему токену
+     * в заголовке {@code X-Internal-Token}. Пустой {@code internal.api-token} закрывает их полностью.
+     */
+    private AuthorizationManager<RequestAuthorizationContext> internalTokenAuthorization() {
+        byte[] expected = internalApiToken.getBytes(StandardCharsets.UTF_8);
+        return (authentication, context) -> {
+            String token = context.getRequest().getHeader("X-Internal-Token");
+            return new AuthorizationDecision(expected.length > 0 && token != null
+                    && MessageDigest.isEqual(expected, token.getBytes(StandardCharsets.UTF_8)));
+        };
+    }
+
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
         configuration.setAllowedOriginPatterns(List.of("*"));
-        configuration.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+        configuration.setAllowedMethods(List.of("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(List.of("*"));
+        configuration.setExposedHeaders(List.of("RateLimit-Limit", "RateLimit-Remaining", "RateLimit-Reset",
+                "RateLimit-Policy", "Retry-After", IdempotencyService.REPLAYED_HEADER));
         configuration.setAllowCredentials(true);
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -0,0 +1,23 @@
+package com.ecommerce.config;
+
+import com.ecommerce.security.RedisTokenVersionBroadcaster;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+@Configuration
+@ConditionalOnProperty(name = "token-versions.broadcast", havingValue = "redis", matchIfMissing = true)
+public class TokenVersionConfig {
+
+    @Bean
+    public RedisMessageListenerContainer tokenVersionListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                       RedisTokenVersionBroadcaster broadcaster) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(broadcaster, new ChannelTopic(RedisTokenVersionBroadcaster.CHANNEL));
+        return container;
+    }
+}
@@ -0,0 +1,10 @@
+package com.ecommerce.config;
+
+import com.ecommerce.cache.UserCacheProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(UserCacheProperties.class)
+public class UserCacheConfig {
+}
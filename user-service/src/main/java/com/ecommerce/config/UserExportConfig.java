@@ -0,0 +1,10 @@
+package com.ecommerce.config;
+
+import com.ecommerce.export.UserExportProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(UserExportProperties.class)
+public class UserExportConfig {
+}
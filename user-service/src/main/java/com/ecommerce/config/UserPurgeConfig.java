@@ -0,0 +1,10 @@
+package com.ecommerce.config;
+
+import com.ecommerce.purge.UserPurgeProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(UserPurgeProperties.class)
+public class UserPurgeConfig {
+}
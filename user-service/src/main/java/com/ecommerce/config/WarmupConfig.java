@@ -0,0 +1,10 @@
+package com.ecommerce.config;
+
+import com.ecommerce.warmup.WarmupProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(WarmupProperties.class)
+public class WarmupConfig {
+}
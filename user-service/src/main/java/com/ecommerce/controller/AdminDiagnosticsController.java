@@ -0,0 +1,56 @@
+package com.ecommerce.controller;
+
+import com.ecommerce.diagnostics.JfrRecorder;
+import com.ecommerce.model.dto.response.JfrRecordingResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.time.Duration;
+
+@RestController
+@RequestMapping("/api/admin/jfr")
+@RequiredArgsConstructor
+public class AdminDiagnosticsController {
+    private final JfrRecorder jfrRecorder;
+
+    /**
+     * {@code duration} — в формате ISO-8601 ({@code PT90S}); без него — {@code jfr.default-duration}.
+     */
+    @PostMapping("/recording")
+    public ResponseEntity<JfrRecordingResponse> startRecording(@RequestParam(required = false) Duration duration)
+            throws IOException {
+        return ResponseEntity.ok(jfrRecorder.start(duration));
+    }
+
+    @GetMapping("/recording")
+    public ResponseEntity<JfrRecordingResponse> getRecording() {
+        return ResponseEntity.ok(jfrRecorder.status());
+    }
+
+    @PostMapping("/recording/stop")
+    public ResponseEntity<JfrRecordingResponse> stopRecording() {
+        return ResponseEntity.ok(jfrRecorder.stop());
+    }
+
+    /**
+     * Файл для JDK Mission Control или {@code jfr print}; идущая запись отдаётся снимком и продолжается.
+     */
+    @GetMapping("/recording/file")
+    public ResponseEntity<InputStreamResource> downloadRecording() throws IOException {
+        String fileName = jfrRecorder.status().getFileName();
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString())
+                .body(new InputStreamResource(jfrRecorder.open()));
+    }
+}
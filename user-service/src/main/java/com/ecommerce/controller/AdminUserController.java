@@ -0,0 +1,90 @@
+package com.ecommerce.controller;
+
+import com.ecommerce.export.UserExportFormat;
+import com.ecommerce.export.UserExporter;
+import com.ecommerce.model.dto.request.UserBatchUpdateRequest;
+import com.ecommerce.model.dto.request.UserSearchRequest;
+import com.ecommerce.model.dto.response.UserBatchUpdateResponse;
+import com.ecommerce.model.dto.response.UserPageResponse;
+import com.ecommerce.service.AdminUserService;
+import com.ecommerce.service.TokenRevocationService;
+import com.ecommerce.service.UserBatchUpdateService;
+import com.ecommerce.service.UserService;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/admin/users")
+@RequiredArgsConstructor
+public class AdminUserController {
+    private final AdminUserService adminUserService;
+    private final TokenRevocationService tokenRevocationService;
+    private final UserService userService;
+    private final UserBatchUpdateService userBatchUpdateService;
+    private final UserExporter userExporter;
+
+    @GetMapping
+    public ResponseEntity<UserPageResponse> searchUsers(@ModelAttribute @Valid UserSearchRequest request) {
+        return ResponseEntity.ok(adminUserService.searchUsers(request));
+    }
+
+    /**
+     * Полная выгрузка для аналитики и синхронизации CRM: {@code users-<дата>.ndjson.gz} или {@code .csv.gz}.
+     * Пишется прямо в ответ в потоке запроса — асинхронная отдача оборвалась бы по таймауту на большой таблице.
+     */
+    @GetMapping("/export")
+    public void exportUsers(@RequestParam(defaultValue = "NDJSON") UserExportFormat format,
+                            HttpServletResponse response) throws IOException {
+        userExporter.export(format, () -> {
+            response.setContentType("application/gzip");
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                    .filename("users-" + LocalDate.now() + "." + format.getExtension() + ".gz")
+                    .build().toString());
+            return response.getOutputStream();
+        });
+    }
+
+    /**
+     * Массовое изменение профилей по id — для поддержки и скриптов миграции. Ответ 200 и тогда, когда часть
+     * профилей не изменена: исход каждого — в {@code results}.
+     */
+    @PatchMapping
+    public ResponseEntity<UserBatchUpdateResponse> updateProfiles(@RequestBody @Valid UserBatchUpdateRequest request) {
+        return ResponseEntity.ok(userBatchUpdateService.updateProfiles(request.getUpdates()));
+    }
+
+    /**
+     * Принудительный выход пользователя на всех устройствах (например, при компрометации).
+     */
+    @PostMapping("/{id}/revoke-tokens")
+    public ResponseEntity<Void> revokeTokens(@PathVariable Long id) {
+        tokenRevocationService.revokeAllTokens(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Удаление аккаунта по обращению пользователя в поддержку — то же, что {@code DELETE /api/users/me}.
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteUser(@PathVariable Long id) {
+        userService.requestDeletion(id);
+        return ResponseEntity.accepted().build();
+    }
+}
@@ -1,5 +1,6 @@
 package com.ecommerce.controller;
 
+import com.ecommerce.idempotency.IdempotencyService;
 import com.ecommerce.model.dto.request.UserLoginRequest;
 import com.ecommerce.model.dto.request.UserRegistrationRequest;
 import com.ecommerce.model.dto.response.AuthResponse;
@@ -11,6 +12,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -19,10 +21,13 @@ import org.springframework.web.bind.annotation.RestController;
 @RequiredArgsConstructor
 public class AuthController {
     private final UserService userService;
+    private final IdempotencyService idempotencyService;
 
     @PostMapping("/register")
-    public ResponseEntity<UserResponse> register(@RequestBody @Valid UserRegistrationRequest request) {
-        return ResponseEntity.status(HttpStatus.CREATED).body(userService.registerUser(request));
+    public ResponseEntity<UserResponse> register(@RequestHeader(name = IdempotencyService.HEADER, required = false) String idempotencyKey,
+                                                 @RequestBody @Valid UserRegistrationRequest request) {
+        return idempotencyService.execute("register", idempotencyKey, request, HttpStatus.CREATED, UserResponse.class,
+                () -> userService.registerUser(request));
     }
 
     @PostMapping("/login")
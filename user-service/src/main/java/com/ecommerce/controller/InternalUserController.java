@@ -0,0 +1,25 @@
+package com.ecommerce.controller;
+
+import com.ecommerce.changes.UserChangeStream;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Эндпоинты для других сервисов; доступ — по {@code X-Internal-Token} (см. {@code SecurityConfig}).
+ */
+@RestController
+@RequestMapping("/internal/users")
+@RequiredArgsConstructor
+public class InternalUserController {
+    private final UserChangeStream userChangeStream;
+
+    @GetMapping(path = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter changes(@RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId) {
+        return userChangeStream.subscribe(lastEventId);
+    }
+}
@@ -0,0 +1,85 @@
+package com.ecommerce.controller;
+
+import com.ecommerce.idempotency.IdempotencyService;
+import com.ecommerce.model.dto.request.UserUpdateRequest;
+import com.ecommerce.model.dto.response.UserResponse;
+import com.ecommerce.model.dto.response.UserSuggestionResponse;
+import com.ecommerce.security.AuthenticatedUser;
+import com.ecommerce.service.TokenRevocationService;
+import com.ecommerce.service.UserService;
+import com.ecommerce.suggest.UsernameSuggestIndex;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/users")
+@RequiredArgsConstructor
+public class UserController {
+    private final UserService userService;
+    private final IdempotencyService idempotencyService;
+    private final UsernameSuggestIndex usernameSuggestIndex;
+    private final TokenRevocationService tokenRevocationService;
+
+    @GetMapping("/me")
+    public ResponseEntity<UserResponse> getProfile(Authentication authentication) {
+        return ResponseEntity.ok(userService.getUserProfile(currentUserId(authentication)));
+    }
+
+    @PutMapping("/me")
+    public ResponseEntity<UserResponse> updateProfile(Authentication authentication,
+                                                      @RequestHeader(name = IdempotencyService.HEADER, required = false) String idempotencyKey,
+                                                      @RequestBody @Valid UserUpdateRequest request) {
+        Long userId = currentUserId(authentication);
+        return idempotencyService.execute("profile:" + userId, idempotencyKey, request, HttpStatus.OK, UserResponse.class,
+                () -> userService.updateUserProfile(userId, request));
+    }
+
+    /**
+     * Выход на всех устройствах: отзывает все токены пользователя, включая текущий.
+     */
+    @PostMapping("/me/logout-all")
+    public ResponseEntity<Void> logoutAll(Authentication authentication) {
+        tokenRevocationService.revokeAllTokens(currentUserId(authentication));
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Удаление аккаунта: токены отзываются сразу, данные стираются фоновым заданием.
+     */
+    @DeleteMapping("/me")
+    public ResponseEntity<Void> deleteAccount(Authentication authentication) {
+        userService.requestDeletion(currentUserId(authentication));
+        return ResponseEntity.accepted().build();
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<List<UserSuggestionResponse>> suggest(
+            @RequestParam @NotBlank(message = "Префикс не может быть пустым")
+            @Size(max = 50, message = "Префикс не может быть длиннее 50 символов") String prefix,
+            @RequestParam(defaultValue = "10") @Min(value = 1, message = "Число подсказок не может быть меньше 1")
+            @Max(value = 50, message = "Число подсказок не может быть больше 50") int limit) {
+        return ResponseEntity.ok(usernameSuggestIndex.suggest(prefix, limit));
+    }
+
+    private Long currentUserId(Authentication authentication) {
+        return ((AuthenticatedUser) authentication.getPrincipal()).getId();
+    }
+}
@@ -0,0 +1,37 @@
+package com.ecommerce.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Обращение к кэшу в памяти узла.
+ */
+@Name("com.ecommerce.CacheLookup")
+@Label("Cache Lookup")
+@Category({"User Service", "Cache"})
+@StackTrace(false)
+public class CacheLookupEvent extends jdk.jfr.Event {
+
+    @Label("Cache")
+    public String cache;
+
+    @Label("Hit")
+    public boolean hit;
+
+    public static CacheLookupEvent start() {
+        CacheLookupEvent event = new CacheLookupEvent();
+        event.begin();
+        return event;
+    }
+
+    public void finish(String cache, boolean hit) {
+        end();
+        if (shouldCommit()) {
+            this.cache = cache;
+            this.hit = hit;
+            commit();
+        }
+    }
+}
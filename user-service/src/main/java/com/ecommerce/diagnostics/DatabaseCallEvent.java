@@ -0,0 +1,38 @@
+package com.ecommerce.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Запрос к базе через автомат защиты, включая ожидание соединения пула.
+ * SQL-текст не пишется: операция — короткое имя вызова.
+ */
+@Name("com.ecommerce.DatabaseCall")
+@Label("Database Call")
+@Category({"User Service", "Database"})
+@StackTrace(false)
+public class DatabaseCallEvent extends jdk.jfr.Event {
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Failed")
+    public boolean failed;
+
+    public static DatabaseCallEvent start() {
+        DatabaseCallEvent event = new DatabaseCallEvent();
+        event.begin();
+        return event;
+    }
+
+    public void finish(String operation, boolean failed) {
+        end();
+        if (shouldCommit()) {
+            this.operation = operation;
+            this.failed = failed;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.ecommerce.diagnostics;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Запись JFR по запросу администратора ({@code jfr.*}).
+ *
+ * @param settings        встроенный набор настроек JDK: {@code default} (около 1% накладных расходов)
+ *                        или {@code profile} (с профилированием аллокаций и блокировок, около 2%)
+ * @param defaultDuration длительность, если она не передана в запросе
+ * @param maxDuration     верхняя граница длительности: забытая запись остановится сама
+ * @param maxSize         верхняя граница файла; старые данные вытесняются, запись продолжается
+ * @param directory       куда пишутся записи; по умолчанию — подкаталог {@code java.io.tmpdir}
+ */
+@ConfigurationProperties("jfr")
+public record JfrProperties(
+        @DefaultValue("profile") String settings,
+        @DefaultValue("2m") Duration defaultDuration,
+        @DefaultValue("10m") Duration maxDuration,
+        @DefaultValue("100MB") DataSize maxSize,
+        Path directory) {
+
+    public JfrProperties {
+        if (directory == null) {
+            directory = Path.of(System.getProperty("java.io.tmpdir"), "user-service-jfr");
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.ecommerce.diagnostics;
+
+import com.ecommerce.exception.custom_exceptions.RecordingStateException;
+import com.ecommerce.model.dto.response.JfrRecordingResponse;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Запись JFR по запросу: одна на узел, ограниченная по времени и размеру.
+ * <p>
+ * События сервиса ({@link #EVENTS}) вкомпилированы навсегда. Пока записи нет, {@code begin()}, {@code end()} и
+ * {@code shouldCommit()} — пустые встроенные методы, объект события не покидает метод и убирается JIT
+ * (escape analysis), поэтому поля событий заполняются только после {@code shouldCommit()}.
+ * Цена выключенного события — в {@code JfrEventBenchmark}.
+ * <p>
+ * Законченная запись лежит в {@code directory} до начала следующей; идущую можно скачать снимком,
+ * не останавливая её.
+ */
+@Slf4j
+@Component
+public class JfrRecorder {
+    static final List<Class<? extends Event>> EVENTS = List.of(LoginEvent.class, LoginPhaseEvent.class,
+            TokenVerificationEvent.class, CacheLookupEvent.class, DatabaseCallEvent.class);
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final JfrProperties properties;
+    private Recording recording;
+    private Path file;
+
+    public JfrRecorder(JfrProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * @param duration длительность; {@code null} или не больше нуля — {@code default-duration},
+     *                 больше {@code max-duration} — урезается до неё
+     * @throws RecordingStateException если запись уже идёт
+     */
+    public synchronized JfrRecordingResponse start(Duration duration) throws IOException {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            throw new RecordingStateException("Запись JFR уже идёт (id " + recording.getId() + ")");
+        }
+        discard();
+
+        Duration effective = duration == null || duration.isNegative() || duration.isZero()
+                ? properties.defaultDuration()
+                : duration;
+        if (effective.compareTo(properties.maxDuration()) > 0) {
+            effective = properties.maxDuration();
+        }
+        Files.createDirectories(properties.directory());
+
+        Recording started = new Recording(configuration());
+        Path destination = properties.directory().resolve(
+                "user-service-" + LocalDateTime.now().format(FILE_TIMESTAMP) + "-" + started.getId() + ".jfr");
+        started.setName("user-service");
+        EVENTS.forEach(started::enable);
+        started.setToDisk(true);
+        started.setMaxSize(properties.maxSize().toBytes());
+        started.setDuration(effective);
+        started.setDestination(destination);
+        started.start();
+
+        recording = started;
+        file = destination;
+        log.info("Запись JFR {} начата: {} с, настройки '{}', файл {}", started.getId(), effective.toSeconds(),
+                properties.settings(), destination);
+        return describe();
+    }
+
+    /**
+     * Останавливает запись досрочно. Как и по истечении срока, JFR сбрасывает данные в файл и закрывает запись
+     * (состояние {@code CLOSED}); файл затем отдаёт {@link #open()}.
+     */
+    public synchronized JfrRecordingResponse stop() {
+        Recording current = current();
+        if (current.getState() == RecordingState.RUNNING) {
+            current.stop();
+            log.info("Запись JFR {} остановлена, {} байт", current.getId(), current.getSize());
+        }
+        return describe();
+    }
+
+    public synchronized JfrRecordingResponse status() {
+        current();
+        return describe();
+    }
+
+    /**
+     * Идущая запись сбрасывается во временный снимок, который удаляется при закрытии потока;
+     * законченная отдаётся из её файла.
+     */
+    public synchronized InputStream open() throws IOException {
+        Recording current = current();
+        if (current.getState() == RecordingState.RUNNING) {
+            Path snapshot = Files.createTempFile(properties.directory(), "snapshot-", ".jfr");
+            current.dump(snapshot);
+            return Files.newInputStream(snapshot, StandardOpenOption.DELETE_ON_CLOSE);
+        }
+        if (!Files.exists(file)) {
+            throw new RecordingStateException("Файл записи JFR " + current.getId() + " не найден");
+        }
+        return Files.newInputStream(file);
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    private Recording current() {
+        if (recording == null) {
+            throw new RecordingStateException("Запись JFR не начиналась");
+        }
+        return recording;
+    }
+
+    private Configuration configuration() throws IOException {
+        try {
+            return Configuration.getConfiguration(properties.settings());
+        } catch (ParseException e) {
+            throw new IllegalStateException("Некорректные настройки JFR '" + properties.settings() + "'", e);
+        }
+    }
+
+    /**
+     * Предыдущая запись и её файл освобождаются перед новой: на диске живёт не больше одной записи.
+     */
+    private void discard() throws IOException {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private JfrRecordingResponse describe() {
+        return JfrRecordingResponse.builder()
+                .id(recording.getId())
+                .state(recording.getState().name())
+                .settings(properties.settings())
+                .startedAt(recording.getStartTime() == null ? null
+                        : LocalDateTime.ofInstant(recording.getStartTime(), ZoneId.systemDefault()))
+                .durationSeconds(recording.getDuration() == null ? 0 : recording.getDuration().toSeconds())
+                .sizeBytes(recording.getState() == RecordingState.CLOSED ? file.toFile().length() : recording.getSize())
+                .fileName(file.getFileName().toString())
+                .build();
+    }
+}
@@ -0,0 +1,44 @@
+package com.ecommerce.diagnostics;
+
+import com.ecommerce.audit.LoginOutcome;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Вход целиком, от поиска аккаунта до выдачи токена; фазы внутри — {@link LoginPhaseEvent}.
+ * Логин не пишется: записи JFR уходят из сервиса, а логин — персональные данные.
+ */
+@Name("com.ecommerce.Login")
+@Label("Login")
+@Category({"User Service", "Auth"})
+@StackTrace(false)
+public class LoginEvent extends jdk.jfr.Event {
+
+    @Label("Outcome")
+    public String outcome;
+
+    @Label("User Id")
+    @Description("0, если аккаунт с таким логином не найден")
+    public long userId;
+
+    public static LoginEvent start() {
+        LoginEvent event = new LoginEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Поля заполняются, только если событие действительно попадёт в запись.
+     */
+    public void finish(LoginOutcome outcome, long userId) {
+        end();
+        if (shouldCommit()) {
+            this.outcome = outcome.name();
+            this.userId = userId;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.ecommerce.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Фаза входа: поиск аккаунта ({@value #LOOKUP}), проверка BCrypt ({@value #PASSWORD}) или подпись JWT ({@value #TOKEN}).
+ */
+@Name("com.ecommerce.LoginPhase")
+@Label("Login Phase")
+@Category({"User Service", "Auth"})
+@StackTrace(false)
+public class LoginPhaseEvent extends jdk.jfr.Event {
+    public static final String LOOKUP = "lookup";
+    public static final String PASSWORD = "password";
+    public static final String TOKEN = "token";
+
+    @Label("Phase")
+    public String phase;
+
+    public static LoginPhaseEvent start() {
+        LoginPhaseEvent event = new LoginPhaseEvent();
+        event.begin();
+        return event;
+    }
+
+    public void finish(String phase) {
+        end();
+        if (shouldCommit()) {
+            this.phase = phase;
+            commit();
+        }
+    }
+}
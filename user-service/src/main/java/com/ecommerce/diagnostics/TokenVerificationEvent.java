@@ -0,0 +1,42 @@
+package com.ecommerce.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Проверка access-токена в фильтре: подпись, срок и версия токена.
+ */
+@Name("com.ecommerce.TokenVerification")
+@Label("Token Verification")
+@Category({"User Service", "Auth"})
+@StackTrace(false)
+public class TokenVerificationEvent extends jdk.jfr.Event {
+    public static final String VALID = "valid";
+    public static final String INVALID = "invalid";
+    public static final String REVOKED = "revoked";
+
+    @Label("Outcome")
+    @Description("valid, invalid — подпись или срок не прошли, revoked — версия токена устарела")
+    public String outcome;
+
+    @Label("User Id")
+    public long userId;
+
+    public static TokenVerificationEvent start() {
+        TokenVerificationEvent event = new TokenVerificationEvent();
+        event.begin();
+        return event;
+    }
+
+    public void finish(String outcome, long userId) {
+        end();
+        if (shouldCommit()) {
+            this.outcome = outcome;
+            this.userId = userId;
+            commit();
+        }
+    }
+}
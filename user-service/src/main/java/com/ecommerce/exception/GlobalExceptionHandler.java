@@ -1,36 +1,88 @@
 package com.ecommerce.exception;
 
+import com.ecommerce.exception.custom_exceptions.ExportLimitExceededException;
+import com.ecommerce.exception.custom_exceptions.IdempotencyKeyMismatchException;
+import com.ecommerce.exception.custom_exceptions.IdempotentRequestInProgressException;
 import com.ecommerce.exception.custom_exceptions.InvalidCredentialsException;
+import com.ecommerce.exception.custom_exceptions.InvalidIdempotencyKeyException;
+import com.ecommerce.exception.custom_exceptions.InvalidSearchCursorException;
+import com.ecommerce.exception.custom_exceptions.RecordingStateException;
 import com.ecommerce.exception.custom_exceptions.UserAlreadyExistsException;
 import com.ecommerce.exception.custom_exceptions.UserNotFoundException;
+import com.ecommerce.resilience.CallNotPermittedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.MessageSourceResolvable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.AsyncRequestNotUsableException;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 @Slf4j
 @RestControllerAdvice
+@RequiredArgsConstructor
 public class GlobalExceptionHandler {
+    private final MeterRegistry meterRegistry;
+    private final Map<Class<?>, Counter> counters = new ConcurrentHashMap<>();
 
     @ExceptionHandler(UserAlreadyExistsException.class)
     public ResponseEntity<ErrorResponse> handleUserAlreadyExistsException(UserAlreadyExistsException ex, WebRequest request) {
-        return buildErrorResponse(ex, request, HttpStatus.CONFLICT);
+        return clientError(ex, request, HttpStatus.CONFLICT);
     }
 
     @ExceptionHandler(UserNotFoundException.class)
     public ResponseEntity<ErrorResponse> handleUserNotFoundException(UserNotFoundException ex, WebRequest request) {
-        return buildErrorResponse(ex, request, HttpStatus.NOT_FOUND);
+        return clientError(ex, request, HttpStatus.NOT_FOUND);
     }
 
     @ExceptionHandler(InvalidCredentialsException.class)
     public ResponseEntity<ErrorResponse> handleInvalidCredentialsException(InvalidCredentialsException ex, WebRequest request) {
-        return buildErrorResponse(ex, request, HttpStatus.UNAUTHORIZED);
+        return clientError(ex, request, HttpStatus.UNAUTHORIZED);
+    }
+
+    @ExceptionHandler(InvalidIdempotencyKeyException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidIdempotencyKeyException(InvalidIdempotencyKeyException ex, WebRequest request) {
+        return clientError(ex, request, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(InvalidSearchCursorException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidSearchCursorException(InvalidSearchCursorException ex, WebRequest request) {
+        return clientError(ex, request, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(IdempotencyKeyMismatchException.class)
+    public ResponseEntity<ErrorResponse> handleIdempotencyKeyMismatchException(IdempotencyKeyMismatchException ex, WebRequest request) {
+        return clientError(ex, request, HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    @ExceptionHandler(IdempotentRequestInProgressException.class)
+    public ResponseEntity<ErrorResponse> handleIdempotentRequestInProgressException(IdempotentRequestInProgressException ex, WebRequest request) {
+        return clientError(ex, request, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(ExportLimitExceededException.class)
+    public ResponseEntity<ErrorResponse> handleExportLimitExceededException(ExportLimitExceededException ex, WebRequest request) {
+        return clientError(ex, request, HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    @ExceptionHandler(RecordingStateException.class)
+    public ResponseEntity<ErrorResponse> handleRecordingStateException(RecordingStateException ex, WebRequest request) {
+        return clientError(ex, request, HttpStatus.CONFLICT);
     }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
@@ -38,18 +90,54 @@ public class GlobalExceptionHandler {
         String errorMessage = ex.getBindingResult().getFieldErrors().stream()
                 .map(error -> error.getField() + ": " + error.getDefaultMessage())
                 .collect(Collectors.joining("; "));
+        return clientError(ex, errorMessage, request, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(HandlerMethodValidationException.class)
+    public ResponseEntity<ErrorResponse> handleHandlerMethodValidationException(HandlerMethodValidationException ex, WebRequest request) {
+        String errorMessage = ex.getAllErrors().stream()
+                .map(MessageSourceResolvable::getDefaultMessage)
+                .collect(Collectors.joining("; "));
+        return clientError(ex, errorMessage, request, HttpStatus.BAD_REQUEST);
+    }
 
-        log.error("Validation failed: {}", errorMessage, ex);
+    /**
+     * Параметр или заголовок не приводится к типу аргумента: {@code ?format=xml}, нечисловой {@code Last-Event-ID},
+     * неразборчивый {@code duration}. Ошибка клиента, а не 500.
+     */
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<ErrorResponse> handleMethodArgumentTypeMismatchException(MethodArgumentTypeMismatchException ex, WebRequest request) {
+        return clientError(ex, "Некорректное значение " + ex.getName() + ": " + ex.getValue(), request, HttpStatus.BAD_REQUEST);
+    }
 
-        ErrorResponse errorResponse = ErrorResponse.builder()
-                .timestamp(LocalDateTime.now())
-                .status(HttpStatus.BAD_REQUEST.value())
-                .error("Bad Request")
-                .message(errorMessage)
-                .path(request.getDescription(false).replace("uri=", ""))
-                .build();
+    @ExceptionHandler(MissingServletRequestParameterException.class)
+    public ResponseEntity<ErrorResponse> handleMissingServletRequestParameterException(MissingServletRequestParameterException ex, WebRequest request) {
+        return clientError(ex, "Не указан параметр " + ex.getParameterName(), request, HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Автомат зависимости разомкнут: отвечаем сразу, без стека в логе — за время сбоя таких ответов много.
+     */
+    @ExceptionHandler(CallNotPermittedException.class)
+    public ResponseEntity<ErrorResponse> handleCallNotPermittedException(CallNotPermittedException ex, WebRequest request) {
+        log.warn(ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, ex.getRetryAfter().toSeconds())))
+                .body(ErrorResponse.builder()
+                        .timestamp(LocalDateTime.now())
+                        .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                        .error(HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase())
+                        .message("Сервис временно недоступен, повторите запрос позже")
+                        .path(path(request))
+                        .build());
+    }
 
-        return ResponseEntity.badRequest().body(errorResponse);
+    /**
+     * Клиент отключился (обычное дело для SSE-подписчиков) — отвечать некому.
+     */
+    @ExceptionHandler(AsyncRequestNotUsableException.class)
+    public void handleAsyncRequestNotUsableException(AsyncRequestNotUsableException ex) {
+        log.debug("Клиент отключился: {}", ex.getMessage());
     }
 
     @ExceptionHandler(Exception.class)
@@ -58,15 +146,43 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(ex, request, HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
+    /**
+     * Ожидаемый исход 4xx: вместо строки со стеком в логе — счётчик {@code app.errors} по типу исключения.
+     * Текст ошибки виден на уровне DEBUG.
+     */
+    private ResponseEntity<ErrorResponse> clientError(Exception ex, WebRequest request, HttpStatus status) {
+        return clientError(ex, ex.getMessage(), request, status);
+    }
+
+    private ResponseEntity<ErrorResponse> clientError(Exception ex, String message, WebRequest request, HttpStatus status) {
+        counters.computeIfAbsent(ex.getClass(), type -> meterRegistry.counter("app.errors",
+                "type", type.getSimpleName(), "status", Integer.toString(status.value()))).increment();
+        log.debug("{} {}: {}", status.value(), ex.getClass().getSimpleName(), message);
+        return ResponseEntity.status(status).body(errorResponse(status, message, request));
+    }
+
     private ResponseEntity<ErrorResponse> buildErrorResponse(Exception ex, WebRequest request, HttpStatus status) {
         log.error(ex.getMessage(), ex);
-        ErrorResponse errorResponse = ErrorResponse.builder()
+        return ResponseEntity.status(status).body(errorResponse(status, ex.getMessage(), request));
+    }
+
+    private static ErrorResponse errorResponse(HttpStatus status, String message, WebRequest request) {
+        return ErrorResponse.builder()
                 .timestamp(LocalDateTime.now())
                 .status(status.value())
                 .error(status.getReasonPhrase())
-                .message(ex.getMessage())
-                .path(request.getDescription(false).replace("uri=", ""))
+                .message(message)
+                .path(path(request))
                 .build();
-        return ResponseEntity.status(status).body(errorResponse);
+    }
+
+    /**
+     * URI запроса без промежуточной строки {@code "uri=..."} из {@link WebRequest#getDescription}.
+     */
+    private static String path(WebRequest request) {
+        if (request instanceof ServletWebRequest servletRequest) {
+            return servletRequest.getRequest().getRequestURI();
+        }
+        return request.getDescription(false).replace("uri=", "");
     }
 }
@@ -0,0 +1,7 @@
+package com.ecommerce.exception.custom_exceptions;
+
+public class ExportLimitExceededException extends StacklessException {
+    public ExportLimitExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.ecommerce.exception.custom_exceptions;
+
+public class IdempotencyKeyMismatchException extends StacklessException {
+    public IdempotencyKeyMismatchException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.ecommerce.exception.custom_exceptions;
+
+public class IdempotentRequestInProgressException extends StacklessException {
+    public IdempotentRequestInProgressException(String message) {
+        super(message);
+    }
+}
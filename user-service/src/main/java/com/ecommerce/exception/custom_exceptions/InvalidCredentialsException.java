@@ -1,6 +1,11 @@
 package com.ecommerce.exception.custom_exceptions;
 
-public class InvalidCredentialsException extends RuntimeException{
+public class InvalidCredentialsException extends StacklessException {
+    /**
+     * Ответ одинаков для неизвестного логина, неверного пароля и закрытого аккаунта — неудачный вход не создаёт объектов.
+     */
+    public static final InvalidCredentialsException INSTANCE = new InvalidCredentialsException("Неверные учетные данные");
+
     public InvalidCredentialsException(String message) {
         super(message);
     }
@@ -0,0 +1,7 @@
+package com.ecommerce.exception.custom_exceptions;
+
+public class InvalidIdempotencyKeyException extends StacklessException {
+    public InvalidIdempotencyKeyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.ecommerce.exception.custom_exceptions;
+
+public class InvalidSearchCursorException extends StacklessException {
+    public InvalidSearchCursorException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.ecommerce.exception.custom_exceptions;
+
+public class RecordingStateException extends StacklessException {
+    public RecordingStateException(String message) {
+        super(message);
+    }
+}
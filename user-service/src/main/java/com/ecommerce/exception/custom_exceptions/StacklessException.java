@@ -0,0 +1,12 @@
+package com.ecommerce.exception.custom_exceptions;
+
+/**
+ * Ожидаемый исход запроса, который заканчивается ответом 4xx: неверный пароль, занятый ник, нет пользователя.
+ * Стек не заполняется — место броска известно по типу, а обход стека был заметной частью цены неудачного входа.
+ * Подавленные исключения тоже отключены: без изменяемого состояния экземпляр можно бросать повторно.
+ */
+public abstract class StacklessException extends RuntimeException {
+    protected StacklessException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -0,0 +1,22 @@
+package com.ecommerce.export;
+
+public enum UserExportFormat {
+    /**
+     * Один JSON-объект на строку.
+     */
+    NDJSON("ndjson"),
+    /**
+     * RFC 4180, первая строка — заголовок.
+     */
+    CSV("csv");
+
+    private final String extension;
+
+    UserExportFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
@@ -0,0 +1,16 @@
+package com.ecommerce.export;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Потоковая выгрузка пользователей ({@code user-export.*}).
+ *
+ * @param fetchSize     строк, которые драйвер получает от курсора за один сетевой обмен
+ * @param maxConcurrent сколько выгрузок идёт одновременно: каждая держит соединение пула до конца
+ */
+@ConfigurationProperties("user-export")
+public record UserExportProperties(
+        @DefaultValue("1000") int fetchSize,
+        @DefaultValue("2") int maxConcurrent) {
+}
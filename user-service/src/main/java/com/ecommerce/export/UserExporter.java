@@ -0,0 +1,236 @@
+package com.ecommerce.export;
+
+import com.ecommerce.exception.custom_exceptions.ExportLimitExceededException;
+import com.ecommerce.validation.UserRequestConstraints;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.Semaphore;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Выгрузка всех живых аккаунтов в gzip-поток; аккаунты, ждущие удаления, в неё не попадают.
+ * Память не зависит от размера таблицы:
+ * <ul>
+ *     <li>строки читаются серверным курсором — драйвер PostgreSQL держит в памяти только {@code fetchSize} строк,
+ *     для этого запрос идёт внутри транзакции (без autocommit);</li>
+ *     <li>строка результата сразу пишется в поток, без сущностей и контекста персистентности;</li>
+ *     <li>gzip и генератор JSON работают с буферами фиксированного размера.</li>
+ * </ul>
+ * Один запрос в транзакции REPEATABLE READ видит один снимок: изменения, пришедшие во время выгрузки,
+ * в неё не попадают, и каждый пользователь выгружается ровно один раз.
+ * <p>
+ * При сбое посреди выгрузки gzip не завершается: у файла нет концевика, и клиент видит ошибку распаковки,
+ * а не молча обрезанный список.
+ */
+@Slf4j
+@Component
+public class UserExporter {
+    private static final String SELECT = "SELECT id, username, email, first_name, last_name, phone_number, role, "
+            + "created_at, updated_at, last_login_at FROM users WHERE anonymized_at IS NULL AND deletion_requested_at IS NULL "
+            + "ORDER BY id";
+    private static final String[] COLUMNS = {"id", "username", "email", "firstName", "lastName", "phoneNumber",
+            "role", "createdAt", "updatedAt", "lastLoginAt"};
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String FORMULA_PREFIXES = "=+-@\t\r";
+    private static final Pattern PHONE = Pattern.compile(UserRequestConstraints.PHONE_REGEX);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final JsonFactory jsonFactory;
+    private final Semaphore permits;
+    private final MeterRegistry meterRegistry;
+
+    public UserExporter(DataSource dataSource,
+                        PlatformTransactionManager transactionManager,
+                        ObjectMapper objectMapper,
+                        UserExportProperties properties,
+                        MeterRegistry meterRegistry) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(properties.fetchSize());
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.jsonFactory = objectMapper.getFactory();
+        this.permits = new Semaphore(properties.maxConcurrent());
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Поток ответа открывается, только когда выгрузка разрешена: при превышении лимита заголовки ответа
+     * ещё не выставлены и клиент получает обычную ошибку.
+     *
+     * @return сколько пользователей выгружено
+     * @throws ExportLimitExceededException если уже идёт {@code maxConcurrent} выгрузок
+     */
+    public long export(UserExportFormat format, ExportTarget target) throws IOException {
+        if (!permits.tryAcquire()) {
+            throw new ExportLimitExceededException("Выгрузка уже выполняется, повторите запрос позже");
+        }
+        long started = System.nanoTime();
+        try {
+            GZIPOutputStream gzip = new GZIPOutputStream(target.open(), BUFFER_SIZE);
+            RowWriter writer = format == UserExportFormat.NDJSON ? new NdjsonWriter(gzip) : new CsvWriter(gzip);
+            long rows = transactionTemplate.execute(status -> jdbcTemplate.query(SELECT, rs -> {
+                long count = 0;
+                try {
+                    while (rs.next()) {
+                        writer.write(rs);
+                        count++;
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return count;
+            }));
+            writer.flush();
+            gzip.finish();
+            gzip.flush();
+            meterRegistry.counter("user.export.rows", "format", format.getExtension()).increment(rows);
+            log.info("Выгрузка пользователей ({}) завершена: {} строк за {} мс", format, rows,
+                    (System.nanoTime() - started) / 1_000_000);
+            return rows;
+        } catch (UncheckedIOException e) {
+            log.warn("Выгрузка пользователей ({}) прервана: {}", format, e.getCause().getMessage());
+            throw e.getCause();
+        } finally {
+            permits.release();
+        }
+    }
+
+    private static String timestamp(ResultSet rs, String column) throws SQLException {
+        LocalDateTime value = rs.getObject(column, LocalDateTime.class);
+        return value == null ? null : DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value);
+    }
+
+    /**
+     * Куда писать выгрузку; открывается один раз, после проверки лимита.
+     */
+    @FunctionalInterface
+    public interface ExportTarget {
+        OutputStream open() throws IOException;
+    }
+
+    private interface RowWriter {
+        void write(ResultSet rs) throws SQLException, IOException;
+
+        void flush() throws IOException;
+    }
+
+    private final class NdjsonWriter implements RowWriter {
+        private final JsonGenerator generator;
+
+        private NdjsonWriter(OutputStream out) throws IOException {
+            generator = jsonFactory.createGenerator(out, JsonEncoding.UTF8)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            generator.writeStartObject();
+            generator.writeNumberField("id", rs.getLong("id"));
+            generator.writeStringField("username", rs.getString("username"));
+            generator.writeStringField("email", rs.getString("email"));
+            generator.writeStringField("firstName", rs.getString("first_name"));
+            generator.writeStringField("lastName", rs.getString("last_name"));
+            generator.writeStringField("phoneNumber", rs.getString("phone_number"));
+            generator.writeStringField("role", rs.getString("role"));
+            generator.writeStringField("createdAt", timestamp(rs, "created_at"));
+            generator.writeStringField("updatedAt", timestamp(rs, "updated_at"));
+            generator.writeStringField("lastLoginAt", timestamp(rs, "last_login_at"));
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+        }
+    }
+
+    private static final class CsvWriter implements RowWriter {
+        private final Writer writer;
+
+        private CsvWriter(OutputStream out) throws IOException {
+            writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+            writer.write(String.join(",", COLUMNS));
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            writer.write(Long.toString(rs.getLong("id")));
+            field(rs.getString("username"));
+            field(rs.getString("email"));
+            field(rs.getString("first_name"));
+            field(rs.getString("last_name"));
+            phone(rs.getString("phone_number"));
+            field(rs.getString("role"));
+            field(timestamp(rs, "created_at"));
+            field(timestamp(rs, "updated_at"));
+            field(timestamp(rs, "last_login_at"));
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+
+        /**
+         * Телефон в формате {@code +7…} прошёл валидацию и формулой быть не может: выгружается как есть.
+         */
+        private void phone(String value) throws IOException {
+            if (value != null && PHONE.matcher(value).matches()) {
+                writer.write(',');
+                writer.write(value);
+                return;
+            }
+            field(value);
+        }
+
+        /**
+         * NULL — пустое поле; кавычки только там, где без них строка разобьётся. Значение, которое
+         * табличный редактор принял бы за формулу, начинается с апострофа: имя и телефон задаёт пользователь.
+         */
+        private void field(String value) throws IOException {
+            writer.write(',');
+            if (value == null) {
+                return;
+            }
+            if (!value.isEmpty() && FORMULA_PREFIXES.indexOf(value.charAt(0)) >= 0) {
+                value = "'" + value;
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.ecommerce.id;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Первичный ключ из бина {@link IdGenerator}. В отличие от IDENTITY, id присваивается при {@code persist},
+ * а вставки откладываются до flush и уходят пакетами JDBC.
+ */
+@IdGeneratorType(HibernateIdGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface GeneratedId {
+}
@@ -0,0 +1,31 @@
+package com.ecommerce.id;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.util.EnumSet;
+
+/**
+ * Адаптер {@link GeneratedId} к Hibernate. Генераторы Hibernate создаёт через контейнер бинов Spring,
+ * поэтому {@link IdGenerator} внедряется конструктором — это тот же синглтон, что у остальных компонентов,
+ * и id одного узла не повторяются.
+ */
+public class HibernateIdGenerator implements BeforeExecutionGenerator {
+    private final IdGenerator idGenerator;
+
+    public HibernateIdGenerator(IdGenerator idGenerator) {
+        this.idGenerator = idGenerator;
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue, EventType eventType) {
+        return idGenerator.nextId();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
@@ -0,0 +1,17 @@
+package com.ecommerce.id;
+
+import java.time.Instant;
+
+/**
+ * Источник первичных ключей, известных до вставки строки. Реализации обязаны выдавать id,
+ * растущие со временем: новые записи ложатся в правый край индекса, а диапазон id покрывает интервал времени.
+ */
+public interface IdGenerator {
+
+    long nextId();
+
+    /**
+     * Наименьший id, который мог быть выдан в момент {@code time} или позже.
+     */
+    long lowestIdSince(Instant time);
+}
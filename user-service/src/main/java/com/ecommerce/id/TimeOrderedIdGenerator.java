@@ -0,0 +1,83 @@
+package com.ecommerce.id;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * 53-битные id в духе Snowflake: 41 бит — миллисекунды от {@link #EPOCH} (хватит до 2094 года), 5 бит — номер узла,
+ * 7 бит — счётчик внутри миллисекунды. 53 бита — предел точных целых в JavaScript, поэтому id остаётся числом
+ * в JSON ({@code AuthResponse.userId}) и {@code BIGINT} в БД; выданные раньше IDENTITY-значения много меньше новых.
+ * <p>
+ * Всё состояние — одно {@link AtomicLong} «миллисекунда и счётчик»: выдача — CAS без блокировок и аллокаций.
+ * Исчерпав 128 id за миллисекунду, генератор занимает следующую, не дожидаясь часов; при переводе часов назад
+ * продолжает с достигнутого значения, так что id узла строго растут. Номер узла {@code id-generator.node-id}
+ * обязан быть уникальным среди одновременно работающих экземпляров, поэтому значения по умолчанию у него нет:
+ * без явного номера (кроме профиля {@code h2}) приложение не стартует — иначе все реплики получили бы узел 0
+ * и выдавали бы одинаковые id.
+ */
+@Slf4j
+@Component
+public class TimeOrderedIdGenerator implements IdGenerator {
+    public static final Instant EPOCH = Instant.parse("2025-01-01T00:00:00Z");
+    public static final int MAX_NODE_ID = 31;
+
+    static final int NODE_BITS = 5;
+    static final int SEQUENCE_BITS = 7;
+    static final long MAX_TIMESTAMP = (1L << 41) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private final long epochMillis = EPOCH.toEpochMilli();
+    private final long nodeBits;
+    private final LongSupplier clock;
+    private final AtomicLong state = new AtomicLong();
+
+    @Autowired
+    public TimeOrderedIdGenerator(@Value("${id-generator.node-id:#{null}}") Integer nodeId) {
+        this(requireNodeId(nodeId), System::currentTimeMillis);
+        log.info("Генератор id: узел {}", nodeId);
+    }
+
+    TimeOrderedIdGenerator(int nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("id-generator.node-id должен быть от 0 до " + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.nodeBits = (long) nodeId << SEQUENCE_BITS;
+        this.clock = clock;
+    }
+
+    private static int requireNodeId(Integer nodeId) {
+        if (nodeId == null) {
+            throw new IllegalStateException("id-generator.node-id не задан: укажите уникальный номер узла 0–"
+                    + MAX_NODE_ID + " в ID_GENERATOR_NODE_ID");
+        }
+        return nodeId;
+    }
+
+    @Override
+    public long nextId() {
+        long now = (clock.getAsLong() - epochMillis) << SEQUENCE_BITS;
+        long current;
+        long next;
+        do {
+            current = state.get();
+            next = Math.max(current + 1, now);
+        } while (!state.compareAndSet(current, next));
+
+        long timestamp = next >>> SEQUENCE_BITS;
+        if (timestamp > MAX_TIMESTAMP) {
+            throw new IllegalStateException("Время генератора id вышло за 41 бит: нужна новая эпоха");
+        }
+        return timestamp << (NODE_BITS + SEQUENCE_BITS) | nodeBits | (next & SEQUENCE_MASK);
+    }
+
+    @Override
+    public long lowestIdSince(Instant time) {
+        return Math.max(0, time.toEpochMilli() - epochMillis) << (NODE_BITS + SEQUENCE_BITS);
+    }
+}
@@ -0,0 +1,205 @@
+package com.ecommerce.idempotency;
+
+import com.ecommerce.exception.custom_exceptions.IdempotencyKeyMismatchException;
+import com.ecommerce.exception.custom_exceptions.IdempotentRequestInProgressException;
+import com.ecommerce.exception.custom_exceptions.InvalidIdempotencyKeyException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Выполнение запросов с заголовком {@code Idempotency-Key}.
+ * <p>
+ * Первый успешный ответ сохраняется в Redis на {@code idempotency.ttl}; повтор с тем же ключом
+ * и телом получает его без повторной работы, с другим телом — 422. Дубликаты, пришедшие на этот же узел
+ * во время выполнения, ждут его результата; пришедшие на другой узел получают 409.
+ * Ошибки не сохраняются — клиент может исправить запрос и повторить его с тем же ключом.
+ * Если Redis недоступен, запрос выполняется без защиты от повторов.
+ */
+@Slf4j
+@Component
+public class IdempotencyService {
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final IdempotencyStore store;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Duration inFlightTimeout;
+    private final SecretKeySpec fingerprintKey;
+    private final ConcurrentHashMap<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyService(IdempotencyStore store,
+                              ObjectMapper objectMapper,
+                              @Value("${idempotency.ttl:24h}") Duration ttl,
+                              @Value("${idempotency.in-flight-timeout:30s}") Duration inFlightTimeout,
+                              @Value("${jwt.secret}") String secret) {
+        this.store = store;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.inFlightTimeout = inFlightTimeout;
+        this.fingerprintKey = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM);
+    }
+
+    /**
+     * @param scope  пространство ключей: один и тот же ключ у разных операций и пользователей не пересекается
+     * @param key    значение заголовка; без него запрос выполняется как обычно
+     * @param request тело запроса — по нему повтор отличается от другого запроса с тем же ключом
+     */
+    public <T> ResponseEntity<T> execute(String scope, String key, Object request,
+                                         HttpStatus status, Class<T> type, Supplier<T> action) {
+        if (key == null) {
+            return ResponseEntity.status(status).body(action.get());
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new InvalidIdempotencyKeyException("Ключ идемпотентности должен быть непустым и не длиннее " + MAX_KEY_LENGTH + " символов");
+        }
+        String storeKey = scope + ":" + key;
+        String fingerprint = fingerprint(request);
+
+        CompletableFuture<StoredResponse> own = new CompletableFuture<>();
+        CompletableFuture<StoredResponse> running = inFlight.putIfAbsent(storeKey, own);
+        if (running != null) {
+            return replay(await(running), fingerprint, type);
+        }
+        try {
+            StoredResponse existing = reserve(storeKey, fingerprint);
+            if (existing != null) {
+                own.complete(existing);
+                return replay(existing, fingerprint, type);
+            }
+            T body = runAndStore(storeKey, fingerprint, status, action, own);
+            return ResponseEntity.status(status).body(body);
+        } catch (RuntimeException e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(storeKey, own);
+        }
+    }
+
+    /**
+     * Занимает ключ в Redis. Возвращает уже сохранённый ответ или {@code null}, если запрос нужно выполнить.
+     */
+    private StoredResponse reserve(String storeKey, String fingerprint) {
+        try {
+            String stored = store.find(storeKey);
+            if (stored == null && store.reserve(storeKey, StoredResponse.pending(fingerprint).encode(), inFlightTimeout)) {
+                return null;
+            }
+            if (stored == null) {
+                stored = store.find(storeKey);
+            }
+            if (stored == null) {
+                return null;
+            }
+            StoredResponse response = StoredResponse.decode(stored);
+            if (response.isPending()) {
+                checkFingerprint(response, fingerprint);
+                throw new IdempotentRequestInProgressException("Запрос с этим ключом идемпотентности ещё выполняется");
+            }
+            return response;
+        } catch (DataAccessException e) {
+            log.warn("Хранилище ключей идемпотентности недоступно, запрос выполняется без защиты от повторов: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private <T> T runAndStore(String storeKey, String fingerprint, HttpStatus status,
+                              Supplier<T> action, CompletableFuture<StoredResponse> own) {
+        T body;
+        try {
+            body = action.get();
+        } catch (RuntimeException e) {
+            try {
+                store.release(storeKey);
+            } catch (DataAccessException releaseError) {
+                log.warn("Не удалось освободить ключ идемпотентности {}: {}", storeKey, releaseError.getMessage());
+            }
+            throw e;
+        }
+
+        StoredResponse response = new StoredResponse(status.value(), fingerprint, toJson(body));
+        own.complete(response);
+        try {
+            store.save(storeKey, response.encode(), ttl);
+        } catch (DataAccessException e) {
+            log.warn("Не удалось сохранить ответ по ключу идемпотентности {}: {}", storeKey, e.getMessage());
+        }
+        return body;
+    }
+
+    private StoredResponse await(CompletableFuture<StoredResponse> running) {
+        try {
+            return running.get(inFlightTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new IdempotentRequestInProgressException("Запрос с этим ключом идемпотентности ещё выполняется");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotentRequestInProgressException("Запрос с этим ключом идемпотентности ещё выполняется");
+        }
+    }
+
+    private <T> ResponseEntity<T> replay(StoredResponse response, String fingerprint, Class<T> type) {
+        checkFingerprint(response, fingerprint);
+        try {
+            return ResponseEntity.status(response.status())
+                    .header(REPLAYED_HEADER, "true")
+                    .body(objectMapper.readValue(response.body(), type));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Повреждён сохранённый ответ по ключу идемпотентности", e);
+        }
+    }
+
+    private static void checkFingerprint(StoredResponse response, String fingerprint) {
+        if (!response.fingerprint().equals(fingerprint)) {
+            throw new IdempotencyKeyMismatchException("Ключ идемпотентности уже использован с другим телом запроса");
+        }
+    }
+
+    /**
+     * HMAC, а не простой хеш: тело регистрации содержит пароль, и отпечаток в Redis не должен позволять его подобрать.
+     */
+    private String fingerprint(Object request) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(fingerprintKey);
+            return HexFormat.of().formatHex(mac.doFinal(objectMapper.writeValueAsBytes(request)));
+        } catch (GeneralSecurityException | JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось вычислить отпечаток запроса", e);
+        }
+    }
+
+    private String toJson(Object body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось сохранить ответ по ключу идемпотентности", e);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.ecommerce.idempotency;
+
+import java.time.Duration;
+
+/**
+ * Общее для кластера хранилище ответов по ключу идемпотентности.
+ */
+public interface IdempotencyStore {
+
+    String find(String key);
+
+    /**
+     * Занимает ключ, если он свободен; {@code false} — ключ уже занят другим запросом или ответом.
+     */
+    boolean reserve(String key, String value, Duration ttl);
+
+    void save(String key, String value, Duration ttl);
+
+    void release(String key);
+}
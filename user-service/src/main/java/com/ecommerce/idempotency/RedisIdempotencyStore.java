@@ -0,0 +1,49 @@
+package com.ecommerce.idempotency;
+
+import com.ecommerce.resilience.CircuitBreaker;
+import com.ecommerce.resilience.CircuitBreakers;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Вызовы идут через автомат Redis: пока он разомкнут, методы сразу бросают
+ * {@link com.ecommerce.resilience.CallNotPermittedException}, и запрос выполняется без защиты от повторов.
+ */
+@Component
+public class RedisIdempotencyStore implements IdempotencyStore {
+    private static final String KEY_PREFIX = "idem:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final CircuitBreaker circuitBreaker;
+
+    public RedisIdempotencyStore(StringRedisTemplate redisTemplate, CircuitBreakers circuitBreakers) {
+        this.redisTemplate = redisTemplate;
+        this.circuitBreaker = circuitBreakers.redis();
+    }
+
+    @Override
+    public String find(String key) {
+        return circuitBreaker.execute(() -> redisTemplate.opsForValue().get(KEY_PREFIX + key));
+    }
+
+    @Override
+    public boolean reserve(String key, String value, Duration ttl) {
+        return circuitBreaker.execute(
+                () -> Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(KEY_PREFIX + key, value, ttl)));
+    }
+
+    @Override
+    public void save(String key, String value, Duration ttl) {
+        circuitBreaker.execute(() -> {
+            redisTemplate.opsForValue().set(KEY_PREFIX + key, value, ttl);
+            return null;
+        });
+    }
+
+    @Override
+    public void release(String key) {
+        circuitBreaker.execute(() -> redisTemplate.delete(KEY_PREFIX + key));
+    }
+}
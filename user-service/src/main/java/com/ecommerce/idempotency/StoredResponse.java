@@ -0,0 +1,25 @@
+package com.ecommerce.idempotency;
+
+/**
+ * Ответ, сохранённый под ключом идемпотентности, или метка выполняющегося запроса ({@code status == 0}).
+ * В Redis хранится одной строкой: статус, отпечаток запроса и тело через перевод строки.
+ */
+record StoredResponse(int status, String fingerprint, String body) {
+
+    static StoredResponse pending(String fingerprint) {
+        return new StoredResponse(0, fingerprint, "");
+    }
+
+    boolean isPending() {
+        return status == 0;
+    }
+
+    String encode() {
+        return status + "\n" + fingerprint + "\n" + body;
+    }
+
+    static StoredResponse decode(String value) {
+        String[] parts = value.split("\n", 3);
+        return new StoredResponse(Integer.parseInt(parts[0]), parts[1], parts[2]);
+    }
+}
@@ -6,7 +6,9 @@ import com.ecommerce.model.dto.response.UserResponse;
 import com.ecommerce.model.entity.User;
 import org.springframework.stereotype.Component;
 
-import java.util.Optional;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.function.Consumer;
 
 @Component
 public class UserMapper {
@@ -35,9 +37,23 @@ public class UserMapper {
                 .build();
     }
 
-    public void updateEntityFromDto(UserUpdateRequest dto, User entity) {
-        Optional.ofNullable(dto.getFirstName()).ifPresent(entity::setFirstName);
-        Optional.ofNullable(dto.getLastName()).ifPresent(entity::setLastName);
-        Optional.ofNullable(dto.getPhoneNumber()).ifPresent(entity::setPhoneNumber);
+    /**
+     * Переносит в сущность непустые поля запроса.
+     *
+     * @return имена полей, значение которых действительно изменилось
+     */
+    public Set<String> updateEntityFromDto(UserUpdateRequest dto, User entity) {
+        Set<String> changed = new LinkedHashSet<>();
+        update("firstName", dto.getFirstName(), entity.getFirstName(), entity::setFirstName, changed);
+        update("lastName", dto.getLastName(), entity.getLastName(), entity::setLastName, changed);
+        update("phoneNumber", dto.getPhoneNumber(), entity.getPhoneNumber(), entity::setPhoneNumber, changed);
+        return changed;
+    }
+
+    private static void update(String field, String value, String current, Consumer<String> setter, Set<String> changed) {
+        if (value != null && !value.equals(current)) {
+            setter.accept(value);
+            changed.add(field);
+        }
     }
 }
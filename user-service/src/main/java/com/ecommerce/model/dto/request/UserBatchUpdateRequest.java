@@ -0,0 +1,27 @@
+package com.ecommerce.model.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserBatchUpdateRequest {
+    public static final int MAX_ITEMS = 10_000;
+
+    /**
+     * Изменения по id пользователя; результаты возвращаются в том же порядке.
+     */
+    @NotEmpty(message = "Список изменений не может быть пустым")
+    @Size(max = MAX_ITEMS, message = "За один запрос можно изменить не больше " + MAX_ITEMS + " профилей")
+    private Map<Long, @NotNull(message = "Изменения профиля не могут быть пустыми") @Valid UserUpdateRequest> updates;
+}
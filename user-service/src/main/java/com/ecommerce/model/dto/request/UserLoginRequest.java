@@ -6,16 +6,19 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import static com.ecommerce.validation.UserRequestConstraints.LOGIN_NOT_BLANK;
+import static com.ecommerce.validation.UserRequestConstraints.PASSWORD_NOT_BLANK;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class UserLoginRequest {
 
-    @NotBlank(message = "Login не может быть пустым")
+    @NotBlank(message = LOGIN_NOT_BLANK)
     private String login;
 
-    @NotBlank(message = "Пароль не может быть пустым")
+    @NotBlank(message = PASSWORD_NOT_BLANK)
     private String password;
 
 }
\ No newline at end of file
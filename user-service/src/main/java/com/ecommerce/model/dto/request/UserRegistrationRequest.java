@@ -10,41 +10,32 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import static com.ecommerce.validation.UserRequestConstraints.*;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class UserRegistrationRequest {
 
-    @NotBlank(message = "Ник пользователя не может быть пустым")
-    @Size(min = 3, max = 50, message = "Длина ника пользователя не может быть меньше 3 и больше 50 символов")
+    @NotBlank(message = USERNAME_NOT_BLANK)
+    @Size(min = USERNAME_MIN, max = USERNAME_MAX, message = USERNAME_SIZE)
     private String username;
 
-    @NotBlank(message = "Email не может быть пустым")
-    @Email(message = "Некорректный email")
+    @NotBlank(message = EMAIL_NOT_BLANK)
+    @Email(message = EMAIL_INVALID)
     private String email;
 
-    @NotBlank(message = "Пароль не может быть пустым")
-    @Size(min = 8, message = "Длина пароля не может быть меньше 8 символов")
+    @NotBlank(message = PASSWORD_NOT_BLANK)
+    @Size(min = PASSWORD_MIN, message = PASSWORD_SIZE)
     private String password;
 
-    @Size(max = 100, message = "Длина имени не может быть больше 100 символов")
+    @Size(max = NAME_MAX, message = FIRST_NAME_SIZE)
     private String firstName;
 
-    @Size(max = 100, message = "Длина фамилии не может быть больше 100 символов")
+    @Size(max = NAME_MAX, message = LAST_NAME_SIZE)
     private String lastName;
 
-    /*
-    Пояснения какому паттерну должен соответствовать номер телефона не было,
-    поэтому я сделал несколько вариантов:
-    1) +7 (ХХХ) ХХХ-ХХ-ХХ в regexp - (^\+7\s\(\d{3}\)\s\d{3}-\d{2}-\d{2}$)
-    2) 8XXXXXXXXXX - (^\+7\d{10}$)
-    3) +7XXXXXXXXXX - (^8\d{10}$)
-    4) ХХХХХХХХХХ - (\d{10}$)
-    X - Любая цифра.
-    Знак |(ИЛИ) - разделяет разные паттерны.
-     */
-    @Pattern(regexp = "(^\\+7\\s\\(\\d{3}\\)\\s\\d{3}-\\d{2}-\\d{2}$)|(^\\+7\\d{10}$)|(^8\\d{10}$)|(\\d{10}$)",
-            message = "Номер телефона должен соответствовать паттерну +7 (ХХХ) ХХХ-ХХ-ХХ или быть записан без дополнительных символов и пробелов")
+    @Pattern(regexp = PHONE_REGEX, message = PHONE_INVALID)
     private String phoneNumber;
-}
\ No newline at end of file
+}
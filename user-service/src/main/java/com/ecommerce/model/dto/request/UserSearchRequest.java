@@ -0,0 +1,51 @@
+package com.ecommerce.model.dto.request;
+
+import com.ecommerce.model.entity.User;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * Фильтры админского поиска. Короче трёх символов строковые фильтры не принимаются:
+ * такой префикс или подстрока совпадает с заметной долей таблицы, а триграммный индекс для них бесполезен.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserSearchRequest {
+
+    @Size(min = 3, max = 50, message = "Префикс ника должен быть от 3 до 50 символов")
+    private String username;
+
+    /**
+     * Префикс email; значение, начинающееся с {@code @}, ищется как подстрока (поиск по домену).
+     */
+    @Size(min = 3, max = 50, message = "Фильтр email должен быть от 3 до 50 символов")
+    private String email;
+
+    @Size(min = 3, max = 100, message = "Подстрока имени должна быть от 3 до 100 символов")
+    private String name;
+
+    private User.UserRole role;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdTo;
+
+    private String cursor;
+
+    @Min(value = 1, message = "Размер страницы не может быть меньше 1")
+    @Max(value = 200, message = "Размер страницы не может быть больше 200")
+    @Builder.Default
+    private int limit = 50;
+}
@@ -7,19 +7,20 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import static com.ecommerce.validation.UserRequestConstraints.*;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class UserUpdateRequest {
 
-    @Size(max = 100, message = "Длина имени не может быть больше 100 символов")
+    @Size(max = NAME_MAX, message = FIRST_NAME_SIZE)
     private String firstName;
 
-    @Size(max = 100, message = "Длина фамилии не может быть больше 100 символов")
+    @Size(max = NAME_MAX, message = LAST_NAME_SIZE)
     private String lastName;
 
-    @Pattern(regexp = "(^\\+7\\s\\(\\d{3}\\)\\s\\d{3}-\\d{2}-\\d{2}$)|(^\\+7\\d{10}$)|(^8\\d{10}$)|(\\d{10}$)",
-            message = "Номер телефона должен соответствовать паттерну +7 (ХХХ) ХХХ-ХХ-ХХ или быть записан без дополнительных символов и пробелов")
+    @Pattern(regexp = PHONE_REGEX, message = PHONE_INVALID)
     private String phoneNumber;
 }
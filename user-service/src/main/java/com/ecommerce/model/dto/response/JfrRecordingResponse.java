@@ -0,0 +1,22 @@
+package com.ecommerce.model.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JfrRecordingResponse {
+    private long id;
+    private String state;
+    private String settings;
+    private LocalDateTime startedAt;
+    private long durationSeconds;
+    private long sizeBytes;
+    private String fileName;
+}
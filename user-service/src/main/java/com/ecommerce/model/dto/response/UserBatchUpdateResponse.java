@@ -0,0 +1,20 @@
+package com.ecommerce.model.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserBatchUpdateResponse {
+    private int updated;
+    private int unchanged;
+    private int notFound;
+    private int failed;
+    private List<UserBatchUpdateResult> results;
+}
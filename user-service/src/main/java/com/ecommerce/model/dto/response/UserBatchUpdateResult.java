@@ -0,0 +1,37 @@
+package com.ecommerce.model.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Set;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserBatchUpdateResult {
+    private Long id;
+    private Status status;
+
+    /**
+     * Изменённые поля; только для {@link Status#UPDATED}.
+     */
+    private Set<String> changedFields;
+
+    /**
+     * Причина; только для {@link Status#FAILED}.
+     */
+    private String error;
+
+    public enum Status {
+        UPDATED,
+        /** Значения совпали с текущими — строка не менялась, события нет. */
+        UNCHANGED,
+        /** Пользователя нет или его данные уже стёрты. */
+        NOT_FOUND,
+        /** Порция с этим профилем откатилась целиком; повтор безопасен. */
+        FAILED
+    }
+}
@@ -0,0 +1,21 @@
+package com.ecommerce.model.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserPageResponse {
+    private List<UserResponse> items;
+
+    /**
+     * Курсор следующей страницы; {@code null}, если страница последняя.
+     */
+    private String nextCursor;
+}
@@ -0,0 +1,16 @@
+package com.ecommerce.model.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserSuggestionResponse {
+    private Long id;
+
+    private String username;
+}
@@ -0,0 +1,58 @@
+package com.ecommerce.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDateTime;
+
+/**
+ * Событие, записанное в одной транзакции с изменением пользователя и ещё не (или уже) переданное наружу.
+ */
+@Entity
+@Table(name = "outbox_events")
+@ToString
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Builder
+public class OutboxEvent {
+
+    /**
+     * Ключ строки и курсор чтения, но не порядок фиксации: IDENTITY выдаёт id при вставке, и строка с меньшим id
+     * может зафиксироваться позже. Релей на этот порядок не опирается — он выбирает строки без {@code publishedAt},
+     * и поздно зафиксированная строка попадёт в следующий проход; порядок событий задаёт {@code aggregateVersion}.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "aggregate_type", nullable = false)
+    private String aggregateType;
+
+    @Column(name = "aggregate_id", nullable = false)
+    private Long aggregateId;
+
+    @Column(name = "event_type", nullable = false)
+    private String eventType;
+
+    @Column(name = "aggregate_version", nullable = false)
+    private long aggregateVersion;
+
+    /**
+     * Изменённые поля через запятую; {@code null} для событий без списка изменений.
+     */
+    @Column(name = "changed_fields")
+    private String changedFields;
+
+    @Column(nullable = false)
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+}
@@ -1,5 +1,6 @@
 package com.ecommerce.model.entity;
 
+import com.ecommerce.id.GeneratedId;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.FieldDefaults;
@@ -18,7 +19,7 @@ import java.time.LocalDateTime;
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedId
     private Long id;
 
     @Column(nullable = false, unique = true)
@@ -49,6 +50,39 @@ public class User {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    @Version
+    private long version;
+
+    /**
+     * Поколение JWT: токены с меньшей версией отклоняются. Меняется только запросом-обновлением
+     * ({@code updatable = false}), чтобы сохранение профиля не затёрло параллельный отзыв токенов.
+     */
+    @Column(name = "token_version", nullable = false, updatable = false)
+    private long tokenVersion;
+
+    @Column(name = "token_version_changed_at", updatable = false)
+    private LocalDateTime tokenVersionChangedAt;
+
+    /**
+     * Когда пользователь попросил удалить аккаунт; удаляет его фоновое задание {@code UserPurgeJob}.
+     * Как и версия токенов, меняется только запросами-обновлениями.
+     */
+    @Column(name = "deletion_requested_at", updatable = false)
+    private LocalDateTime deletionRequestedAt;
+
+    @Column(name = "anonymized_at", updatable = false)
+    private LocalDateTime anonymizedAt;
+
+    /**
+     * Пишутся только {@code UserActivityTracker} пакетным обновлением с отставанием до интервала сброса;
+     * сохранение сущности их не трогает и версию из-за них не увеличивает.
+     */
+    @Column(name = "last_login_at", insertable = false, updatable = false)
+    private LocalDateTime lastLoginAt;
+
+    @Column(name = "last_seen_at", insertable = false, updatable = false)
+    private LocalDateTime lastSeenAt;
+
     public enum UserRole {
         USER,
         ADMIN
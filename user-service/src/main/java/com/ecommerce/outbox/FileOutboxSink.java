@@ -0,0 +1,59 @@
+package com.ecommerce.outbox;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Дописывает события в локальный NDJSON-файл, по строке на событие; пакет сбрасывается на диск целиком.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.sink", havingValue = "file")
+public class FileOutboxSink implements OutboxSink {
+    private final Path path;
+
+    public FileOutboxSink(@Value("${outbox.file.path:outbox/user-events.ndjson}") Path path) {
+        this.path = path;
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxMessage> messages) {
+        StringBuilder lines = new StringBuilder(messages.size() * 256);
+        for (OutboxMessage message : messages) {
+            lines.append("{\"id\":").append(message.id())
+                    .append(",\"aggregateType\":\"").append(message.aggregateType())
+                    .append("\",\"aggregateId\":").append(message.aggregateId())
+                    .append(",\"aggregateVersion\":").append(message.aggregateVersion())
+                    .append(",\"eventType\":\"").append(message.eventType())
+                    .append("\",\"changedFields\":\"").append(String.join(",", message.changedFields()))
+                    .append("\",\"createdAt\":\"").append(message.createdAt())
+                    .append("\",\"payload\":").append(message.payload())
+                    .append("}\n");
+        }
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            try (FileChannel channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось записать события в " + path, e);
+        }
+    }
+}
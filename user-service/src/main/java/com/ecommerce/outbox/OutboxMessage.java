@@ -0,0 +1,28 @@
+package com.ecommerce.outbox;
+
+import com.ecommerce.model.entity.OutboxEvent;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Событие в том виде, в каком оно уходит в {@link OutboxSink}; {@code payload} — готовый JSON.
+ * <p>
+ * Порядок задаёт {@code aggregateVersion} — версия пользователя, растущая с каждым изменением: потребитель
+ * применяет событие, только если его версия больше уже применённой для того же {@code aggregateId}.
+ * {@code id} для этого не годится: IDENTITY выдаёт его при вставке, а не при фиксации, поэтому транзакция
+ * с меньшим id может зафиксироваться и дойти до потребителя позже большего. Глобального порядка между
+ * пользователями нет; {@code id} — только ключ для повторной доставки и дедупликации.
+ */
+public record OutboxMessage(long id, String aggregateType, long aggregateId, long aggregateVersion,
+                            String eventType, List<String> changedFields, String payload, LocalDateTime createdAt) {
+
+    public static OutboxMessage from(OutboxEvent event) {
+        List<String> changedFields = event.getChangedFields() == null
+                ? List.of()
+                : Arrays.asList(event.getChangedFields().split(","));
+        return new OutboxMessage(event.getId(), event.getAggregateType(), event.getAggregateId(),
+                event.getAggregateVersion(), event.getEventType(), changedFields, event.getPayload(), event.getCreatedAt());
+    }
+}
@@ -0,0 +1,97 @@
+package com.ecommerce.outbox;
+
+import com.ecommerce.model.entity.OutboxEvent;
+import com.ecommerce.repository.OutboxEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Передаёт события из outbox в {@link OutboxSink} пакетами по возрастанию id.
+ * <p>
+ * Пакет читается, передаётся и помечается отправленным в одной транзакции под блокировкой
+ * строки {@code outbox_relay_lock}: в кластере события передаёт один узел, остальные пропускают такт.
+ * Если получатель не принял пакет, транзакция откатывается и пакет уходит повторно на следующем такте.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxSink sink;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Duration retention;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       OutboxSink sink,
+                       TransactionTemplate transactionTemplate,
+                       @Value("${outbox.relay.batch-size:500}") int batchSize,
+                       @Value("${outbox.relay.max-batches-per-run:20}") int maxBatchesPerRun,
+                       @Value("${outbox.retention:7d}") Duration retention) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.sink = sink;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.retention = retention;
+    }
+
+    /**
+     * Передаёт накопившиеся события, пока пакеты полные, но не больше {@code max-batches-per-run} за такт.
+     *
+     * @return сколько событий передано
+     */
+    @Scheduled(fixedDelayString = "${outbox.relay.interval:500ms}")
+    public int relay() {
+        int total = 0;
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            int relayed;
+            try {
+                relayed = transactionTemplate.execute(status -> relayBatch());
+            } catch (RuntimeException e) {
+                log.warn("Не удалось передать события outbox, повтор на следующем такте: {}", e.getMessage());
+                break;
+            }
+            total += relayed;
+            if (relayed < batchSize) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Отправленные события хранятся {@code outbox.retention}, чтобы потребители могли догнать поток.
+     */
+    @Scheduled(fixedDelayString = "${outbox.cleanup-interval:1h}")
+    public void cleanUp() {
+        Integer deleted = transactionTemplate.execute(status ->
+                outboxEventRepository.deletePublishedBefore(LocalDateTime.now().minus(retention)));
+        if (deleted != null && deleted > 0) {
+            log.info("Удалено отправленных событий outbox: {}", deleted);
+        }
+    }
+
+    private int relayBatch() {
+        if (outboxEventRepository.tryLockRelay().isEmpty()) {
+            return 0;
+        }
+        List<OutboxEvent> batch = outboxEventRepository.findByPublishedAtIsNullOrderByIdAsc(Limit.of(batchSize));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        sink.publish(batch.stream().map(OutboxMessage::from).toList());
+        outboxEventRepository.markPublished(batch.stream().map(OutboxEvent::getId).toList(), LocalDateTime.now());
+        return batch.size();
+    }
+}
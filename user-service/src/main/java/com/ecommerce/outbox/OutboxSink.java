@@ -0,0 +1,13 @@
+package com.ecommerce.outbox;
+
+import java.util.List;
+
+/**
+ * Получатель событий outbox ({@code outbox.sink}: memory, file, redis).
+ * Пакет передаётся по возрастанию id; если метод бросил исключение, пакет будет передан снова —
+ * доставка «хотя бы один раз».
+ */
+public interface OutboxSink {
+
+    void publish(List<OutboxMessage> messages);
+}
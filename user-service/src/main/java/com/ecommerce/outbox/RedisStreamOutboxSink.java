@@ -0,0 +1,52 @@
+package com.ecommerce.outbox;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.RedisStreamCommands.XAddOptions;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Адаптер брокера: события уходят в Redis Stream одним конвейером на пакет.
+ * Поток обрезается примерно до {@code outbox.redis.max-length} записей.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.sink", havingValue = "redis", matchIfMissing = true)
+public class RedisStreamOutboxSink implements OutboxSink {
+    private final StringRedisTemplate redisTemplate;
+    private final String stream;
+    private final XAddOptions addOptions;
+
+    public RedisStreamOutboxSink(StringRedisTemplate redisTemplate,
+                                 @Value("${outbox.redis.stream:user-events}") String stream,
+                                 @Value("${outbox.redis.max-length:1000000}") long maxLength) {
+        this.redisTemplate = redisTemplate;
+        this.stream = stream;
+        this.addOptions = XAddOptions.maxlen(maxLength).approximateTrimming(true);
+    }
+
+    @Override
+    public void publish(List<OutboxMessage> messages) {
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection redis = (StringRedisConnection) connection;
+            for (OutboxMessage message : messages) {
+                redis.xAdd(StreamRecords.string(Map.of(
+                        "id", Long.toString(message.id()),
+                        "aggregateType", message.aggregateType(),
+                        "aggregateId", Long.toString(message.aggregateId()),
+                        "aggregateVersion", Long.toString(message.aggregateVersion()),
+                        "eventType", message.eventType(),
+                        "changedFields", String.join(",", message.changedFields()),
+                        "createdAt", message.createdAt().toString(),
+                        "payload", message.payload())).withStreamKey(stream), addOptions);
+            }
+            return null;
+        });
+    }
+}
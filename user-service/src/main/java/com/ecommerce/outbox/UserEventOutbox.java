@@ -0,0 +1,109 @@
+package com.ecommerce.outbox;
+
+import com.ecommerce.model.dto.response.UserResponse;
+import com.ecommerce.model.entity.OutboxEvent;
+import com.ecommerce.repository.OutboxEventRepository;
+import com.ecommerce.serialization.ResponseWriters;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Запись событий пользователя в outbox. Вызывается только внутри транзакции, меняющей пользователя:
+ * событие появляется тогда и только тогда, когда зафиксировано изменение.
+ * Тело события — профиль в том же виде, что отдаёт API.
+ * <p>
+ * Записанное событие публикуется и как событие приложения: слушатели с фазой AFTER_COMMIT
+ * получают его сразу после фиксации, не дожидаясь ретранслятора.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserEventOutbox {
+    static final String AGGREGATE_TYPE = "User";
+    /**
+     * Стирание окончательно: версия больше любой, и потребитель не отбросит его как устаревшее.
+     */
+    public static final long ERASED_VERSION = Long.MAX_VALUE;
+    private static final String INSERT = "INSERT INTO outbox_events (aggregate_type, aggregate_id, event_type, "
+            + "aggregate_version, changed_fields, payload, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ResponseWriters responseWriters;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void userRegistered(UserResponse user) {
+        append(UserEventType.USER_REGISTERED, user, 0, null);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void userProfileUpdated(UserResponse user, long version, Set<String> changedFields) {
+        append(UserEventType.USER_PROFILE_UPDATED, user, version, String.join(",", changedFields));
+    }
+
+    /**
+     * Пакет изменений профилей. Через JPA пакета не вышло бы: с IDENTITY Hibernate вставляет каждую строку
+     * отдельно, чтобы узнать её id. Поэтому строки пишутся одним {@code batchUpdate} (с
+     * {@code reWriteBatchedInserts} — одной командой), id выдаёт БД, а слушатели получают одно
+     * {@link UserProfilesUpdatedEvent} на порцию.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void userProfilesUpdated(List<ProfileUpdate> updates) {
+        List<Object[]> rows = new ArrayList<>(updates.size());
+        List<Long> userIds = new ArrayList<>(updates.size());
+        for (ProfileUpdate update : updates) {
+            OutboxEvent event = event(UserEventType.USER_PROFILE_UPDATED, update.user(), update.version(),
+                    String.join(",", update.changedFields()));
+            rows.add(new Object[]{event.getAggregateType(), event.getAggregateId(), event.getEventType(),
+                    event.getAggregateVersion(), event.getChangedFields(), event.getPayload(), event.getCreatedAt()});
+            userIds.add(event.getAggregateId());
+        }
+        jdbcTemplate.batchUpdate(INSERT, rows);
+        eventPublisher.publishEvent(new UserProfilesUpdatedEvent(userIds));
+    }
+
+    /**
+     * Аккаунт удалён или анонимизирован: потребители стирают свои копии персональных данных.
+     * В теле только id — профиль к этому моменту уже стёрт.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void userErased(long userId) {
+        append(UserEventType.USER_ERASED, UserResponse.builder().id(userId).build(), ERASED_VERSION, null);
+    }
+
+    private void append(UserEventType type, UserResponse user, long version, String changedFields) {
+        OutboxEvent event = outboxEventRepository.save(event(type, user, version, changedFields));
+        eventPublisher.publishEvent(OutboxMessage.from(event));
+    }
+
+    private OutboxEvent event(UserEventType type, UserResponse user, long version, String changedFields) {
+        String payload;
+        try {
+            payload = responseWriters.forType(UserResponse.class).writeValueAsString(user);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось сериализовать событие " + type.eventName(), e);
+        }
+        return OutboxEvent.builder()
+                .aggregateType(AGGREGATE_TYPE)
+                .aggregateId(user.getId())
+                .aggregateVersion(version)
+                .eventType(type.eventName())
+                .changedFields(changedFields)
+                .payload(payload)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    public record ProfileUpdate(UserResponse user, long version, Set<String> changedFields) {
+    }
+}
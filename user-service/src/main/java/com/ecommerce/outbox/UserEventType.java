@@ -0,0 +1,17 @@
+package com.ecommerce.outbox;
+
+public enum UserEventType {
+    USER_REGISTERED("UserRegistered"),
+    USER_PROFILE_UPDATED("UserProfileUpdated"),
+    USER_ERASED("UserErased");
+
+    private final String eventName;
+
+    UserEventType(String eventName) {
+        this.eventName = eventName;
+    }
+
+    public String eventName() {
+        return eventName;
+    }
+}
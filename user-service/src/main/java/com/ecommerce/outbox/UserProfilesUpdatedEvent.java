@@ -0,0 +1,11 @@
+package com.ecommerce.outbox;
+
+import java.util.List;
+
+/**
+ * Порция пакетного изменения профилей записана в outbox: одно событие приложения на порцию вместо
+ * {@link OutboxMessage} на каждую строку. Строки порции вставлены пакетом, их id здесь не нужны —
+ * ретранслятор и поток изменений читают их из таблицы.
+ */
+public record UserProfilesUpdatedEvent(List<Long> userIds) {
+}
@@ -0,0 +1,12 @@
+package com.ecommerce.purge;
+
+public enum PurgeAction {
+    /**
+     * Строка удаляется вместе со справочниками логинов.
+     */
+    DELETE,
+    /**
+     * Персональные данные стираются, id остаётся для ссылок из других сервисов.
+     */
+    ANONYMIZE
+}
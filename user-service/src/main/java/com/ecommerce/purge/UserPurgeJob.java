@@ -0,0 +1,151 @@
+package com.ecommerce.purge;
+
+import com.ecommerce.outbox.UserEventOutbox;
+import com.ecommerce.repository.UserPurgeRepository;
+import com.ecommerce.repository.UserRepository;
+import com.ecommerce.security.TokenVersionChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Фоновая очистка аккаунтов: удаление по запросу пользователя ({@code erasure}) и очистка неактивных ({@code dormant}).
+ * <p>
+ * Каждое правило идёт по таблице порциями по возрастанию id. Порция — отдельная короткая транзакция: блокировка
+ * контрольной точки правила (в кластере правило выполняет один узел), выбор кандидатов с SKIP LOCKED, удаление
+ * или анонимизация, событие {@code UserErased} в outbox и новая контрольная точка. Прерванный проход
+ * продолжается с последней зафиксированной порции.
+ * <p>
+ * Вход и чтение профиля не блокируют строк и не ждут задания; обновление профиля может подождать
+ * только строку из текущей порции, а порция не дольше такта. Строки, занятые живыми транзакциями,
+ * задание пропускает до следующего прохода.
+ * <p>
+ * После фиксации порции токены затронутых пользователей отклоняются ({@link TokenVersionChangedEvent}),
+ * а ники пропадают из подсказок (через событие outbox).
+ * Метрики: {@code user.purge.accounts}, {@code user.purge.chunk}, {@code user.purge.checkpoint},
+ * {@code user.purge.failures} с тегом {@code rule}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "user-purge.enabled", havingValue = "true", matchIfMissing = true)
+public class UserPurgeJob {
+    static final String ERASURE = "erasure";
+    static final String DORMANT = "dormant";
+
+    private final UserPurgeRepository purgeRepository;
+    private final UserEventOutbox userEventOutbox;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final UserPurgeProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final AtomicLong erasureCheckpoint = new AtomicLong();
+    private final AtomicLong dormantCheckpoint = new AtomicLong();
+
+    public UserPurgeJob(UserPurgeRepository purgeRepository,
+                        UserEventOutbox userEventOutbox,
+                        ApplicationEventPublisher eventPublisher,
+                        TransactionTemplate transactionTemplate,
+                        UserPurgeProperties properties,
+                        MeterRegistry meterRegistry) {
+        this.purgeRepository = purgeRepository;
+        this.userEventOutbox = userEventOutbox;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("user.purge.checkpoint", erasureCheckpoint, AtomicLong::get)
+                .description("Последний обработанный id текущего прохода").tag("rule", ERASURE).register(meterRegistry);
+        Gauge.builder("user.purge.checkpoint", dormantCheckpoint, AtomicLong::get)
+                .description("Последний обработанный id текущего прохода").tag("rule", DORMANT).register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${user-purge.interval:1s}")
+    public void run() {
+        runRule(ERASURE, properties.erasure(), erasureCheckpoint);
+        runRule(DORMANT, properties.dormant(), dormantCheckpoint);
+    }
+
+    /**
+     * Обрабатывает одну порцию правила.
+     *
+     * @return сколько аккаунтов обработано
+     */
+    int runRule(String rule, UserPurgeProperties.Rule config, AtomicLong checkpoint) {
+        if (!config.enabled()) {
+            return 0;
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Integer processed;
+        try {
+            processed = transactionTemplate.execute(status -> purgeChunk(rule, config, checkpoint));
+        } catch (RuntimeException e) {
+            log.warn("Очистка аккаунтов '{}' прервана, повтор на следующем такте: {}", rule, e.getMessage());
+            meterRegistry.counter("user.purge.failures", "rule", rule).increment();
+            return 0;
+        }
+        if (processed == null || processed == 0) {
+            return 0;
+        }
+        sample.stop(meterRegistry.timer("user.purge.chunk", "rule", rule));
+        Counter.builder("user.purge.accounts")
+                .description("Удалённые или анонимизированные аккаунты")
+                .tags("rule", rule, "action", config.action().name().toLowerCase())
+                .register(meterRegistry)
+                .increment(processed);
+        log.info("Очистка аккаунтов '{}': {} аккаунтов ({}), контрольная точка {}",
+                rule, processed, config.action(), checkpoint.get());
+        return processed;
+    }
+
+    private int purgeChunk(String rule, UserPurgeProperties.Rule config, AtomicLong checkpoint) {
+        Optional<UserPurgeRepository.CheckpointView> locked = purgeRepository.lockCheckpoint(rule);
+        LocalDateTime now = LocalDateTime.now();
+        if (locked.isEmpty() || (locked.get().getNextPassAt() != null && now.isBefore(locked.get().getNextPassAt()))) {
+            return 0;
+        }
+        long afterId = locked.get().getLastId();
+        LocalDateTime cutoff = now.minus(config.after());
+        List<UserRepository.UsernameView> chunk = ERASURE.equals(rule)
+                ? purgeRepository.lockRequestedForDeletion(afterId, cutoff, properties.chunkSize())
+                : purgeRepository.lockDormant(afterId, cutoff, properties.chunkSize());
+        List<Long> ids = chunk.stream().map(UserRepository.UsernameView::getId).toList();
+        if (!ids.isEmpty()) {
+            purge(ids, config.action(), now);
+        }
+
+        // Неполная порция — проход закончен: следующий начнётся с начала таблицы через pass-interval
+        boolean passCompleted = ids.size() < properties.chunkSize();
+        long lastId = passCompleted ? 0 : ids.get(ids.size() - 1);
+        purgeRepository.saveCheckpoint(rule, lastId, ids.size(), passCompleted ? now.plus(properties.passInterval()) : null, now);
+        checkpoint.set(lastId);
+        return ids.size();
+    }
+
+    private void purge(List<Long> ids, PurgeAction action, LocalDateTime now) {
+        if (action == PurgeAction.DELETE) {
+            purgeRepository.deleteByIds(ids);
+            // Строки больше нет, поэтому отказ токенам держится только в кэше версий
+            ids.forEach(id -> eventPublisher.publishEvent(new TokenVersionChangedEvent(id, Long.MAX_VALUE)));
+        } else {
+            purgeRepository.anonymizeUsernames(ids);
+            purgeRepository.anonymizeEmails(ids);
+            purgeRepository.anonymizeByIds(ids, now);
+            purgeRepository.findTokenVersions(ids).forEach(user ->
+                    eventPublisher.publishEvent(new TokenVersionChangedEvent(user.getId(), user.getTokenVersion())));
+        }
+        purgeRepository.deleteLoginEvents(ids);
+        ids.forEach(userEventOutbox::userErased);
+    }
+}
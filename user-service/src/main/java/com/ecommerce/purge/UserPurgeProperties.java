@@ -0,0 +1,40 @@
+package com.ecommerce.purge;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Фоновая очистка аккаунтов ({@code user-purge.*}).
+ * <p>
+ * За такт {@code interval} каждое правило обрабатывает не больше одной порции в {@code chunk-size} аккаунтов,
+ * так что скорость очистки ограничена сверху {@code chunk-size / interval}. Закончив проход по таблице,
+ * правило ждёт {@code pass-interval} и начинает следующий с начала.
+ *
+ * @param erasure удаление по запросу пользователя спустя {@code after} с момента запроса
+ * @param dormant очистка аккаунтов без активности ({@code last_seen_at}) дольше {@code after}
+ */
+@ConfigurationProperties("user-purge")
+public record UserPurgeProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("1s") Duration interval,
+        @DefaultValue("200") int chunkSize,
+        @DefaultValue("1h") Duration passInterval,
+        Rule erasure,
+        Rule dormant) {
+
+    public UserPurgeProperties {
+        erasure = erasure != null ? erasure : Rule.DISABLED;
+        dormant = dormant != null ? dormant : Rule.DISABLED;
+    }
+
+    /**
+     * @param enabled включено ли правило
+     * @param after   сколько ждать от запроса на удаление или последней активности
+     * @param action  удалить строку или стереть персональные данные, оставив id
+     */
+    public record Rule(boolean enabled, Duration after, PurgeAction action) {
+        static final Rule DISABLED = new Rule(false, Duration.ZERO, PurgeAction.ANONYMIZE);
+    }
+}
@@ -0,0 +1,147 @@
+package com.ecommerce.ratelimit;
+
+import com.ecommerce.ratelimit.LeaseStore.Lease;
+import com.ecommerce.ratelimit.LeaseStore.LeaseRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.server.PathContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Кластерные квоты с локальной предагрегацией.
+ * <p>
+ * Запрос тратит токен из локальной аренды без сетевых вызовов. Раз в {@code rate-limit.sync-interval}
+ * вёдра, которым аренды не хватает, одним пакетом добирают токены в Redis ({@link LeaseStore}).
+ * Перерасход в кластере ограничен долгом узла — не больше одной аренды на ведро.
+ * Если Redis недоступен, лимит деградирует до локального на узел, а не отключается.
+ */
+@Slf4j
+@Component
+public class DistributedRateLimiter {
+    private final RateLimitProperties properties;
+    private final LeaseStore leaseStore;
+    private final List<PathPattern> patterns;
+    private final ConcurrentHashMap<String, LeasedBucket> buckets = new ConcurrentHashMap<>();
+
+    private volatile boolean degraded;
+
+    public DistributedRateLimiter(RateLimitProperties properties, LeaseStore leaseStore) {
+        this.properties = properties;
+        this.leaseStore = leaseStore;
+        this.patterns = properties.policies().stream()
+                .map(policy -> PathPatternParser.defaultInstance.parse(policy.pattern()))
+                .toList();
+    }
+
+    public boolean isEnabled() {
+        return properties.enabled() && !patterns.isEmpty();
+    }
+
+    /**
+     * Решение по запросу; {@code null}, если путь не подпадает ни под одну политику.
+     */
+    public Decision tryAcquire(String path, String client) {
+        RateLimitProperties.Policy policy = findPolicy(path);
+        if (policy == null) {
+            return null;
+        }
+        long now = System.nanoTime();
+        LeasedBucket bucket = bucketFor(policy, client, now);
+        boolean allowed = bucket.tryConsume(now);
+        return new Decision(allowed, policy, bucket.remaining(), resetSeconds(policy, allowed, bucket.remaining()));
+    }
+
+    @Scheduled(fixedDelayString = "${rate-limit.sync-interval:1s}")
+    public void synchronize() {
+        if (buckets.isEmpty()) {
+            return;
+        }
+        long now = System.nanoTime();
+        long idleThreshold = now - properties.idleTimeout().toNanos();
+        buckets.values().removeIf(bucket -> bucket.idleSince(idleThreshold));
+
+        List<LeasedBucket> pending = new ArrayList<>();
+        List<LeaseRequest> requests = new ArrayList<>();
+        for (LeasedBucket bucket : buckets.values()) {
+            long wanted = bucket.wanted();
+            if (wanted > 0) {
+                pending.add(bucket);
+                requests.add(new LeaseRequest(bucket.key, bucket.policy.capacity(), bucket.policy.refillPerMilli(), wanted));
+            }
+        }
+
+        for (int from = 0; from < requests.size(); from += properties.batchSize()) {
+            int to = Math.min(from + properties.batchSize(), requests.size());
+            List<Lease> leases;
+            try {
+                leases = leaseStore.acquire(requests.subList(from, to));
+            } catch (RuntimeException e) {
+                markDegraded(e);
+                pending.subList(from, pending.size()).forEach(bucket -> bucket.refillLocally(now));
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                pending.get(i).apply(leases.get(i - from), now);
+            }
+        }
+        if (degraded) {
+            degraded = false;
+            log.info("Хранилище квот снова доступно, лимиты запросов общие для кластера");
+        }
+    }
+
+    int bucketCount() {
+        return buckets.size();
+    }
+
+    private RateLimitProperties.Policy findPolicy(String path) {
+        PathContainer container = PathContainer.parsePath(path);
+        for (int i = 0; i < patterns.size(); i++) {
+            if (patterns.get(i).matches(container)) {
+                return properties.policies().get(i);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * При переполнении таблицы (например, перебор адресов) новые клиенты политики делят одно ведро.
+     */
+    private LeasedBucket bucketFor(RateLimitProperties.Policy policy, String client, long now) {
+        String key = policy.name() + ":" + client;
+        LeasedBucket bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= properties.maxBuckets()) {
+            key = policy.name() + ":*";
+        }
+        return buckets.computeIfAbsent(key, k -> new LeasedBucket(policy, k, now));
+    }
+
+    private void markDegraded(RuntimeException e) {
+        if (!degraded) {
+            degraded = true;
+            log.warn("Хранилище квот недоступно, лимиты запросов считаются локально на узле: {}", e.getMessage());
+        } else {
+            log.debug("Хранилище квот по-прежнему недоступно", e);
+        }
+    }
+
+    /**
+     * Отказ — через сколько секунд появится следующий токен; иначе — через сколько ведро наполнится.
+     */
+    private static long resetSeconds(RateLimitProperties.Policy policy, boolean allowed, long remaining) {
+        double millis = (allowed ? policy.capacity() - remaining : 1) / policy.refillPerMilli();
+        return (long) Math.ceil(millis / 1000);
+    }
+
+    public record Decision(boolean allowed, RateLimitProperties.Policy policy, long remaining, long resetSeconds) {
+    }
+}
@@ -0,0 +1,20 @@
+package com.ecommerce.ratelimit;
+
+import java.util.List;
+
+/**
+ * Общее для кластера хранилище token bucket, из которого узлы арендуют токены.
+ */
+public interface LeaseStore {
+
+    /**
+     * Одним обращением выдаёт аренду по всем запросам; порядок ответов совпадает с порядком запросов.
+     */
+    List<Lease> acquire(List<LeaseRequest> requests);
+
+    record LeaseRequest(String key, long capacity, double refillPerMilli, long wanted) {
+    }
+
+    record Lease(long granted, long remaining) {
+    }
+}
@@ -0,0 +1,110 @@
+package com.ecommerce.ratelimit;
+
+import com.ecommerce.ratelimit.LeaseStore.Lease;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Локальная часть кластерного ведра: токены, арендованные узлом.
+ * Запросы только уменьшают счётчик; пополнение и сверка с Redis идут из потока синхронизации.
+ */
+final class LeasedBucket {
+    final RateLimitProperties.Policy policy;
+    final String key;
+
+    private final AtomicLong tokens;
+    private final AtomicLong owed;
+    private final AtomicLong demand = new AtomicLong();
+    private volatile long clusterRemaining;
+    private volatile long lastAccessNanos;
+
+    // Поля ниже меняет только поток синхронизации
+    private long lastRefillNanos;
+    private double refillCarry;
+
+    /**
+     * Новое ведро сразу получает аренду авансом, чтобы первый запрос клиента не ждал Redis;
+     * аванс, как и токены, взятые в долг при пустой аренде, возвращается из первых выданных токенов.
+     */
+    LeasedBucket(RateLimitProperties.Policy policy, String key, long nowNanos) {
+        this.policy = policy;
+        this.key = key;
+        long advance = Math.min(policy.lease(), policy.capacity());
+        this.tokens = new AtomicLong(advance);
+        this.owed = new AtomicLong(advance);
+        this.clusterRemaining = policy.capacity() - advance;
+        this.lastAccessNanos = nowNanos;
+        this.lastRefillNanos = nowNanos;
+    }
+
+    boolean tryConsume(long nowNanos) {
+        lastAccessNanos = nowNanos;
+        demand.incrementAndGet();
+        long current;
+        do {
+            current = tokens.get();
+            if (current <= 0) {
+                return borrow();
+            }
+        } while (!tokens.compareAndSet(current, current - 1));
+        return true;
+    }
+
+    /**
+     * Аренда кончилась до сверки, но в кластере по последним данным токены есть:
+     * узел берёт в долг не больше одной аренды, чтобы клиент не получал отказ из-за интервала синхронизации.
+     */
+    private boolean borrow() {
+        long limit = Math.min(policy.lease(), clusterRemaining);
+        long current;
+        do {
+            current = owed.get();
+            if (current >= limit) {
+                return false;
+            }
+        } while (!owed.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    /**
+     * Оценка остатка квоты клиента в кластере: свои токены плюс остаток в Redis на момент последней сверки.
+     */
+    long remaining() {
+        return Math.min(policy.capacity(), Math.max(0, tokens.get()) + clusterRemaining);
+    }
+
+    /**
+     * Сколько токенов запросить при сверке: хватит на спрос прошлого интервала (не меньше аренды)
+     * плюс возврат долга. 0 — ведро обеспечено, обращаться к Redis не нужно.
+     */
+    long wanted() {
+        long target = Math.min(policy.capacity(), Math.max(policy.lease(), demand.getAndSet(0)));
+        return Math.max(0, target - tokens.get() + owed.get());
+    }
+
+    void apply(Lease lease, long nowNanos) {
+        long granted = lease.granted();
+        long debt = owed.getAndAccumulate(granted, (current, repaid) -> current - Math.min(current, repaid));
+        tokens.addAndGet(granted - Math.min(debt, granted));
+        clusterRemaining = lease.remaining();
+        lastRefillNanos = nowNanos;
+        refillCarry = 0;
+    }
+
+    /**
+     * Redis недоступен: ведро пополняется по скорости политики без учёта других узлов.
+     */
+    void refillLocally(long nowNanos) {
+        double refill = (nowNanos - lastRefillNanos) / 1_000_000.0 * policy.refillPerMilli() + refillCarry;
+        long whole = (long) refill;
+        refillCarry = refill - whole;
+        lastRefillNanos = nowNanos;
+        long capacity = policy.capacity();
+        tokens.accumulateAndGet(whole, (current, added) -> Math.min(capacity, current + added));
+        clusterRemaining = 0;
+    }
+
+    boolean idleSince(long thresholdNanos) {
+        return lastAccessNanos - thresholdNanos < 0;
+    }
+}
@@ -0,0 +1,95 @@
+package com.ecommerce.ratelimit;
+
+import com.ecommerce.audit.LoginAuditor;
+import com.ecommerce.audit.LoginOutcome;
+import com.ecommerce.exception.ErrorResponse;
+import com.ecommerce.security.JwtAuthentication;
+import com.ecommerce.security.JwtAuthenticationFilter;
+import com.ecommerce.serialization.ResponseWriters;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Квоты запросов по маршруту и клиенту, сразу после {@link JwtAuthenticationFilter}.
+ * <p>
+ * Клиент — id пользователя, если токен проверен, иначе адрес клиента: в том числе на публичных маршрутах,
+ * где токен не проверяется. Ключ из непроверенного токена задаёт сам клиент — случайный токен в каждом
+ * запросе давал бы каждому новое ведро и обходил квоту входа.
+ * Заголовки — по draft-ietf-httpapi-ratelimit-headers.
+ */
+@Component
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+    private static final String LOGIN_PATH = "/api/auth/login";
+
+    private final DistributedRateLimiter rateLimiter;
+    private final ResponseWriters responseWriters;
+    private final LoginAuditor loginAuditor;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !rateLimiter.isEnabled() || HttpMethod.OPTIONS.matches(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        DistributedRateLimiter.Decision decision = rateLimiter.tryAcquire(path, resolveClient(request));
+        if (decision == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        RateLimitProperties.Policy policy = decision.policy();
+        response.setHeader("RateLimit-Policy", policy.capacity() + ";w=" + policy.period().toSeconds());
+        response.setHeader("RateLimit-Limit", Long.toString(policy.capacity()));
+        response.setHeader("RateLimit-Remaining", Long.toString(decision.remaining()));
+        response.setHeader("RateLimit-Reset", Long.toString(decision.resetSeconds()));
+        if (decision.allowed()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (LOGIN_PATH.equals(path)) {
+            // Тело ещё не прочитано: логин неизвестен, в журнал попадает только адрес
+            loginAuditor.record(LoginOutcome.THROTTLED, null, 0, request.getRemoteAddr());
+        }
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.TOO_MANY_REQUESTS.value())
+                .error(HttpStatus.TOO_MANY_REQUESTS.getReasonPhrase())
+                .message("Превышен лимит запросов, повторите через " + decision.resetSeconds() + " с")
+                .path(path)
+                .build();
+        byte[] body = responseWriters.forType(ErrorResponse.class).writeValueAsBytes(errorResponse);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(decision.resetSeconds()));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private String resolveClient(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication instanceof JwtAuthentication jwt && jwt.isAuthenticated()) {
+            return "u:" + jwt.getPrincipal().getId();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,46 @@
+package com.ecommerce.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Квоты запросов ({@code rate-limit.*}).
+ * <p>
+ * Каждая политика — token bucket на пару «маршрут + клиент»: {@code capacity} токенов,
+ * полностью восполняемых за {@code period}. Узел берёт токены в Redis арендой по {@code lease-size}
+ * и тратит их локально, поэтому квота общая для кластера, а сетевой вызов — один пакетный раз в {@code sync-interval}.
+ */
+@ConfigurationProperties("rate-limit")
+public record RateLimitProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("1s") Duration syncInterval,
+        @DefaultValue("2m") Duration idleTimeout,
+        @DefaultValue("100000") int maxBuckets,
+        @DefaultValue("256") int batchSize,
+        List<Policy> policies) {
+
+    public RateLimitProperties {
+        policies = policies == null ? List.of() : List.copyOf(policies);
+    }
+
+    /**
+     * @param name      имя политики, часть ключа в Redis и заголовка {@code RateLimit-Policy}
+     * @param pattern   шаблон пути ({@link org.springframework.web.util.pattern.PathPattern}); первая совпавшая политика побеждает
+     * @param capacity  ёмкость ведра — сколько запросов клиент может сделать залпом
+     * @param period    за сколько пустое ведро наполняется целиком
+     * @param leaseSize сколько токенов узел арендует за раз; по умолчанию десятая часть ёмкости
+     */
+    public record Policy(String name, String pattern, long capacity, Duration period, Long leaseSize) {
+
+        public double refillPerMilli() {
+            return (double) capacity / period.toMillis();
+        }
+
+        public long lease() {
+            return leaseSize != null ? leaseSize : Math.max(1, capacity / 10);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.ecommerce.ratelimit;
+
+import com.ecommerce.resilience.CircuitBreaker;
+import com.ecommerce.resilience.CircuitBreakers;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Аренда токенов через Lua-скрипт: все вёдра пакета обновляются за один EVALSHA.
+ * Ключи содержат hash tag {@code {rl}}, чтобы пакет в Redis Cluster попадал в один слот.
+ * Пока автомат Redis разомкнут, аренда сразу отказывает и лимиты считаются локально.
+ */
+@Component
+public class RedisLeaseStore implements LeaseStore {
+    private static final String KEY_PREFIX = "{rl}:";
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> LEASE_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/rate-limit-lease.lua"), List.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final CircuitBreaker circuitBreaker;
+
+    public RedisLeaseStore(StringRedisTemplate redisTemplate, CircuitBreakers circuitBreakers) {
+        this.redisTemplate = redisTemplate;
+        this.circuitBreaker = circuitBreakers.redis();
+    }
+
+    @Override
+    public List<Lease> acquire(List<LeaseRequest> requests) {
+        List<String> keys = new ArrayList<>(requests.size());
+        Object[] args = new Object[requests.size() * 3];
+        int i = 0;
+        for (LeaseRequest request : requests) {
+            keys.add(KEY_PREFIX + request.key());
+            args[i++] = Long.toString(request.capacity());
+            args[i++] = Double.toString(request.refillPerMilli());
+            args[i++] = Long.toString(request.wanted());
+        }
+
+        List<?> reply = circuitBreaker.execute(() -> redisTemplate.execute(LEASE_SCRIPT, keys, args));
+        if (reply == null || reply.size() != requests.size() * 2) {
+            throw new IllegalStateException("Неожиданный ответ Redis на аренду токенов: " + reply);
+        }
+        List<Lease> leases = new ArrayList<>(requests.size());
+        for (int j = 0; j < reply.size(); j += 2) {
+            leases.add(new Lease(((Number) reply.get(j)).longValue(), ((Number) reply.get(j + 1)).longValue()));
+        }
+        return leases;
+    }
+}
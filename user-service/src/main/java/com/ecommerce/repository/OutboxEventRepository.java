@@ -0,0 +1,46 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.model.entity.OutboxEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    List<OutboxEvent> findByPublishedAtIsNullOrderByIdAsc(Limit limit);
+
+    List<OutboxEvent> findByIdGreaterThanOrderByIdAsc(long id, Limit limit);
+
+    @Query("select coalesce(max(e.id), 0) from OutboxEvent e")
+    long findMaxId();
+
+    @Query("select e.id from OutboxEvent e where e.id > :id order by e.id")
+    List<Long> findIdsGreaterThan(@Param("id") long id);
+
+    /**
+     * Пользователи, затронутые событиями типа {@code eventType}, записанными начиная с {@code since}.
+     */
+    @Query("select e.aggregateId from OutboxEvent e where e.eventType = :eventType and e.createdAt >= :since")
+    List<Long> findAggregateIdsByEventTypeSince(@Param("eventType") String eventType,
+                                                @Param("since") LocalDateTime since);
+
+    /**
+     * Блокировка единственной строки ретранслятора: пустой результат — ретранслирует другой узел.
+     */
+    @Query(value = "SELECT name FROM outbox_relay_lock WHERE name = 'relay' FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<String> tryLockRelay();
+
+    @Modifying
+    @Query("update OutboxEvent e set e.publishedAt = :publishedAt where e.id in :ids")
+    int markPublished(@Param("ids") Collection<Long> ids, @Param("publishedAt") LocalDateTime publishedAt);
+
+    @Modifying
+    @Query("delete from OutboxEvent e where e.publishedAt < :before")
+    int deletePublishedBefore(@Param("before") LocalDateTime before);
+}
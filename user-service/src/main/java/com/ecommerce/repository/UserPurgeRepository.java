@@ -0,0 +1,101 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.model.entity.User;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Запросы фоновой очистки аккаунтов ({@link com.ecommerce.purge.UserPurgeJob}).
+ * <p>
+ * Кандидаты выбираются порциями по возрастанию id от контрольной точки и блокируются с SKIP LOCKED:
+ * строки, занятые входом или обновлением профиля, задание пропускает до следующего прохода, а не ждёт.
+ */
+public interface UserPurgeRepository extends Repository<User, Long> {
+
+    /**
+     * Блокирует контрольную точку правила; пусто, если её держит другой узел.
+     */
+    @Query(value = "SELECT last_id AS lastId, next_pass_at AS nextPassAt FROM user_purge_checkpoints "
+            + "WHERE name = :name FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    Optional<CheckpointView> lockCheckpoint(@Param("name") String name);
+
+    @Modifying
+    @Query(value = "UPDATE user_purge_checkpoints SET last_id = :lastId, processed = processed + :processed, "
+            + "next_pass_at = :nextPassAt, updated_at = :now WHERE name = :name", nativeQuery = true)
+    void saveCheckpoint(@Param("name") String name,
+                        @Param("lastId") long lastId,
+                        @Param("processed") int processed,
+                        @Param("nextPassAt") LocalDateTime nextPassAt,
+                        @Param("now") LocalDateTime now);
+
+    /**
+     * Анонимизация не снимает {@code deletion_requested_at}: уже анонимизированные аккаунты пропускаются,
+     * иначе каждый проход стирал бы их заново — с новой версией токенов и новым {@code UserErased}.
+     */
+    @Query(value = "SELECT id, username FROM users WHERE id > :afterId AND anonymized_at IS NULL "
+            + "AND deletion_requested_at < :requestedBefore ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<UserRepository.UsernameView> lockRequestedForDeletion(@Param("afterId") long afterId,
+                                                               @Param("requestedBefore") LocalDateTime requestedBefore,
+                                                               @Param("limit") int limit);
+
+    /**
+     * Неактивные аккаунты: без запросов дольше порога, ещё не анонимизированные и не ждущие удаления.
+     * Для тех, кто не заходил с появления {@code last_seen_at}, — последнее изменение профиля.
+     */
+    @Query(value = "SELECT id, username FROM users WHERE id > :afterId AND anonymized_at IS NULL "
+            + "AND deletion_requested_at IS NULL AND coalesce(last_seen_at, updated_at, created_at) < :inactiveBefore "
+            + "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<UserRepository.UsernameView> lockDormant(@Param("afterId") long afterId,
+                                                  @Param("inactiveBefore") LocalDateTime inactiveBefore,
+                                                  @Param("limit") int limit);
+
+    /**
+     * Строки справочников логинов удаляются каскадом.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM users WHERE id IN (:ids)", nativeQuery = true)
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Стирает персональные данные, оставляя строку для ссылок из других сервисов: логины заменяются
+     * на {@code deleted_<id>}, пароль — на значение, которое не совпадёт ни с одним хэшем, токены отзываются.
+     */
+    @Modifying
+    @Query(value = "UPDATE users SET username = 'deleted_' || id, email = 'deleted_' || id || '@invalid', "
+            + "password = '!', first_name = NULL, last_name = NULL, phone_number = NULL, "
+            + "token_version = token_version + 1, token_version_changed_at = :now, anonymized_at = :now, "
+            + "updated_at = :now, version = version + 1 WHERE id IN (:ids)", nativeQuery = true)
+    int anonymizeByIds(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query(value = "UPDATE user_usernames SET username = 'deleted_' || user_id WHERE user_id IN (:ids)", nativeQuery = true)
+    void anonymizeUsernames(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "UPDATE user_emails SET email = 'deleted_' || user_id || '@invalid' WHERE user_id IN (:ids)", nativeQuery = true)
+    void anonymizeEmails(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Журнал входов хранит логин и адрес клиента — это тоже персональные данные.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM login_events WHERE user_id IN (:ids)", nativeQuery = true)
+    void deleteLoginEvents(@Param("ids") Collection<Long> ids);
+
+    @Query("select u.id as id, u.tokenVersion as tokenVersion, u.tokenVersionChangedAt as tokenVersionChangedAt "
+            + "from User u where u.id in :ids")
+    List<UserRepository.TokenVersionView> findTokenVersions(@Param("ids") Collection<Long> ids);
+
+    interface CheckpointView {
+        long getLastId();
+
+        LocalDateTime getNextPassAt();
+    }
+}
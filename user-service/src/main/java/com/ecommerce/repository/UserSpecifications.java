@@ -0,0 +1,78 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.model.entity.User;
+import jakarta.persistence.criteria.Expression;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+/**
+ * Условия админского поиска пользователей. Строки сравниваются через {@code lower(...)} —
+ * ровно по тем выражениям, на которых построены индексы из {@code users_search.sql}.
+ */
+public final class UserSpecifications {
+    private static final char ESCAPE = '\\';
+
+    private UserSpecifications() {
+    }
+
+    public static Specification<User> usernameStartsWith(String prefix) {
+        return (root, query, cb) -> cb.like(cb.lower(root.get("username")), escape(prefix) + "%", ESCAPE);
+    }
+
+    public static Specification<User> emailStartsWith(String prefix) {
+        return (root, query, cb) -> cb.like(cb.lower(root.get("email")), escape(prefix) + "%", ESCAPE);
+    }
+
+    public static Specification<User> emailContains(String part) {
+        return (root, query, cb) -> cb.like(cb.lower(root.get("email")), "%" + escape(part) + "%", ESCAPE);
+    }
+
+    /**
+     * Подстрока имени или фамилии: два триграммных индекса объединяются через BitmapOr.
+     */
+    public static Specification<User> nameContains(String part) {
+        return (root, query, cb) -> {
+            String pattern = "%" + escape(part) + "%";
+            return cb.or(
+                    cb.like(cb.lower(root.get("firstName")), pattern, ESCAPE),
+                    cb.like(cb.lower(root.get("lastName")), pattern, ESCAPE));
+        };
+    }
+
+    public static Specification<User> hasRole(User.UserRole role) {
+        return (root, query, cb) -> cb.equal(root.get("role"), role);
+    }
+
+    public static Specification<User> createdFrom(LocalDateTime from) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.<LocalDateTime>get("createdAt"), from);
+    }
+
+    public static Specification<User> createdBefore(LocalDateTime to) {
+        return (root, query, cb) -> cb.lessThan(root.<LocalDateTime>get("createdAt"), to);
+    }
+
+    /**
+     * Строки строго после курсора в порядке {@code created_at DESC, id DESC}.
+     * <p>
+     * Условие {@code created_at <= :createdAt} дублируется отдельно: это диапазон индекса, с которого
+     * начинается сканирование, а дисъюнкция отсекает лишь строки с тем же {@code created_at}.
+     * Без него OR не превращается в границу индекса и глубокие страницы читались бы с самого начала.
+     */
+    public static Specification<User> after(LocalDateTime createdAt, long id) {
+        return (root, query, cb) -> {
+            Expression<LocalDateTime> created = root.get("createdAt");
+            return cb.and(
+                    cb.lessThanOrEqualTo(created, createdAt),
+                    cb.or(cb.lessThan(created, createdAt), cb.lessThan(root.<Long>get("id"), id)));
+        };
+    }
+
+    private static String escape(String value) {
+        return value.toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+}
@@ -0,0 +1,23 @@
+package com.ecommerce.resilience;
+
+import lombok.Getter;
+import org.springframework.dao.TransientDataAccessResourceException;
+
+import java.time.Duration;
+
+/**
+ * Вызов не выполнялся: автомат разомкнут. Это {@link org.springframework.dao.DataAccessException},
+ * поэтому код, уже переживающий недоступность Redis или БД, обрабатывает его так же.
+ */
+@Getter
+public class CallNotPermittedException extends TransientDataAccessResourceException {
+    /**
+     * Не раньше чего автомат пропустит пробный вызов.
+     */
+    private final Duration retryAfter;
+
+    public CallNotPermittedException(String name, Duration retryAfter) {
+        super("Автомат '" + name + "' разомкнут, зависимость временно недоступна");
+        this.retryAfter = retryAfter;
+    }
+}
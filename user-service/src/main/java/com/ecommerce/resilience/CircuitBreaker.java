@@ -0,0 +1,216 @@
+package com.ecommerce.resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.time.Duration;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Автомат защиты одной зависимости.
+ * <p>
+ * Замкнут — вызовы идут как обычно, а исход последних {@code window-size} из них пишется в кольцо. Когда доля
+ * неудачных (сбой соединения, таймаут) и медленных вызовов доходит до порога, автомат размыкается: вызовы
+ * не выполняются вовсе, вместо ожидания таймаута сразу срабатывает запасной вариант. Через {@code open-duration}
+ * пропускается несколько пробных вызовов, и по ним автомат либо замыкается, либо снова размыкается.
+ * <p>
+ * Ошибки самой операции (нарушение ограничения, «не найдено») зависимостью не считаются: она ответила.
+ * Состояние — в датчике {@code circuit.breaker.state} (0 — замкнут, 1 — разомкнут, 2 — пробный режим),
+ * исходы — в счётчике {@code circuit.breaker.calls}.
+ */
+@Slf4j
+public class CircuitBreaker {
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String name;
+    private final boolean enabled;
+    private final CircuitBreakerProperties.Policy policy;
+    private final LongSupplier nanoTime;
+    private final boolean[] window;
+    private final Counter succeeded;
+    private final Counter failed;
+    private final Counter slow;
+    private final Counter shortCircuited;
+
+    private volatile State state = State.CLOSED;
+    private int position;
+    private int recorded;
+    private int failures;
+    private long openedAt;
+    private int trialsStarted;
+    private int trialsSucceeded;
+
+    public CircuitBreaker(String name, boolean enabled, CircuitBreakerProperties.Policy policy, MeterRegistry meterRegistry) {
+        this(name, enabled, policy, meterRegistry, System::nanoTime);
+    }
+
+    CircuitBreaker(String name, boolean enabled, CircuitBreakerProperties.Policy policy, MeterRegistry meterRegistry,
+                   LongSupplier nanoTime) {
+        this.name = name;
+        this.enabled = enabled;
+        this.policy = policy;
+        this.nanoTime = nanoTime;
+        this.window = new boolean[policy.windowSize()];
+        this.succeeded = calls(meterRegistry, "success");
+        this.failed = calls(meterRegistry, "failure");
+        this.slow = calls(meterRegistry, "slow");
+        this.shortCircuited = calls(meterRegistry, "short_circuited");
+        Gauge.builder("circuit.breaker.state", this, breaker -> breaker.state.ordinal())
+                .tag("name", name)
+                .description("0 — замкнут, 1 — разомкнут, 2 — пробные вызовы")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @throws CallNotPermittedException автомат разомкнут, {@code action} не вызывался
+     */
+    public <T> T execute(Supplier<T> action) {
+        return execute(action, e -> {
+            throw e;
+        });
+    }
+
+    /**
+     * @param fallback получает {@link CallNotPermittedException} или сбой зависимости; прочие исключения пробрасываются
+     */
+    public <T> T execute(Supplier<T> action, Function<RuntimeException, T> fallback) {
+        if (!enabled) {
+            return action.get();
+        }
+        if (!tryAcquire()) {
+            shortCircuited.increment();
+            return fallback.apply(new CallNotPermittedException(name, retryAfter()));
+        }
+        long started = nanoTime.getAsLong();
+        T result;
+        try {
+            result = action.get();
+        } catch (RuntimeException e) {
+            if (!isDependencyFailure(e)) {
+                record(false, started);
+                throw e;
+            }
+            failed.increment();
+            onResult(true);
+            return fallback.apply(e);
+        }
+        record(false, started);
+        return result;
+    }
+
+    public State state() {
+        if (state == State.OPEN && nanoTime.getAsLong() - openedAt >= policy.openDuration().toNanos()) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Сбой соединения, таймаут, нехватка соединений в пуле — но не ошибка, которую вернула сама зависимость.
+     */
+    static boolean isDependencyFailure(RuntimeException e) {
+        return e instanceof DataAccessResourceFailureException
+                || e instanceof TransientDataAccessResourceException
+                || e instanceof QueryTimeoutException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof CannotCreateTransactionException;
+    }
+
+    private void record(boolean failure, long started) {
+        boolean tooSlow = nanoTime.getAsLong() - started >= policy.slowCallThreshold().toNanos();
+        (tooSlow ? slow : succeeded).increment();
+        onResult(failure || tooSlow);
+    }
+
+    private boolean tryAcquire() {
+        if (state == State.CLOSED) {
+            return true;
+        }
+        synchronized (this) {
+            if (state == State.OPEN) {
+                if (nanoTime.getAsLong() - openedAt < policy.openDuration().toNanos()) {
+                    return false;
+                }
+                transition(State.HALF_OPEN);
+                trialsStarted = 0;
+                trialsSucceeded = 0;
+            }
+            if (state == State.HALF_OPEN) {
+                if (trialsStarted >= policy.halfOpenCalls()) {
+                    return false;
+                }
+                trialsStarted++;
+            }
+            return true;
+        }
+    }
+
+    private synchronized void onResult(boolean failure) {
+        switch (state) {
+            case CLOSED -> {
+                if (recorded == window.length) {
+                    failures -= window[position] ? 1 : 0;
+                } else {
+                    recorded++;
+                }
+                window[position] = failure;
+                failures += failure ? 1 : 0;
+                position = (position + 1) % window.length;
+                if (recorded >= policy.minimumCalls() && failures * 100 >= policy.failureRateThreshold() * recorded) {
+                    open();
+                }
+            }
+            case HALF_OPEN -> {
+                if (failure) {
+                    open();
+                } else if (++trialsSucceeded >= policy.halfOpenCalls()) {
+                    transition(State.CLOSED);
+                    position = 0;
+                    recorded = 0;
+                    failures = 0;
+                }
+            }
+            case OPEN -> {
+                // Вызов начался до размыкания — на решение он уже не влияет
+            }
+        }
+    }
+
+    private void open() {
+        openedAt = nanoTime.getAsLong();
+        transition(State.OPEN);
+    }
+
+    private void transition(State next) {
+        State previous = state;
+        state = next;
+        if (next == State.OPEN) {
+            log.warn("Автомат '{}' разомкнут ({} -> OPEN): вызовы не выполняются {} мс", name, previous,
+                    policy.openDuration().toMillis());
+        } else {
+            log.info("Автомат '{}': {} -> {}", name, previous, next);
+        }
+    }
+
+    private Duration retryAfter() {
+        long left = policy.openDuration().toNanos() - (nanoTime.getAsLong() - openedAt);
+        return Duration.ofNanos(Math.max(0, left));
+    }
+
+    private Counter calls(MeterRegistry meterRegistry, String outcome) {
+        return meterRegistry.counter("circuit.breaker.calls", "name", name, "outcome", outcome);
+    }
+}
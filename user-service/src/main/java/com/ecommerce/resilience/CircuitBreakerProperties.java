@@ -0,0 +1,37 @@
+package com.ecommerce.resilience;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Автоматы защиты внешних зависимостей ({@code circuit-breaker.*}).
+ *
+ * @param enabled  {@code false} — вызовы идут напрямую, автоматы не размыкаются
+ * @param redis    Redis: идемпотентность, квоты, рассылка отзывов токенов
+ * @param database Postgres: чтения на пути запроса (вход, профиль, пользователь по токену)
+ */
+@ConfigurationProperties("circuit-breaker")
+public record CircuitBreakerProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue Policy redis,
+        @DefaultValue Policy database) {
+
+    /**
+     * @param failureRateThreshold доля неудачных и медленных вызовов в окне (%), при которой автомат размыкается
+     * @param slowCallThreshold    вызов дольше считается неудачным, даже если завершился успешно
+     * @param windowSize           окно — столько последних вызовов
+     * @param minimumCalls         меньше вызовов в окне — решение не принимается
+     * @param openDuration         сколько автомат разомкнут до пробных вызовов
+     * @param halfOpenCalls        пробные вызовы: все успешны — автомат замыкается, хоть один неудачен — снова размыкается
+     */
+    public record Policy(
+            @DefaultValue("50") int failureRateThreshold,
+            @DefaultValue("500ms") Duration slowCallThreshold,
+            @DefaultValue("20") int windowSize,
+            @DefaultValue("10") int minimumCalls,
+            @DefaultValue("5s") Duration openDuration,
+            @DefaultValue("3") int halfOpenCalls) {
+    }
+}
@@ -0,0 +1,27 @@
+package com.ecommerce.resilience;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Автоматы по зависимостям: один на Redis и один на Postgres, общие для всех вызывающих, —
+ * сбой, замеченный одним путём, сразу защищает и остальные.
+ */
+@Component
+public class CircuitBreakers {
+    private final CircuitBreaker redis;
+    private final CircuitBreaker database;
+
+    public CircuitBreakers(CircuitBreakerProperties properties, MeterRegistry meterRegistry) {
+        this.redis = new CircuitBreaker("redis", properties.enabled(), properties.redis(), meterRegistry);
+        this.database = new CircuitBreaker("database", properties.enabled(), properties.database(), meterRegistry);
+    }
+
+    public CircuitBreaker redis() {
+        return redis;
+    }
+
+    public CircuitBreaker database() {
+        return database;
+    }
+}
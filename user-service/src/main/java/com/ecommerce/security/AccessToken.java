@@ -0,0 +1,13 @@
+package com.ecommerce.security;
+
+import com.ecommerce.model.entity.User;
+
+/**
+ * Проверенное содержимое JWT, достаточное для аутентификации запроса без обращения к БД.
+ */
+public record AccessToken(long userId, String username, User.UserRole role, long tokenVersion) {
+
+    public AuthenticatedUser toPrincipal() {
+        return new AuthenticatedUser(userId, username, null, UserAuthorities.of(role));
+    }
+}
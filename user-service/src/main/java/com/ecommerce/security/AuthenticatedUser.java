@@ -0,0 +1,37 @@
+package com.ecommerce.security;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Неизменяемый principal аутентифицированного пользователя: ID из БД, ник и полномочия.
+ * <p>
+ * В отличие от {@link org.springframework.security.core.userdetails.User} не копирует полномочия
+ * в новый отсортированный набор: неизменяемый список (например, из {@link UserAuthorities})
+ * используется как есть. Пароль задаётся только при входе по логину; для запросов по токену он {@code null}.
+ */
+@Getter
+@ToString(exclude = "password")
+@EqualsAndHashCode(of = {"id", "username"})
+public final class AuthenticatedUser implements UserDetails {
+
+    private final Long id;
+    private final String username;
+    private final String password;
+    private final List<GrantedAuthority> authorities;
+
+    public AuthenticatedUser(Long id, String username, String password,
+                             Collection<? extends GrantedAuthority> authorities) {
+        this.id = id;
+        this.username = username;
+        this.password = password;
+        // Для List.of/UserAuthorities copyOf возвращает тот же экземпляр
+        this.authorities = List.copyOf(authorities);
+    }
+}
@@ -0,0 +1,64 @@
+package com.ecommerce.security;
+
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+
+/**
+ * Аутентификация по JWT: одна обёртка над principal. {@code UsernamePasswordAuthenticationToken}
+ * копирует полномочия в новый список и несёт изменяемые details, которые здесь не нужны.
+ * <p>
+ * Создаётся аутентифицированной; по контракту {@link Authentication} её можно только разжаловать
+ * ({@code setAuthenticated(false)}), но не вернуть обратно.
+ */
+@ToString
+@EqualsAndHashCode
+public final class JwtAuthentication implements Authentication {
+    private final AuthenticatedUser principal;
+    private volatile boolean authenticated = true;
+
+    public JwtAuthentication(AuthenticatedUser principal) {
+        this.principal = principal;
+    }
+
+    @Override
+    public AuthenticatedUser getPrincipal() {
+        return principal;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return principal.getAuthorities();
+    }
+
+    @Override
+    public Object getCredentials() {
+        return null;
+    }
+
+    @Override
+    public Object getDetails() {
+        return null;
+    }
+
+    @Override
+    public boolean isAuthenticated() {
+        return authenticated;
+    }
+
+    @Override
+    public void setAuthenticated(boolean isAuthenticated) {
+        if (isAuthenticated) {
+            throw new IllegalArgumentException("JwtAuthentication нельзя снова пометить аутентифицированной");
+        }
+        authenticated = false;
+    }
+
+    @Override
+    public String getName() {
+        return principal.getUsername();
+    }
+}
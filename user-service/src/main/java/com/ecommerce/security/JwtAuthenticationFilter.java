@@ -1,40 +1,62 @@
 package com.ecommerce.security;
 
+import com.ecommerce.activity.UserActivityTracker;
+import com.ecommerce.diagnostics.TokenVerificationEvent;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 
+/**
+ * Аутентификация по Bearer-токену. Горячий путь: один разбор токена, готовые наборы полномочий
+ * ({@link UserAuthorities}), неизменяемые {@link AuthenticatedUser} и {@link JwtAuthentication}
+ * без details. Principal строится из claims, а отзыв проверяется по версии токена в {@link TokenVersionCache} —
+ * без запросов к БД. Успешный запрос отмечается в {@link UserActivityTracker} (в памяти, в БД — пакетно). Публичные маршруты и внутренние (там доступ по своему токену) фильтр пропускает целиком.
+ */
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
+    public static final String PUBLIC_PATH_PREFIX = "/api/auth/";
+    public static final String INTERNAL_PATH_PREFIX = "/internal/";
+    private static final String BEARER_PREFIX = "Bearer ";
+
     private final JwtTokenProvider jwtTokenProvider;
-    private final UserDetailsService userDetailsService;
+    private final TokenVersionCache tokenVersionCache;
+    private final UserActivityTracker userActivityTracker;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        int pathStart = request.getContextPath().length();
+        return uri.startsWith(PUBLIC_PATH_PREFIX, pathStart) || uri.startsWith(INTERNAL_PATH_PREFIX, pathStart);
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
         String token = resolveToken(request);
-        if (token != null && jwtTokenProvider.validateToken(token)) {
-            Long userId = jwtTokenProvider.getUserIdFromToken(token); // ← из subject!
-
-            if (userId != null) {
-                UserDetails userDetails = userDetailsService.loadUserById(userId);
+        if (token != null) {
+            TokenVerificationEvent verification = TokenVerificationEvent.start();
+            AccessToken accessToken = jwtTokenProvider.parseAccessToken(token);
 
-                UsernamePasswordAuthenticationToken authentication =
-                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+            if (accessToken == null) {
+                verification.finish(TokenVerificationEvent.INVALID, 0);
+            } else if (tokenVersionCache.isCurrent(accessToken.userId(), accessToken.tokenVersion())) {
+                verification.finish(TokenVerificationEvent.VALID, accessToken.userId());
+                SecurityContextHolder.getContext().setAuthentication(new JwtAuthentication(accessToken.toPrincipal()));
+                userActivityTracker.seen(accessToken.userId());
+            } else {
+                verification.finish(TokenVerificationEvent.REVOKED, accessToken.userId());
+                log.debug("Токен пользователя {} отозван (версия {})", accessToken.userId(), accessToken.tokenVersion());
             }
         }
         filterChain.doFilter(request, response);
@@ -42,8 +64,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private String resolveToken(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
-        if (bearerToken != null && bearerToken.startsWith("Bearer ")) {
-            return bearerToken.substring(7);
+        if (bearerToken != null && bearerToken.startsWith(BEARER_PREFIX)) {
+            return bearerToken.substring(BEARER_PREFIX.length());
         }
         return null;
     }
@@ -18,6 +18,7 @@ import java.util.Date;
 @Component
 @RequiredArgsConstructor
 public class JwtTokenProvider {
+    static final String TOKEN_VERSION_CLAIM = "tokenVersion";
 
     @Value("${jwt.secret}")
     private String jwtSecret;
@@ -26,11 +27,14 @@ public class JwtTokenProvider {
     private long jwtExpiration;
 
     private SecretKey key;
+    private JwtParser parser;
 
     @PostConstruct
     protected void init() {
         try {
             this.key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+            // Парсер потокобезопасен; сборка на каждый запрос заново создавала ключ, алгоритмы и десериализатор
+            this.parser = Jwts.parser().verifyWith(key).build();
             log.info("JwtTokenProvider успешно инициализирован. Длина секрета: {} символов", jwtSecret.length());
 
             if (jwtSecret.length() < 32) {
@@ -54,6 +58,7 @@ public class JwtTokenProvider {
                 .claim("firstName", user.getFirstName())
                 .claim("lastName", user.getLastName())
                 .claim("role", user.getRole().toString())
+                .claim(TOKEN_VERSION_CLAIM, user.getTokenVersion())
                 .issuedAt(now)
                 .expiration(expiryDate)
                 .signWith(key, Jwts.SIG.HS256)
@@ -61,54 +66,71 @@ public class JwtTokenProvider {
     }
 
     public boolean validateToken(String token) {
-        try {
-            Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(token);
-            log.debug("Токен валиден");
-            return true;
-        } catch (SecurityException ex) {
-            log.error("Неверная подпись JWT токена: {}", ex.getMessage());
-        } catch (MalformedJwtException ex) {
-            log.error("Неверный формат JWT токена: {}", ex.getMessage());
-        } catch (ExpiredJwtException ex) {
-            log.error("JWT токен истек: {}", ex.getMessage());
-        } catch (UnsupportedJwtException ex) {
-            log.error("Неподдерживаемый JWT токен: {}", ex.getMessage());
-        } catch (IllegalArgumentException ex) {
-            log.error("JWT claims строка пуста: {}", ex.getMessage());
-        }
-        return false;
+        return parseClaims(token) != null;
     }
 
+    /**
+     * Проверяет подпись и срок действия и возвращает ID пользователя из subject — за один разбор токена.
+     *
+     * @return ID или {@code null}, если токен недействителен
+     */
     public Long getUserIdFromToken(String token) {
+        Claims claims = parseClaims(token);
+        if (claims == null) {
+            return null;
+        }
         try {
-            Claims claims = Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-
             return Long.parseLong(claims.getSubject());
-        } catch (Exception ex) {
+        } catch (NumberFormatException ex) {
             log.warn("Не удалось извлечь userId из токена: {}", ex.getMessage());
             return null;
         }
     }
 
-    public String getUsernameFromToken(String token) {
+    /**
+     * Разбирает токен целиком за один проход. Токены, выданные до появления версии, считаются версией 0.
+     *
+     * @return содержимое токена или {@code null}, если токен недействителен
+     */
+    public AccessToken parseAccessToken(String token) {
+        Claims claims = parseClaims(token);
+        if (claims == null) {
+            return null;
+        }
         try {
-            return Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload()
-                    .getSubject();
-        } catch (Exception ex) {
-            log.warn("Не удалось извлечь username из токена: {}", ex.getMessage());
+            Number tokenVersion = claims.get(TOKEN_VERSION_CLAIM, Number.class);
+            return new AccessToken(
+                    Long.parseLong(claims.getSubject()),
+                    claims.get("username", String.class),
+                    User.UserRole.valueOf(claims.get("role", String.class)),
+                    tokenVersion != null ? tokenVersion.longValue() : 0);
+        } catch (RuntimeException ex) {
+            log.warn("Неполный JWT токен: {}", ex.getMessage());
             return null;
         }
     }
 
+    public String getUsernameFromToken(String token) {
+        Claims claims = parseClaims(token);
+        return claims != null ? claims.getSubject() : null;
+    }
+
+    private Claims parseClaims(String token) {
+        try {
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            log.debug("Токен валиден");
+            return claims;
+        } catch (SecurityException ex) {
+            log.error("Неверная подпись JWT токена: {}", ex.getMessage());
+        } catch (MalformedJwtException ex) {
+            log.error("Неверный формат JWT токена: {}", ex.getMessage());
+        } catch (ExpiredJwtException ex) {
+            log.error("JWT токен истек: {}", ex.getMessage());
+        } catch (UnsupportedJwtException ex) {
+            log.error("Неподдерживаемый JWT токен: {}", ex.getMessage());
+        } catch (IllegalArgumentException ex) {
+            log.error("JWT claims строка пуста: {}", ex.getMessage());
+        }
+        return null;
+    }
 }
@@ -0,0 +1,69 @@
+package com.ecommerce.security;
+
+import com.ecommerce.resilience.CircuitBreaker;
+import com.ecommerce.resilience.CircuitBreakers;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Рассылает отзывы токенов остальным узлам через Redis pub/sub и применяет чужие.
+ * Сообщение — {@code userId:version}. Доставка best-effort: пропущенное сообщение
+ * подхватит досинхронизация {@link TokenVersionCache#sync()}. Рассылка идёт в потоке запроса после фиксации,
+ * поэтому через автомат Redis: при зависшем Redis отзыв не ждёт таймаута, а остаётся досинхронизации.
+ * Полученный отзыв, кроме кэша версий, объявляется {@link TokenVersionReceivedEvent} — по нему остальные
+ * ближние кэши узла сбрасывают данные пользователя (например, удалённого).
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "token-versions.broadcast", havingValue = "redis", matchIfMissing = true)
+public class RedisTokenVersionBroadcaster implements MessageListener {
+    public static final String CHANNEL = "user-token-versions";
+
+    private final StringRedisTemplate redisTemplate;
+    private final TokenVersionCache tokenVersionCache;
+    private final CircuitBreaker circuitBreaker;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public RedisTokenVersionBroadcaster(StringRedisTemplate redisTemplate, TokenVersionCache tokenVersionCache,
+                                        CircuitBreakers circuitBreakers, ApplicationEventPublisher eventPublisher) {
+        this.redisTemplate = redisTemplate;
+        this.tokenVersionCache = tokenVersionCache;
+        this.circuitBreaker = circuitBreakers.redis();
+        this.eventPublisher = eventPublisher;
+    }
+
+    @TransactionalEventListener
+    public void onChanged(TokenVersionChangedEvent event) {
+        try {
+            circuitBreaker.execute(() -> redisTemplate.convertAndSend(CHANNEL, event.userId() + ":" + event.version()));
+        } catch (DataAccessException e) {
+            log.warn("Не удалось разослать отзыв токенов пользователя {}: {}", event.userId(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf(':');
+        long userId;
+        long version;
+        try {
+            userId = Long.parseLong(body, 0, separator, 10);
+            version = Long.parseLong(body, separator + 1, body.length(), 10);
+        } catch (RuntimeException e) {
+            log.warn("Некорректное сообщение об отзыве токенов: '{}'", body);
+            return;
+        }
+        tokenVersionCache.advance(userId, version);
+        eventPublisher.publishEvent(new TokenVersionReceivedEvent(userId, version));
+    }
+}
@@ -0,0 +1,87 @@
+package com.ecommerce.security;
+
+import com.ecommerce.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ближний кэш поколений токенов: проверка JWT на каждом запросе — поиск в карте, без запросов к БД.
+ * <p>
+ * В карте только пользователи, хоть раз отзывавшие токены; отсутствие означает версию 0. Поэтому карта
+ * полна с момента загрузки (до старта веб-сервера), и промаха, требующего похода в БД, не бывает.
+ * Версии только растут: {@link #advance} берёт максимум, так что порядок доставки не важен.
+ * Источники обновлений: собственные отзывы после фиксации транзакции, Redis pub/sub от других узлов
+ * ({@link RedisTokenVersionBroadcaster}) и периодическая досинхронизация из Postgres на случай
+ * потерянных сообщений.
+ */
+@Slf4j
+@Component
+public class TokenVersionCache {
+    private final UserRepository userRepository;
+    private final Duration syncOverlap;
+    private final Map<Long, Long> versions = new ConcurrentHashMap<>();
+    private volatile LocalDateTime lastChangeSeen;
+
+    public TokenVersionCache(UserRepository userRepository,
+                             @Value("${token-versions.sync-overlap:1m}") Duration syncOverlap) {
+        this.userRepository = userRepository;
+        this.syncOverlap = syncOverlap;
+    }
+
+    @PostConstruct
+    void load() {
+        apply(userRepository.findByTokenVersionChangedAtIsNotNull());
+        log.info("Загружены версии токенов: {} пользователей с отозванными токенами", versions.size());
+    }
+
+    public boolean isCurrent(long userId, long tokenVersion) {
+        Long current = versions.get(userId);
+        return current == null || tokenVersion >= current;
+    }
+
+    public void advance(long userId, long version) {
+        versions.merge(userId, version, Math::max);
+    }
+
+    @TransactionalEventListener
+    public void onChanged(TokenVersionChangedEvent event) {
+        advance(event.userId(), event.version());
+    }
+
+    /**
+     * Перечитывает изменения с запасом {@code sync-overlap}: он покрывает транзакции, зафиксированные
+     * позже уже прочитанных, и расхождение часов узлов.
+     */
+    @Scheduled(fixedDelayString = "${token-versions.sync-interval:30s}")
+    public void sync() {
+        LocalDateTime since = lastChangeSeen;
+        apply(since == null
+                ? userRepository.findByTokenVersionChangedAtIsNotNull()
+                : userRepository.findByTokenVersionChangedAtGreaterThanEqual(since.minus(syncOverlap)));
+    }
+
+    int size() {
+        return versions.size();
+    }
+
+    private void apply(List<UserRepository.TokenVersionView> changes) {
+        LocalDateTime latest = lastChangeSeen;
+        for (UserRepository.TokenVersionView change : changes) {
+            advance(change.getId(), change.getTokenVersion());
+            if (latest == null || change.getTokenVersionChangedAt().isAfter(latest)) {
+                latest = change.getTokenVersionChangedAt();
+            }
+        }
+        lastChangeSeen = latest;
+    }
+}
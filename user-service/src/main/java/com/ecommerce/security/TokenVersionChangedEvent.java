@@ -0,0 +1,7 @@
+package com.ecommerce.security;
+
+/**
+ * Поколение токенов пользователя выросло до {@code version}; токены с меньшей версией недействительны.
+ */
+public record TokenVersionChangedEvent(long userId, long version) {
+}
@@ -0,0 +1,9 @@
+package com.ecommerce.security;
+
+/**
+ * Поколение токенов пользователя выросло на другом узле (получено рассылкой {@link RedisTokenVersionBroadcaster}).
+ * Публикуется вне транзакции, поэтому слушается через {@code @EventListener}. Версия {@link Long#MAX_VALUE} —
+ * аккаунт удалён.
+ */
+public record TokenVersionReceivedEvent(long userId, long version) {
+}
@@ -0,0 +1,30 @@
+package com.ecommerce.security;
+
+import com.ecommerce.model.entity.User;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Наборы полномочий по ролям, созданные один раз: запрос получает готовый неизменяемый список,
+ * а не собирает {@code "ROLE_" + role} и новый {@link SimpleGrantedAuthority} каждый раз.
+ */
+public final class UserAuthorities {
+    private static final Map<User.UserRole, List<GrantedAuthority>> BY_ROLE = new EnumMap<>(User.UserRole.class);
+
+    static {
+        for (User.UserRole role : User.UserRole.values()) {
+            BY_ROLE.put(role, List.of(new SimpleGrantedAuthority("ROLE_" + role.name())));
+        }
+    }
+
+    private UserAuthorities() {
+    }
+
+    public static List<GrantedAuthority> of(User.UserRole role) {
+        return BY_ROLE.get(role);
+    }
+}
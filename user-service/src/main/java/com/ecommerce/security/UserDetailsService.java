@@ -6,5 +6,5 @@ public interface UserDetailsService {
 
     UserDetails loadUserByUsername(String username);
 
-    UserDetails loadUserById(Long userId);
+    AuthenticatedUser loadUserById(Long userId);
 }
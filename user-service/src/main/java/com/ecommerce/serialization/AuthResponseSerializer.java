@@ -0,0 +1,31 @@
+package com.ecommerce.serialization;
+
+import com.ecommerce.model.dto.response.AuthResponse;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+public class AuthResponseSerializer extends StdSerializer<AuthResponse> {
+
+    private static final SerializedString TOKEN = new SerializedString("token");
+    private static final SerializedString TYPE = new SerializedString("type");
+    private static final SerializedString USER_ID = new SerializedString("userId");
+    private static final SerializedString USERNAME = new SerializedString("username");
+
+    public AuthResponseSerializer() {
+        super(AuthResponse.class);
+    }
+
+    @Override
+    public void serialize(AuthResponse value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(value);
+        JsonFields.writeString(gen, TOKEN, value.getToken());
+        JsonFields.writeString(gen, TYPE, value.getType());
+        JsonFields.writeNumber(gen, USER_ID, value.getUserId());
+        JsonFields.writeString(gen, USERNAME, value.getUsername());
+        gen.writeEndObject();
+    }
+}
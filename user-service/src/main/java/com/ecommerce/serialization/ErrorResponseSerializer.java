@@ -0,0 +1,33 @@
+package com.ecommerce.serialization;
+
+import com.ecommerce.exception.ErrorResponse;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+public class ErrorResponseSerializer extends StdSerializer<ErrorResponse> {
+
+    private static final SerializedString TIMESTAMP = new SerializedString("timestamp");
+    private static final SerializedString STATUS = new SerializedString("status");
+    private static final SerializedString ERROR = new SerializedString("error");
+    private static final SerializedString MESSAGE = new SerializedString("message");
+    private static final SerializedString PATH = new SerializedString("path");
+
+    public ErrorResponseSerializer() {
+        super(ErrorResponse.class);
+    }
+
+    @Override
+    public void serialize(ErrorResponse value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(value);
+        JsonFields.writeDateTime(gen, TIMESTAMP, value.getTimestamp());
+        JsonFields.writeNumber(gen, STATUS, value.getStatus());
+        JsonFields.writeString(gen, ERROR, value.getError());
+        JsonFields.writeString(gen, MESSAGE, value.getMessage());
+        JsonFields.writeString(gen, PATH, value.getPath());
+        gen.writeEndObject();
+    }
+}
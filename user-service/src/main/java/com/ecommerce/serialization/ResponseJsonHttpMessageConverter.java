@@ -0,0 +1,52 @@
+package com.ecommerce.serialization;
+
+import com.ecommerce.exception.ErrorResponse;
+import com.ecommerce.model.dto.response.AuthResponse;
+import com.ecommerce.model.dto.response.UserResponse;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Запись ответов API в JSON через закэшированные {@link ResponseWriters}. Тело сериализуется
+ * в массив целиком, поэтому ответ уходит с {@code Content-Length}, а не chunked.
+ * Остальные типы и чтение запросов остаются стандартному конвертеру Jackson.
+ */
+public class ResponseJsonHttpMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+    private static final Set<Class<?>> SUPPORTED_TYPES = Set.of(
+            UserResponse.class, AuthResponse.class, ErrorResponse.class);
+
+    private final ResponseWriters responseWriters;
+
+    public ResponseJsonHttpMessageConverter(ResponseWriters responseWriters) {
+        super(MediaType.APPLICATION_JSON, new MediaType("application", "*+json"));
+        this.responseWriters = responseWriters;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return SUPPORTED_TYPES.contains(clazz);
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new UnsupportedOperationException("Конвертер используется только для записи ответов");
+    }
+
+    @Override
+    protected void writeInternal(Object value, HttpOutputMessage outputMessage) throws IOException {
+        byte[] body = responseWriters.forType(value.getClass()).writeValueAsBytes(value);
+        outputMessage.getHeaders().setContentLength(body.length);
+        outputMessage.getBody().write(body);
+    }
+}
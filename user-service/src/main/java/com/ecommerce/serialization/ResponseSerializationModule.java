@@ -0,0 +1,20 @@
+package com.ecommerce.serialization;
+
+import com.ecommerce.exception.ErrorResponse;
+import com.ecommerce.model.dto.response.AuthResponse;
+import com.ecommerce.model.dto.response.UserResponse;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+
+/**
+ * Рукописные сериализаторы ответов API. Формат совпадает с рефлексивной сериализацией
+ * Jackson по умолчанию (порядок полей, {@code null}, ISO-даты), поэтому клиенты разницы не видят.
+ */
+public class ResponseSerializationModule extends SimpleModule {
+
+    public ResponseSerializationModule() {
+        super("ResponseSerializationModule");
+        addSerializer(UserResponse.class, new UserResponseSerializer());
+        addSerializer(AuthResponse.class, new AuthResponseSerializer());
+        addSerializer(ErrorResponse.class, new ErrorResponseSerializer());
+    }
+}
@@ -0,0 +1,26 @@
+package com.ecommerce.serialization;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Кэш {@link ObjectWriter} по типу: корневой сериализатор находится один раз,
+ * а не при каждом ответе.
+ */
+public class ResponseWriters {
+
+    private final ClassValue<ObjectWriter> writers;
+
+    public ResponseWriters(ObjectMapper objectMapper) {
+        this.writers = new ClassValue<>() {
+            @Override
+            protected ObjectWriter computeValue(Class<?> type) {
+                return objectMapper.writerFor(type);
+            }
+        };
+    }
+
+    public ObjectWriter forType(Class<?> type) {
+        return writers.get(type);
+    }
+}
@@ -0,0 +1,39 @@
+package com.ecommerce.serialization;
+
+import com.ecommerce.model.dto.response.UserResponse;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+public class UserResponseSerializer extends StdSerializer<UserResponse> {
+
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString USERNAME = new SerializedString("username");
+    private static final SerializedString EMAIL = new SerializedString("email");
+    private static final SerializedString FIRST_NAME = new SerializedString("firstName");
+    private static final SerializedString LAST_NAME = new SerializedString("lastName");
+    private static final SerializedString PHONE_NUMBER = new SerializedString("phoneNumber");
+    private static final SerializedString ROLE = new SerializedString("role");
+    private static final SerializedString CREATED_AT = new SerializedString("createdAt");
+
+    public UserResponseSerializer() {
+        super(UserResponse.class);
+    }
+
+    @Override
+    public void serialize(UserResponse value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(value);
+        JsonFields.writeNumber(gen, ID, value.getId());
+        JsonFields.writeString(gen, USERNAME, value.getUsername());
+        JsonFields.writeString(gen, EMAIL, value.getEmail());
+        JsonFields.writeString(gen, FIRST_NAME, value.getFirstName());
+        JsonFields.writeString(gen, LAST_NAME, value.getLastName());
+        JsonFields.writeString(gen, PHONE_NUMBER, value.getPhoneNumber());
+        JsonFields.writeString(gen, ROLE, value.getRole());
+        JsonFields.writeDateTime(gen, CREATED_AT, value.getCreatedAt());
+        gen.writeEndObject();
+    }
+}
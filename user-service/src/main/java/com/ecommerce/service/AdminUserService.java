@@ -0,0 +1,9 @@
+package com.ecommerce.service;
+
+import com.ecommerce.model.dto.request.UserSearchRequest;
+import com.ecommerce.model.dto.response.UserPageResponse;
+
+public interface AdminUserService {
+
+    UserPageResponse searchUsers(UserSearchRequest request);
+}
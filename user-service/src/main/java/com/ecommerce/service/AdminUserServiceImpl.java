@@ -0,0 +1,79 @@
+package com.ecommerce.service;
+
+import com.ecommerce.mapper.UserMapper;
+import com.ecommerce.model.dto.request.UserSearchRequest;
+import com.ecommerce.model.dto.response.UserPageResponse;
+import com.ecommerce.model.entity.User;
+import com.ecommerce.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.ecommerce.repository.UserSpecifications.*;
+
+/**
+ * Поиск пользователей для поддержки. Пагинация keyset: следующая страница начинается с курсора
+ * (created_at, id) последней строки, поэтому стоимость запроса не растёт с номером страницы, в отличие от OFFSET.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AdminUserServiceImpl implements AdminUserService {
+    private static final Sort ORDER = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+
+    private final UserRepository userRepository;
+    private final UserMapper userMapper;
+
+    @Override
+    @Transactional(readOnly = true)
+    public UserPageResponse searchUsers(UserSearchRequest request) {
+        List<Specification<User>> filters = new ArrayList<>();
+        if (request.getUsername() != null) {
+            filters.add(usernameStartsWith(request.getUsername()));
+        }
+        if (request.getEmail() != null) {
+            filters.add(request.getEmail().startsWith("@")
+                    ? emailContains(request.getEmail())
+                    : emailStartsWith(request.getEmail()));
+        }
+        if (request.getName() != null) {
+            filters.add(nameContains(request.getName()));
+        }
+        if (request.getRole() != null) {
+            filters.add(hasRole(request.getRole()));
+        }
+        if (request.getCreatedFrom() != null) {
+            filters.add(createdFrom(request.getCreatedFrom()));
+        }
+        if (request.getCreatedTo() != null) {
+            filters.add(createdBefore(request.getCreatedTo()));
+        }
+        if (request.getCursor() != null) {
+            UserSearchCursor cursor = UserSearchCursor.decode(request.getCursor());
+            filters.add(after(cursor.createdAt(), cursor.id()));
+        }
+
+        int limit = request.getLimit();
+        // Лишняя строка показывает, есть ли следующая страница, без отдельного COUNT
+        List<User> users = userRepository.findBy(Specification.allOf(filters),
+                query -> query.sortBy(ORDER).limit(limit + 1).all());
+        log.debug("Поиск пользователей {}: найдено {}", request, users.size());
+
+        String nextCursor = null;
+        if (users.size() > limit) {
+            users = users.subList(0, limit);
+            User last = users.get(limit - 1);
+            nextCursor = new UserSearchCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return UserPageResponse.builder()
+                .items(users.stream().map(userMapper::toDto).toList())
+                .nextCursor(nextCursor)
+                .build();
+    }
+}
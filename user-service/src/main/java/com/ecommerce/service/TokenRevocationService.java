@@ -0,0 +1,11 @@
+package com.ecommerce.service;
+
+public interface TokenRevocationService {
+
+    /**
+     * Отзывает все выданные пользователю токены, включая текущий.
+     *
+     * @return новая версия токенов пользователя
+     */
+    long revokeAllTokens(Long userId);
+}
@@ -0,0 +1,31 @@
+package com.ecommerce.service;
+
+import com.ecommerce.exception.custom_exceptions.UserNotFoundException;
+import com.ecommerce.repository.UserRepository;
+import com.ecommerce.security.TokenVersionChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TokenRevocationServiceImpl implements TokenRevocationService {
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    @Transactional
+    public long revokeAllTokens(Long userId) {
+        if (userRepository.incrementTokenVersion(userId) == 0) {
+            throw new UserNotFoundException("Пользователь с ID " + userId + " не найден");
+        }
+        long version = userRepository.findTokenVersionById(userId);
+        // Кэш и рассылка обновятся после фиксации: откат не должен отклонять ещё действующие токены
+        eventPublisher.publishEvent(new TokenVersionChangedEvent(userId, version));
+        log.info("Отозваны все токены пользователя {}: версия {}", userId, version);
+        return version;
+    }
+}
@@ -0,0 +1,15 @@
+package com.ecommerce.service;
+
+import com.ecommerce.model.dto.request.UserUpdateRequest;
+import com.ecommerce.model.dto.response.UserBatchUpdateResponse;
+
+import java.util.Map;
+
+public interface UserBatchUpdateService {
+
+    /**
+     * Массовое изменение профилей для поддержки и скриптов миграции. Профили обрабатываются порциями,
+     * каждая — в своей транзакции; ошибка порции не мешает остальным.
+     */
+    UserBatchUpdateResponse updateProfiles(Map<Long, UserUpdateRequest> updates);
+}
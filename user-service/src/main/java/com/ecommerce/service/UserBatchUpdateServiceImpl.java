@@ -0,0 +1,139 @@
+package com.ecommerce.service;
+
+import com.ecommerce.mapper.UserMapper;
+import com.ecommerce.model.dto.request.UserUpdateRequest;
+import com.ecommerce.model.dto.response.UserBatchUpdateResponse;
+import com.ecommerce.model.dto.response.UserBatchUpdateResult;
+import com.ecommerce.model.dto.response.UserBatchUpdateResult.Status;
+import com.ecommerce.model.entity.User;
+import com.ecommerce.outbox.UserEventOutbox;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Порция — одна транзакция: строки читаются одним {@code SELECT ... FOR UPDATE} (по возрастанию id, чтобы
+ * параллельные пакеты не взаимоблокировались), изменения пишутся одним пакетным UPDATE, события outbox —
+ * одной пакетной вставкой. Кэш профилей узла сбрасывается одним событием на порцию после её фиксации.
+ * <p>
+ * UPDATE увеличивает {@code version}: одиночное изменение того же профиля, прочитанное раньше, получит
+ * конфликт оптимистической блокировки, а не затрёт пакетное. Стёртые аккаунты не меняются — иначе
+ * в них вернулись бы персональные данные.
+ */
+@Slf4j
+@Service
+public class UserBatchUpdateServiceImpl implements UserBatchUpdateService {
+    private static final String SELECT_FOR_UPDATE = "SELECT id, username, email, first_name, last_name, phone_number, "
+            + "role, created_at, version FROM users WHERE id IN (:ids) AND anonymized_at IS NULL ORDER BY id FOR UPDATE";
+    private static final String UPDATE = "UPDATE users SET first_name = ?, last_name = ?, phone_number = ?, "
+            + "updated_at = ?, version = version + 1 WHERE id = ?";
+    private static final RowMapper<User> USER_ROW = (rs, rowNum) -> User.builder()
+            .id(rs.getLong("id"))
+            .username(rs.getString("username"))
+            .email(rs.getString("email"))
+            .firstName(rs.getString("first_name"))
+            .lastName(rs.getString("last_name"))
+            .phoneNumber(rs.getString("phone_number"))
+            .role(User.UserRole.valueOf(rs.getString("role")))
+            .createdAt(rs.getObject("created_at", LocalDateTime.class))
+            .version(rs.getLong("version"))
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UserMapper userMapper;
+    private final UserEventOutbox userEventOutbox;
+    private final MeterRegistry meterRegistry;
+    private final int chunkSize;
+
+    public UserBatchUpdateServiceImpl(JdbcTemplate jdbcTemplate,
+                                      NamedParameterJdbcTemplate namedJdbcTemplate,
+                                      TransactionTemplate transactionTemplate,
+                                      UserMapper userMapper,
+                                      UserEventOutbox userEventOutbox,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${user-batch-update.chunk-size:500}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.userMapper = userMapper;
+        this.userEventOutbox = userEventOutbox;
+        this.meterRegistry = meterRegistry;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public UserBatchUpdateResponse updateProfiles(Map<Long, UserUpdateRequest> updates) {
+        log.info("Пакетное изменение профилей: {} пользователей, порции по {}", updates.size(), chunkSize);
+        Map<Long, UserBatchUpdateResult> results = new LinkedHashMap<>(updates.size() * 2);
+        List<Long> ids = new ArrayList<>(updates.keySet());
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            List<Long> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+            try {
+                results.putAll(transactionTemplate.execute(status -> updateChunk(chunk, updates)));
+            } catch (RuntimeException e) {
+                log.warn("Порция пакетного изменения профилей ({} шт., id {}..{}) откатилась: {}",
+                        chunk.size(), chunk.get(0), chunk.get(chunk.size() - 1), e.getMessage());
+                chunk.forEach(id -> results.put(id, UserBatchUpdateResult.builder()
+                        .id(id).status(Status.FAILED).error("Порция не применена, повторите запрос").build()));
+            }
+        }
+
+        Map<Status, Integer> counts = new HashMap<>();
+        List<UserBatchUpdateResult> ordered = new ArrayList<>(updates.size());
+        for (Long id : updates.keySet()) {
+            UserBatchUpdateResult result = results.get(id);
+            ordered.add(result);
+            counts.merge(result.getStatus(), 1, Integer::sum);
+        }
+        counts.forEach((status, count) -> meterRegistry.counter("user.batch-update.items",
+                "status", status.name().toLowerCase()).increment(count));
+        log.info("Пакетное изменение профилей завершено: {}", counts);
+        return UserBatchUpdateResponse.builder()
+                .updated(counts.getOrDefault(Status.UPDATED, 0))
+                .unchanged(counts.getOrDefault(Status.UNCHANGED, 0))
+                .notFound(counts.getOrDefault(Status.NOT_FOUND, 0))
+                .failed(counts.getOrDefault(Status.FAILED, 0))
+                .results(ordered)
+                .build();
+    }
+
+    private Map<Long, UserBatchUpdateResult> updateChunk(List<Long> ids, Map<Long, UserUpdateRequest> updates) {
+        Map<Long, UserBatchUpdateResult> results = new HashMap<>(ids.size() * 2);
+        ids.forEach(id -> results.put(id, UserBatchUpdateResult.builder().id(id).status(Status.NOT_FOUND).build()));
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows = new ArrayList<>();
+        List<UserEventOutbox.ProfileUpdate> events = new ArrayList<>();
+        for (User user : namedJdbcTemplate.query(SELECT_FOR_UPDATE, Map.of("ids", ids), USER_ROW)) {
+            Set<String> changedFields = userMapper.updateEntityFromDto(updates.get(user.getId()), user);
+            if (changedFields.isEmpty()) {
+                results.put(user.getId(), UserBatchUpdateResult.builder().id(user.getId()).status(Status.UNCHANGED).build());
+                continue;
+            }
+            rows.add(new Object[]{user.getFirstName(), user.getLastName(), user.getPhoneNumber(), now, user.getId()});
+            events.add(new UserEventOutbox.ProfileUpdate(userMapper.toDto(user), user.getVersion() + 1, changedFields));
+            results.put(user.getId(), UserBatchUpdateResult.builder()
+                    .id(user.getId()).status(Status.UPDATED).changedFields(changedFields).build());
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE, rows);
+            userEventOutbox.userProfilesUpdated(events);
+        }
+        return results;
+    }
+}
@@ -0,0 +1,34 @@
+package com.ecommerce.service;
+
+import com.ecommerce.exception.custom_exceptions.InvalidSearchCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Позиция последней отданной строки в порядке {@code created_at DESC, id DESC}.
+ * Клиенту передаётся непрозрачной base64url-строкой.
+ */
+record UserSearchCursor(LocalDateTime createdAt, long id) {
+
+    String encode() {
+        String raw = createdAt + "," + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static UserSearchCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(',');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Нет разделителя");
+            }
+            return new UserSearchCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidSearchCursorException("Некорректный курсор страницы");
+        }
+    }
+}
@@ -15,4 +15,10 @@ public interface UserService {
     UserResponse getUserProfile(Long userId);
 
     UserResponse updateUserProfile(Long userId, UserUpdateRequest request);
+
+    /**
+     * Запрос на удаление аккаунта: вход закрывается и токены отзываются сразу, а данные удаляет
+     * фоновое задание после {@code user-purge.erasure.after}.
+     */
+    void requestDeletion(Long userId);
 }
@@ -1,5 +1,13 @@
 package com.ecommerce.service;
 
+import com.ecommerce.activity.UserActivityTracker;
+import com.ecommerce.audit.LoginAuditor;
+import com.ecommerce.audit.LoginOutcome;
+import com.ecommerce.cache.UserProfileCache;
+import com.ecommerce.diagnostics.CacheLookupEvent;
+import com.ecommerce.diagnostics.DatabaseCallEvent;
+import com.ecommerce.diagnostics.LoginEvent;
+import com.ecommerce.diagnostics.LoginPhaseEvent;
 import com.ecommerce.exception.custom_exceptions.InvalidCredentialsException;
 import com.ecommerce.exception.custom_exceptions.UserAlreadyExistsException;
 import com.ecommerce.exception.custom_exceptions.UserNotFoundException;
@@ -10,15 +18,21 @@ import com.ecommerce.model.dto.request.UserUpdateRequest;
 import com.ecommerce.model.dto.response.AuthResponse;
 import com.ecommerce.model.dto.response.UserResponse;
 import com.ecommerce.model.entity.User;
+import com.ecommerce.outbox.UserEventOutbox;
 import com.ecommerce.repository.UserRepository;
+import com.ecommerce.resilience.CircuitBreakers;
 import com.ecommerce.security.JwtTokenProvider;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Locale;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
 
 @Slf4j
 @Service
@@ -28,6 +42,12 @@ public class UserServiceImpl implements UserService {
     private final PasswordEncoder passwordEncoder;
     private final UserMapper userMapper;
     private final JwtTokenProvider jwtTokenProvider;
+    private final UserEventOutbox userEventOutbox;
+    private final TokenRevocationService tokenRevocationService;
+    private final LoginAuditor loginAuditor;
+    private final UserActivityTracker userActivityTracker;
+    private final UserProfileCache userProfileCache;
+    private final CircuitBreakers circuitBreakers;
 
     @Override
     @Transactional
@@ -50,50 +70,161 @@ public class UserServiceImpl implements UserService {
                 .phoneNumber(request.getPhoneNumber())
                 .build();
         User savedUser = userRepository.save(user);
+        reserveLogins(savedUser);
         log.info("User registered successfully: {}", savedUser);
 
-        return userMapper.toDto(savedUser);
+        UserResponse userResponse = userMapper.toDto(savedUser);
+        userEventOutbox.userRegistered(userResponse);
+        return userResponse;
     }
 
+    /**
+     * Без транзакции: соединение не держится, пока считается BCrypt. Поиск идёт через автомат БД —
+     * при его размыкании вход сразу получает 503, а не ждёт таймаута пула.
+     */
     @Override
-    @Transactional(readOnly = true)
     public AuthResponse authenticateUser(UserLoginRequest request) {
         log.info("Аутентификация пользователя c login: {}", request.getLogin());
         String login = request.getLogin();
-        Optional<User> userOpt = userRepository.findByEmail(login).or(() -> userRepository.findByUsername(login));
+        LoginEvent loginEvent = LoginEvent.start();
+        LoginPhaseEvent phase = LoginPhaseEvent.start();
+        Optional<User> userOpt = databaseCall("findByLogin",
+                () -> userRepository.findByEmail(login).or(() -> userRepository.findByUsername(login)));
+        phase.finish(LoginPhaseEvent.LOOKUP);
 
-        User user = userOpt
-                .orElseThrow(() -> new InvalidCredentialsException("Неверные учетные данные"));
+        if (userOpt.isEmpty()) {
+            loginAuditor.record(LoginOutcome.UNKNOWN_LOGIN, login);
+            loginEvent.finish(LoginOutcome.UNKNOWN_LOGIN, 0);
+            throw InvalidCredentialsException.INSTANCE;
+        }
+        User user = userOpt.get();
 
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+        phase = LoginPhaseEvent.start();
+        boolean passwordMatches = passwordEncoder.matches(request.getPassword(), user.getPassword());
+        phase.finish(LoginPhaseEvent.PASSWORD);
+        if (!passwordMatches) {
             log.warn("Неудачная попытка входа: неверный пароль для login '{}'", login);
-            throw new InvalidCredentialsException("Неверные учетные данные");
+            loginAuditor.record(LoginOutcome.BAD_PASSWORD, login, user.getId());
+            loginEvent.finish(LoginOutcome.BAD_PASSWORD, user.getId());
+            throw InvalidCredentialsException.INSTANCE;
+        }
+        if (user.getDeletionRequestedAt() != null || user.getAnonymizedAt() != null) {
+            log.warn("Неудачная попытка входа: аккаунт login '{}' удаляется", login);
+            loginAuditor.record(LoginOutcome.ACCOUNT_CLOSED, login, user.getId());
+            loginEvent.finish(LoginOutcome.ACCOUNT_CLOSED, user.getId());
+            throw InvalidCredentialsException.INSTANCE;
         }
 
+        loginAuditor.record(LoginOutcome.SUCCESS, login, user.getId());
+        userActivityTracker.loggedIn(user.getId());
+        phase = LoginPhaseEvent.start();
         String token = jwtTokenProvider.generateToken(user);
+        phase.finish(LoginPhaseEvent.TOKEN);
+        loginEvent.finish(LoginOutcome.SUCCESS, user.getId());
         return new AuthResponse(token, user.getId(), user.getUsername());
     }
 
+    /**
+     * Без транзакции: попадание в кэш не берёт соединение из пула, а промах обходится одним {@code findById}.
+     * Кэш отвечает и тогда, когда автомат БД разомкнут, — промах в это время получает 503.
+     */
     @Override
-    @Transactional(readOnly = true)
     public UserResponse getUserProfile(Long userId) {
+        CacheLookupEvent cacheLookup = CacheLookupEvent.start();
+        UserResponse cached = userProfileCache.get(userId);
+        cacheLookup.finish("user-profile", cached != null);
+        if (cached != null) {
+            return cached;
+        }
         log.info("Получение профиля пользователя с ID: {}", userId);
-        User user = findUserById(userId);
-        return userMapper.toDto(user);
+        User user = databaseCall("findById", () -> findUserById(userId));
+        UserResponse userResponse = userMapper.toDto(user);
+        userProfileCache.put(userResponse, user.getUpdatedAt());
+        return userResponse;
     }
 
     @Override
     @Transactional
     public UserResponse updateUserProfile(Long userId, UserUpdateRequest request) {
         log.info("Обновление профиля пользователя с ID: {}", userId);
-        User user = findUserById(userId);
-        userMapper.updateEntityFromDto(request, user);
+        User user = databaseCall("findById", () -> findUserById(userId));
+        Set<String> changedFields = userMapper.updateEntityFromDto(request, user);
         User savedUser = userRepository.save(user);
         UserResponse userResponse = userMapper.toDto(savedUser);
+        if (!changedFields.isEmpty()) {
+            // Версия увеличивается при flush — до него в событие попала бы прежняя
+            userRepository.flush();
+            userEventOutbox.userProfileUpdated(userResponse, savedUser.getVersion(), changedFields);
+        }
         log.info("Профиль пользователя обновлен: {}", userResponse);
         return userResponse;
     }
 
+    @Override
+    @Transactional
+    public void requestDeletion(Long userId) {
+        tokenRevocationService.revokeAllTokens(userId);
+        if (userRepository.markDeletionRequested(userId) > 0) {
+            log.info("Пользователь {} запросил удаление аккаунта", userId);
+        }
+    }
+
+    /**
+     * Уникальность логинов обеспечивают справочники: проверка выше лишь отсекает очевидные повторы,
+     * а гонку двух одновременных регистраций решает первичный ключ справочника.
+     * <p>
+     * Строка users сбрасывается до вставок в справочники: иначе её нарушение уникальности (на H2 таблица ещё
+     * с UNIQUE на username и email) всплывёт при автосбросе перед первой вставкой и будет принято за занятый ник.
+     * Какое из полей занято, определяется по имени нарушенного ограничения.
+     */
+    private void reserveLogins(User user) {
+        try {
+            userRepository.flush();
+        } catch (DataIntegrityViolationException ex) {
+            throw violatesEmail(ex) ? emailTaken(user) : usernameTaken(user);
+        }
+        try {
+            userRepository.reserveUsername(user.getId(), user.getUsername());
+        } catch (DataIntegrityViolationException ex) {
+            throw usernameTaken(user);
+        }
+        try {
+            userRepository.reserveEmail(user.getId(), user.getEmail());
+        } catch (DataIntegrityViolationException ex) {
+            throw emailTaken(user);
+        }
+    }
+
+    private static boolean violatesEmail(DataIntegrityViolationException ex) {
+        String message = ex.getMostSpecificCause().getMessage();
+        return message != null && message.toLowerCase(Locale.ROOT).contains("email");
+    }
+
+    private static UserAlreadyExistsException usernameTaken(User user) {
+        log.error("Ошибка регистрации: имя пользователя '{}' уже занято", user.getUsername());
+        return new UserAlreadyExistsException("Пользователь с именем '" + user.getUsername() + "' уже существует");
+    }
+
+    private static UserAlreadyExistsException emailTaken(User user) {
+        log.error("Ошибка регистрации: email '{}' уже зарегистрирован", user.getEmail());
+        return new UserAlreadyExistsException("Пользователь с email '" + user.getEmail() + "' уже существует");
+    }
+
+    /**
+     * Вызов базы через автомат защиты с событием JFR {@link DatabaseCallEvent}.
+     */
+    private <T> T databaseCall(String operation, Supplier<T> call) {
+        DatabaseCallEvent event = DatabaseCallEvent.start();
+        boolean failed = true;
+        try {
+            T result = circuitBreakers.database().execute(call);
+            failed = false;
+            return result;
+        } finally {
+            event.finish(operation, failed);
+        }
+    }
+
     private User findUserById(Long userId) {
         return userRepository.findById(userId)
                 .orElseThrow(() -> new UserNotFoundException("Пользователь с ID " + userId + " не найден"));
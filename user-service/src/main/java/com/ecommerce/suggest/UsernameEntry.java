@@ -0,0 +1,35 @@
+package com.ecommerce.suggest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Ник с ключом сортировки: UTF-8 байты ника в нижнем регистре, сравниваемые как беззнаковые.
+ * Порядок (ключ, id) одинаков для упакованного сегмента и дельты, поэтому их можно сливать на лету.
+ */
+final class UsernameEntry implements Comparable<UsernameEntry> {
+    final byte[] key;
+    final long id;
+    final String username;
+
+    UsernameEntry(long id, String username) {
+        this.key = key(username);
+        this.id = id;
+        this.username = username;
+    }
+
+    static byte[] key(String value) {
+        return value.toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8);
+    }
+
+    boolean startsWith(byte[] prefix) {
+        return key.length >= prefix.length && Arrays.equals(key, 0, prefix.length, prefix, 0, prefix.length);
+    }
+
+    @Override
+    public int compareTo(UsernameEntry other) {
+        int cmp = Arrays.compareUnsigned(key, other.key);
+        return cmp != 0 ? cmp : Long.compare(id, other.id);
+    }
+}
@@ -0,0 +1,238 @@
+package com.ecommerce.suggest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Неизменяемый отсортированный набор ников, упакованный в три массива без объекта на запись.
+ * <p>
+ * Запись {@code i} занимает {@code blob[offsets[i] .. offsets[i + 1])}: ключ (ник в нижнем регистре)
+ * и, только если написание отличается, байт {@code 0} и исходный ник. Для типичных ников в нижнем регистре
+ * это длина ника + 4 байта смещения + 8 байт id: на миллион ников длиной ~12 символов около 23 МБ
+ * против ~120 МБ у {@code TreeMap<String, Long>} (см. {@code UsernameSuggestBenchmark}).
+ * Поиск префикса — бинарный поиск по байтам без аллокаций.
+ */
+final class UsernameSegment {
+    static final UsernameSegment EMPTY = new UsernameSegment(new byte[0], new int[]{0}, new long[0]);
+
+    private static final byte SEPARATOR = 0;
+
+    private final byte[] blob;
+    private final int[] offsets;
+    private final long[] ids;
+
+    private UsernameSegment(byte[] blob, int[] offsets, long[] ids) {
+        this.blob = blob;
+        this.offsets = offsets;
+        this.ids = ids;
+    }
+
+    int size() {
+        return ids.length;
+    }
+
+    long id(int i) {
+        return ids[i];
+    }
+
+    String username(int i) {
+        int end = keyEnd(i);
+        return end < offsets[i + 1]
+                ? new String(blob, end + 1, offsets[i + 1] - end - 1, StandardCharsets.UTF_8)
+                : new String(blob, offsets[i], end - offsets[i], StandardCharsets.UTF_8);
+    }
+
+    boolean startsWith(int i, byte[] prefix) {
+        int from = offsets[i];
+        return keyEnd(i) - from >= prefix.length
+                && Arrays.equals(blob, from, from + prefix.length, prefix, 0, prefix.length);
+    }
+
+    /**
+     * Первая запись, не меньшая {@code (key, id)}.
+     */
+    int lowerBound(byte[] key, long id) {
+        int low = 0;
+        int high = ids.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compare(mid, key, id) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    boolean contains(UsernameEntry entry) {
+        int i = lowerBound(entry.key, entry.id);
+        return i < ids.length && compare(i, entry.key, entry.id) == 0;
+    }
+
+    int compare(int i, byte[] key, long id) {
+        int cmp = Arrays.compareUnsigned(blob, offsets[i], keyEnd(i), key, 0, key.length);
+        return cmp != 0 ? cmp : Long.compare(ids[i], id);
+    }
+
+    long memoryBytes() {
+        // Заголовки массивов по 16 байт
+        return 48L + blob.length + 4L * offsets.length + 8L * ids.length;
+    }
+
+    /**
+     * Новый сегмент с записями дельты; записи, уже присутствующие в сегменте, пропускаются.
+     */
+    UsernameSegment merge(List<UsernameEntry> sortedDelta) {
+        Builder builder = new Builder(size() + sortedDelta.size(), blob.length);
+        Iterator<UsernameEntry> it = sortedDelta.iterator();
+        UsernameEntry next = it.hasNext() ? it.next() : null;
+        for (int i = 0; i < ids.length; i++) {
+            while (next != null && compare(i, next.key, next.id) > 0) {
+                builder.add(next);
+                next = it.hasNext() ? it.next() : null;
+            }
+            if (next != null && compare(i, next.key, next.id) == 0) {
+                next = it.hasNext() ? it.next() : null;
+            }
+            builder.append(blob, offsets[i], offsets[i + 1], ids[i]);
+        }
+        while (next != null) {
+            builder.add(next);
+            next = it.hasNext() ? it.next() : null;
+        }
+        return builder.build();
+    }
+
+    private int keyEnd(int i) {
+        int end = offsets[i + 1];
+        for (int p = offsets[i]; p < end; p++) {
+            if (blob[p] == SEPARATOR) {
+                return p;
+            }
+        }
+        return end;
+    }
+
+    /**
+     * Накапливает записи в порядке добавления; {@link #sorted()} упорядочивает их перед упаковкой.
+     */
+    static final class Builder {
+        private byte[] blob;
+        private int[] offsets;
+        private long[] ids;
+        private int size;
+        private int length;
+
+        Builder() {
+            this(1024, 16 * 1024);
+        }
+
+        private Builder(int capacity, int bytes) {
+            blob = new byte[Math.max(bytes, 16)];
+            offsets = new int[capacity + 1];
+            ids = new long[Math.max(capacity, 1)];
+        }
+
+        Builder add(long id, String username) {
+            return add(new UsernameEntry(id, username));
+        }
+
+        private Builder add(UsernameEntry entry) {
+            byte[] original = entry.username.getBytes(StandardCharsets.UTF_8);
+            boolean sameSpelling = Arrays.equals(original, entry.key);
+            ensureBytes(entry.key.length + (sameSpelling ? 0 : original.length + 1));
+            System.arraycopy(entry.key, 0, blob, length, entry.key.length);
+            length += entry.key.length;
+            if (!sameSpelling) {
+                blob[length++] = SEPARATOR;
+                System.arraycopy(original, 0, blob, length, original.length);
+                length += original.length;
+            }
+            return push(entry.id);
+        }
+
+        private void append(byte[] source, int from, int to, long id) {
+            ensureBytes(to - from);
+            System.arraycopy(source, from, blob, length, to - from);
+            length += to - from;
+            push(id);
+        }
+
+        private Builder push(long id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                offsets = Arrays.copyOf(offsets, size * 2 + 1);
+            }
+            ids[size++] = id;
+            offsets[size] = length;
+            return this;
+        }
+
+        private void ensureBytes(int extra) {
+            if (length + extra > blob.length) {
+                blob = Arrays.copyOf(blob, Math.max(blob.length * 2, length + extra));
+            }
+        }
+
+        UsernameSegment build() {
+            return new UsernameSegment(Arrays.copyOf(blob, length), Arrays.copyOf(offsets, size + 1),
+                    Arrays.copyOf(ids, size));
+        }
+
+        /**
+         * Сортирует накопленное по (ключ, id) и упаковывает. Сортируется перестановка {@code int[]}
+         * слиянием по байтам — без объекта-обёртки на каждую из миллионов записей.
+         */
+        UsernameSegment sorted() {
+            UsernameSegment unsorted = build();
+            int[] order = new int[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            mergeSort(unsorted, order, new int[size], 0, size);
+            Builder sorted = new Builder(size, length);
+            long previousId = 0;
+            int previous = -1;
+            for (int i : order) {
+                // Один и тот же пользователь мог прийти дважды (страницы загрузки и опрос пересекаются)
+                if (previous >= 0 && previousId == unsorted.ids[i] && unsorted.compareEntries(previous, i) == 0) {
+                    continue;
+                }
+                sorted.append(unsorted.blob, unsorted.offsets[i], unsorted.offsets[i + 1], unsorted.ids[i]);
+                previous = i;
+                previousId = unsorted.ids[i];
+            }
+            return sorted.build();
+        }
+
+        private static void mergeSort(UsernameSegment segment, int[] order, int[] buffer, int from, int to) {
+            if (to - from < 2) {
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            mergeSort(segment, order, buffer, from, mid);
+            mergeSort(segment, order, buffer, mid, to);
+            if (segment.compareEntries(order[mid - 1], order[mid]) <= 0) {
+                return;
+            }
+            System.arraycopy(order, from, buffer, from, to - from);
+            int left = from;
+            int right = mid;
+            for (int k = from; k < to; k++) {
+                if (right >= to || left < mid && segment.compareEntries(buffer[left], buffer[right]) <= 0) {
+                    order[k] = buffer[left++];
+                } else {
+                    order[k] = buffer[right++];
+                }
+            }
+        }
+    }
+
+    private int compareEntries(int a, int b) {
+        int cmp = Arrays.compareUnsigned(blob, offsets[a], keyEnd(a), blob, offsets[b], keyEnd(b));
+        return cmp != 0 ? cmp : Long.compare(ids[a], ids[b]);
+    }
+}
@@ -0,0 +1,257 @@
+package com.ecommerce.suggest;
+
+import com.ecommerce.id.IdGenerator;
+import com.ecommerce.model.dto.response.UserSuggestionResponse;
+import com.ecommerce.outbox.OutboxMessage;
+import com.ecommerce.outbox.UserEventType;
+import com.ecommerce.repository.OutboxEventRepository;
+import com.ecommerce.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Индекс ников для автодополнения и @-упоминаний: ответ из памяти за микросекунды вместо LIKE в БД.
+ * <p>
+ * Основа — упакованный {@link UsernameSegment}, собираемый при старте (раннер выполняется до готовности
+ * приложения принимать трафик). Новые ники попадают в небольшую дельту: свои регистрации — сразу после
+ * фиксации транзакции, регистрации на других узлах — опросом таблицы по id. Когда дельта разрастается,
+ * она вливается в новый сегмент, который подменяет старый одной записью volatile-поля.
+ * Читатели не берут блокировок: сливают на лету сегмент и дельту, дубликаты отбрасываются.
+ * <p>
+ * Удалённые и анонимизированные аккаунты ({@code UserErased}) отфильтровываются по id до ближайшей
+ * перестройки. Свои удаления применяются сразу после фиксации, чужие — тем же опросом: каждый такт
+ * перечитывает события {@code UserErased} из общей таблицы outbox за окно {@code refresh-overlap}.
+ */
+@Slf4j
+@Component
+public class UsernameSuggestIndex implements ApplicationRunner {
+    private final UserRepository userRepository;
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    private final int loadPageSize;
+    private final int mergeThreshold;
+    private final IdGenerator idGenerator;
+    private final Duration refreshOverlap;
+
+    private final NavigableSet<UsernameEntry> delta = new ConcurrentSkipListSet<>();
+    private final Set<Long> removed = ConcurrentHashMap.newKeySet();
+    private final Object writeLock = new Object();
+    private volatile UsernameSegment segment = UsernameSegment.EMPTY;
+    private volatile boolean loaded;
+    private long lastSeenId;
+    private LocalDateTime erasuresCheckedAt;
+
+    public UsernameSuggestIndex(UserRepository userRepository,
+                                OutboxEventRepository outboxEventRepository,
+                                ObjectMapper objectMapper,
+                                IdGenerator idGenerator,
+                                @Value("${username-suggest.load-page-size:10000}") int loadPageSize,
+                                @Value("${username-suggest.merge-threshold:10000}") int mergeThreshold,
+                                @Value("${username-suggest.refresh-overlap:10s}") Duration refreshOverlap) {
+        this.userRepository = userRepository;
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+        this.idGenerator = idGenerator;
+        this.loadPageSize = loadPageSize;
+        this.mergeThreshold = mergeThreshold;
+        this.refreshOverlap = refreshOverlap;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        rebuild();
+    }
+
+    /**
+     * Полная перестройка из таблицы {@code users} страницами по первичному ключу.
+     */
+    public void rebuild() {
+        synchronized (writeLock) {
+            long started = System.nanoTime();
+            // Удаления, зафиксированные до чтения таблицы, в неё уже не попадут; более поздние найдёт refresh()
+            LocalDateTime checkedAt = LocalDateTime.now();
+            // Удаления, пришедшие во время чтения таблицы, должны пережить перестройку
+            List<Long> applied = new ArrayList<>(removed);
+            UsernameSegment.Builder builder = new UsernameSegment.Builder();
+            long maxId = 0;
+            List<UserRepository.UsernameView> page;
+            do {
+                page = userRepository.findByIdGreaterThanAndAnonymizedAtIsNullOrderByIdAsc(maxId, Limit.of(loadPageSize));
+                for (UserRepository.UsernameView user : page) {
+                    if (indexable(user.getUsername())) {
+                        builder.add(user.getId(), user.getUsername());
+                    }
+                    maxId = user.getId();
+                }
+            } while (page.size() == loadPageSize);
+
+            UsernameSegment built = builder.sorted();
+            List<UsernameEntry> pending = new ArrayList<>(delta);
+            segment = pending.isEmpty() ? built : built.merge(pending);
+            delta.removeAll(pending);
+            applied.forEach(removed::remove);
+            lastSeenId = maxId;
+            erasuresCheckedAt = checkedAt;
+            loaded = true;
+            log.info("Индекс ников построен за {} мс: {} записей, ~{} КБ (~{} МБ на миллион)",
+                    (System.nanoTime() - started) / 1_000_000, segment.size(), segment.memoryBytes() / 1024,
+                    segment.size() == 0 ? 0 : segment.memoryBytes() * 1_000_000 / segment.size() / (1024 * 1024));
+        }
+    }
+
+    /**
+     * До {@code limit} ников, начинающихся с {@code prefix} без учёта регистра, в лексикографическом порядке:
+     * точное совпадение и более короткие ники идут первыми.
+     */
+    public List<UserSuggestionResponse> suggest(String prefix, int limit) {
+        byte[] key = UsernameEntry.key(prefix);
+        UsernameSegment current = segment;
+        int i = current.lowerBound(key, Long.MIN_VALUE);
+        Iterator<UsernameEntry> pending = delta.tailSet(new UsernameEntry(Long.MIN_VALUE, prefix), true).iterator();
+        UsernameEntry next = nextMatching(pending, key);
+
+        List<UserSuggestionResponse> result = new ArrayList<>(limit);
+        while (result.size() < limit) {
+            boolean fromSegment = i < current.size() && current.startsWith(i, key);
+            if (!fromSegment && next == null) {
+                break;
+            }
+            int cmp = !fromSegment ? 1 : next == null ? -1 : current.compare(i, next.key, next.id);
+            if (cmp <= 0) {
+                if (!isRemoved(current.id(i))) {
+                    result.add(new UserSuggestionResponse(current.id(i), current.username(i)));
+                }
+                i++;
+                if (cmp == 0) {
+                    next = nextMatching(pending, key);
+                }
+            } else {
+                if (!isRemoved(next.id)) {
+                    result.add(new UserSuggestionResponse(next.id, next.username));
+                }
+                next = nextMatching(pending, key);
+            }
+        }
+        return result;
+    }
+
+    public void add(long id, String username) {
+        if (indexable(username)) {
+            UsernameEntry entry = new UsernameEntry(id, username);
+            if (!segment.contains(entry)) {
+                delta.add(entry);
+            }
+        }
+    }
+
+    public void remove(long id) {
+        removed.add(id);
+        delta.removeIf(entry -> entry.id == id);
+    }
+
+    @TransactionalEventListener
+    public void onCommitted(OutboxMessage message) {
+        if (UserEventType.USER_ERASED.eventName().equals(message.eventType())) {
+            remove(message.aggregateId());
+            return;
+        }
+        if (!UserEventType.USER_REGISTERED.eventName().equals(message.eventType())) {
+            return;
+        }
+        try {
+            JsonNode username = objectMapper.readTree(message.payload()).get("username");
+            if (username != null) {
+                add(message.aggregateId(), username.asText());
+            }
+        } catch (JsonProcessingException e) {
+            log.warn("Не удалось разобрать событие регистрации {}: {}", message.id(), e.getMessage());
+        }
+    }
+
+    /**
+     * Подхватывает ники, зарегистрированные и удалённые на других узлах. Окно {@code refresh-overlap}
+     * перечитывает id, выданные за этот срок: они могли быть зафиксированы позже уже прочитанных. Id упорядочены
+     * по времени выдачи, поэтому окно задаётся временем, а не числом id; так же, по времени записи,
+     * перечитываются и удаления.
+     */
+    @Scheduled(fixedDelayString = "${username-suggest.refresh-interval:5s}")
+    public void refresh() {
+        if (!loaded) {
+            return;
+        }
+        synchronized (writeLock) {
+            long from = Math.min(lastSeenId, idGenerator.lowestIdSince(Instant.now().minus(refreshOverlap)));
+            List<UserRepository.UsernameView> page;
+            do {
+                page = userRepository.findByIdGreaterThanAndAnonymizedAtIsNullOrderByIdAsc(from, Limit.of(loadPageSize));
+                for (UserRepository.UsernameView user : page) {
+                    add(user.getId(), user.getUsername());
+                    from = Math.max(from, user.getId());
+                }
+            } while (page.size() == loadPageSize);
+            lastSeenId = Math.max(lastSeenId, from);
+
+            LocalDateTime checkedAt = LocalDateTime.now();
+            outboxEventRepository.findAggregateIdsByEventTypeSince(UserEventType.USER_ERASED.eventName(),
+                    erasuresCheckedAt.minus(refreshOverlap)).forEach(this::remove);
+            erasuresCheckedAt = checkedAt;
+
+            if (removed.size() >= mergeThreshold) {
+                rebuild();
+            } else if (delta.size() >= mergeThreshold) {
+                List<UsernameEntry> pending = new ArrayList<>(delta);
+                segment = segment.merge(pending);
+                delta.removeAll(pending);
+                log.debug("Дельта индекса ников влита: {} записей, всего {}", pending.size(), segment.size());
+            }
+        }
+    }
+
+    public int size() {
+        return segment.size() + delta.size();
+    }
+
+    /**
+     * Оценка памяти упакованного сегмента (без небольшой дельты).
+     */
+    public long memoryBytes() {
+        return segment.memoryBytes();
+    }
+
+    private boolean isRemoved(long id) {
+        return !removed.isEmpty() && removed.contains(id);
+    }
+
+    private static UsernameEntry nextMatching(Iterator<UsernameEntry> it, byte[] key) {
+        if (it.hasNext()) {
+            UsernameEntry entry = it.next();
+            return entry.startsWith(key) ? entry : null;
+        }
+        return null;
+    }
+
+    private static boolean indexable(String username) {
+        // Нулевой байт разделяет ключ и исходное написание в сегменте
+        return username != null && !username.isEmpty() && username.indexOf('\0') < 0;
+    }
+}
@@ -0,0 +1,40 @@
+package com.ecommerce.validation;
+
+/**
+ * Ограничения и сообщения DTO пользователя — общие для аннотаций Bean Validation и {@link UserRequestValidator},
+ * чтобы два пути проверки не разошлись.
+ */
+public final class UserRequestConstraints {
+
+    public static final int USERNAME_MIN = 3;
+    public static final int USERNAME_MAX = 50;
+    public static final int PASSWORD_MIN = 8;
+    public static final int NAME_MAX = 100;
+
+    /*
+    Пояснения какому паттерну должен соответствовать номер телефона не было,
+    поэтому я сделал несколько вариантов:
+    1) +7 (ХХХ) ХХХ-ХХ-ХХ в regexp - (^\+7\s\(\d{3}\)\s\d{3}-\d{2}-\d{2}$)
+    2) 8XXXXXXXXXX - (^\+7\d{10}$)
+    3) +7XXXXXXXXXX - (^8\d{10}$)
+    4) ХХХХХХХХХХ - (\d{10}$)
+    X - Любая цифра.
+    Знак |(ИЛИ) - разделяет разные паттерны.
+     */
+    public static final String PHONE_REGEX = "(^\\+7\\s\\(\\d{3}\\)\\s\\d{3}-\\d{2}-\\d{2}$)|(^\\+7\\d{10}$)|(^8\\d{10}$)|(\\d{10}$)";
+
+    public static final String LOGIN_NOT_BLANK = "Login не может быть пустым";
+    public static final String USERNAME_NOT_BLANK = "Ник пользователя не может быть пустым";
+    public static final String USERNAME_SIZE = "Длина ника пользователя не может быть меньше 3 и больше 50 символов";
+    public static final String EMAIL_NOT_BLANK = "Email не может быть пустым";
+    public static final String EMAIL_INVALID = "Некорректный email";
+    public static final String PASSWORD_NOT_BLANK = "Пароль не может быть пустым";
+    public static final String PASSWORD_SIZE = "Длина пароля не может быть меньше 8 символов";
+    public static final String FIRST_NAME_SIZE = "Длина имени не может быть больше 100 символов";
+    public static final String LAST_NAME_SIZE = "Длина фамилии не может быть больше 100 символов";
+    public static final String PHONE_INVALID = "Номер телефона должен соответствовать паттерну +7 (ХХХ) ХХХ-ХХ-ХХ "
+            + "или быть записан без дополнительных символов и пробелов";
+
+    private UserRequestConstraints() {
+    }
+}
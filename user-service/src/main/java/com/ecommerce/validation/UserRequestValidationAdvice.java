@@ -0,0 +1,25 @@
+package com.ecommerce.validation;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.WebDataBinder;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.InitBinder;
+
+/**
+ * Подменяет Bean Validation на {@link UserRequestValidator} для {@code @Valid} DTO входа, регистрации и профиля.
+ * Ошибки попадают в тот же {@code MethodArgumentNotValidException}, так что ответ 400 не меняется.
+ * Остальные тела запросов (в том числе пакетное изменение профилей) проверяет Hibernate Validator.
+ */
+@ControllerAdvice
+@RequiredArgsConstructor
+public class UserRequestValidationAdvice {
+    private final UserRequestValidator userRequestValidator;
+
+    @InitBinder
+    public void initBinder(WebDataBinder binder) {
+        Object target = binder.getTarget();
+        if (target != null && userRequestValidator.supports(target.getClass())) {
+            binder.setValidator(userRequestValidator);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.ecommerce.validation;
+
+import com.ecommerce.model.dto.request.UserLoginRequest;
+import com.ecommerce.model.dto.request.UserRegistrationRequest;
+import com.ecommerce.model.dto.request.UserUpdateRequest;
+import jakarta.validation.constraints.Email;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.Errors;
+import org.springframework.validation.Validator;
+
+import static com.ecommerce.validation.UserRequestConstraints.*;
+
+/**
+ * Рукописная проверка DTO входа, регистрации и профиля — те же правила и сообщения, что у их аннотаций,
+ * без обхода метаданных Hibernate Validator и без создания {@code ConstraintViolation} на каждый запрос.
+ * <p>
+ * Как и в Bean Validation, ограничения поля проверяются независимо: пустой ник даёт и {@code NotBlank},
+ * и {@code Size}. Коды ошибок — имена аннотаций, как у {@code SpringValidatorAdapter}.
+ * Корректный запрос проверяется без аллокаций; исключение — email: его проверяет то же ограничение {@code @Email}
+ * через {@code jakarta.validation.Validator#validateValue}, чтобы не расходиться с Bean Validation в тонкостях
+ * (IDN, длины частей адреса).
+ * <p>
+ * Эквивалентность аннотациям — в {@code UserRequestValidatorTest}, сравнение скорости —
+ * в {@code DtoValidationBenchmark}.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserRequestValidator implements Validator {
+    private final jakarta.validation.Validator beanValidator;
+
+    @Override
+    public boolean supports(Class<?> clazz) {
+        return clazz == UserLoginRequest.class || clazz == UserRegistrationRequest.class || clazz == UserUpdateRequest.class;
+    }
+
+    @Override
+    public void validate(Object target, Errors errors) {
+        if (target instanceof UserLoginRequest request) {
+            validateLogin(request, errors);
+        } else if (target instanceof UserRegistrationRequest request) {
+            validateRegistration(request, errors);
+        } else if (target instanceof UserUpdateRequest request) {
+            validateUpdate(request, errors);
+        } else {
+            throw new IllegalArgumentException("Неподдерживаемый тип: " + target.getClass().getName());
+        }
+    }
+
+    private static void validateLogin(UserLoginRequest request, Errors errors) {
+        if (isBlank(request.getLogin())) {
+            errors.rejectValue("login", "NotBlank", LOGIN_NOT_BLANK);
+        }
+        if (isBlank(request.getPassword())) {
+            errors.rejectValue("password", "NotBlank", PASSWORD_NOT_BLANK);
+        }
+    }
+
+    private void validateRegistration(UserRegistrationRequest request, Errors errors) {
+        String username = request.getUsername();
+        if (isBlank(username)) {
+            errors.rejectValue("username", "NotBlank", USERNAME_NOT_BLANK);
+        }
+        if (!hasLength(username, USERNAME_MIN, USERNAME_MAX)) {
+            errors.rejectValue("username", "Size", USERNAME_SIZE);
+        }
+        String email = request.getEmail();
+        if (isBlank(email)) {
+            errors.rejectValue("email", "NotBlank", EMAIL_NOT_BLANK);
+        }
+        if (!isEmail(email)) {
+            errors.rejectValue("email", "Email", EMAIL_INVALID);
+        }
+        String password = request.getPassword();
+        if (isBlank(password)) {
+            errors.rejectValue("password", "NotBlank", PASSWORD_NOT_BLANK);
+        }
+        if (!hasLength(password, PASSWORD_MIN, Integer.MAX_VALUE)) {
+            errors.rejectValue("password", "Size", PASSWORD_SIZE);
+        }
+        validateProfile(request.getFirstName(), request.getLastName(), request.getPhoneNumber(), errors);
+    }
+
+    private static void validateUpdate(UserUpdateRequest request, Errors errors) {
+        validateProfile(request.getFirstName(), request.getLastName(), request.getPhoneNumber(), errors);
+    }
+
+    private static void validateProfile(String firstName, String lastName, String phoneNumber, Errors errors) {
+        if (!hasLength(firstName, 0, NAME_MAX)) {
+            errors.rejectValue("firstName", "Size", FIRST_NAME_SIZE);
+        }
+        if (!hasLength(lastName, 0, NAME_MAX)) {
+            errors.rejectValue("lastName", "Size", LAST_NAME_SIZE);
+        }
+        if (phoneNumber != null && !isPhone(phoneNumber)) {
+            errors.rejectValue("phoneNumber", "Pattern", PHONE_INVALID);
+        }
+    }
+
+    /**
+     * Как {@code @Email}: {@code null} допустим.
+     */
+    private boolean isEmail(String email) {
+        return email == null || beanValidator.validateValue(EmailField.class, "email", email).isEmpty();
+    }
+
+    /**
+     * Как {@code @NotBlank} Hibernate Validator ({@code trim().isEmpty()}): пробелом считается любой символ до U+0020.
+     */
+    static boolean isBlank(String value) {
+        if (value == null) {
+            return true;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Как {@code @Size}: {@code null} допустим, длина — в UTF-16 символах.
+     */
+    private static boolean hasLength(String value, int min, int max) {
+        return value == null || value.length() >= min && value.length() <= max;
+    }
+
+    /**
+     * {@link UserRequestConstraints#PHONE_REGEX} без регулярного выражения: {@code Matcher.matches()} требует совпадения
+     * со всей строкой, поэтому каждая альтернатива задаёт точную длину — 18, 12, 11 или 10 символов.
+     */
+    static boolean isPhone(String value) {
+        return switch (value.length()) {
+            case 10 -> digits(value, 0, 10);
+            case 11 -> value.charAt(0) == '8' && digits(value, 1, 11);
+            case 12 -> value.startsWith("+7") && digits(value, 2, 12);
+            // +7 (999) 123-45-67
+            case 18 -> value.startsWith("+7")
+                    && isSpace(value.charAt(2)) && value.charAt(3) == '(' && digits(value, 4, 7)
+                    && value.charAt(7) == ')' && isSpace(value.charAt(8)) && digits(value, 9, 12)
+                    && value.charAt(12) == '-' && digits(value, 13, 15)
+                    && value.charAt(15) == '-' && digits(value, 16, 18);
+            default -> false;
+        };
+    }
+
+    /**
+     * {@code \d} без флага UNICODE_CHARACTER_CLASS — только ASCII-цифры.
+     */
+    private static boolean digits(String value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * {@code \s}: {@code [ \t\n\x0B\f\r]}.
+     */
+    private static boolean isSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    /**
+     * Носитель ограничения {@code @Email} для {@code validateValue}.
+     */
+    private static final class EmailField {
+        @Email
+        private String email;
+    }
+}
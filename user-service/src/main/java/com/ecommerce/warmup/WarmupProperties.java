@@ -0,0 +1,25 @@
+package com.ecommerce.warmup;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Прогрев перед готовностью принимать трафик ({@code warmup.*}).
+ *
+ * @param iterations         повторов дешёвых шагов (JWT, маппер, Jackson, валидация) — достаточно для компиляции C1/C2
+ * @param passwordIterations повторов BCrypt: каждый стоит десятки миллисекунд
+ * @param queryIterations    повторов запросов к БД на шаг
+ * @param connections        сколько соединений открыть в пуле заранее
+ * @param timeout            общий предел: по его истечении оставшиеся шаги пропускаются
+ */
+@ConfigurationProperties("warmup")
+public record WarmupProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("5000") int iterations,
+        @DefaultValue("5") int passwordIterations,
+        @DefaultValue("100") int queryIterations,
+        @DefaultValue("10") int connections,
+        @DefaultValue("30s") Duration timeout) {
+}
@@ -0,0 +1,172 @@
+package com.ecommerce.warmup;
+
+import com.ecommerce.mapper.UserMapper;
+import com.ecommerce.model.dto.request.UserLoginRequest;
+import com.ecommerce.model.dto.response.UserResponse;
+import com.ecommerce.model.entity.User;
+import com.ecommerce.repository.UserRepository;
+import com.ecommerce.security.AccessToken;
+import com.ecommerce.security.JwtTokenProvider;
+import com.ecommerce.serialization.ResponseWriters;
+import com.ecommerce.validation.UserRequestValidator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Прогрев горячих путей до того, как readiness-проба станет зелёной.
+ * <p>
+ * Раннеры выполняются до события готовности, так что балансировщик не шлёт трафик, пока прогрев не закончится
+ * (так же перед трафиком строится индекс ников). На синтетических данных прогоняются BCrypt, выпуск и разбор JWT,
+ * маппер, Jackson, валидация DTO и запросы входа — JIT успевает их скомпилировать, а пул соединений
+ * заполняется заранее. Запросы только читают: синтетических логинов в БД нет.
+ * <p>
+ * Ошибка шага не мешает старту — он пропускается; общий предел {@code warmup.timeout} тоже.
+ * Время шагов — в логе и в таймере {@code app.warmup}.
+ */
+@Slf4j
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class WarmupRunner implements ApplicationRunner {
+    private static final int STEPS = 7;
+    private static final String LOGIN = "warmup.synthetic";
+    private static final String EMAIL = "warmup.synthetic@invalid";
+    private static final String PASSWORD = "warmup-password";
+    private static final byte[] LOGIN_JSON = ("{\"login\":\"" + LOGIN + "\",\"password\":\"" + PASSWORD + "\"}")
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final WarmupProperties properties;
+    private final DataSource dataSource;
+    private final PasswordEncoder passwordEncoder;
+    private final JwtTokenProvider jwtTokenProvider;
+    private final UserMapper userMapper;
+    private final ObjectMapper objectMapper;
+    private final ResponseWriters responseWriters;
+    private final UserRequestValidator userRequestValidator;
+    private final UserRepository userRepository;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Сумма результатов шагов: не даёт JIT выбросить прогреваемый код как мёртвый.
+     */
+    private volatile long sink;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!properties.enabled()) {
+            return;
+        }
+        long started = System.nanoTime();
+        long deadline = started + properties.timeout().toNanos();
+        User user = User.builder()
+                .id(0L)
+                .username(LOGIN)
+                .email(EMAIL)
+                .firstName("Warmup")
+                .role(User.UserRole.USER)
+                .createdAt(LocalDateTime.now())
+                .build();
+        UserLoginRequest loginRequest = new UserLoginRequest(LOGIN, PASSWORD);
+        ObjectWriter userWriter = responseWriters.forType(UserResponse.class);
+
+        int completed = 0;
+        completed += step("connections", 1, deadline, i -> openConnections());
+        String encoded = passwordEncoder.encode(PASSWORD);
+        completed += step("password", properties.passwordIterations(), deadline,
+                i -> passwordEncoder.matches(PASSWORD, encoded) ? 1 : 0);
+        completed += step("jwt", properties.iterations(), deadline, i -> {
+            AccessToken token = jwtTokenProvider.parseAccessToken(jwtTokenProvider.generateToken(user));
+            return token == null ? 0 : token.tokenVersion() + 1;
+        });
+        completed += step("mapper", properties.iterations(), deadline, i -> userMapper.toDto(user).hashCode());
+        completed += step("jackson", properties.iterations(), deadline,
+                i -> userWriter.writeValueAsBytes(userMapper.toDto(user)).length
+                        + objectMapper.readValue(LOGIN_JSON, UserLoginRequest.class).getLogin().length());
+        completed += step("validation", properties.iterations(), deadline,
+                i -> userRequestValidator.validateObject(loginRequest).getErrorCount());
+        completed += step("queries", properties.queryIterations(), deadline, i -> {
+            long found = userRepository.findUserIdByUsername(LOGIN).orElse(0L)
+                    + userRepository.findUserIdByEmail(EMAIL).orElse(0L);
+            return found + (userRepository.existsByUsername(LOGIN) ? 1 : 0) + (userRepository.findById(0L).isPresent() ? 1 : 0);
+        });
+
+        long elapsed = System.nanoTime() - started;
+        meterRegistry.timer("app.warmup", "step", "total").record(elapsed, TimeUnit.NANOSECONDS);
+        log.info("Прогрев завершён за {} мс: шагов выполнено {} из {}", TimeUnit.NANOSECONDS.toMillis(elapsed), completed, STEPS);
+    }
+
+    /**
+     * @return 1, если шаг выполнен целиком
+     */
+    int step(String name, int iterations, long deadline, Body body) {
+        if (System.nanoTime() >= deadline) {
+            log.warn("Прогрев: шаг '{}' пропущен — истёк warmup.timeout", name);
+            return 0;
+        }
+        long started = System.nanoTime();
+        long result = 0;
+        int done = 0;
+        try {
+            for (; done < iterations && System.nanoTime() < deadline; done++) {
+                result += body.run(done);
+            }
+        } catch (Exception e) {
+            log.warn("Прогрев: шаг '{}' прерван на итерации {}: {}", name, done, e.getMessage());
+            return 0;
+        } finally {
+            sink += result;
+            long elapsed = System.nanoTime() - started;
+            meterRegistry.timer("app.warmup", "step", name).record(elapsed, TimeUnit.NANOSECONDS);
+            log.debug("Прогрев: шаг '{}', {} итераций за {} мс", name, done, TimeUnit.NANOSECONDS.toMillis(elapsed));
+        }
+        return done == iterations ? 1 : 0;
+    }
+
+    /**
+     * Открывает соединения одновременно, чтобы пул вырос до нужного размера, а не отдавал одно и то же.
+     * Больше максимума пула не просит — иначе ждали бы таймаута выдачи.
+     */
+    private long openConnections() throws SQLException {
+        int wanted = properties.connections();
+        if (dataSource.isWrapperFor(HikariDataSource.class)) {
+            wanted = Math.min(wanted, dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize());
+        }
+        List<Connection> opened = new ArrayList<>(wanted);
+        try {
+            for (int i = 0; i < wanted; i++) {
+                Connection connection = dataSource.getConnection();
+                opened.add(connection);
+                connection.isValid(1);
+            }
+        } finally {
+            for (Connection connection : opened) {
+                connection.close();
+            }
+        }
+        return opened.size();
+    }
+
+    @FunctionalInterface
+    interface Body {
+        long run(int iteration) throws Exception;
+    }
+}
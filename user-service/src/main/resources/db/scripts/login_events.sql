@@ -0,0 +1,23 @@
+--liquibase formatted sql
+
+--changeset ecommerce:login-events
+--comment: Журнал попыток входа (успех, неверный логин или пароль, лимит запросов); пишется пакетами в фоне
+CREATE TABLE login_events (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+  occurred_at TIMESTAMP NOT NULL,
+  outcome VARCHAR(20) NOT NULL,
+  login VARCHAR(100),
+  user_id BIGINT,
+  client_ip VARCHAR(45),
+  CONSTRAINT pk_login_events PRIMARY KEY (id)
+);
+
+-- История входов пользователя для расследований
+CREATE INDEX idx_login_events_user_id ON login_events (user_id, occurred_at);
+
+--changeset ecommerce:login-events-occurred-at-idx dbms:postgresql
+--comment: Таблица только дописывается по времени, поэтому BRIN-индекс в тысячи раз меньше B-tree
+CREATE INDEX idx_login_events_occurred_at ON login_events USING brin (occurred_at);
+
+--changeset ecommerce:login-events-occurred-at-idx-generic dbms:!postgresql
+CREATE INDEX idx_login_events_occurred_at ON login_events (occurred_at);
@@ -0,0 +1,36 @@
+--liquibase formatted sql
+
+--changeset ecommerce:outbox-events
+--comment: События жизненного цикла пользователя, записываемые в одной транзакции с изменением
+CREATE TABLE outbox_events (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+  aggregate_type VARCHAR(50) NOT NULL,
+  aggregate_id BIGINT NOT NULL,
+  event_type VARCHAR(50) NOT NULL,
+  payload TEXT NOT NULL,
+  created_at TIMESTAMP NOT NULL,
+  published_at TIMESTAMP,
+  CONSTRAINT pk_outbox_events PRIMARY KEY (id)
+);
+
+--changeset ecommerce:outbox-events-unpublished-idx dbms:postgresql
+--comment: Частичный индекс остаётся крошечным: в нём только ещё не переданные события
+CREATE INDEX idx_outbox_events_unpublished ON outbox_events (id) WHERE published_at IS NULL;
+
+--changeset ecommerce:outbox-events-published-idx dbms:!postgresql
+CREATE INDEX idx_outbox_events_published ON outbox_events (published_at, id);
+
+--changeset ecommerce:outbox-relay-lock
+--comment: Одна строка-замок: события передаёт только один узел, поэтому их порядок сохраняется
+CREATE TABLE outbox_relay_lock (
+  name VARCHAR(50) NOT NULL,
+  CONSTRAINT pk_outbox_relay_lock PRIMARY KEY (name)
+);
+INSERT INTO outbox_relay_lock (name) VALUES ('relay');
+
+--changeset ecommerce:outbox-events-erased-idx dbms:postgresql
+--comment: Каждый узел раз в такт ищет свежие удаления для индекса ников; частичный индекс хранит только их
+CREATE INDEX idx_outbox_events_erased ON outbox_events (created_at) WHERE event_type = 'UserErased';
+
+--changeset ecommerce:outbox-events-type-created-idx dbms:!postgresql
+CREATE INDEX idx_outbox_events_type_created ON outbox_events (event_type, created_at);
@@ -0,0 +1,13 @@
+--liquibase formatted sql
+
+--changeset ecommerce:users-add-token-version
+--comment: Поколение токенов пользователя: увеличение отзывает все выданные ранее JWT
+ALTER TABLE users ADD COLUMN token_version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE users ADD COLUMN token_version_changed_at TIMESTAMP;
+
+--changeset ecommerce:users-token-version-changed-idx dbms:postgresql
+--comment: Частичный индекс: в нём только пользователи, хоть раз отзывавшие токены
+CREATE INDEX idx_users_token_version_changed ON users (token_version_changed_at) WHERE token_version_changed_at IS NOT NULL;
+
+--changeset ecommerce:users-token-version-changed-idx-generic dbms:!postgresql
+CREATE INDEX idx_users_token_version_changed ON users (token_version_changed_at);
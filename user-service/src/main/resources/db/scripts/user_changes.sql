@@ -0,0 +1,9 @@
+--liquibase formatted sql
+
+--changeset ecommerce:users-add-version
+--comment: Версия для оптимистичной блокировки и уведомлений об изменениях
+ALTER TABLE users ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+
+--changeset ecommerce:outbox-events-add-changes
+ALTER TABLE outbox_events ADD COLUMN aggregate_version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE outbox_events ADD COLUMN changed_fields VARCHAR(255);
@@ -0,0 +1,6 @@
+--liquibase formatted sql
+
+--changeset ecommerce:users-add-activity-columns
+--comment: Время последнего входа и последнего запроса; пишутся узлами пакетно и с отставанием до интервала сброса
+ALTER TABLE users ADD COLUMN last_login_at TIMESTAMP;
+ALTER TABLE users ADD COLUMN last_seen_at TIMESTAMP;
@@ -0,0 +1,10 @@
+--liquibase formatted sql
+
+--changeset ecommerce:users-add-password
+--comment: Колонку раньше добавлял Hibernate (ddl-auto: update); теперь схемой управляет только Liquibase
+ALTER TABLE users ADD COLUMN IF NOT EXISTS password VARCHAR(255);
+
+--changeset ecommerce:users-password-not-null
+--comment: Сущность объявляет password NOT NULL; строки без пароля получают '!' — как при анонимизации, BCrypt его никогда не примет
+UPDATE users SET password = '!' WHERE password IS NULL;
+ALTER TABLE users ALTER COLUMN password SET NOT NULL;
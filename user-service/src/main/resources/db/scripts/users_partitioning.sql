@@ -0,0 +1,88 @@
+--liquibase formatted sql
+
+--changeset ecommerce:users-hash-partitioning dbms:postgresql splitStatements:false
+--comment: users делится по hash(id) на 16 секций: у каждой свои индексы и свой autovacuum, а поиск по id затрагивает одну секцию
+-- Уникальный индекс секционированной таблицы обязан включать ключ секционирования, поэтому уникальность
+-- username и email переезжает в таблицы-справочники (changeset users-login-lookups).
+-- Перенос идёт одной транзакцией — на большой таблице его запускают в окно обслуживания.
+ALTER TABLE users RENAME TO users_unpartitioned;
+
+CREATE TABLE users (
+  LIKE users_unpartitioned INCLUDING DEFAULTS INCLUDING IDENTITY INCLUDING CONSTRAINTS,
+  CONSTRAINT pk_users PRIMARY KEY (id)
+) PARTITION BY HASH (id);
+
+DO $$
+BEGIN
+  FOR i IN 0..15 LOOP
+    EXECUTE format('CREATE TABLE users_p%s PARTITION OF users FOR VALUES WITH (MODULUS 16, REMAINDER %s)', i, i);
+  END LOOP;
+END $$;
+
+INSERT INTO users SELECT * FROM users_unpartitioned;
+SELECT setval(pg_get_serial_sequence('users', 'id'), (SELECT coalesce(max(id), 0) + 1 FROM users), false);
+DROP TABLE users_unpartitioned;
+
+--changeset ecommerce:users-hash-partitioning-idx dbms:postgresql
+--comment: Индексы на родителе создаются в каждой секции (CONCURRENTLY для секционированной таблицы недоступен)
+CREATE INDEX idx_users_created_at_id ON users (created_at DESC, id DESC);
+CREATE INDEX idx_users_role_created_at_id ON users (role, created_at DESC, id DESC);
+CREATE INDEX idx_users_username_prefix ON users (lower(username) text_pattern_ops);
+CREATE INDEX idx_users_email_prefix ON users (lower(email) text_pattern_ops);
+CREATE INDEX idx_users_first_name_trgm ON users USING gin (lower(first_name) gin_trgm_ops);
+CREATE INDEX idx_users_last_name_trgm ON users USING gin (lower(last_name) gin_trgm_ops);
+CREATE INDEX idx_users_email_trgm ON users USING gin (lower(email) gin_trgm_ops);
+CREATE INDEX idx_users_token_version_changed ON users (token_version_changed_at) WHERE token_version_changed_at IS NOT NULL;
+
+--changeset ecommerce:users-login-lookups dbms:postgresql splitStatements:false
+--comment: Справочники логинов: первичный ключ по username/email обеспечивает уникальность, секционирование по hash того же ключа сводит проверку к одной секции
+CREATE TABLE user_usernames (
+  username VARCHAR(50) NOT NULL,
+  user_id BIGINT NOT NULL,
+  CONSTRAINT pk_user_usernames PRIMARY KEY (username),
+  CONSTRAINT fk_user_usernames_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+) PARTITION BY HASH (username);
+
+CREATE TABLE user_emails (
+  email VARCHAR(50) NOT NULL,
+  user_id BIGINT NOT NULL,
+  CONSTRAINT pk_user_emails PRIMARY KEY (email),
+  CONSTRAINT fk_user_emails_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+) PARTITION BY HASH (email);
+
+DO $$
+BEGIN
+  FOR i IN 0..15 LOOP
+    EXECUTE format('CREATE TABLE user_usernames_p%s PARTITION OF user_usernames FOR VALUES WITH (MODULUS 16, REMAINDER %s)', i, i);
+    EXECUTE format('CREATE TABLE user_emails_p%s PARTITION OF user_emails FOR VALUES WITH (MODULUS 16, REMAINDER %s)', i, i);
+  END LOOP;
+END $$;
+
+INSERT INTO user_usernames (username, user_id) SELECT username, id FROM users;
+INSERT INTO user_emails (email, user_id) SELECT email, id FROM users;
+
+-- Каскадное удаление пользователя ищет строки справочника по user_id
+CREATE INDEX idx_user_usernames_user_id ON user_usernames (user_id);
+CREATE INDEX idx_user_emails_user_id ON user_emails (user_id);
+
+--changeset ecommerce:users-login-lookups-generic dbms:!postgresql
+--comment: Без секционирования справочники те же, чтобы запросы приложения не зависели от СУБД
+CREATE TABLE user_usernames (
+  username VARCHAR(50) NOT NULL,
+  user_id BIGINT NOT NULL,
+  CONSTRAINT pk_user_usernames PRIMARY KEY (username),
+  CONSTRAINT fk_user_usernames_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+);
+
+CREATE TABLE user_emails (
+  email VARCHAR(50) NOT NULL,
+  user_id BIGINT NOT NULL,
+  CONSTRAINT pk_user_emails PRIMARY KEY (email),
+  CONSTRAINT fk_user_emails_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+);
+
+INSERT INTO user_usernames (username, user_id) SELECT username, id FROM users;
+INSERT INTO user_emails (email, user_id) SELECT email, id FROM users;
+
+CREATE INDEX idx_user_usernames_user_id ON user_usernames (user_id);
+CREATE INDEX idx_user_emails_user_id ON user_emails (user_id);
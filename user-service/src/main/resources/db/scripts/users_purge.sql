@@ -0,0 +1,27 @@
+--liquibase formatted sql
+
+--changeset ecommerce:users-add-erasure-columns
+--comment: Запрос на удаление аккаунта и отметка об анонимизации — критерии и результат фоновой очистки
+ALTER TABLE users ADD COLUMN deletion_requested_at TIMESTAMP;
+ALTER TABLE users ADD COLUMN anonymized_at TIMESTAMP;
+
+--changeset ecommerce:users-deletion-requested-idx dbms:postgresql
+--comment: Частичный индекс: в нём только аккаунты, ожидающие удаления
+CREATE INDEX idx_users_deletion_requested ON users (deletion_requested_at) WHERE deletion_requested_at IS NOT NULL;
+
+--changeset ecommerce:users-deletion-requested-idx-generic dbms:!postgresql
+CREATE INDEX idx_users_deletion_requested ON users (deletion_requested_at);
+
+--changeset ecommerce:user-purge-checkpoints
+--comment: Прогресс очистки по правилам: задание продолжает проход с last_id после перезапуска или смены узла
+CREATE TABLE user_purge_checkpoints (
+  name VARCHAR(50) NOT NULL,
+  last_id BIGINT DEFAULT 0 NOT NULL,
+  processed BIGINT DEFAULT 0 NOT NULL,
+  next_pass_at TIMESTAMP,
+  updated_at TIMESTAMP,
+  CONSTRAINT pk_user_purge_checkpoints PRIMARY KEY (name)
+);
+
+INSERT INTO user_purge_checkpoints (name) VALUES ('erasure');
+INSERT INTO user_purge_checkpoints (name) VALUES ('dormant');
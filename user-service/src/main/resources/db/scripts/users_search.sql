@@ -0,0 +1,29 @@
+--liquibase formatted sql
+
+--changeset ecommerce:users-created-at-not-null
+--comment: (created_at, id) — ключ keyset-пагинации админского поиска, NULL в нём недопустим
+UPDATE users SET created_at = NOW() WHERE created_at IS NULL;
+ALTER TABLE users ALTER COLUMN created_at SET NOT NULL;
+
+--changeset ecommerce:users-search-keyset-idx dbms:postgresql runInTransaction:false
+--comment: Страница читается диапазоном индекса от курсора, а не пропуском OFFSET строк
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_created_at_id ON users (created_at DESC, id DESC);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_role_created_at_id ON users (role, created_at DESC, id DESC);
+
+--changeset ecommerce:users-search-prefix-idx dbms:postgresql runInTransaction:false
+--comment: text_pattern_ops позволяет использовать btree для LIKE 'префикс%' при любой collation
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_username_prefix ON users (lower(username) text_pattern_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_email_prefix ON users (lower(email) text_pattern_ops);
+
+--changeset ecommerce:users-search-pg-trgm dbms:postgresql
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+--changeset ecommerce:users-search-trgm-idx dbms:postgresql runInTransaction:false
+--comment: Триграммы ускоряют поиск подстроки (LIKE '%…%'); запрос строится по тем же выражениям lower(...)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_first_name_trgm ON users USING gin (lower(first_name) gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_last_name_trgm ON users USING gin (lower(last_name) gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_email_trgm ON users USING gin (lower(email) gin_trgm_ops);
+
+--changeset ecommerce:users-search-keyset-idx-generic dbms:!postgresql
+CREATE INDEX idx_users_created_at_id ON users (created_at DESC, id DESC);
+CREATE INDEX idx_users_role_created_at_id ON users (role, created_at DESC, id DESC);
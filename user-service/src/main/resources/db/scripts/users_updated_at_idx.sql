@@ -0,0 +1,5 @@
+--liquibase formatted sql
+
+--changeset ecommerce:users-updated-at-idx
+--comment: Узлы раз в несколько секунд читают недавно изменённых пользователей, чтобы сбросить их в кэше профилей
+CREATE INDEX idx_users_updated_at ON users (updated_at);
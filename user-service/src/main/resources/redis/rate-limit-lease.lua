@@ -0,0 +1,25 @@
+-- Пакетная выдача аренды токенов из кластерных token bucket.
+-- KEYS[i]  — ведро (policy:client);
+-- ARGV     — тройки на ключ: ёмкость, пополнение (токенов в мс), сколько токенов запрошено.
+-- Возвращает пары: выдано, осталось в ведре после выдачи.
+-- Время берётся у Redis, поэтому расхождение часов между узлами не влияет на пополнение.
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+local result = {}
+for i, key in ipairs(KEYS) do
+    local base = (i - 1) * 3
+    local capacity = tonumber(ARGV[base + 1])
+    local rate = tonumber(ARGV[base + 2])
+    local wanted = tonumber(ARGV[base + 3])
+    local state = redis.call('HMGET', key, 'tokens', 'ts')
+    local tokens = tonumber(state[1]) or capacity
+    local ts = tonumber(state[2]) or now
+    tokens = math.min(capacity, tokens + math.max(0, now - ts) * rate)
+    local granted = math.max(0, math.min(wanted, math.floor(tokens)))
+    tokens = tokens - granted
+    redis.call('HSET', key, 'tokens', tostring(tokens), 'ts', now)
+    redis.call('PEXPIRE', key, math.ceil(capacity / rate))
+    result[#result + 1] = granted
+    result[#result + 1] = math.floor(tokens)
+end
+return result
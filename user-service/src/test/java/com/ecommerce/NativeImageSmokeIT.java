@@ -0,0 +1,127 @@
+package com.ecommerce;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Smoke-тест native-сборки: запускает бинарник на встроенной H2 и проверяет регистрацию,
+ * вход и проверку JWT на защищённом маршруте. Выполняется failsafe в профиле {@code native}
+ * ({@code mvn -pl user-service -Pnative verify}), путь к бинарнику передаётся в {@code native.binary}.
+ */
+@EnabledIfSystemProperty(named = "native.binary", matches = ".+")
+class NativeImageSmokeIT {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(30);
+
+    private static final HttpClient httpClient = HttpClient.newHttpClient();
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static Process process;
+    private static String baseUrl;
+
+    @BeforeAll
+    static void startBinary() throws Exception {
+        Path binary = Path.of(System.getProperty("native.binary"));
+        assertThat(binary).as("native-бинарник не собран").exists();
+
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        baseUrl = "http://localhost:" + port;
+        Path log = Files.createTempFile("user-service-native", ".log");
+        process = new ProcessBuilder(binary.toString(), "--spring.profiles.active=h2", "--server.port=" + port)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            assertThat(process.isAlive()).as("native-бинарник упал при старте, лог: " + log).isTrue();
+            try {
+                get("/api/users/me", null);
+                return;
+            } catch (IOException e) {
+                Thread.sleep(50);
+            }
+        }
+        throw new IllegalStateException("native-бинарник не поднялся за " + STARTUP_TIMEOUT.toSeconds() + " c, лог: " + log);
+    }
+
+    @AfterAll
+    static void stopBinary() throws InterruptedException {
+        if (process != null) {
+            process.destroy();
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    @Test
+    void registerLoginAndVerifyToken() throws Exception {
+        HttpResponse<String> registered = post("/api/auth/register", Map.of(
+                "username", "native_user",
+                "email", "native@example.com",
+                "password", "password123",
+                "firstName", "Native",
+                "lastName", "Image"));
+        assertThat(registered.statusCode()).isEqualTo(201);
+        assertThat(objectMapper.readTree(registered.body()).path("username").asText()).isEqualTo("native_user");
+
+        HttpResponse<String> login = post("/api/auth/login", Map.of("login", "native_user", "password", "password123"));
+        assertThat(login.statusCode()).isEqualTo(200);
+        JsonNode auth = objectMapper.readTree(login.body());
+        String token = auth.path("token").asText();
+        assertThat(token).isNotBlank();
+        assertThat(auth.path("type").asText()).isEqualTo("Bearer");
+
+        HttpResponse<String> profile = get("/api/users/me", token);
+        assertThat(profile.statusCode()).isEqualTo(200);
+        assertThat(objectMapper.readTree(profile.body()).path("email").asText()).isEqualTo("native@example.com");
+
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+        assertThat(get("/api/users/me", tampered).statusCode()).isEqualTo(403);
+    }
+
+    @Test
+    void wrongPasswordShouldReturn401() throws Exception {
+        HttpResponse<String> login = post("/api/auth/login", Map.of("login", "nobody", "password", "password123"));
+        assertThat(login.statusCode()).isEqualTo(401);
+        assertThat(objectMapper.readTree(login.body()).path("status").asInt()).isEqualTo(401);
+    }
+
+    private static HttpResponse<String> post(String path, Object body) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static HttpResponse<String> get(String path, String token) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path)).GET();
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
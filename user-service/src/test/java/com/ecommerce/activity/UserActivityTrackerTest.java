@@ -0,0 +1,119 @@
+package com.ecommerce.activity;
+
+import com.ecommerce.id.TimeOrderedIdGenerator;
+import com.ecommerce.model.entity.User;
+import com.ecommerce.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = "spring.jpa.show-sql=false")
+@Import(TimeOrderedIdGenerator.class)
+class UserActivityTrackerTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private MeterRegistry meterRegistry;
+    private UserActivityTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+        meterRegistry = new SimpleMeterRegistry();
+        tracker = new UserActivityTracker(jdbcTemplate,
+                new UserActivityProperties(true, Duration.ofSeconds(30), Duration.ofSeconds(60), 2, 3), meterRegistry);
+    }
+
+    @Test
+    void flush_shouldWriteOneCoalescedRowPerUser() {
+        User first = save("first");
+        User second = save("second");
+        User idle = save("idle");
+        LocalDateTime before = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+
+        tracker.loggedIn(first.getId());
+        for (int i = 0; i < 100; i++) {
+            tracker.seen(first.getId());
+            tracker.seen(second.getId());
+        }
+        tracker.flush();
+
+        User firstSaved = userRepository.findById(first.getId()).orElseThrow();
+        assertThat(firstSaved.getLastLoginAt()).isAfterOrEqualTo(before);
+        assertThat(firstSaved.getLastSeenAt()).isAfterOrEqualTo(firstSaved.getLastLoginAt());
+        User secondSaved = userRepository.findById(second.getId()).orElseThrow();
+        assertThat(secondSaved.getLastSeenAt()).isAfterOrEqualTo(before);
+        assertThat(secondSaved.getLastLoginAt()).isNull();
+        assertThat(userRepository.findById(idle.getId()).orElseThrow().getLastSeenAt()).isNull();
+        assertThat(meterRegistry.counter("user.activity.flushed").count()).isEqualTo(2);
+        // Версия строки не меняется — запись не конфликтует с изменением профиля
+        assertThat(secondSaved.getVersion()).isEqualTo(second.getVersion());
+    }
+
+    @Test
+    void flush_shouldNotMoveTimestampsBackwards() {
+        User user = save("ahead");
+        LocalDateTime future = LocalDateTime.now().plusHours(1).truncatedTo(ChronoUnit.SECONDS);
+        jdbcTemplate.update("UPDATE users SET last_seen_at = ?, last_login_at = ? WHERE id = ?", future, future, user.getId());
+
+        tracker.loggedIn(user.getId());
+        tracker.flush();
+
+        User saved = userRepository.findById(user.getId()).orElseThrow();
+        assertThat(saved.getLastSeenAt()).isEqualTo(future);
+        assertThat(saved.getLastLoginAt()).isEqualTo(future);
+    }
+
+    @Test
+    void flush_shouldEvictUsersWithoutActivityForWholeInterval() {
+        User user = save("evicted");
+        tracker.seen(user.getId());
+
+        tracker.flush();
+        assertThat(tracker.pendingCount()).isEqualTo(1);
+        tracker.flush();
+        assertThat(tracker.pendingCount()).isZero();
+
+        tracker.loggedIn(user.getId());
+        assertThat(tracker.pendingCount()).isEqualTo(1);
+    }
+
+    @Test
+    void seen_shouldDropNewUsers_WhenPendingLimitReached() {
+        for (long id = 1; id <= 5; id++) {
+            tracker.seen(id);
+        }
+        tracker.loggedIn(6);
+
+        assertThat(tracker.pendingCount()).isEqualTo(4);
+        assertThat(meterRegistry.counter("user.activity.dropped").count()).isEqualTo(2);
+    }
+
+    private User save(String username) {
+        return userRepository.saveAndFlush(User.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .password("secret")
+                .build());
+    }
+}
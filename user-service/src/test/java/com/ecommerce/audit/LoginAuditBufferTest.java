@@ -0,0 +1,103 @@
+package com.ecommerce.audit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoginAuditBufferTest {
+
+    @Test
+    void constructor_shouldRoundCapacityUpToPowerOfTwo() {
+        assertThat(new LoginAuditBuffer(1000).capacity()).isEqualTo(1024);
+        assertThat(new LoginAuditBuffer(1024).capacity()).isEqualTo(1024);
+        assertThat(new LoginAuditBuffer(1).capacity()).isEqualTo(2);
+    }
+
+    @Test
+    void offer_shouldRejectWhenFull() {
+        LoginAuditBuffer buffer = new LoginAuditBuffer(4);
+
+        for (int i = 0; i < 4; i++) {
+            assertThat(buffer.offer(i, LoginOutcome.SUCCESS, "user" + i, i + 1, "127.0.0.1")).isTrue();
+        }
+
+        assertThat(buffer.offer(5, LoginOutcome.SUCCESS, "overflow", 5, null)).isFalse();
+        assertThat(buffer.size()).isEqualTo(4);
+    }
+
+    @Test
+    void drainTo_shouldReturnEventsInOrderAndFreeSlotsAcrossWraparound() {
+        LoginAuditBuffer buffer = new LoginAuditBuffer(4);
+        LoginAuditBuffer.Batch batch = new LoginAuditBuffer.Batch(3);
+
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 3; i++) {
+                buffer.offer(round * 10 + i, LoginOutcome.BAD_PASSWORD, "r" + round + "_" + i, 0, null);
+            }
+
+            assertThat(buffer.drainTo(batch)).isEqualTo(3);
+            assertThat(batch.occurredAt).containsExactly(round * 10, round * 10 + 1, round * 10 + 2);
+            assertThat(batch.login).containsExactly("r" + round + "_0", "r" + round + "_1", "r" + round + "_2");
+            assertThat(batch.outcome).containsOnly(LoginOutcome.BAD_PASSWORD);
+        }
+        assertThat(buffer.drainTo(batch)).isZero();
+        assertThat(buffer.size()).isZero();
+    }
+
+    @Test
+    void offer_shouldNotLoseOrDuplicateEventsUnderConcurrentProducers() throws Exception {
+        int producers = 4;
+        int perProducer = 50_000;
+        LoginAuditBuffer buffer = new LoginAuditBuffer(256);
+        LoginAuditBuffer.Batch batch = new LoginAuditBuffer.Batch(64);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            long base = (long) p * perProducer;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < perProducer; i++) {
+                    while (!buffer.offer(base + i, LoginOutcome.SUCCESS, null, base + i + 1, null)) {
+                        Thread.onSpinWait();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        Set<Long> seen = new HashSet<>();
+        long[] lastPerProducer = new long[producers];
+        Arrays.fill(lastPerProducer, -1);
+        start.countDown();
+        while (seen.size() < producers * perProducer) {
+            int count = buffer.drainTo(batch);
+            for (int i = 0; i < count; i++) {
+                long value = batch.occurredAt[i];
+                assertThat(seen.add(value)).isTrue();
+                assertThat(batch.userId[i]).isEqualTo(value + 1);
+                // События одного писателя приходят в порядке записи
+                int producer = (int) (value / perProducer);
+                assertThat(value).isGreaterThan(lastPerProducer[producer]);
+                lastPerProducer[producer] = value;
+            }
+        }
+        for (Future<?> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertThat(buffer.drainTo(batch)).isZero();
+    }
+}
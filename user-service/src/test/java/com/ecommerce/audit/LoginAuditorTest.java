@@ -0,0 +1,206 @@
+package com.ecommerce.audit;
+
+import com.ecommerce.id.TimeOrderedIdGenerator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.spy;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = "spring.jpa.show-sql=false")
+@Import(TimeOrderedIdGenerator.class)
+class LoginAuditorTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM login_events");
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void flush_shouldWriteQueuedEventsInMultiRowBatches() {
+        LoginAuditor auditor = auditor(16, 3, LoginAuditProperties.Overflow.DROP, Duration.ofHours(1));
+        for (int i = 0; i < 6; i++) {
+            auditor.record(LoginOutcome.SUCCESS, "user" + i, i + 1);
+        }
+        auditor.record(LoginOutcome.UNKNOWN_LOGIN, "ghost");
+
+        assertThat(List.of(auditor.flush(), auditor.flush(), auditor.flush(), auditor.flush())).containsExactly(3, 3, 1, 0);
+
+        Map<String, Object> unknown = jdbcTemplate.queryForMap("SELECT outcome, user_id FROM login_events WHERE login = 'ghost'");
+        assertThat(unknown.get("OUTCOME")).isEqualTo("UNKNOWN_LOGIN");
+        assertThat(unknown.get("USER_ID")).isNull();
+        assertThat(count()).isEqualTo(7);
+        assertThat(meterRegistry.counter("login.audit.events", "outcome", "success").count()).isEqualTo(6);
+        assertThat(meterRegistry.timer("login.audit.flush").count()).isEqualTo(3);
+    }
+
+    @Test
+    void record_shouldTruncateLongLogin() {
+        LoginAuditor auditor = auditor(16, 8, LoginAuditProperties.Overflow.DROP, Duration.ofHours(1));
+
+        auditor.record(LoginOutcome.BAD_PASSWORD, "x".repeat(500), 1);
+        auditor.flush();
+
+        assertThat(jdbcTemplate.queryForObject("SELECT login FROM login_events", String.class))
+                .hasSize(LoginAuditor.MAX_LOGIN_LENGTH);
+    }
+
+    @Test
+    void record_shouldDropAndCount_WhenQueueFull() {
+        LoginAuditor auditor = auditor(2, 8, LoginAuditProperties.Overflow.DROP, Duration.ofHours(1));
+
+        for (int i = 0; i < 5; i++) {
+            auditor.record(LoginOutcome.THROTTLED, null, 0, "10.0.0.1");
+        }
+
+        assertThat(meterRegistry.counter("login.audit.dropped").count()).isEqualTo(3);
+        assertThat(auditor.flush()).isEqualTo(2);
+    }
+
+    @Test
+    void record_shouldWaitForFlusher_WhenBlockOverflowConfigured() {
+        LoginAuditor auditor = auditor(2, 2, LoginAuditProperties.Overflow.BLOCK, Duration.ofHours(1));
+        auditor.start();
+        try {
+            for (int i = 0; i < 50; i++) {
+                auditor.record(LoginOutcome.SUCCESS, "user" + i, i + 1);
+            }
+        } finally {
+            auditor.stop();
+        }
+
+        assertThat(meterRegistry.counter("login.audit.dropped").count()).isZero();
+        assertThat(count()).isEqualTo(50);
+    }
+
+    @Test
+    void stop_shouldFlushEverythingAcceptedBeforeShutdown() throws Exception {
+        // Интервал в час: без остановки пакеты неполные и ждали бы следующего цикла
+        LoginAuditor auditor = auditor(8192, 500, LoginAuditProperties.Overflow.DROP, Duration.ofHours(1));
+        auditor.start();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int p = 0; p < 4; p++) {
+            executor.submit(() -> {
+                for (int i = 0; i < 250; i++) {
+                    auditor.record(LoginOutcome.SUCCESS, "user" + i, i + 1);
+                }
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        auditor.stop();
+
+        assertThat(auditor.isRunning()).isFalse();
+        assertThat(count()).isEqualTo(1000);
+        assertThat(meterRegistry.counter("login.audit.dropped").count()).isZero();
+    }
+
+    @Test
+    void flush_shouldKeepBatchAndRetry_WhenDatabaseFails() {
+        JdbcTemplate failing = failingFirst(2);
+        LoginAuditor auditor = auditor(failing, 16, Duration.ofHours(1), Duration.ofSeconds(10));
+        auditor.record(LoginOutcome.SUCCESS, "alice", 1);
+        auditor.record(LoginOutcome.BAD_PASSWORD, "bob", 2);
+
+        assertThat(auditor.flush()).isZero();
+        assertThat(auditor.retrying()).isTrue();
+        auditor.record(LoginOutcome.SUCCESS, "carol", 3);
+        assertThat(auditor.flush()).isZero();
+        assertThat(auditor.flush()).isEqualTo(2);
+        assertThat(auditor.retrying()).isFalse();
+        assertThat(auditor.flush()).isEqualTo(1);
+
+        assertThat(count()).isEqualTo(3);
+        assertThat(meterRegistry.counter("login.audit.failed").count()).isZero();
+    }
+
+    @Test
+    void flush_shouldDropBatch_WhenDatabaseFailsLongerThanShutdownTimeout() {
+        LoginAuditor auditor = auditor(failingFirst(1), 16, Duration.ofHours(1), Duration.ZERO);
+        auditor.record(LoginOutcome.SUCCESS, "alice", 1);
+        auditor.record(LoginOutcome.SUCCESS, "bob", 2);
+
+        assertThat(auditor.flush()).isZero();
+
+        assertThat(auditor.retrying()).isFalse();
+        assertThat(meterRegistry.counter("login.audit.failed").count()).isEqualTo(2);
+        assertThat(auditor.flush()).isZero();
+        assertThat(count()).isZero();
+    }
+
+    @Test
+    void stop_shouldRetryFailedBatchUntilDatabaseRecovers() {
+        LoginAuditor auditor = auditor(failingFirst(3), 16, Duration.ofMillis(10), Duration.ofSeconds(10));
+        auditor.start();
+        for (int i = 0; i < 10; i++) {
+            auditor.record(LoginOutcome.SUCCESS, "user" + i, i + 1);
+        }
+
+        auditor.stop();
+
+        assertThat(count()).isEqualTo(10);
+        assertThat(meterRegistry.counter("login.audit.failed").count()).isZero();
+    }
+
+    private LoginAuditor auditor(int capacity, int batchSize, LoginAuditProperties.Overflow overflow, Duration flushInterval) {
+        LoginAuditProperties properties = new LoginAuditProperties(true, capacity, batchSize, flushInterval, overflow,
+                Duration.ofSeconds(5), Duration.ofSeconds(10));
+        return new LoginAuditor(jdbcTemplate, properties, meterRegistry);
+    }
+
+    private LoginAuditor auditor(JdbcTemplate jdbc, int batchSize, Duration flushInterval, Duration shutdownTimeout) {
+        LoginAuditProperties properties = new LoginAuditProperties(true, 64, batchSize, flushInterval,
+                LoginAuditProperties.Overflow.DROP, Duration.ofSeconds(5), shutdownTimeout);
+        return new LoginAuditor(jdbc, properties, meterRegistry);
+    }
+
+    /**
+     * Первые {@code failures} записей падают, как при недоступной БД, дальше — настоящая база.
+     */
+    private JdbcTemplate failingFirst(int failures) {
+        JdbcTemplate failing = spy(jdbcTemplate);
+        AtomicInteger left = new AtomicInteger(failures);
+        doAnswer(invocation -> {
+            if (left.getAndDecrement() > 0) {
+                throw new DataAccessResourceFailureException("Connection refused");
+            }
+            return invocation.callRealMethod();
+        }).when(failing).update(anyString(), any(PreparedStatementSetter.class));
+        return failing;
+    }
+
+    private long count() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM login_events", Long.class);
+    }
+}
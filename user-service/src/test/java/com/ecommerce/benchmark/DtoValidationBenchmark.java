@@ -0,0 +1,81 @@
+package com.ecommerce.benchmark;
+
+import com.ecommerce.model.dto.request.UserLoginRequest;
+import com.ecommerce.model.dto.request.UserRegistrationRequest;
+import com.ecommerce.model.dto.request.UserUpdateRequest;
+import com.ecommerce.validation.UserRequestValidator;
+import jakarta.validation.Validation;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Проверка DTO запросов: Hibernate Validator против {@link UserRequestValidator}.
+ * <p>
+ * Оба пути пишут ошибки в {@link BeanPropertyBindingResult}, как при биндинге {@code @Valid @RequestBody}:
+ * {@code mvn -pl user-service -Pbenchmark verify -Djmh.args="DtoValidationBenchmark -prof gc"}.
+ * Случаи {@code *-invalid} нарушают по одному ограничению в каждом поле, где оно есть.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DtoValidationBenchmark {
+
+    @Param({"login", "registration", "update", "registration-invalid"})
+    public String request;
+
+    private Object dto;
+    private SpringValidatorAdapter reflective;
+    private UserRequestValidator precompiled;
+
+    @Setup
+    public void setUp() {
+        dto = switch (request) {
+            case "login" -> new UserLoginRequest("john_doe", "secret1234");
+            case "registration" -> UserRegistrationRequest.builder()
+                    .username("john_doe")
+                    .email("john.doe@example.com")
+                    .password("secret1234")
+                    .firstName("John")
+                    .lastName("Doe")
+                    .phoneNumber("+7 (999) 123-45-67")
+                    .build();
+            case "update" -> UserUpdateRequest.builder()
+                    .firstName("John")
+                    .lastName("Doe")
+                    .phoneNumber("89991234567")
+                    .build();
+            case "registration-invalid" -> UserRegistrationRequest.builder()
+                    .username("jo")
+                    .email("not-an-email")
+                    .password("short")
+                    .firstName("J".repeat(101))
+                    .phoneNumber("+7 999 123 45 67")
+                    .build();
+            default -> throw new IllegalArgumentException(request);
+        };
+        jakarta.validation.Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+        reflective = new SpringValidatorAdapter(validator);
+        precompiled = new UserRequestValidator(validator);
+    }
+
+    @Benchmark
+    public int beanValidation() {
+        Errors errors = new BeanPropertyBindingResult(dto, "request");
+        reflective.validate(dto, errors);
+        return errors.getErrorCount();
+    }
+
+    @Benchmark
+    public int precompiled() {
+        Errors errors = new BeanPropertyBindingResult(dto, "request");
+        precompiled.validate(dto, errors);
+        return errors.getErrorCount();
+    }
+}
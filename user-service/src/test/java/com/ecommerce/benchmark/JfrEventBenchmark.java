@@ -0,0 +1,64 @@
+package com.ecommerce.benchmark;
+
+import com.ecommerce.diagnostics.CacheLookupEvent;
+import jdk.jfr.Recording;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Цена событий JFR на горячем пути: поиск в кэше без события и с ним, при выключенной и при идущей записи.
+ * <p>
+ * {@code mvn -pl user-service -Pbenchmark verify -Djmh.args="JfrEventBenchmark -prof gc"}.
+ * Без записи {@code instrumented} должен совпадать с {@code baseline} по времени и не аллоцировать:
+ * тогда события можно держать в коде постоянно.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JfrEventBenchmark {
+
+    @Param({"off", "on"})
+    public String recording;
+
+    private final ConcurrentHashMap<Long, String> cache = new ConcurrentHashMap<>();
+    private long key;
+    private Recording active;
+
+    @Setup
+    public void setUp() {
+        for (long i = 0; i < 1024; i++) {
+            cache.put(i, "user-" + i);
+        }
+        if (recording.equals("on")) {
+            active = new Recording();
+            active.enable(CacheLookupEvent.class);
+            active.setToDisk(true);
+            active.start();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (active != null) {
+            active.close();
+        }
+    }
+
+    @Benchmark
+    public String baseline() {
+        return cache.get(key++ & 1023);
+    }
+
+    @Benchmark
+    public String instrumented() {
+        CacheLookupEvent event = CacheLookupEvent.start();
+        String value = cache.get(key++ & 1023);
+        event.finish("user-profile", value != null);
+        return value;
+    }
+}
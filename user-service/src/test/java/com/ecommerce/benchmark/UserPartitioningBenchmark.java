@@ -0,0 +1,215 @@
+package com.ecommerce.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Одна таблица users с уникальными индексами против hash-секционированной users со справочниками логинов
+ * (схема из users_partitioning.sql): регистрация и чтение по ключу на реальном PostgreSQL.
+ * <p>
+ * Обе схемы создаются в отдельных schema и заполняются {@code rows} пользователями; заполненные схемы
+ * переиспользуются следующими форками и запусками:
+ * {@code mvn -pl user-service -Pbenchmark verify -Djmh.args="UserPartitioningBenchmark -t 4"}.
+ * Подключение — системные свойства {@code benchmark.jdbc-url}, {@code benchmark.jdbc-user},
+ * {@code benchmark.jdbc-password} (по умолчанию локальная БД из application.yml).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1)
+public class UserPartitioningBenchmark {
+    private static final String URL = System.getProperty("benchmark.jdbc-url", "jdbc:postgresql://localhost:5432/e-commerce-db");
+    private static final String USER = System.getProperty("benchmark.jdbc-user", "postgres");
+    private static final String PASSWORD = System.getProperty("benchmark.jdbc-password", "postgres");
+    private static final int PARTITIONS = 16;
+
+    @State(Scope.Benchmark)
+    public static class Schemas {
+        @Param({"1000000"})
+        public int rows;
+
+        /**
+         * Схемы переживают форк, поэтому новые ники помечаются запуском, чтобы не совпасть с прежними.
+         */
+        final String run = Long.toString(System.currentTimeMillis(), 36);
+        final AtomicLong inserted = new AtomicLong();
+
+        @Setup(Level.Trial)
+        public void setUp() throws SQLException {
+            String marker = "rows=" + rows;
+            try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+                try (ResultSet resultSet = statement.executeQuery(
+                        "SELECT obj_description(oid, 'pg_namespace') FROM pg_namespace WHERE nspname = 'bench_partitioned'")) {
+                    if (resultSet.next() && marker.equals(resultSet.getString(1))) {
+                        System.out.printf("Схемы с %d пользователями уже подготовлены%n", rows);
+                        return;
+                    }
+                }
+                statement.execute("DROP SCHEMA IF EXISTS bench_single CASCADE");
+                statement.execute("DROP SCHEMA IF EXISTS bench_partitioned CASCADE");
+                statement.execute("CREATE SCHEMA bench_single");
+                statement.execute("CREATE SCHEMA bench_partitioned");
+
+                statement.execute("CREATE TABLE bench_single.users (" + columns() + ", PRIMARY KEY (id), "
+                        + "UNIQUE (username), UNIQUE (email))");
+
+                statement.execute("CREATE TABLE bench_partitioned.users (" + columns() + ", PRIMARY KEY (id)) PARTITION BY HASH (id)");
+                statement.execute("CREATE TABLE bench_partitioned.user_usernames (username VARCHAR(50) PRIMARY KEY, "
+                        + "user_id BIGINT NOT NULL REFERENCES bench_partitioned.users (id) ON DELETE CASCADE) PARTITION BY HASH (username)");
+                statement.execute("CREATE TABLE bench_partitioned.user_emails (email VARCHAR(50) PRIMARY KEY, "
+                        + "user_id BIGINT NOT NULL REFERENCES bench_partitioned.users (id) ON DELETE CASCADE) PARTITION BY HASH (email)");
+                for (String table : new String[]{"users", "user_usernames", "user_emails"}) {
+                    for (int i = 0; i < PARTITIONS; i++) {
+                        statement.execute("CREATE TABLE bench_partitioned.%s_p%d PARTITION OF bench_partitioned.%s "
+                                .formatted(table, i, table) + "FOR VALUES WITH (MODULUS %d, REMAINDER %d)".formatted(PARTITIONS, i));
+                    }
+                }
+
+                for (String schema : new String[]{"bench_single", "bench_partitioned"}) {
+                    statement.execute(("INSERT INTO %s.users (username, email, first_name, last_name, password) "
+                            + "SELECT 'user' || g, 'user' || g || '@example.com', 'First', 'Last', 'secret' "
+                            + "FROM generate_series(1, %d) g").formatted(schema, rows));
+                    statement.execute("CREATE INDEX ON %s.users (created_at DESC, id DESC)".formatted(schema));
+                }
+                statement.execute("INSERT INTO bench_partitioned.user_usernames SELECT username, id FROM bench_partitioned.users");
+                statement.execute("INSERT INTO bench_partitioned.user_emails SELECT email, id FROM bench_partitioned.users");
+                statement.execute("CREATE INDEX ON bench_partitioned.user_usernames (user_id)");
+                statement.execute("CREATE INDEX ON bench_partitioned.user_emails (user_id)");
+                statement.execute("VACUUM ANALYZE");
+                statement.execute("COMMENT ON SCHEMA bench_partitioned IS '" + marker + "'");
+            }
+            System.out.printf("Подготовлено %d пользователей в каждой схеме%n", rows);
+        }
+
+        private static String columns() {
+            return "id BIGINT GENERATED BY DEFAULT AS IDENTITY, username VARCHAR(50) NOT NULL, email VARCHAR(50) NOT NULL, "
+                    + "first_name VARCHAR(50), last_name VARCHAR(50), password VARCHAR(255), "
+                    + "created_at TIMESTAMP DEFAULT NOW() NOT NULL";
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Session {
+        Connection connection;
+        PreparedStatement singleInsert;
+        PreparedStatement partitionedInsert;
+        PreparedStatement reserveUsername;
+        PreparedStatement reserveEmail;
+        PreparedStatement singleByUsername;
+        PreparedStatement partitionedIdByUsername;
+        PreparedStatement singleById;
+        PreparedStatement partitionedById;
+
+        @Setup(Level.Trial)
+        public void setUp() throws SQLException {
+            connection = connect();
+            connection.setAutoCommit(false);
+            String insert = "INSERT INTO %s.users (username, email, first_name, last_name, password) VALUES (?, ?, 'First', 'Last', 'secret')";
+            singleInsert = connection.prepareStatement(insert.formatted("bench_single"), new String[]{"id"});
+            partitionedInsert = connection.prepareStatement(insert.formatted("bench_partitioned"), new String[]{"id"});
+            reserveUsername = connection.prepareStatement("INSERT INTO bench_partitioned.user_usernames (username, user_id) VALUES (?, ?)");
+            reserveEmail = connection.prepareStatement("INSERT INTO bench_partitioned.user_emails (email, user_id) VALUES (?, ?)");
+            // Те же запросы, что в UserRepository
+            singleByUsername = connection.prepareStatement("SELECT u.* FROM bench_single.users u WHERE u.username = ?");
+            partitionedIdByUsername = connection.prepareStatement("SELECT user_id FROM bench_partitioned.user_usernames WHERE username = ?");
+            singleById = connection.prepareStatement("SELECT u.* FROM bench_single.users u WHERE u.id = ?");
+            partitionedById = connection.prepareStatement("SELECT u.* FROM bench_partitioned.users u WHERE u.id = ?");
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws SQLException {
+            connection.close();
+        }
+    }
+
+    @Benchmark
+    public long registerSingleTable(Schemas schemas, Session session) throws SQLException {
+        String username = schemas.run + "_" + schemas.inserted.incrementAndGet();
+        long id = insert(session.singleInsert, username);
+        session.connection.commit();
+        return id;
+    }
+
+    @Benchmark
+    public long registerPartitioned(Schemas schemas, Session session) throws SQLException {
+        String username = schemas.run + "_" + schemas.inserted.incrementAndGet();
+        long id = insert(session.partitionedInsert, username);
+        session.reserveUsername.setString(1, username);
+        session.reserveUsername.setLong(2, id);
+        session.reserveUsername.executeUpdate();
+        session.reserveEmail.setString(1, username + "@example.com");
+        session.reserveEmail.setLong(2, id);
+        session.reserveEmail.executeUpdate();
+        session.connection.commit();
+        return id;
+    }
+
+    @Benchmark
+    public long findByUsernameSingleTable(Schemas schemas, Session session) throws SQLException {
+        return query(session, session.singleByUsername, ps -> ps.setString(1, "user" + randomId(schemas)));
+    }
+
+    @Benchmark
+    public long findByUsernamePartitioned(Schemas schemas, Session session) throws SQLException {
+        session.partitionedIdByUsername.setString(1, "user" + randomId(schemas));
+        long id;
+        try (ResultSet resultSet = session.partitionedIdByUsername.executeQuery()) {
+            resultSet.next();
+            id = resultSet.getLong(1);
+        }
+        return query(session, session.partitionedById, ps -> ps.setLong(1, id));
+    }
+
+    @Benchmark
+    public long findByIdSingleTable(Schemas schemas, Session session) throws SQLException {
+        return query(session, session.singleById, ps -> ps.setLong(1, randomId(schemas)));
+    }
+
+    @Benchmark
+    public long findByIdPartitioned(Schemas schemas, Session session) throws SQLException {
+        return query(session, session.partitionedById, ps -> ps.setLong(1, randomId(schemas)));
+    }
+
+    private static long insert(PreparedStatement statement, String username) throws SQLException {
+        statement.setString(1, username);
+        statement.setString(2, username + "@example.com");
+        statement.executeUpdate();
+        try (ResultSet keys = statement.getGeneratedKeys()) {
+            keys.next();
+            return keys.getLong(1);
+        }
+    }
+
+    private static long query(Session session, PreparedStatement statement, Binder binder) throws SQLException {
+        binder.bind(statement);
+        long id;
+        try (ResultSet resultSet = statement.executeQuery()) {
+            id = resultSet.next() ? resultSet.getLong("id") : -1;
+        }
+        session.connection.commit();
+        return id;
+    }
+
+    private static long randomId(Schemas schemas) {
+        return ThreadLocalRandom.current().nextLong(1, schemas.rows + 1);
+    }
+
+    private static Connection connect() throws SQLException {
+        return DriverManager.getConnection(URL, USER, PASSWORD);
+    }
+
+    @FunctionalInterface
+    private interface Binder {
+        void bind(PreparedStatement statement) throws SQLException;
+    }
+}
@@ -0,0 +1,147 @@
+package com.ecommerce.benchmark;
+
+import com.ecommerce.id.TimeOrderedIdGenerator;
+import com.ecommerce.model.dto.response.UserSuggestionResponse;
+import com.ecommerce.repository.OutboxEventRepository;
+import com.ecommerce.repository.UserRepository;
+import com.ecommerce.suggest.UsernameSuggestIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Limit;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Подсказки ников: упакованный индекс против {@code TreeMap<String, Long>} на миллионе синтетических ников.
+ * <p>
+ * При старте форка печатается память обеих структур (по разнице занятой кучи после GC) и оценка самого индекса:
+ * {@code mvn -pl user-service -Pbenchmark verify -Djmh.args="UsernameSuggestBenchmark -prof gc"}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+@State(Scope.Benchmark)
+public class UsernameSuggestBenchmark {
+    private static final int USERS = 1_000_000;
+    private static final int LIMIT = 10;
+
+    /**
+     * Короткий префикс совпадает с десятками тысяч ников, длинный — с единицами.
+     */
+    @Param({"m", "mar", "marina"})
+    public String prefix;
+
+    private UsernameSuggestIndex index;
+    private NavigableMap<String, Long> treeMap;
+
+    @Setup
+    public void setUp() {
+        List<String> usernames = usernames();
+
+        index = index(usernames);
+        long before = usedHeap();
+        index.rebuild();
+        long indexHeap = usedHeap() - before;
+
+        before = usedHeap();
+        treeMap = new TreeMap<>();
+        for (int i = 0; i < usernames.size(); i++) {
+            treeMap.put(usernames.get(i).toLowerCase(Locale.ROOT) + '\0' + (i + 1), (long) (i + 1));
+        }
+        long treeMapHeap = usedHeap() - before;
+
+        System.out.printf("%d ников: индекс ~%.1f МБ (оценка %.1f МБ), TreeMap ~%.1f МБ%n", index.size(),
+                indexHeap / 1048576.0, index.memoryBytes() / 1048576.0, treeMapHeap / 1048576.0);
+    }
+
+    @Benchmark
+    public List<UserSuggestionResponse> index() {
+        return index.suggest(prefix, LIMIT);
+    }
+
+    @Benchmark
+    public List<Long> treeMap() {
+        List<Long> result = new ArrayList<>(LIMIT);
+        for (Map.Entry<String, Long> entry : treeMap.tailMap(prefix).entrySet()) {
+            if (result.size() == LIMIT || !entry.getKey().startsWith(prefix)) {
+                break;
+            }
+            result.add(entry.getValue());
+        }
+        return result;
+    }
+
+    private static UsernameSuggestIndex index(List<String> usernames) {
+        UserRepository repository = mock(UserRepository.class);
+        when(repository.findByIdGreaterThanAndAnonymizedAtIsNullOrderByIdAsc(anyLong(), any(Limit.class))).thenAnswer(invocation -> {
+            int from = (int) (long) invocation.getArgument(0);
+            int to = Math.min(usernames.size(), from + ((Limit) invocation.getArgument(1)).max());
+            List<UserRepository.UsernameView> page = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                page.add(view(i + 1, usernames.get(i)));
+            }
+            return page;
+        });
+        return new UsernameSuggestIndex(repository, mock(OutboxEventRepository.class), new ObjectMapper(), new TimeOrderedIdGenerator(0), 10_000, 10_000,
+                Duration.ofSeconds(10));
+    }
+
+    /**
+     * Ники вида {@code marina_1984}, {@code Anna.K}: слоги, иногда заглавная буква и цифры; в среднем ~10 символов.
+     */
+    private static List<String> usernames() {
+        String[] syllables = {"ma", "ri", "an", "na", "ko", "le", "ser", "gei", "rus", "ol", "ga", "dim", "ka", "te", "vi"};
+        Random random = new Random(42);
+        List<String> usernames = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            StringBuilder name = new StringBuilder();
+            int parts = 2 + random.nextInt(3);
+            for (int p = 0; p < parts; p++) {
+                name.append(syllables[random.nextInt(syllables.length)]);
+            }
+            if (random.nextInt(10) == 0) {
+                name.setCharAt(0, Character.toUpperCase(name.charAt(0)));
+            }
+            name.append(random.nextBoolean() ? "_" : "").append(random.nextInt(10_000));
+            usernames.add(name.toString());
+        }
+        return usernames;
+    }
+
+    private static UserRepository.UsernameView view(long id, String username) {
+        return new UserRepository.UsernameView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getUsername() {
+                return username;
+            }
+        };
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
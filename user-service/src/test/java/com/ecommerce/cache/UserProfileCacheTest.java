@@ -0,0 +1,261 @@
+package com.ecommerce.cache;
+
+import com.ecommerce.id.TimeOrderedIdGenerator;
+import com.ecommerce.model.dto.response.UserResponse;
+import com.ecommerce.model.entity.User;
+import com.ecommerce.outbox.OutboxMessage;
+import com.ecommerce.outbox.UserProfilesUpdatedEvent;
+import com.ecommerce.repository.UserRepository;
+import com.ecommerce.resilience.CircuitBreakerProperties;
+import com.ecommerce.resilience.CircuitBreakers;
+import com.ecommerce.security.TokenVersionReceivedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = "spring.jpa.show-sql=false")
+@Import(TimeOrderedIdGenerator.class)
+class UserProfileCacheTest {
+    private static final CircuitBreakerProperties.Policy POLICY = new CircuitBreakerProperties.Policy(
+            50, Duration.ofSeconds(5), 20, 10, Duration.ofSeconds(5), 3);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    private Path dir;
+
+    private MeterRegistry meterRegistry;
+    private UserCacheProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+        meterRegistry = new SimpleMeterRegistry();
+        properties = properties(100);
+    }
+
+    @Test
+    void restoreSnapshot_shouldLoadOnlyProfilesUnchangedSinceSnapshot() {
+        LocalDateTime updatedAt = LocalDateTime.of(2025, 1, 1, 12, 0, 0, 123_456_000);
+        User unchanged = save("unchanged", updatedAt);
+        User changed = save("changed", updatedAt);
+        User deleted = save("deleted", updatedAt);
+        User neverUpdated = save("never", null);
+
+        UserProfileCache before = cache();
+        before.put(profile(unchanged), updatedAt);
+        before.put(profile(changed), updatedAt);
+        before.put(profile(deleted), updatedAt);
+        before.put(profile(neverUpdated), null);
+        before.writeSnapshot();
+
+        jdbcTemplate.update("UPDATE users SET updated_at = ? WHERE id = ?", updatedAt.plusSeconds(1), changed.getId());
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", deleted.getId());
+
+        UserProfileCache after = cache();
+        assertThat(after.restoreSnapshot()).isEqualTo(2);
+        UserResponse restored = after.get(unchanged.getId());
+        assertThat(restored.getUsername()).isEqualTo("unchanged");
+        assertThat(restored.getEmail()).isEqualTo("unchanged@example.com");
+        assertThat(restored.getLastName()).isNull();
+        assertThat(restored.getCreatedAt()).isEqualTo(unchanged.getCreatedAt());
+        assertThat(after.get(neverUpdated.getId())).isNotNull();
+        assertThat(after.get(changed.getId())).isNull();
+        assertThat(after.get(deleted.getId())).isNull();
+        assertThat(meterRegistry.counter("user.cache.snapshot.restored").count()).isEqualTo(2);
+    }
+
+    @Test
+    void restoreSnapshot_shouldIgnoreCorruptedOrMissingFile() throws IOException {
+        User user = save("user", null);
+        UserProfileCache cache = cache();
+        assertThat(cache.restoreSnapshot()).isZero();
+
+        cache.put(profile(user), null);
+        cache.writeSnapshot();
+        byte[] bytes = Files.readAllBytes(properties.snapshotPath());
+        bytes[bytes.length - 1] ^= 0x7F;
+        Files.write(properties.snapshotPath(), bytes);
+
+        assertThat(cache().restoreSnapshot()).isZero();
+    }
+
+    @Test
+    void writeSnapshot_shouldKeepHottestProfiles() {
+        properties = new UserCacheProperties(true, 100, Duration.ofSeconds(5), Duration.ofSeconds(10),
+                dir.resolve("user-cache.snapshot"), Duration.ofMinutes(5), 1);
+        User cold = save("cold", null);
+        User hot = save("hot", null);
+        UserProfileCache before = cache();
+        before.put(profile(cold), null);
+        before.put(profile(hot), null);
+        for (int i = 0; i < 5; i++) {
+            before.get(hot.getId());
+        }
+        before.writeSnapshot();
+
+        UserProfileCache after = cache();
+        assertThat(after.restoreSnapshot()).isEqualTo(1);
+        assertThat(after.get(hot.getId())).isNotNull();
+    }
+
+    @Test
+    void writeSnapshot_shouldBeReadableByOwnerOnly() throws IOException {
+        assumeTrue(dir.getFileSystem().supportedFileAttributeViews().contains("posix"));
+        properties = new UserCacheProperties(true, 100, Duration.ofSeconds(5), Duration.ofSeconds(10),
+                dir.resolve("private").resolve("user-cache.snapshot"), Duration.ofMinutes(5), 100);
+        UserProfileCache cache = cache();
+        cache.put(profile(save("user", null)), null);
+
+        cache.writeSnapshot();
+        cache.writeSnapshot();
+
+        assertThat(PosixFilePermissions.toString(Files.getPosixFilePermissions(properties.snapshotPath())))
+                .isEqualTo("rw-------");
+        assertThat(PosixFilePermissions.toString(Files.getPosixFilePermissions(properties.snapshotPath().getParent())))
+                .isEqualTo("rwx------");
+    }
+
+    @Test
+    void sync_shouldEvictProfilesChangedElsewhere() {
+        LocalDateTime updatedAt = LocalDateTime.now().minusMinutes(5).truncatedTo(ChronoUnit.MILLIS);
+        User stale = save("stale", updatedAt);
+        User fresh = save("fresh", updatedAt);
+        UserProfileCache cache = cache();
+        cache.put(profile(stale), updatedAt);
+        cache.put(profile(fresh), updatedAt);
+
+        jdbcTemplate.update("UPDATE users SET updated_at = ? WHERE id = ?", LocalDateTime.now(), stale.getId());
+        cache.sync();
+
+        assertThat(cache.get(stale.getId())).isNull();
+        assertThat(cache.get(fresh.getId())).isNotNull();
+    }
+
+    @Test
+    void onCommitted_shouldInvalidateAggregate() {
+        User user = save("user", null);
+        UserProfileCache cache = cache();
+        cache.put(profile(user), null);
+
+        cache.onCommitted(new OutboxMessage(1L, "User", user.getId(), 1L, "UserErased", List.of(), "{}",
+                LocalDateTime.now()));
+
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void onProfilesCommitted_shouldInvalidateEveryUserOfChunk() {
+        User first = save("first", null);
+        User second = save("second", null);
+        User untouched = save("untouched", null);
+        UserProfileCache cache = cache();
+        cache.put(profile(first), null);
+        cache.put(profile(second), null);
+        cache.put(profile(untouched), null);
+
+        cache.onProfilesCommitted(new UserProfilesUpdatedEvent(List.of(first.getId(), second.getId())));
+
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.get(untouched.getId())).isNotNull();
+    }
+
+    @Test
+    void onTokenVersionReceived_shouldInvalidateUserErasedOnAnotherNode() {
+        User user = save("user", null);
+        UserProfileCache cache = cache();
+        cache.put(profile(user), null);
+
+        cache.onTokenVersionReceived(new TokenVersionReceivedEvent(user.getId(), Long.MAX_VALUE));
+
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void put_shouldNotAdmitBeyondCapacity_AndEvictColdWhenNearlyFull() {
+        properties = properties(2);
+        UserProfileCache cache = cache();
+        cache.put(UserResponse.builder().id(1L).build(), null);
+        cache.put(UserResponse.builder().id(2L).build(), null);
+        cache.put(UserResponse.builder().id(3L).build(), null);
+        assertThat(cache.size()).isEqualTo(2);
+
+        cache.get(1L);
+        cache.evictCold();
+        cache.evictCold();
+
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.get(1L)).isNotNull();
+    }
+
+    @Test
+    void get_shouldMiss_WhenDisabled() {
+        properties = new UserCacheProperties(false, 100, Duration.ofSeconds(5), Duration.ofSeconds(10),
+                dir.resolve("user-cache.snapshot"), Duration.ofMinutes(5), 100);
+        UserProfileCache cache = cache();
+        cache.put(UserResponse.builder().id(1L).build(), null);
+
+        assertThat(cache.get(1L)).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    private UserCacheProperties properties(int maxEntries) {
+        return new UserCacheProperties(true, maxEntries, Duration.ofSeconds(5), Duration.ofSeconds(10),
+                dir.resolve("user-cache.snapshot"), Duration.ofMinutes(5), 100);
+    }
+
+    private UserProfileCache cache() {
+        return new UserProfileCache(userRepository, properties, meterRegistry,
+                new CircuitBreakers(new CircuitBreakerProperties(true, POLICY, POLICY), meterRegistry));
+    }
+
+    private User save(String username, LocalDateTime updatedAt) {
+        User user = userRepository.saveAndFlush(User.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .password("secret")
+                .firstName("Name")
+                .build());
+        jdbcTemplate.update("UPDATE users SET updated_at = ? WHERE id = ?", updatedAt, user.getId());
+        return userRepository.findById(user.getId()).orElseThrow();
+    }
+
+    private static UserResponse profile(User user) {
+        return UserResponse.builder()
+                .id(user.getId())
+                .username(user.getUsername())
+                .email(user.getEmail())
+                .firstName(user.getFirstName())
+                .lastName(user.getLastName())
+                .role("USER")
+                .createdAt(user.getCreatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,197 @@
+package com.ecommerce.changes;
+
+import com.ecommerce.id.TimeOrderedIdGenerator;
+import com.ecommerce.model.entity.OutboxEvent;
+import com.ecommerce.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Строки outbox здесь пишутся мимо событий приложения — так их видит узел, на котором они не фиксировались.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = "spring.jpa.show-sql=false")
+@Import(TimeOrderedIdGenerator.class)
+class UserChangeStreamTest {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private UserChangeStream stream;
+
+    @BeforeEach
+    void setUp() {
+        outboxEventRepository.deleteAll();
+        save(1, 1);
+        stream = new UserChangeStream(outboxEventRepository, Duration.ofMinutes(1), Duration.ofMinutes(1), 100,
+                Duration.ofMinutes(1), 10_000);
+        stream.poll();
+    }
+
+    @Test
+    void subscriber_shouldReceiveChangesCommittedOnAnotherNode() throws Exception {
+        RecordingEmitter emitter = new RecordingEmitter();
+        stream.subscribe(null, emitter);
+
+        OutboxEvent foreign = save(42, 3);
+        stream.poll();
+
+        assertThat(emitter.next()).contains("id:" + foreign.getId() + "\n", "event:UserProfileUpdated", "userId=42", "version=3");
+    }
+
+    @Test
+    void subscriber_shouldReceiveErasures() throws Exception {
+        RecordingEmitter emitter = new RecordingEmitter();
+        stream.subscribe(null, emitter);
+
+        OutboxEvent erased = save(42, Long.MAX_VALUE, "UserErased");
+        stream.poll();
+
+        assertThat(emitter.next()).contains("id:" + erased.getId() + "\n", "event:UserErased", "userId=42",
+                "version=" + Long.MAX_VALUE);
+    }
+
+    @Test
+    void subscriber_shouldNotAdvanceCursorPastUncommittedTransaction() throws Exception {
+        RecordingEmitter emitter = new RecordingEmitter();
+        stream.subscribe(null, emitter);
+
+        CountDownLatch inserted = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        CompletableFuture<OutboxEvent> slow = CompletableFuture.supplyAsync(() ->
+                new TransactionTemplate(transactionManager).execute(status -> {
+                    OutboxEvent event = save(7, 1);
+                    inserted.countDown();
+                    await(commit);
+                    return event;
+                }));
+        assertThat(inserted.await(5, TimeUnit.SECONDS)).isTrue();
+        OutboxEvent fast = save(8, 1);
+        stream.poll();
+
+        String first = emitter.next();
+        assertThat(first).contains("userId=8");
+        long slowId = fast.getId() - 1;
+        assertThat(first).contains("id:" + (slowId - 1) + "\n");
+
+        commit.countDown();
+        assertThat(slow.get(5, TimeUnit.SECONDS).getId()).isEqualTo(slowId);
+        stream.poll();
+
+        assertThat(emitter.next()).contains("id:" + slowId + "\n", "userId=7");
+
+        RecordingEmitter resumed = new RecordingEmitter();
+        stream.subscribe(slowId - 1, resumed);
+        assertThat(resumed.next()).contains("userId=7");
+        assertThat(resumed.next()).contains("id:" + fast.getId() + "\n", "userId=8");
+    }
+
+    @Test
+    void tail_shouldGiveUpOnRolledBackIdsAfterGapTimeout() throws Exception {
+        OutboxTail tail = new OutboxTail(outboxEventRepository, Duration.ofMillis(200), 10_000);
+        tail.poll();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            save(7, 1);
+            status.setRollbackOnly();
+        });
+        OutboxEvent committed = save(8, 1);
+
+        assertThat(tail.poll()).extracting(OutboxEvent::getId).containsExactly(committed.getId());
+        assertThat(tail.watermark()).isEqualTo(committed.getId() - 2);
+
+        Thread.sleep(250);
+        assertThat(tail.poll()).isEmpty();
+        assertThat(tail.watermark()).isEqualTo(committed.getId());
+        assertThat(tail.gapCount()).isZero();
+    }
+
+    @Test
+    void tail_shouldTreatMissingRecentIdsAsGapsOnStartup() {
+        outboxEventRepository.deleteAll();
+        OutboxEvent first = save(1, 1);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            save(2, 1);
+            status.setRollbackOnly();
+        });
+        OutboxEvent last = save(3, 1);
+
+        OutboxTail tail = new OutboxTail(outboxEventRepository, Duration.ofMinutes(1), 10_000);
+        tail.poll();
+
+        assertThat(tail.gapCount()).isEqualTo(1);
+        assertThat(tail.watermark()).isEqualTo(first.getId());
+        assertThat(last.getId()).isEqualTo(first.getId() + 2);
+    }
+
+    private OutboxEvent save(long userId, long version) {
+        return save(userId, version, "UserProfileUpdated");
+    }
+
+    private OutboxEvent save(long userId, long version, String eventType) {
+        return outboxEventRepository.save(OutboxEvent.builder()
+                .aggregateType("User")
+                .aggregateId(userId)
+                .aggregateVersion(version)
+                .eventType(eventType)
+                .changedFields("firstName")
+                .payload("{}")
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Сохраняет отправленные события текстом, без HTTP-ответа.
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+        private final BlockingQueue<String> events = new LinkedBlockingQueue<>();
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            StringBuilder event = new StringBuilder();
+            for (ResponseBodyEmitter.DataWithMediaType data : builder.build()) {
+                event.append(data.getData());
+            }
+            events.add(event.toString());
+        }
+
+        String next() throws InterruptedException {
+            String event = events.poll(5, TimeUnit.SECONDS);
+            assertThat(event).as("событие потока изменений").isNotNull();
+            return event;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.ecommerce.config;
+
+import com.ecommerce.model.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NativeImageConfigTest {
+
+    private RuntimeHints hints;
+
+    @BeforeEach
+    void setUp() {
+        hints = new RuntimeHints();
+        new NativeImageConfig.UserServiceRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void shouldRegisterJjwtImplementationsForReflection() {
+        NativeImageConfig.JJWT_REFLECTIVE_TYPES.forEach(type ->
+                assertThat(RuntimeHintsPredicates.reflection()
+                        .onType(TypeReference.of(type))
+                        .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS))
+                        .accepts(hints));
+    }
+
+    @Test
+    void jjwtReflectiveTypesShouldExistOnClasspath() throws ClassNotFoundException {
+        for (String type : NativeImageConfig.JJWT_REFLECTIVE_TYPES) {
+            assertThat(Class.forName(type, false, getClass().getClassLoader())).isNotNull();
+        }
+    }
+
+    @Test
+    void shouldRegisterJjwtServiceDescriptors() {
+        assertThat(RuntimeHintsPredicates.resource().forResource("META-INF/services/io.jsonwebtoken.io.Serializer"))
+                .accepts(hints);
+        assertThat(RuntimeHintsPredicates.resource().forResource("META-INF/services/io.jsonwebtoken.io.Deserializer"))
+                .accepts(hints);
+    }
+
+    @Test
+    void shouldRegisterEntityLifecycleCallbacks() {
+        assertThat(RuntimeHintsPredicates.reflection().onType(User.class)
+                .withMemberCategory(MemberCategory.INVOKE_DECLARED_METHODS))
+                .accepts(hints);
+    }
+
+    @Test
+    void shouldRegisterLiquibaseChangelogs() {
+        assertThat(RuntimeHintsPredicates.resource().forResource("db/changelog-master.yml")).accepts(hints);
+        assertThat(RuntimeHintsPredicates.resource().forResource("db/scripts/users.sql")).accepts(hints);
+    }
+
+    @Test
+    void shouldRegisterRedisScripts() {
+        assertThat(RuntimeHintsPredicates.resource().forResource("redis/rate-limit-lease.lua")).accepts(hints);
+    }
+}
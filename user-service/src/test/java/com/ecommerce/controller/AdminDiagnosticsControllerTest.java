@@ -0,0 +1,102 @@
+package com.ecommerce.controller;
+
+import com.ecommerce.diagnostics.JfrRecorder;
+import com.ecommerce.exception.custom_exceptions.RecordingStateException;
+import com.ecommerce.model.dto.response.JfrRecordingResponse;
+import com.ecommerce.ratelimit.RateLimitFilter;
+import com.ecommerce.security.JwtAuthenticationFilter;
+import com.ecommerce.validation.UserRequestValidator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.time.Duration;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(
+        controllers = AdminDiagnosticsController.class,
+        excludeAutoConfiguration = SecurityAutoConfiguration.class,
+        excludeFilters = @ComponentScan.Filter(
+                type = FilterType.ASSIGNABLE_TYPE,
+                classes = {JwtAuthenticationFilter.class, RateLimitFilter.class}
+        )
+)
+@Import({SimpleMeterRegistry.class, UserRequestValidator.class})
+class AdminDiagnosticsControllerTest {
+
+    @MockBean
+    private JfrRecorder jfrRecorder;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void startRecording_shouldPassIsoDuration() throws Exception {
+        when(jfrRecorder.start(Duration.ofSeconds(90))).thenReturn(recording("RUNNING"));
+
+        mockMvc.perform(post("/api/admin/jfr/recording").param("duration", "PT90S"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(7))
+                .andExpect(jsonPath("$.state").value("RUNNING"))
+                .andExpect(jsonPath("$.fileName").value("user-service-20261019-120000-7.jfr"));
+    }
+
+    @Test
+    void startRecording_whenAlreadyRunning_shouldReturnConflict() throws Exception {
+        when(jfrRecorder.start(null)).thenThrow(new RecordingStateException("Запись JFR уже идёт (id 7)"));
+
+        mockMvc.perform(post("/api/admin/jfr/recording"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("Запись JFR уже идёт (id 7)"));
+    }
+
+    @Test
+    void stopRecording_shouldReturnStoppedRecording() throws Exception {
+        when(jfrRecorder.stop()).thenReturn(recording("CLOSED"));
+
+        mockMvc.perform(post("/api/admin/jfr/recording/stop"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("CLOSED"));
+
+        verify(jfrRecorder).stop();
+    }
+
+    @Test
+    void downloadRecording_shouldStreamFileAsAttachment() throws Exception {
+        when(jfrRecorder.status()).thenReturn(recording("CLOSED"));
+        when(jfrRecorder.open()).thenReturn(new ByteArrayInputStream(new byte[]{'F', 'L', 'R', 0}));
+
+        mockMvc.perform(get("/api/admin/jfr/recording/file"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/octet-stream"))
+                .andExpect(header().string("Content-Disposition",
+                        "attachment; filename=\"user-service-20261019-120000-7.jfr\""))
+                .andExpect(content().bytes(new byte[]{'F', 'L', 'R', 0}));
+    }
+
+    private static JfrRecordingResponse recording(String state) {
+        return JfrRecordingResponse.builder()
+                .id(7)
+                .state(state)
+                .settings("profile")
+                .durationSeconds(90)
+                .fileName("user-service-20261019-120000-7.jfr")
+                .build();
+    }
+}
@@ -0,0 +1,225 @@
+package com.ecommerce.controller;
+
+import com.ecommerce.exception.custom_exceptions.ExportLimitExceededException;
+import com.ecommerce.export.UserExportFormat;
+import com.ecommerce.export.UserExporter;
+import com.ecommerce.model.dto.request.UserSearchRequest;
+import com.ecommerce.model.dto.request.UserUpdateRequest;
+import com.ecommerce.model.dto.response.UserBatchUpdateResponse;
+import com.ecommerce.model.dto.response.UserBatchUpdateResult;
+import com.ecommerce.model.dto.response.UserPageResponse;
+import com.ecommerce.model.dto.response.UserResponse;
+import com.ecommerce.model.entity.User;
+import com.ecommerce.ratelimit.RateLimitFilter;
+import com.ecommerce.security.JwtAuthenticationFilter;
+import com.ecommerce.exception.custom_exceptions.UserNotFoundException;
+import com.ecommerce.service.AdminUserService;
+import com.ecommerce.service.TokenRevocationService;
+import com.ecommerce.service.UserBatchUpdateService;
+import com.ecommerce.service.UserService;
+import com.ecommerce.validation.UserRequestValidator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(
+        controllers = AdminUserController.class,
+        excludeAutoConfiguration = SecurityAutoConfiguration.class,
+        excludeFilters = @ComponentScan.Filter(
+                type = FilterType.ASSIGNABLE_TYPE,
+                classes = {JwtAuthenticationFilter.class, RateLimitFilter.class}
+        )
+)
+@Import({SimpleMeterRegistry.class, UserRequestValidator.class})
+class AdminUserControllerTest {
+
+    @MockBean
+    private AdminUserService adminUserService;
+
+    @MockBean
+    private TokenRevocationService tokenRevocationService;
+
+    @MockBean
+    private UserService userService;
+
+    @MockBean
+    private UserBatchUpdateService userBatchUpdateService;
+
+    @MockBean
+    private UserExporter userExporter;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void searchUsers_shouldBindFiltersAndReturnPage() throws Exception {
+        when(adminUserService.searchUsers(any())).thenReturn(UserPageResponse.builder()
+                .items(List.of(UserResponse.builder().id(7L).username("john").build()))
+                .nextCursor("abc")
+                .build());
+
+        mockMvc.perform(get("/api/admin/users")
+                        .param("username", "joh")
+                        .param("name", "smi")
+                        .param("role", "ADMIN")
+                        .param("createdFrom", "2024-01-01T00:00:00")
+                        .param("limit", "20")
+                        .param("cursor", "xyz"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(7))
+                .andExpect(jsonPath("$.items[0].username").value("john"))
+                .andExpect(jsonPath("$.nextCursor").value("abc"));
+
+        ArgumentCaptor<UserSearchRequest> captor = ArgumentCaptor.forClass(UserSearchRequest.class);
+        verify(adminUserService).searchUsers(captor.capture());
+        UserSearchRequest request = captor.getValue();
+        assertThat(request.getUsername()).isEqualTo("joh");
+        assertThat(request.getName()).isEqualTo("smi");
+        assertThat(request.getRole()).isEqualTo(User.UserRole.ADMIN);
+        assertThat(request.getCreatedFrom()).isEqualTo(LocalDateTime.of(2024, 1, 1, 0, 0));
+        assertThat(request.getLimit()).isEqualTo(20);
+        assertThat(request.getCursor()).isEqualTo("xyz");
+    }
+
+    @Test
+    void searchUsers_shouldUseDefaultPageSize() throws Exception {
+        when(adminUserService.searchUsers(any())).thenReturn(UserPageResponse.builder().items(List.of()).build());
+
+        mockMvc.perform(get("/api/admin/users"))
+                .andExpect(status().isOk());
+
+        verify(adminUserService).searchUsers(argThat(request -> request.getLimit() == 50));
+    }
+
+    @Test
+    void searchUsers_shouldRejectTooShortSubstringAndOversizedPage() throws Exception {
+        mockMvc.perform(get("/api/admin/users").param("name", "ab"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/admin/users").param("limit", "500"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(adminUserService);
+    }
+
+    @Test
+    void revokeTokens_shouldRevokeAllTokensOfUser() throws Exception {
+        mockMvc.perform(post("/api/admin/users/7/revoke-tokens"))
+                .andExpect(status().isNoContent());
+
+        verify(tokenRevocationService).revokeAllTokens(7L);
+    }
+
+    @Test
+    void revokeTokens_shouldReturn404_WhenUserMissing() throws Exception {
+        when(tokenRevocationService.revokeAllTokens(99L)).thenThrow(new UserNotFoundException("Пользователь с ID 99 не найден"));
+
+        mockMvc.perform(post("/api/admin/users/99/revoke-tokens"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void deleteUser_shouldRequestDeletion() throws Exception {
+        mockMvc.perform(delete("/api/admin/users/7"))
+                .andExpect(status().isAccepted());
+
+        verify(userService).requestDeletion(7L);
+    }
+
+    @Test
+    void updateProfiles_shouldPassUpdatesInRequestOrderAndReturnResults() throws Exception {
+        when(userBatchUpdateService.updateProfiles(any())).thenReturn(UserBatchUpdateResponse.builder()
+                .updated(1)
+                .notFound(1)
+                .results(List.of(
+                        UserBatchUpdateResult.builder().id(9L).status(UserBatchUpdateResult.Status.UPDATED)
+                                .changedFields(Set.of("firstName")).build(),
+                        UserBatchUpdateResult.builder().id(3L).status(UserBatchUpdateResult.Status.NOT_FOUND).build()))
+                .build());
+
+        mockMvc.perform(patch("/api/admin/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"updates\":{\"9\":{\"firstName\":\"Ivan\"},\"3\":{\"lastName\":\"Petrov\"}}}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated").value(1))
+                .andExpect(jsonPath("$.results[0].status").value("UPDATED"))
+                .andExpect(jsonPath("$.results[1].status").value("NOT_FOUND"));
+
+        ArgumentCaptor<Map<Long, UserUpdateRequest>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(userBatchUpdateService).updateProfiles(captor.capture());
+        assertThat(captor.getValue()).containsKeys(9L, 3L);
+        assertThat(captor.getValue().keySet()).containsExactly(9L, 3L);
+        assertThat(captor.getValue().get(9L).getFirstName()).isEqualTo("Ivan");
+    }
+
+    @Test
+    void updateProfiles_shouldRejectEmptyOrInvalidItems() throws Exception {
+        mockMvc.perform(patch("/api/admin/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"updates\":{}}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(patch("/api/admin/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"updates\":{\"9\":{\"phoneNumber\":\"not-a-phone\"}}}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(patch("/api/admin/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"updates\":{\"9\":null}}"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(userBatchUpdateService);
+    }
+
+    @Test
+    void exportUsers_shouldStreamGzipAttachmentInRequestedFormat() throws Exception {
+        when(userExporter.export(eq(UserExportFormat.CSV), any())).thenAnswer(invocation -> {
+            invocation.getArgument(1, UserExporter.ExportTarget.class).open().write(new byte[]{31, -117});
+            return 1L;
+        });
+
+        mockMvc.perform(get("/api/admin/users/export").param("format", "CSV"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/gzip"))
+                .andExpect(header().string("Content-Disposition", matchesPattern(
+                        "attachment; filename=\"users-\\d{4}-\\d{2}-\\d{2}\\.csv\\.gz\"")))
+                .andExpect(content().bytes(new byte[]{31, -117}));
+    }
+
+    @Test
+    void exportUsers_shouldReturn429_WhenExportLimitReached() throws Exception {
+        when(userExporter.export(any(), any())).thenThrow(new ExportLimitExceededException("Выгрузка уже выполняется"));
+
+        mockMvc.perform(get("/api/admin/users/export"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().doesNotExist("Content-Disposition"));
+
+        verify(userExporter).export(eq(UserExportFormat.NDJSON), any());
+    }
+}
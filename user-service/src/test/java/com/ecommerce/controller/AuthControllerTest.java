@@ -1,19 +1,26 @@
 package com.ecommerce.controller;
 
+import com.ecommerce.idempotency.IdempotencyService;
+import com.ecommerce.idempotency.IdempotencyStore;
 import com.ecommerce.model.dto.request.UserLoginRequest;
 import com.ecommerce.model.dto.request.UserRegistrationRequest;
 import com.ecommerce.model.dto.response.AuthResponse;
 import com.ecommerce.model.dto.response.UserResponse;
+import com.ecommerce.ratelimit.RateLimitFilter;
 import com.ecommerce.security.JwtAuthenticationFilter;
 import com.ecommerce.service.UserService;
+import com.ecommerce.validation.UserRequestValidator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
@@ -22,6 +29,7 @@ import java.nio.charset.StandardCharsets;
 
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -30,9 +38,10 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
         excludeAutoConfiguration = SecurityAutoConfiguration.class,
         excludeFilters = @ComponentScan.Filter(
                 type = FilterType.ASSIGNABLE_TYPE,
-                classes = JwtAuthenticationFilter.class
+                classes = {JwtAuthenticationFilter.class, RateLimitFilter.class}
         )
 )
+@Import({IdempotencyService.class, SimpleMeterRegistry.class, UserRequestValidator.class})
 class AuthControllerTest {
 
     @Autowired
@@ -41,6 +50,9 @@ class AuthControllerTest {
     @MockBean
     private UserService userService;
 
+    @MockBean
+    private IdempotencyStore idempotencyStore;
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -68,6 +80,76 @@ class AuthControllerTest {
         verify(userService).registerUser(any(UserRegistrationRequest.class));
     }
 
+    @Test
+    void shouldStoreResponse_whenRegistrationHasIdempotencyKey() throws Exception {
+        UserRegistrationRequest request = new UserRegistrationRequest(
+                "username", "test@example.ru",
+                "password", "John", "Doe",
+                "+79999999999");
+        when(idempotencyStore.reserve(eq("register:key-1"), anyString(), any())).thenReturn(true);
+        when(userService.registerUser(any(UserRegistrationRequest.class)))
+                .thenReturn(UserResponse.builder().id(1L).username("username").build());
+
+        mockMvc.perform(post("/api/auth/register")
+                        .header(IdempotencyService.HEADER, "key-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(IdempotencyService.REPLAYED_HEADER));
+
+        verify(idempotencyStore).save(eq("register:key-1"), contains("\"username\":\"username\""), any());
+    }
+
+    @Test
+    void shouldReplayStoredResponse_whenRegistrationIsRetried() throws Exception {
+        UserRegistrationRequest request = new UserRegistrationRequest(
+                "username", "test@example.ru",
+                "password", "John", "Doe",
+                "+79999999999");
+        ArgumentCaptor<String> stored = ArgumentCaptor.forClass(String.class);
+        when(idempotencyStore.reserve(eq("register:key-1"), anyString(), any())).thenReturn(true);
+        when(userService.registerUser(any(UserRegistrationRequest.class)))
+                .thenReturn(UserResponse.builder().id(1L).username("username").build());
+        performPostWithKey(request, "key-1").andExpect(status().isCreated());
+        verify(idempotencyStore).save(eq("register:key-1"), stored.capture(), any());
+        when(idempotencyStore.find("register:key-1")).thenReturn(stored.getValue());
+
+        performPostWithKey(request, "key-1")
+                .andExpect(status().isCreated())
+                .andExpect(header().string(IdempotencyService.REPLAYED_HEADER, "true"))
+                .andExpect(jsonPath("$.id").value(1));
+
+        verify(userService, times(1)).registerUser(any(UserRegistrationRequest.class));
+    }
+
+    @Test
+    void shouldReturn422_whenIdempotencyKeyReusedWithOtherBody() throws Exception {
+        UserRegistrationRequest request = new UserRegistrationRequest(
+                "username", "test@example.ru",
+                "password", "John", "Doe",
+                "+79999999999");
+        ArgumentCaptor<String> stored = ArgumentCaptor.forClass(String.class);
+        when(idempotencyStore.reserve(eq("register:key-1"), anyString(), any())).thenReturn(true);
+        when(userService.registerUser(any(UserRegistrationRequest.class))).thenReturn(new UserResponse());
+        performPostWithKey(request, "key-1").andExpect(status().isCreated());
+        verify(idempotencyStore).save(eq("register:key-1"), stored.capture(), any());
+        when(idempotencyStore.find("register:key-1")).thenReturn(stored.getValue());
+
+        request.setUsername("other");
+        performPostWithKey(request, "key-1")
+                .andExpect(status().isUnprocessableEntity());
+
+        verify(userService, times(1)).registerUser(any(UserRegistrationRequest.class));
+    }
+
+    private ResultActions performPostWithKey(Object request, String idempotencyKey) throws Exception {
+        return mockMvc.perform(post("/api/auth/register")
+                .header(IdempotencyService.HEADER, idempotencyKey)
+                .contentType(MediaType.APPLICATION_JSON)
+                .characterEncoding(StandardCharsets.UTF_8)
+                .content(objectMapper.writeValueAsString(request)));
+    }
+
     @Test
     void shouldReturn400_whenUsernameIsEmpty() throws Exception {
         UserRegistrationRequest request = new UserRegistrationRequest(
@@ -0,0 +1,119 @@
+package com.ecommerce.controller;
+
+import com.ecommerce.changes.UserChangeStream;
+import com.ecommerce.model.entity.OutboxEvent;
+import com.ecommerce.ratelimit.RateLimitFilter;
+import com.ecommerce.repository.OutboxEventRepository;
+import com.ecommerce.security.JwtAuthenticationFilter;
+import com.ecommerce.validation.UserRequestValidator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@WebMvcTest(
+        controllers = InternalUserController.class,
+        excludeAutoConfiguration = SecurityAutoConfiguration.class,
+        excludeFilters = @ComponentScan.Filter(
+                type = FilterType.ASSIGNABLE_TYPE,
+                classes = {JwtAuthenticationFilter.class, RateLimitFilter.class}
+        )
+)
+@Import({UserChangeStream.class, SimpleMeterRegistry.class, UserRequestValidator.class})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class InternalUserControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserChangeStream userChangeStream;
+
+    @MockBean
+    private OutboxEventRepository outboxEventRepository;
+
+    @Test
+    void changes_shouldStreamUpdatesReadFromOutbox() throws Exception {
+        startTailAt(10);
+        MvcResult result = mockMvc.perform(get("/internal/users/changes"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        when(outboxEventRepository.findByIdGreaterThanOrderByIdAsc(eq(10L), any(Limit.class)))
+                .thenReturn(List.of(event(11, 42, 3, "firstName,phoneNumber")));
+
+        userChangeStream.poll();
+
+        String data = "data:{\"userId\":42,\"version\":3,\"changed\":[\"firstName\",\"phoneNumber\"]}";
+        assertThat(awaitContent(result.getResponse(), data))
+                .contains("id:11", "event:UserProfileUpdated", data);
+    }
+
+    @Test
+    void changes_shouldReplayFromLastEventId() throws Exception {
+        startTailAt(101);
+        when(outboxEventRepository.findByIdGreaterThanOrderByIdAsc(eq(100L), any(Limit.class)))
+                .thenReturn(List.of(event(101, 7, 5, "lastName")));
+
+        MvcResult result = mockMvc.perform(get("/internal/users/changes").header("Last-Event-ID", "100"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String data = "data:{\"userId\":7,\"version\":5,\"changed\":[\"lastName\"]}";
+        assertThat(awaitContent(result.getResponse(), data)).contains("id:101", data);
+        verify(outboxEventRepository).findByIdGreaterThanOrderByIdAsc(eq(100L), any(Limit.class));
+    }
+
+    /**
+     * Первый такт находит начальную позицию: в outbox id 1..{@code maxId} без пропусков.
+     */
+    private void startTailAt(long maxId) {
+        when(outboxEventRepository.findMaxId()).thenReturn(maxId);
+        when(outboxEventRepository.findIdsGreaterThan(0)).thenReturn(LongStream.rangeClosed(1, maxId).boxed().toList());
+        userChangeStream.poll();
+    }
+
+    private static OutboxEvent event(long id, long userId, long version, String changedFields) {
+        return OutboxEvent.builder()
+                .id(id)
+                .aggregateType("User")
+                .aggregateId(userId)
+                .aggregateVersion(version)
+                .eventType("UserProfileUpdated")
+                .changedFields(changedFields)
+                .payload("{}")
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    /**
+     * События отправляет поток подписчика, поэтому ответ дописывается асинхронно.
+     */
+    private static String awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (!response.getContentAsString().contains(expected) && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        return response.getContentAsString();
+    }
+}
@@ -0,0 +1,176 @@
+package com.ecommerce.controller;
+
+import com.ecommerce.idempotency.IdempotencyService;
+import com.ecommerce.idempotency.IdempotencyStore;
+import com.ecommerce.model.dto.request.UserUpdateRequest;
+import com.ecommerce.model.dto.response.UserResponse;
+import com.ecommerce.model.dto.response.UserSuggestionResponse;
+import com.ecommerce.ratelimit.RateLimitFilter;
+import com.ecommerce.security.AuthenticatedUser;
+import com.ecommerce.security.JwtAuthenticationFilter;
+import com.ecommerce.service.TokenRevocationService;
+import com.ecommerce.service.UserService;
+import com.ecommerce.suggest.UsernameSuggestIndex;
+import com.ecommerce.validation.UserRequestValidator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(
+        controllers = UserController.class,
+        excludeAutoConfiguration = SecurityAutoConfiguration.class,
+        excludeFilters = @ComponentScan.Filter(
+                type = FilterType.ASSIGNABLE_TYPE,
+                classes = {JwtAuthenticationFilter.class, RateLimitFilter.class}
+        )
+)
+@Import({IdempotencyService.class, SimpleMeterRegistry.class, UserRequestValidator.class})
+class UserControllerTest {
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @MockBean
+    private UserService userService;
+
+    @MockBean
+    private IdempotencyStore idempotencyStore;
+
+    @MockBean
+    private UsernameSuggestIndex usernameSuggestIndex;
+
+    @MockBean
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private final UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+            new AuthenticatedUser(42L, "john", "", List.of(new SimpleGrantedAuthority("ROLE_USER"))),
+            null,
+            List.of(new SimpleGrantedAuthority("ROLE_USER")));
+
+    @Test
+    void getProfile_shouldReturnProfileOfCurrentUser() throws Exception {
+        when(userService.getUserProfile(42L))
+                .thenReturn(UserResponse.builder().id(42L).username("john").build());
+
+        mockMvc.perform(get("/api/users/me").principal(authentication))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(42))
+                .andExpect(jsonPath("$.username").value("john"));
+
+        verify(userService).getUserProfile(42L);
+    }
+
+    @Test
+    void updateProfile_shouldUpdateProfileOfCurrentUser() throws Exception {
+        UserUpdateRequest request = UserUpdateRequest.builder().firstName("John").build();
+        when(userService.updateUserProfile(eq(42L), any(UserUpdateRequest.class)))
+                .thenReturn(UserResponse.builder().id(42L).firstName("John").build());
+
+        mockMvc.perform(put("/api/users/me")
+                        .principal(authentication)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.firstName").value("John"));
+
+        verify(userService).updateUserProfile(eq(42L), any(UserUpdateRequest.class));
+    }
+
+    @Test
+    void updateProfile_shouldScopeIdempotencyKeyToCurrentUser() throws Exception {
+        UserUpdateRequest request = UserUpdateRequest.builder().firstName("John").build();
+        when(idempotencyStore.reserve(eq("profile:42:key-1"), anyString(), any())).thenReturn(true);
+        when(userService.updateUserProfile(eq(42L), any(UserUpdateRequest.class)))
+                .thenReturn(UserResponse.builder().id(42L).firstName("John").build());
+
+        mockMvc.perform(put("/api/users/me")
+                        .principal(authentication)
+                        .header(IdempotencyService.HEADER, "key-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk());
+
+        verify(idempotencyStore).save(eq("profile:42:key-1"), anyString(), any());
+    }
+
+    @Test
+    void updateProfile_shouldReturn400_whenPhoneNumberInvalid() throws Exception {
+        UserUpdateRequest request = UserUpdateRequest.builder().phoneNumber("12345").build();
+
+        mockMvc.perform(put("/api/users/me")
+                        .principal(authentication)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(userService);
+    }
+
+    @Test
+    void logoutAll_shouldRevokeTokensOfCurrentUser() throws Exception {
+        mockMvc.perform(post("/api/users/me/logout-all").principal(authentication))
+                .andExpect(status().isNoContent());
+
+        verify(tokenRevocationService).revokeAllTokens(42L);
+    }
+
+    @Test
+    void deleteAccount_shouldRequestDeletionOfCurrentUser() throws Exception {
+        mockMvc.perform(delete("/api/users/me").principal(authentication))
+                .andExpect(status().isAccepted());
+
+        verify(userService).requestDeletion(42L);
+    }
+
+    @Test
+    void suggest_shouldReturnMatchesFromIndex() throws Exception {
+        when(usernameSuggestIndex.suggest("jo", 5)).thenReturn(List.of(
+                new UserSuggestionResponse(42L, "john"), new UserSuggestionResponse(7L, "JoAnna")));
+
+        mockMvc.perform(get("/api/users/suggest").param("prefix", "jo").param("limit", "5").principal(authentication))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(42))
+                .andExpect(jsonPath("$[1].username").value("JoAnna"));
+    }
+
+    @Test
+    void suggest_shouldReturn400_whenPrefixBlankOrLimitTooLarge() throws Exception {
+        mockMvc.perform(get("/api/users/suggest").param("prefix", " ").principal(authentication))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/users/suggest").param("prefix", "jo").param("limit", "1000").principal(authentication))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(usernameSuggestIndex);
+    }
+}
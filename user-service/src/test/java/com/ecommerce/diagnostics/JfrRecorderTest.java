@@ -0,0 +1,127 @@
+package com.ecommerce.diagnostics;
+
+import com.ecommerce.audit.LoginOutcome;
+import com.ecommerce.exception.custom_exceptions.RecordingStateException;
+import com.ecommerce.model.dto.response.JfrRecordingResponse;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JfrRecorderTest {
+
+    @TempDir
+    private Path directory;
+
+    private JfrRecorder recorder;
+
+    @BeforeEach
+    void setUp() {
+        recorder = new JfrRecorder(new JfrProperties("default", Duration.ofMinutes(2), Duration.ofMinutes(10),
+                DataSize.ofMegabytes(20), directory));
+    }
+
+    @AfterEach
+    void tearDown() {
+        recorder.close();
+    }
+
+    @Test
+    void start_shouldCapDurationAndRejectSecondRecording() throws IOException {
+        JfrRecordingResponse started = recorder.start(Duration.ofHours(1));
+
+        assertThat(started.getState()).isEqualTo("RUNNING");
+        assertThat(started.getDurationSeconds()).isEqualTo(600);
+        assertThat(started.getStartedAt()).isNotNull();
+        assertThatThrownBy(() -> recorder.start(null)).isInstanceOf(RecordingStateException.class);
+    }
+
+    @Test
+    void stop_shouldWriteCustomEventsToFile() throws IOException {
+        recorder.start(null);
+        emitEvents();
+
+        JfrRecordingResponse stopped = recorder.stop();
+
+        assertThat(stopped.getState()).isEqualTo("CLOSED");
+        assertThat(stopped.getSizeBytes()).isEqualTo(Files.size(directory.resolve(stopped.getFileName())));
+        List<RecordedEvent> events = read(recorder.open());
+        assertThat(events).filteredOn(event -> event.getEventType().getName().equals("com.ecommerce.Login"))
+                .singleElement()
+                .satisfies(event -> {
+                    assertThat(event.getString("outcome")).isEqualTo("SUCCESS");
+                    assertThat(event.getLong("userId")).isEqualTo(42);
+                });
+        assertThat(events).filteredOn(event -> event.getEventType().getName().equals("com.ecommerce.LoginPhase"))
+                .extracting(event -> event.getString("phase"))
+                .containsExactly("lookup", "password", "token");
+        assertThat(events).extracting(event -> event.getEventType().getName())
+                .contains("com.ecommerce.TokenVerification", "com.ecommerce.CacheLookup", "com.ecommerce.DatabaseCall");
+    }
+
+    @Test
+    void open_whileRunning_shouldReturnSnapshotAndKeepRecording() throws IOException {
+        recorder.start(null);
+        emitEvents();
+
+        List<RecordedEvent> snapshot = read(recorder.open());
+
+        assertThat(snapshot).extracting(event -> event.getEventType().getName()).contains("com.ecommerce.Login");
+        assertThat(recorder.status().getState()).isEqualTo("RUNNING");
+        try (var files = Files.list(directory)) {
+            assertThat(files).noneMatch(file -> file.getFileName().toString().startsWith("snapshot-"));
+        }
+    }
+
+    @Test
+    void start_shouldDeletePreviousRecordingFile() throws IOException {
+        recorder.start(null);
+        Path previous = directory.resolve(recorder.stop().getFileName());
+        assertThat(previous).exists();
+
+        recorder.start(null);
+
+        assertThat(previous).doesNotExist();
+    }
+
+    @Test
+    void withoutRecording_shouldRejectStopAndDownload() {
+        assertThatThrownBy(() -> recorder.stop()).isInstanceOf(RecordingStateException.class);
+        assertThatThrownBy(() -> recorder.open()).isInstanceOf(RecordingStateException.class);
+    }
+
+    private static void emitEvents() {
+        LoginEvent login = LoginEvent.start();
+        LoginPhaseEvent.start().finish(LoginPhaseEvent.LOOKUP);
+        LoginPhaseEvent.start().finish(LoginPhaseEvent.PASSWORD);
+        LoginPhaseEvent.start().finish(LoginPhaseEvent.TOKEN);
+        login.finish(LoginOutcome.SUCCESS, 42);
+        TokenVerificationEvent.start().finish(TokenVerificationEvent.VALID, 42);
+        CacheLookupEvent.start().finish("user-profile", true);
+        DatabaseCallEvent.start().finish("findById", false);
+    }
+
+    private List<RecordedEvent> read(InputStream in) throws IOException {
+        Path copy = Files.createTempFile("recording-", ".jfr");
+        try (in) {
+            Files.copy(in, copy, StandardCopyOption.REPLACE_EXISTING);
+            return RecordingFile.readAllEvents(copy);
+        } finally {
+            Files.delete(copy);
+        }
+    }
+}
@@ -3,15 +3,21 @@ package com.ecommerce.exception;
 import com.ecommerce.exception.custom_exceptions.InvalidCredentialsException;
 import com.ecommerce.exception.custom_exceptions.UserAlreadyExistsException;
 import com.ecommerce.exception.custom_exceptions.UserNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.MissingServletRequestParameterException;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 import java.util.List;
 
@@ -24,10 +30,12 @@ class GlobalExceptionHandlerTest {
 
     private GlobalExceptionHandler handler;
     private WebRequest request;
+    private MeterRegistry meterRegistry;
 
     @BeforeEach
     void setUp() {
-        handler = new GlobalExceptionHandler();
+        meterRegistry = new SimpleMeterRegistry();
+        handler = new GlobalExceptionHandler(meterRegistry);
         request = mock(WebRequest.class);
         when(request.getDescription(false)).thenReturn("uri=/api/test");
     }
@@ -97,6 +105,30 @@ class GlobalExceptionHandlerTest {
         assertEquals("/api/test", response.getBody().getPath());
     }
 
+    @Test
+    @DisplayName("400 Bad Request — значение параметра не приводится к типу")
+    void handleMethodArgumentTypeMismatchException() {
+        MethodArgumentTypeMismatchException ex = new MethodArgumentTypeMismatchException(
+                "xml", Enum.class, "format", null, new IllegalArgumentException("No enum constant"));
+
+        ResponseEntity<ErrorResponse> response = handler.handleMethodArgumentTypeMismatchException(ex, request);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("Некорректное значение format: xml", response.getBody().getMessage());
+        assertEquals(1, meterRegistry.counter("app.errors", "type", "MethodArgumentTypeMismatchException", "status", "400").count());
+    }
+
+    @Test
+    @DisplayName("400 Bad Request — не передан обязательный параметр")
+    void handleMissingServletRequestParameterException() {
+        MissingServletRequestParameterException ex = new MissingServletRequestParameterException("duration", "Duration");
+
+        ResponseEntity<ErrorResponse> response = handler.handleMissingServletRequestParameterException(ex, request);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("Не указан параметр duration", response.getBody().getMessage());
+    }
+
     @Test
     @DisplayName("500 Internal Server Error — общий fallback")
     void handleAllUncaughtException() {
@@ -110,4 +142,28 @@ class GlobalExceptionHandlerTest {
         assertEquals("Неизвестная ошибка", response.getBody().getMessage());
         assertEquals("/api/test", response.getBody().getPath());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("4xx — счётчик по типу исключения, исключение без стека")
+    void clientErrors_shouldBeCountedPerType() {
+        handler.handleInvalidCredentialsException(InvalidCredentialsException.INSTANCE, request);
+        handler.handleInvalidCredentialsException(InvalidCredentialsException.INSTANCE, request);
+        handler.handleUserNotFoundException(new UserNotFoundException("Пользователь не найден"), request);
+
+        assertEquals(2, meterRegistry.counter("app.errors", "type", "InvalidCredentialsException", "status", "401").count());
+        assertEquals(1, meterRegistry.counter("app.errors", "type", "UserNotFoundException", "status", "404").count());
+        assertEquals(0, InvalidCredentialsException.INSTANCE.getStackTrace().length);
+        assertEquals(0, new UserAlreadyExistsException("Пользователь уже существует").getStackTrace().length);
+    }
+
+    @Test
+    @DisplayName("path берётся из URI servlet-запроса")
+    void errorResponse_shouldUseServletRequestUri() {
+        ServletWebRequest servletRequest = new ServletWebRequest(new MockHttpServletRequest("POST", "/api/auth/login"));
+
+        ResponseEntity<ErrorResponse> response = handler.handleInvalidCredentialsException(InvalidCredentialsException.INSTANCE, servletRequest);
+
+        assertEquals("/api/auth/login", response.getBody().getPath());
+        assertEquals("Неверные учетные данные", response.getBody().getMessage());
+    }
+}
@@ -0,0 +1,160 @@
+package com.ecommerce.export;
+
+import com.ecommerce.exception.custom_exceptions.ExportLimitExceededException;
+import com.ecommerce.id.TimeOrderedIdGenerator;
+import com.ecommerce.model.entity.User;
+import com.ecommerce.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {"spring.jpa.show-sql=false", "user-export.fetch-size=2", "user-export.max-concurrent=1"})
+@Import({UserExporter.class, TimeOrderedIdGenerator.class, UserExporterTest.Config.class})
+class UserExporterTest {
+
+    @Autowired
+    private UserExporter userExporter;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @TestConfiguration
+    @EnableConfigurationProperties(UserExportProperties.class)
+    static class Config {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    private User john;
+    private User quoted;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+        john = save("john", "John", null);
+        quoted = save("quoted", "Anna, \"Ann\"", "Line\nbreak");
+        User erased = save("erased", "Erased", null);
+        jdbcTemplate.update("UPDATE users SET anonymized_at = ? WHERE id = ?", LocalDateTime.now(), erased.getId());
+        User leaving = save("leaving", "Leaving", null);
+        jdbcTemplate.update("UPDATE users SET deletion_requested_at = ? WHERE id = ?", LocalDateTime.now(), leaving.getId());
+    }
+
+    @Test
+    void export_shouldStreamGzippedNdjsonWithoutAnonymizedUsers() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = userExporter.export(UserExportFormat.NDJSON, () -> out);
+
+        assertThat(rows).isEqualTo(2);
+        List<String> lines = gunzip(out).lines().toList();
+        assertThat(lines).hasSize(2);
+        JsonNode first = objectMapper.readTree(lines.get(0));
+        assertThat(first.get("id").asLong()).isEqualTo(john.getId());
+        assertThat(first.get("username").asText()).isEqualTo("john");
+        assertThat(first.get("firstName").asText()).isEqualTo("John");
+        assertThat(first.get("lastName").isNull()).isTrue();
+        assertThat(first.get("role").asText()).isEqualTo("USER");
+        assertThat(LocalDateTime.parse(first.get("createdAt").asText())).isNotNull();
+        assertThat(first.has("password")).isFalse();
+        assertThat(objectMapper.readTree(lines.get(1)).get("lastName").asText()).isEqualTo("Line\nbreak");
+    }
+
+    @Test
+    void export_shouldQuoteCsvFieldsOnlyWhenNeeded() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        userExporter.export(UserExportFormat.CSV, () -> out);
+
+        String csv = gunzip(out);
+        assertThat(csv).startsWith("id,username,email,firstName,lastName,phoneNumber,role,createdAt,updatedAt,lastLoginAt\r\n");
+        assertThat(csv).contains("\r\n" + john.getId() + ",john,john@example.com,John,,,USER,");
+        assertThat(csv).contains("\r\n" + quoted.getId() + ",quoted,quoted@example.com,\"Anna, \"\"Ann\"\"\",\"Line\nbreak\",,USER,");
+        assertThat(csv).doesNotContain("erased").doesNotContain("leaving");
+    }
+
+    @Test
+    void export_shouldNeutralizeCsvFormulas() throws IOException {
+        User formula = save("formula", "=HYPERLINK(\"http://evil\",\"x\")", "@SUM(A1)");
+        jdbcTemplate.update("UPDATE users SET phone_number = ? WHERE id = ?", "+79990001122", formula.getId());
+        User legacy = save("legacy", "Legacy", null);
+        jdbcTemplate.update("UPDATE users SET phone_number = ? WHERE id = ?", "+1+cmd|' /C calc'!A0", legacy.getId());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        userExporter.export(UserExportFormat.CSV, () -> out);
+
+        String csv = gunzip(out);
+        assertThat(csv).contains("\r\n" + formula.getId()
+                + ",formula,formula@example.com,\"'=HYPERLINK(\"\"http://evil\"\",\"\"x\"\")\",'@SUM(A1),+79990001122,USER,");
+        assertThat(csv).contains("\r\n" + legacy.getId() + ",legacy,legacy@example.com,Legacy,,'+1+cmd|' /C calc'!A0,USER,");
+    }
+
+    @Test
+    void export_shouldRejectWhenLimitReachedWithoutOpeningTarget() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        boolean[] opened = {false};
+
+        userExporter.export(UserExportFormat.NDJSON, () -> {
+            assertThatThrownBy(() -> userExporter.export(UserExportFormat.CSV, () -> {
+                opened[0] = true;
+                return new ByteArrayOutputStream();
+            })).isInstanceOf(ExportLimitExceededException.class);
+            return out;
+        });
+
+        assertThat(opened[0]).isFalse();
+        assertThat(userExporter.export(UserExportFormat.CSV, ByteArrayOutputStream::new)).isEqualTo(2);
+    }
+
+    private User save(String username, String firstName, String lastName) {
+        return userRepository.saveAndFlush(User.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .password("secret")
+                .firstName(firstName)
+                .lastName(lastName)
+                .build());
+    }
+
+    private static String gunzip(ByteArrayOutputStream out) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.ecommerce.idempotency;
+
+import com.ecommerce.exception.custom_exceptions.IdempotencyKeyMismatchException;
+import com.ecommerce.exception.custom_exceptions.IdempotentRequestInProgressException;
+import com.ecommerce.exception.custom_exceptions.InvalidIdempotencyKeyException;
+import com.ecommerce.exception.custom_exceptions.UserAlreadyExistsException;
+import com.ecommerce.model.dto.request.UserRegistrationRequest;
+import com.ecommerce.model.dto.request.UserUpdateRequest;
+import com.ecommerce.model.dto.response.UserResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdempotencyServiceTest {
+
+    private static final UserUpdateRequest REQUEST = UserUpdateRequest.builder().firstName("John").build();
+
+    private final MemoryStore store = new MemoryStore();
+    private final AtomicInteger executions = new AtomicInteger();
+
+    private IdempotencyService service(IdempotencyStore store) {
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        return new IdempotencyService(store, objectMapper, Duration.ofHours(24), Duration.ofSeconds(5), "secret");
+    }
+
+    private UserResponse update() {
+        executions.incrementAndGet();
+        return UserResponse.builder().id(42L).firstName("John").build();
+    }
+
+    @Test
+    void execute_shouldRunAction_WhenKeyMissing() {
+        ResponseEntity<UserResponse> response = service(store)
+                .execute("profile:42", null, REQUEST, HttpStatus.OK, UserResponse.class, this::update);
+
+        assertThat(response.getBody().getId()).isEqualTo(42L);
+        assertThat(store.values).isEmpty();
+    }
+
+    @Test
+    void execute_shouldReplayStoredResponse_WhenRetried() {
+        IdempotencyService service = service(store);
+
+        service.execute("profile:42", "key", REQUEST, HttpStatus.CREATED, UserResponse.class, this::update);
+        ResponseEntity<UserResponse> replay =
+                service.execute("profile:42", "key", REQUEST, HttpStatus.CREATED, UserResponse.class, this::update);
+
+        assertThat(executions).hasValue(1);
+        assertThat(replay.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(replay.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(replay.getBody().getFirstName()).isEqualTo("John");
+    }
+
+    @Test
+    void execute_shouldNotStorePassword() {
+        UserRegistrationRequest registration = new UserRegistrationRequest(
+                "john", "john@example.com", "s3cret-pass", "John", "Doe", "+79999999999");
+
+        service(store).execute("register", "key", registration, HttpStatus.CREATED, UserResponse.class, this::update);
+
+        StoredResponse stored = StoredResponse.decode(store.values.get("register:key"));
+        assertThat(store.values.get("register:key")).doesNotContain("s3cret-pass");
+        assertThat(stored.fingerprint()).hasSize(64);
+        assertThat(stored.status()).isEqualTo(201);
+    }
+
+    @Test
+    void execute_shouldReject_WhenKeyReusedWithOtherBody() {
+        IdempotencyService service = service(store);
+        service.execute("profile:42", "key", REQUEST, HttpStatus.OK, UserResponse.class, this::update);
+
+        UserUpdateRequest other = UserUpdateRequest.builder().firstName("Jane").build();
+
+        assertThatThrownBy(() -> service.execute("profile:42", "key", other, HttpStatus.OK, UserResponse.class, this::update))
+                .isInstanceOf(IdempotencyKeyMismatchException.class);
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void execute_shouldReject_WhenKeyIsTooLong() {
+        assertThatThrownBy(() -> service(store).execute("profile:42", "k".repeat(256), REQUEST,
+                HttpStatus.OK, UserResponse.class, this::update))
+                .isInstanceOf(InvalidIdempotencyKeyException.class);
+    }
+
+    @Test
+    void execute_shouldReject_WhenRequestRunsOnAnotherNode() {
+        IdempotencyService service = service(store);
+        store.values.put("profile:42:key", StoredResponse.pending(fingerprintOf(service)).encode());
+
+        assertThatThrownBy(() -> service.execute("profile:42", "key", REQUEST, HttpStatus.OK, UserResponse.class, this::update))
+                .isInstanceOf(IdempotentRequestInProgressException.class);
+        assertThat(executions).hasValue(0);
+    }
+
+    @Test
+    void execute_shouldReleaseKey_WhenActionFails() {
+        IdempotencyService service = service(store);
+
+        assertThatThrownBy(() -> service.execute("register", "key", REQUEST, HttpStatus.CREATED, UserResponse.class, () -> {
+            throw new UserAlreadyExistsException("exists");
+        })).isInstanceOf(UserAlreadyExistsException.class);
+
+        assertThat(store.values).isEmpty();
+    }
+
+    @Test
+    void execute_shouldShareInFlightResult_WithConcurrentDuplicates() throws Exception {
+        IdempotencyService service = service(store);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<ResponseEntity<UserResponse>> first = executor.submit(() ->
+                    service.execute("register", "key", REQUEST, HttpStatus.CREATED, UserResponse.class, () -> {
+                        started.countDown();
+                        await(release);
+                        return update();
+                    }));
+            started.await();
+            List<Future<ResponseEntity<UserResponse>>> duplicates = List.of(
+                    executor.submit(() -> service.execute("register", "key", REQUEST, HttpStatus.CREATED, UserResponse.class, this::update)),
+                    executor.submit(() -> service.execute("register", "key", REQUEST, HttpStatus.CREATED, UserResponse.class, this::update)));
+            Thread.sleep(100);
+            release.countDown();
+
+            assertThat(first.get().getBody().getId()).isEqualTo(42L);
+            for (Future<ResponseEntity<UserResponse>> duplicate : duplicates) {
+                assertThat(duplicate.get().getBody().getId()).isEqualTo(42L);
+            }
+            assertThat(executions).hasValue(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_shouldRunUnprotected_WhenStoreUnavailable() {
+        IdempotencyStore broken = new MemoryStore() {
+            @Override
+            public String find(String key) {
+                throw new RedisConnectionFailureException("connection refused");
+            }
+        };
+
+        ResponseEntity<UserResponse> response = service(broken)
+                .execute("register", "key", REQUEST, HttpStatus.CREATED, UserResponse.class, this::update);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(executions).hasValue(1);
+    }
+
+    private String fingerprintOf(IdempotencyService service) {
+        MemoryStore probe = new MemoryStore();
+        service(probe).execute("probe", "key", REQUEST, HttpStatus.OK, UserResponse.class, this::update);
+        executions.set(0);
+        return StoredResponse.decode(probe.values.get("probe:key")).fingerprint();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class MemoryStore implements IdempotencyStore {
+        final Map<String, String> values = new HashMap<>();
+
+        @Override
+        public synchronized String find(String key) {
+            return values.get(key);
+        }
+
+        @Override
+        public synchronized boolean reserve(String key, String value, Duration ttl) {
+            return values.putIfAbsent(key, value) == null;
+        }
+
+        @Override
+        public synchronized void save(String key, String value, Duration ttl) {
+            values.put(key, value);
+        }
+
+        @Override
+        public synchronized void release(String key) {
+            values.remove(key);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.ecommerce.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Итоги прогона: перцентили задержек HdrHistogram и пропускная способность по операциям.
+ * Задержки хранятся в микросекундах, в отчёты выводятся в миллисекундах.
+ */
+public class LatencyReport {
+
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private final LoadTestConfig config;
+    private final Map<Operation, Histogram> histograms;
+    private final Map<Operation, Long> errors;
+    private final long elapsedNanos;
+
+    public LatencyReport(LoadTestConfig config, Map<Operation, Histogram> histograms,
+                         Map<Operation, Long> errors, long elapsedNanos) {
+        this.config = config;
+        this.histograms = histograms;
+        this.errors = errors;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Пишет сводку в {@code summary.txt}, а полные распределения — в {@code <операция>.hgrm}
+     * (формат HdrHistogram, открывается HistogramLogAnalyzer/plotFiles.html).
+     */
+    public void write() throws IOException {
+        Path dir = config.outputDir();
+        Files.createDirectories(dir);
+        for (Map.Entry<Operation, Histogram> entry : histograms.entrySet()) {
+            if (entry.getValue().getTotalCount() == 0) {
+                continue;
+            }
+            try (PrintStream out = new PrintStream(Files.newOutputStream(dir.resolve(entry.getKey().key() + ".hgrm")))) {
+                entry.getValue().outputPercentileDistribution(out, MICROS_PER_MILLI);
+            }
+        }
+        try (PrintStream out = new PrintStream(Files.newOutputStream(dir.resolve("summary.txt")))) {
+            print(out);
+        }
+    }
+
+    public void print(PrintStream out) {
+        double seconds = elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1);
+        out.printf(Locale.ROOT, "Модель: %s, потоков: %d, длительность: %.1f c%n",
+                config.openModel() ? "открытая (" + config.arrivalRate() + " запросов/с)" : "закрытая",
+                config.concurrency(), seconds);
+        out.printf(Locale.ROOT, "%-15s %9s %7s %10s %9s %9s %9s %9s %9s%n",
+                "operation", "count", "errors", "ops/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+
+        Histogram total = new Histogram(3);
+        long totalErrors = 0;
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = histograms.get(operation);
+            if (histogram == null || histogram.getTotalCount() == 0) {
+                continue;
+            }
+            long operationErrors = errors.getOrDefault(operation, 0L);
+            printRow(out, operation.key(), histogram, operationErrors, seconds);
+            total.add(histogram);
+            totalErrors += operationErrors;
+        }
+        if (total.getTotalCount() > 0) {
+            printRow(out, "total", total, totalErrors, seconds);
+        }
+    }
+
+    private static void printRow(PrintStream out, String name, Histogram histogram, long errors, double seconds) {
+        out.printf(Locale.ROOT, "%-15s %9d %7d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                name,
+                histogram.getTotalCount(),
+                errors,
+                histogram.getTotalCount() / seconds,
+                histogram.getValueAtPercentile(50) / MICROS_PER_MILLI,
+                histogram.getValueAtPercentile(90) / MICROS_PER_MILLI,
+                histogram.getValueAtPercentile(99) / MICROS_PER_MILLI,
+                histogram.getValueAtPercentile(99.9) / MICROS_PER_MILLI,
+                histogram.getMaxValue() / MICROS_PER_MILLI);
+    }
+}
@@ -0,0 +1,169 @@
+package com.ecommerce.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * Генератор нагрузки по смеси операций из {@link LoadTestConfig}.
+ * <p>
+ * Закрытая модель: {@code concurrency} потоков выполняют операции подряд без пауз.
+ * Открытая модель: запросы приходят пуассоновским потоком с интенсивностью {@code arrivalRate}
+ * независимо от того, успевает ли сервис; задержка считается от запланированного момента
+ * отправки, поэтому очередь перед перегруженным сервисом попадает в перцентили
+ * (без эффекта coordinated omission).
+ */
+@Slf4j
+public class LoadGenerator {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    private final LoadTestConfig config;
+    private final ServiceClient client;
+    private final UserPool userPool;
+    private final Operation[] weightedOperations;
+    private final Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+    private final Map<Operation, AtomicLong> errors = new EnumMap<>(Operation.class);
+
+    public LoadGenerator(LoadTestConfig config, ServiceClient client, UserPool userPool) {
+        this.config = config;
+        this.client = client;
+        this.userPool = userPool;
+        this.weightedOperations = expand(config.mix());
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new Recorder(HIGHEST_TRACKABLE_MICROS, 3));
+            errors.put(operation, new AtomicLong());
+        }
+    }
+
+    public LatencyReport run() throws InterruptedException {
+        seed();
+
+        log.info("Прогрев: {} c", config.warmup().toSeconds());
+        drive(config.warmup().toNanos());
+        resetStatistics();
+
+        log.info("Замер: {} c, модель: {}", config.duration().toSeconds(),
+                config.openModel() ? "открытая, " + config.arrivalRate() + " запросов/с" : "закрытая");
+        long startedAt = System.nanoTime();
+        drive(config.duration().toNanos());
+        long elapsedNanos = System.nanoTime() - startedAt;
+
+        Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+        Map<Operation, Long> errorCounts = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            histograms.put(operation, recorders.get(operation).getIntervalHistogram());
+            errorCounts.put(operation, errors.get(operation).get());
+        }
+        return new LatencyReport(config, histograms, errorCounts, elapsedNanos);
+    }
+
+    private void seed() throws InterruptedException {
+        log.info("Регистрация {} пользователей и получение токенов", config.seedUsers());
+        ExecutorService executor = Executors.newFixedThreadPool(config.concurrency());
+        for (int i = 0; i < config.seedUsers(); i++) {
+            executor.execute(() -> {
+                try {
+                    UserPool.Account account = client.register();
+                    if (account != null) {
+                        client.login(account);
+                    }
+                } catch (Exception e) {
+                    log.warn("Не удалось подготовить пользователя: {}", e.getMessage());
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.MINUTES);
+    }
+
+    private void drive(long durationNanos) throws InterruptedException {
+        if (durationNanos <= 0) {
+            return;
+        }
+        if (config.openModel()) {
+            driveOpen(durationNanos);
+        } else {
+            driveClosed(durationNanos);
+        }
+    }
+
+    private void driveClosed(long durationNanos) throws InterruptedException {
+        long deadline = System.nanoTime() + durationNanos;
+        ExecutorService executor = Executors.newFixedThreadPool(config.concurrency());
+        for (int i = 0; i < config.concurrency(); i++) {
+            executor.execute(() -> {
+                while (System.nanoTime() < deadline) {
+                    execute(nextOperation(), System.nanoTime());
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(durationNanos + TimeUnit.MINUTES.toNanos(1), TimeUnit.NANOSECONDS);
+    }
+
+    private void driveOpen(long durationNanos) throws InterruptedException {
+        double meanIntervalNanos = TimeUnit.SECONDS.toNanos(1) / config.arrivalRate();
+        ExecutorService executor = Executors.newFixedThreadPool(config.concurrency());
+        long start = System.nanoTime();
+        long deadline = start + durationNanos;
+        long intendedStart = start;
+        while (intendedStart < deadline) {
+            long wait = intendedStart - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            long scheduledAt = intendedStart;
+            Operation operation = nextOperation();
+            executor.execute(() -> execute(operation, scheduledAt));
+            intendedStart += (long) (-Math.log(1.0 - ThreadLocalRandom.current().nextDouble()) * meanIntervalNanos);
+        }
+        executor.shutdown();
+        if (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+            log.warn("Сервис не успел обработать очередь запросов за минуту после окончания замера");
+            executor.shutdownNow();
+        }
+    }
+
+    private void execute(Operation operation, long scheduledAt) {
+        boolean success;
+        try {
+            success = client.execute(operation);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (Exception e) {
+            success = false;
+        }
+        long latencyMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - scheduledAt);
+        recorders.get(operation).recordValue(Math.min(latencyMicros, HIGHEST_TRACKABLE_MICROS));
+        if (!success) {
+            errors.get(operation).incrementAndGet();
+        }
+    }
+
+    private Operation nextOperation() {
+        return weightedOperations[ThreadLocalRandom.current().nextInt(weightedOperations.length)];
+    }
+
+    private void resetStatistics() {
+        recorders.values().forEach(Recorder::reset);
+        errors.values().forEach(counter -> counter.set(0));
+    }
+
+    private static Operation[] expand(Map<Operation, Integer> mix) {
+        return mix.entrySet().stream()
+                .flatMap(entry -> Stream.generate(entry::getKey).limit(entry.getValue()))
+                .toArray(Operation[]::new);
+    }
+}
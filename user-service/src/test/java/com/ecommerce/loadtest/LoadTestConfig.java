@@ -0,0 +1,77 @@
+package com.ecommerce.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Параметры нагрузочного прогона. Читаются из системных свойств {@code loadtest.*};
+ * из Maven они передаются в JVM теста через {@code loadtest.args}:
+ * {@code mvn -pl user-service -Pload-test verify -Dloadtest.args="-Dloadtest.arrival-rate=200"}.
+ *
+ * @param targetUrl     адрес уже запущенного сервиса; если пуст — приложение поднимается в том же процессе
+ * @param profiles      Spring-профили встроенного приложения ({@code h2} — встроенная БД, пусто — локальный PostgreSQL)
+ * @param concurrency   число рабочих потоков (в закрытой модели — число виртуальных пользователей)
+ * @param arrivalRate   интенсивность входящего потока, запросов/с; {@code 0} — закрытая модель
+ * @param seedUsers     сколько пользователей зарегистрировать до начала замеров
+ * @param warmup        длительность прогрева, результаты которого отбрасываются
+ * @param duration      длительность замера
+ * @param mix           веса операций в смеси
+ * @param outputDir     каталог для отчётов
+ */
+public record LoadTestConfig(String targetUrl,
+                             String profiles,
+                             int concurrency,
+                             double arrivalRate,
+                             int seedUsers,
+                             Duration warmup,
+                             Duration duration,
+                             Map<Operation, Integer> mix,
+                             Path outputDir) {
+
+    private static final String PREFIX = "loadtest.";
+
+    public static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig(
+                property("target-url", ""),
+                property("profiles", "h2"),
+                Integer.parseInt(property("concurrency", "32")),
+                Double.parseDouble(property("arrival-rate", "0")),
+                Integer.parseInt(property("seed-users", "200")),
+                Duration.ofSeconds(Long.parseLong(property("warmup-seconds", "10"))),
+                Duration.ofSeconds(Long.parseLong(property("duration-seconds", "60"))),
+                parseMix(property("mix", "register:5,login:15,get-profile:60,update-profile:20")),
+                Path.of(property("output-dir", "target/loadtest")));
+    }
+
+    public boolean openModel() {
+        return arrivalRate > 0;
+    }
+
+    public boolean embedded() {
+        return targetUrl.isBlank();
+    }
+
+    static Map<Operation, Integer> parseMix(String value) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Некорректный элемент смеси операций: '" + entry + "'");
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                mix.put(Operation.fromKey(parts[0].trim()), weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("Смесь операций пуста: '" + value + "'");
+        }
+        return mix;
+    }
+
+    private static String property(String name, String defaultValue) {
+        return System.getProperty(PREFIX + name, defaultValue);
+    }
+}
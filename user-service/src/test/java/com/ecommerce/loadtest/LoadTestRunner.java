@@ -0,0 +1,54 @@
+package com.ecommerce.loadtest;
+
+import com.ecommerce.Main;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.StringUtils;
+
+/**
+ * Точка входа нагрузочного теста. По умолчанию поднимает user-service в этом же процессе
+ * на случайном порту с профилем {@code h2} и не требует ни сети, ни внешних сервисов.
+ * <p>
+ * Запуск: {@code mvn -pl user-service -Pload-test verify}. Параметры — см. {@link LoadTestConfig}.
+ */
+@Slf4j
+public class LoadTestRunner {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        ConfigurableApplicationContext context = null;
+        String baseUrl = config.targetUrl();
+        try {
+            if (config.embedded()) {
+                context = startApplication(config);
+                baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            }
+            log.info("Нагрузка на {}", baseUrl);
+
+            UserPool userPool = new UserPool();
+            ServiceClient client = new ServiceClient(baseUrl, userPool, config.concurrency());
+            LatencyReport report = new LoadGenerator(config, client, userPool).run();
+
+            report.print(System.out);
+            report.write();
+            log.info("Отчёты записаны в {}", config.outputDir().toAbsolutePath());
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+        System.exit(0);
+    }
+
+    private static ConfigurableApplicationContext startApplication(LoadTestConfig config) {
+        return new SpringApplicationBuilder(Main.class)
+                .profiles(StringUtils.commaDelimitedListToStringArray(config.profiles()))
+                .run("--server.port=0",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                        "--logging.level.com.ecommerce=WARN",
+                        "--logging.level.com.ecommerce.loadtest=INFO");
+    }
+}
@@ -0,0 +1,30 @@
+package com.ecommerce.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Операции, из которых складывается нагрузочная смесь.
+ */
+public enum Operation {
+    REGISTER("register"),
+    LOGIN("login"),
+    GET_PROFILE("get-profile"),
+    UPDATE_PROFILE("update-profile");
+
+    private final String key;
+
+    Operation(String key) {
+        this.key = key;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public static Operation fromKey(String key) {
+        return Arrays.stream(values())
+                .filter(operation -> operation.key.equals(key))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Неизвестная операция: '" + key + "'"));
+    }
+}
@@ -0,0 +1,128 @@
+package com.ecommerce.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * HTTP-клиент нагрузочного теста. Каждая операция возвращает {@code true}, если сервис
+ * ответил ожидаемым 2xx; транспортные ошибки пробрасываются и тоже считаются неуспехом.
+ */
+public class ServiceClient {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final String PASSWORD = "LoadTest#2024";
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String baseUrl;
+    private final UserPool userPool;
+
+    public ServiceClient(String baseUrl, UserPool userPool, int concurrency) {
+        this.baseUrl = baseUrl;
+        this.userPool = userPool;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newFixedThreadPool(Math.max(2, concurrency / 4)))
+                .build();
+    }
+
+    public boolean execute(Operation operation) throws IOException, InterruptedException {
+        return switch (operation) {
+            case REGISTER -> register() != null;
+            case LOGIN -> login(userPool.random());
+            case GET_PROFILE -> getProfile(userPool.randomAuthenticated());
+            case UPDATE_PROFILE -> updateProfile(userPool.randomAuthenticated());
+        };
+    }
+
+    /**
+     * Регистрирует нового пользователя и добавляет его в пул; {@code null} — если сервис отказал.
+     */
+    public UserPool.Account register() throws IOException, InterruptedException {
+        String username = userPool.nextUsername();
+        Map<String, String> body = Map.of(
+                "username", username,
+                "email", username + "@loadtest.local",
+                "password", PASSWORD,
+                "firstName", "Load",
+                "lastName", "Test",
+                "phoneNumber", randomPhone());
+
+        HttpResponse<String> response = send(jsonRequest("/api/auth/register").POST(publisher(body)).build());
+        if (response.statusCode() != 201) {
+            return null;
+        }
+        UserPool.Account account = new UserPool.Account(username, PASSWORD);
+        userPool.add(account);
+        return account;
+    }
+
+    public boolean login(UserPool.Account account) throws IOException, InterruptedException {
+        if (account == null) {
+            return false;
+        }
+        Map<String, String> body = Map.of("login", account.username(), "password", account.password());
+        HttpResponse<String> response = send(jsonRequest("/api/auth/login").POST(publisher(body)).build());
+        if (response.statusCode() != 200) {
+            return false;
+        }
+        JsonNode json = objectMapper.readTree(response.body());
+        userPool.authenticated(account, json.path("token").asText(null));
+        return true;
+    }
+
+    public boolean getProfile(UserPool.Account account) throws IOException, InterruptedException {
+        if (account == null) {
+            return false;
+        }
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/users/me"))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Authorization", "Bearer " + account.token())
+                .GET()
+                .build();
+        return send(request).statusCode() == 200;
+    }
+
+    public boolean updateProfile(UserPool.Account account) throws IOException, InterruptedException {
+        if (account == null) {
+            return false;
+        }
+        Map<String, String> body = Map.of(
+                "firstName", "Load" + ThreadLocalRandom.current().nextInt(1000),
+                "phoneNumber", randomPhone());
+        HttpRequest request = jsonRequest("/api/users/me")
+                .header("Authorization", "Bearer " + account.token())
+                .PUT(publisher(body))
+                .build();
+        return send(request).statusCode() == 200;
+    }
+
+    private HttpRequest.Builder jsonRequest(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json");
+    }
+
+    private HttpRequest.BodyPublisher publisher(Object body) throws IOException {
+        return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static String randomPhone() {
+        return "8" + (1_000_000_000L + ThreadLocalRandom.current().nextLong(9_000_000_000L));
+    }
+}
@@ -0,0 +1,122 @@
+package com.ecommerce.loadtest;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Замер времени до первого обслуженного запроса (time-to-first-request) для вариантов запуска:
+ * обычный fat jar, распакованный jar со Spring AOT и он же с CDS-архивом классов.
+ * <p>
+ * Каждый вариант запускается отдельным процессом {@code startup.runs} раз; время считается от
+ * старта процесса до первого ответа сервиса на защищённый маршрут (ответ 401/403 означает,
+ * что поднялись и Tomcat, и цепочка фильтров безопасности).
+ * <p>
+ * Запуск: {@code mvn -pl user-service -Pfast-startup verify} — профиль сам готовит AOT-сборку
+ * и CDS-архив. По умолчанию используется встроенная H2, поэтому сеть не нужна.
+ */
+public class StartupBenchmark {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(5);
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofMillis(200))
+            .build();
+
+    public static void main(String[] args) throws Exception {
+        Path java = Path.of(System.getProperty("java.home"), "bin", "java");
+        Path fatJar = Path.of(System.getProperty("startup.jar"));
+        Path extractedDir = Path.of(System.getProperty("startup.dir"));
+        Path extractedJar = extractedDir.resolve(fatJar.getFileName());
+        Path archive = extractedDir.resolve("application.jsa");
+        int runs = Integer.parseInt(System.getProperty("startup.runs", "5"));
+        String profiles = System.getProperty("startup.profiles", "h2");
+
+        List<Variant> variants = new ArrayList<>();
+        variants.add(new Variant("fat jar", List.of(java.toString(), "-jar", fatJar.toString(),
+                "--spring.profiles.active=" + profiles)));
+        variants.add(new Variant("extracted + AOT", List.of(java.toString(), "-Dspring.aot.enabled=true",
+                "-jar", extractedJar.toString(), "--spring.profiles.active=fast-startup," + profiles)));
+        if (Files.exists(archive)) {
+            variants.add(new Variant("extracted + AOT + CDS", List.of(java.toString(),
+                    "-XX:SharedArchiveFile=" + archive, "-Xshare:auto", "-Dspring.aot.enabled=true",
+                    "-jar", extractedJar.toString(), "--spring.profiles.active=fast-startup," + profiles)));
+        }
+
+        StartupBenchmark benchmark = new StartupBenchmark();
+        System.out.printf(Locale.ROOT, "%-24s %10s %10s %10s%n", "variant", "min ms", "median ms", "max ms");
+        for (Variant variant : variants) {
+            long[] millis = new long[runs];
+            for (int i = 0; i < runs; i++) {
+                millis[i] = benchmark.timeToFirstRequest(variant.command());
+            }
+            Arrays.sort(millis);
+            System.out.printf(Locale.ROOT, "%-24s %10d %10d %10d%n",
+                    variant.name(), millis[0], millis[runs / 2], millis[runs - 1]);
+        }
+    }
+
+    long timeToFirstRequest(List<String> baseCommand) throws IOException, InterruptedException {
+        int port = freePort();
+        List<String> command = new ArrayList<>(baseCommand);
+        command.add("--server.port=" + port);
+        URI probe = URI.create("http://localhost:" + port + "/api/users/me");
+
+        long startedAt = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            long deadline = startedAt + STARTUP_TIMEOUT.toNanos();
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Процесс завершился при старте с кодом " + process.exitValue()
+                            + ": " + String.join(" ", command));
+                }
+                if (responds(probe)) {
+                    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+                }
+                Thread.sleep(POLL_INTERVAL.toMillis());
+            }
+            throw new IllegalStateException("Сервис не ответил за " + STARTUP_TIMEOUT.toSeconds() + " c");
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private boolean responds(URI uri) throws InterruptedException {
+        try {
+            HttpResponse<Void> response = httpClient.send(
+                    HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(5)).GET().build(),
+                    HttpResponse.BodyHandlers.discarding());
+            return response.statusCode() < 500;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private record Variant(String name, List<String> command) {
+    }
+}
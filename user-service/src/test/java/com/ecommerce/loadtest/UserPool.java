@@ -0,0 +1,96 @@
+package com.ecommerce.loadtest;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Пул учётных записей, созданных генератором нагрузки. Потокобезопасен: регистрация
+ * добавляет записи, вход выдаёт им токены, остальные операции выбирают случайную запись.
+ */
+public class UserPool {
+
+    private final Index registered = new Index();
+    private final Index authenticated = new Index();
+    private final AtomicLong sequence = new AtomicLong();
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+
+    /**
+     * Уникальное имя для новой регистрации: не пересекается с прошлыми прогонами против той же БД.
+     */
+    public String nextUsername() {
+        return "lt" + runId + "_" + sequence.incrementAndGet();
+    }
+
+    public void add(Account account) {
+        registered.add(account);
+    }
+
+    /**
+     * Сохраняет токен; при первом входе учётная запись становится доступна для операций с профилем.
+     */
+    public void authenticated(Account account, String token) {
+        if (account.token == null && token != null) {
+            account.token = token;
+            authenticated.add(account);
+        } else {
+            account.token = token;
+        }
+    }
+
+    /**
+     * Случайная учётная запись или {@code null}, если пул пока пуст.
+     */
+    public Account random() {
+        return registered.random();
+    }
+
+    /**
+     * Случайная учётная запись с уже полученным токеном или {@code null}.
+     */
+    public Account randomAuthenticated() {
+        return authenticated.random();
+    }
+
+    public int size() {
+        return registered.size.get();
+    }
+
+    public static final class Account {
+        private final String username;
+        private final String password;
+        private volatile String token;
+
+        public Account(String username, String password) {
+            this.username = username;
+            this.password = password;
+        }
+
+        public String username() {
+            return username;
+        }
+
+        public String password() {
+            return password;
+        }
+
+        public String token() {
+            return token;
+        }
+    }
+
+    private static final class Index {
+        private final ConcurrentHashMap<Integer, Account> accounts = new ConcurrentHashMap<>();
+        private final AtomicInteger size = new AtomicInteger();
+
+        void add(Account account) {
+            accounts.put(size.getAndIncrement(), account);
+        }
+
+        Account random() {
+            int current = size.get();
+            return current == 0 ? null : accounts.get(ThreadLocalRandom.current().nextInt(current));
+        }
+    }
+}
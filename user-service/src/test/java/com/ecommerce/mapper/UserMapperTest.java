@@ -10,6 +10,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDateTime;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -86,8 +87,9 @@ public class UserMapperTest {
                 .build();
 
         // When
-        userMapper.updateEntityFromDto(request, user);
+        Set<String> changed = userMapper.updateEntityFromDto(request, user);
 
+        assertThat(changed).containsExactly("firstName");
         assertThat(user.getFirstName()).isEqualTo("New");
         assertThat(user.getLastName()).isEqualTo("Name"); // не изменилось
         assertThat(user.getPhoneNumber()).isEqualTo("1111111111"); // не изменилось
@@ -100,8 +102,23 @@ public class UserMapperTest {
                 .build();
 
         UserUpdateRequest request = new UserUpdateRequest(); // все поля null
-        userMapper.updateEntityFromDto(request, user);
+        assertThat(userMapper.updateEntityFromDto(request, user)).isEmpty();
         assertThat(user.getFirstName()).isEqualTo("Old");
     }
+
+    @Test
+    void updateEntityFromDto_ShouldNotReportSameValueAsChanged() {
+        User user = User.builder()
+                .firstName("Same")
+                .lastName("Old")
+                .build();
+
+        UserUpdateRequest request = UserUpdateRequest.builder()
+                .firstName("Same")
+                .lastName("New")
+                .build();
+
+        assertThat(userMapper.updateEntityFromDto(request, user)).containsExactly("lastName");
+    }
 }
 
@@ -0,0 +1,162 @@
+package com.ecommerce.outbox;
+
+import com.ecommerce.activity.UserActivityTracker;
+import com.ecommerce.audit.LoginAuditor;
+import com.ecommerce.cache.UserProfileCache;
+import com.ecommerce.id.TimeOrderedIdGenerator;
+import com.ecommerce.mapper.UserMapper;
+import com.ecommerce.model.dto.request.UserRegistrationRequest;
+import com.ecommerce.model.dto.request.UserUpdateRequest;
+import com.ecommerce.model.dto.response.UserResponse;
+import com.ecommerce.model.entity.OutboxEvent;
+import com.ecommerce.repository.OutboxEventRepository;
+import com.ecommerce.repository.UserRepository;
+import com.ecommerce.resilience.CircuitBreakerProperties;
+import com.ecommerce.resilience.CircuitBreakers;
+import com.ecommerce.security.JwtTokenProvider;
+import com.ecommerce.serialization.ResponseWriters;
+import com.ecommerce.service.TokenRevocationService;
+import com.ecommerce.service.UserService;
+import com.ecommerce.service.UserServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {"outbox.sink=memory", "outbox.relay.batch-size=2", "spring.jpa.show-sql=false"})
+@Import({UserServiceImpl.class, UserMapper.class, UserEventOutbox.class, OutboxRelay.class,
+        InMemoryOutboxSink.class, TimeOrderedIdGenerator.class, OutboxRelayTest.Config.class})
+class OutboxRelayTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private InMemoryOutboxSink sink;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @MockBean
+    private JwtTokenProvider jwtTokenProvider;
+
+    @MockBean
+    private TokenRevocationService tokenRevocationService;
+
+    @MockBean
+    private LoginAuditor loginAuditor;
+
+    @MockBean
+    private UserActivityTracker userActivityTracker;
+
+    @MockBean
+    private UserProfileCache userProfileCache;
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        PasswordEncoder passwordEncoder() {
+            return NoOpPasswordEncoder.getInstance();
+        }
+
+        @Bean
+        CircuitBreakers circuitBreakers() {
+            CircuitBreakerProperties.Policy policy = new CircuitBreakerProperties.Policy(
+                    50, Duration.ofSeconds(1), 10, 5, Duration.ofSeconds(5), 3);
+            return new CircuitBreakers(new CircuitBreakerProperties(false, policy, policy), new SimpleMeterRegistry());
+        }
+
+        @Bean
+        ResponseWriters responseWriters(ObjectMapper objectMapper) {
+            return new ResponseWriters(objectMapper);
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        outboxEventRepository.deleteAll();
+        userRepository.deleteAll();
+        sink.clear();
+    }
+
+    @Test
+    void registerAndUpdate_shouldWriteEventsInSameTransaction() {
+        UserResponse user = register("outbox_user");
+        userService.updateUserProfile(user.getId(), UserUpdateRequest.builder().firstName("Jane").build());
+
+        List<OutboxEvent> events = outboxEventRepository.findAll();
+
+        assertThat(events).extracting(OutboxEvent::getEventType)
+                .containsExactly("UserRegistered", "UserProfileUpdated");
+        assertThat(events).allSatisfy(event -> {
+            assertThat(event.getAggregateId()).isEqualTo(user.getId());
+            assertThat(event.getPublishedAt()).isNull();
+        });
+        assertThat(events.get(1).getPayload()).contains("\"firstName\":\"Jane\"").doesNotContain("password");
+        assertThat(events.get(1).getChangedFields()).isEqualTo("firstName");
+        assertThat(events.get(1).getAggregateVersion()).isEqualTo(1);
+    }
+
+    @Test
+    void register_shouldNotWriteEvent_WhenTransactionRollsBack() {
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status -> {
+            register("rolled_back");
+            throw new IllegalStateException("rollback");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(outboxEventRepository.count()).isZero();
+    }
+
+    @Test
+    void relay_shouldPublishAllBatchesInOrderAndMarkPublished() {
+        for (int i = 0; i < 5; i++) {
+            register("relay_user_" + i);
+        }
+
+        int relayed = outboxRelay.relay();
+
+        assertThat(relayed).isEqualTo(5);
+        List<OutboxMessage> messages = sink.messages();
+        assertThat(messages).extracting(OutboxMessage::id).isSorted().hasSize(5);
+        assertThat(messages).extracting(OutboxMessage::eventType).containsOnly("UserRegistered");
+        assertThat(outboxEventRepository.findAll()).allSatisfy(event -> assertThat(event.getPublishedAt()).isNotNull());
+        assertThat(outboxRelay.relay()).isZero();
+    }
+
+    private UserResponse register(String username) {
+        return userService.registerUser(new UserRegistrationRequest(
+                username, username + "@example.com", "password123", "John", "Doe", "+79999999999"));
+    }
+}
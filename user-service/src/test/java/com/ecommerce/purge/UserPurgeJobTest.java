@@ -0,0 +1,207 @@
+package com.ecommerce.purge;
+
+import com.ecommerce.id.TimeOrderedIdGenerator;
+import com.ecommerce.model.entity.OutboxEvent;
+import com.ecommerce.model.entity.User;
+import com.ecommerce.outbox.UserEventOutbox;
+import com.ecommerce.repository.OutboxEventRepository;
+import com.ecommerce.repository.UserRepository;
+import com.ecommerce.security.TokenVersionCache;
+import com.ecommerce.serialization.ResponseWriters;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DataJpaTest
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = "spring.jpa.show-sql=false")
+@Import({UserPurgeJob.class, UserEventOutbox.class, TokenVersionCache.class, TimeOrderedIdGenerator.class,
+        UserPurgeJobTest.Config.class})
+class UserPurgeJobTest {
+
+    @Autowired
+    private UserPurgeJob userPurgeJob;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private TokenVersionCache tokenVersionCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        UserPurgeProperties userPurgeProperties() {
+            // Порция из двух аккаунтов, чтобы проверить проход по нескольким порциям
+            return new UserPurgeProperties(true, Duration.ofSeconds(1), 2, Duration.ofHours(1),
+                    new UserPurgeProperties.Rule(true, Duration.ofHours(24), PurgeAction.DELETE),
+                    new UserPurgeProperties.Rule(true, Duration.ofDays(730), PurgeAction.ANONYMIZE));
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        ResponseWriters responseWriters(ObjectMapper objectMapper) {
+            return new ResponseWriters(objectMapper);
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        outboxEventRepository.deleteAll();
+        userRepository.deleteAll();
+        jdbcTemplate.update("UPDATE user_purge_checkpoints SET last_id = 0, processed = 0, next_pass_at = NULL");
+    }
+
+    @Test
+    void erasure_shouldDeleteRequestedAccountsChunkByChunkFromCheckpoint() {
+        User first = save("erase_1", LocalDateTime.now().minusDays(2));
+        User second = save("erase_2", LocalDateTime.now().minusDays(2));
+        User third = save("erase_3", LocalDateTime.now().minusDays(3));
+        User recent = save("erase_recent", LocalDateTime.now().minusHours(1));
+        User kept = save("kept", null);
+        double purgedBefore = purgedCount();
+
+        userPurgeJob.run();
+
+        assertThat(userRepository.findAllById(List.of(first.getId(), second.getId(), third.getId())))
+                .extracting(User::getUsername).containsExactly("erase_3");
+        assertThat(jdbcTemplate.queryForObject("SELECT last_id FROM user_purge_checkpoints WHERE name = 'erasure'", Long.class))
+                .isEqualTo(second.getId());
+
+        userPurgeJob.run();
+
+        assertThat(userRepository.findAll()).extracting(User::getId).containsExactlyInAnyOrder(recent.getId(), kept.getId());
+        assertThat(userRepository.existsByUsername("erase_3")).isFalse();
+        assertThat(userRepository.existsByEmail("erase_3@example.com")).isFalse();
+        assertThat(tokenVersionCache.isCurrent(third.getId(), 0)).isFalse();
+        assertThat(outboxEventRepository.findAll())
+                .extracting(OutboxEvent::getEventType, OutboxEvent::getAggregateId, OutboxEvent::getAggregateVersion)
+                .containsExactlyInAnyOrder(
+                        tuple("UserErased", first.getId(), UserEventOutbox.ERASED_VERSION),
+                        tuple("UserErased", second.getId(), UserEventOutbox.ERASED_VERSION),
+                        tuple("UserErased", third.getId(), UserEventOutbox.ERASED_VERSION));
+        assertThat(purgedCount() - purgedBefore).isEqualTo(3);
+    }
+
+    @Test
+    void erasure_shouldWaitPassIntervalAfterCompletingPass() {
+        save("erase_once", LocalDateTime.now().minusDays(2));
+
+        userPurgeJob.run();
+        User late = save("erase_late", LocalDateTime.now().minusDays(2));
+        userPurgeJob.run();
+
+        assertThat(userRepository.findById(late.getId())).isPresent();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT processed FROM user_purge_checkpoints WHERE name = 'erasure'", Long.class)).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT last_id FROM user_purge_checkpoints WHERE name = 'erasure'", Long.class)).isZero();
+    }
+
+    @Test
+    void erasure_shouldNotAnonymizeSameAccountAgainOnNextPass() {
+        UserPurgeProperties.Rule anonymize = new UserPurgeProperties.Rule(true, Duration.ofHours(24), PurgeAction.ANONYMIZE);
+        User requested = save("erase_anon", LocalDateTime.now().minusDays(2));
+
+        assertThat(userPurgeJob.runRule(UserPurgeJob.ERASURE, anonymize, new AtomicLong())).isEqualTo(1);
+        jdbcTemplate.update("UPDATE user_purge_checkpoints SET next_pass_at = NULL");
+        assertThat(userPurgeJob.runRule(UserPurgeJob.ERASURE, anonymize, new AtomicLong())).isZero();
+
+        User anonymized = userRepository.findById(requested.getId()).orElseThrow();
+        assertThat(anonymized.getAnonymizedAt()).isNotNull();
+        assertThat(anonymized.getTokenVersion()).isEqualTo(1);
+        assertThat(outboxEventRepository.findAll()).extracting(OutboxEvent::getAggregateId).containsExactly(requested.getId());
+    }
+
+    @Test
+    void dormant_shouldAnonymizeAndRevokeTokens() {
+        User dormant = save("dormant", null);
+        jdbcTemplate.update("UPDATE users SET created_at = ? WHERE id = ?", LocalDateTime.now().minusYears(3), dormant.getId());
+        User active = save("active", null);
+        User returning = save("returning", null);
+        jdbcTemplate.update("UPDATE users SET created_at = ?, last_seen_at = ? WHERE id = ?",
+                LocalDateTime.now().minusYears(3), LocalDateTime.now().minusDays(1), returning.getId());
+        jdbcTemplate.update("INSERT INTO login_events (occurred_at, outcome, login, user_id) VALUES (?, 'SUCCESS', 'dormant', ?)",
+                LocalDateTime.now().minusYears(3), dormant.getId());
+
+        userPurgeJob.run();
+
+        User anonymized = userRepository.findById(dormant.getId()).orElseThrow();
+        assertThat(anonymized.getUsername()).isEqualTo("deleted_" + dormant.getId());
+        assertThat(anonymized.getEmail()).isEqualTo("deleted_" + dormant.getId() + "@invalid");
+        assertThat(anonymized.getFirstName()).isNull();
+        assertThat(anonymized.getPhoneNumber()).isNull();
+        assertThat(anonymized.getAnonymizedAt()).isNotNull();
+        assertThat(anonymized.getTokenVersion()).isEqualTo(1);
+        assertThat(tokenVersionCache.isCurrent(dormant.getId(), 0)).isFalse();
+        assertThat(userRepository.existsByUsername("dormant")).isFalse();
+        assertThat(userRepository.findByUsername("deleted_" + dormant.getId())).isPresent();
+        assertThat(userRepository.findById(active.getId()).orElseThrow().getAnonymizedAt()).isNull();
+        assertThat(userRepository.findById(returning.getId()).orElseThrow().getAnonymizedAt()).isNull();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM login_events WHERE user_id = ?", Long.class,
+                dormant.getId())).isZero();
+    }
+
+    private double purgedCount() {
+        return meterRegistry.counter("user.purge.accounts", "rule", "erasure", "action", "delete").count();
+    }
+
+    private User save(String username, LocalDateTime deletionRequestedAt) {
+        return transactionTemplate.execute(status -> saveWithLogins(username, deletionRequestedAt));
+    }
+
+    private User saveWithLogins(String username, LocalDateTime deletionRequestedAt) {
+        User user = userRepository.saveAndFlush(User.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .password("secret")
+                .firstName("John")
+                .phoneNumber("+79999999999")
+                .build());
+        userRepository.reserveUsername(user.getId(), username);
+        userRepository.reserveEmail(user.getId(), user.getEmail());
+        if (deletionRequestedAt != null) {
+            jdbcTemplate.update("UPDATE users SET deletion_requested_at = ? WHERE id = ?", deletionRequestedAt, user.getId());
+        }
+        return user;
+    }
+}
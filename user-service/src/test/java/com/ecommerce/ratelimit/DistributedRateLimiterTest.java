@@ -0,0 +1,169 @@
+package com.ecommerce.ratelimit;
+
+import com.ecommerce.ratelimit.LeaseStore.Lease;
+import com.ecommerce.ratelimit.LeaseStore.LeaseRequest;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DistributedRateLimiterTest {
+
+    private static final RateLimitProperties.Policy AUTH =
+            new RateLimitProperties.Policy("auth", "/api/auth/**", 10, Duration.ofHours(1), 2L);
+    private static final RateLimitProperties.Policy API =
+            new RateLimitProperties.Policy("api", "/api/**", 100, Duration.ofHours(1), null);
+
+    private final SharedStore store = new SharedStore();
+
+    private DistributedRateLimiter limiter(LeaseStore leaseStore) {
+        RateLimitProperties properties = new RateLimitProperties(
+                true, Duration.ofSeconds(1), Duration.ofMinutes(2), 1000, 256, List.of(AUTH, API));
+        return new DistributedRateLimiter(properties, leaseStore);
+    }
+
+    @Test
+    void tryAcquire_shouldPickFirstMatchingPolicy() {
+        DistributedRateLimiter limiter = limiter(store);
+
+        assertThat(limiter.tryAcquire("/api/auth/login", "ip:1").policy()).isEqualTo(AUTH);
+        assertThat(limiter.tryAcquire("/api/users/me", "ip:1").policy()).isEqualTo(API);
+        assertThat(limiter.tryAcquire("/other", "ip:1")).isNull();
+    }
+
+    @Test
+    void tryAcquire_shouldSpendAdvanceWithoutCallingStore() {
+        DistributedRateLimiter limiter = limiter(store);
+
+        assertThat(limiter.tryAcquire("/api/auth/login", "ip:1").allowed()).isTrue();
+        assertThat(limiter.tryAcquire("/api/auth/login", "ip:1").allowed()).isTrue();
+        DistributedRateLimiter.Decision rejected = limiter.tryAcquire("/api/auth/login", "ip:1");
+
+        assertThat(rejected.allowed()).isFalse();
+        assertThat(rejected.resetSeconds()).isEqualTo(360);
+        assertThat(store.calls).isZero();
+    }
+
+    @Test
+    void synchronize_shouldEnforceQuotaAcrossNodes() {
+        DistributedRateLimiter first = limiter(store);
+        DistributedRateLimiter second = limiter(store);
+
+        int allowed = 0;
+        for (int round = 0; round < 20; round++) {
+            for (int i = 0; i < 3; i++) {
+                allowed += first.tryAcquire("/api/auth/login", "ip:1").allowed() ? 1 : 0;
+                allowed += second.tryAcquire("/api/auth/login", "ip:1").allowed() ? 1 : 0;
+            }
+            first.synchronize();
+            second.synchronize();
+        }
+
+        // Ёмкость 10 плюс не возвращённые авансы узлов
+        assertThat(allowed).isBetween(10, 10 + 2 * 2);
+    }
+
+    @Test
+    void tryAcquire_shouldBorrowUpToOneLease_WhenClusterHasTokens() {
+        DistributedRateLimiter limiter = limiter(store);
+        limiter.tryAcquire("/api/auth/login", "ip:1");
+        limiter.synchronize();
+
+        int allowed = 0;
+        for (int i = 0; i < 10; i++) {
+            allowed += limiter.tryAcquire("/api/auth/login", "ip:1").allowed() ? 1 : 0;
+        }
+
+        // Аванс погашен, на руках 2 токена аренды и ещё 2 в долг
+        assertThat(allowed).isEqualTo(4);
+    }
+
+    @Test
+    void synchronize_shouldBatchAllBucketsInOneCall() {
+        DistributedRateLimiter limiter = limiter(store);
+        for (int client = 0; client < 50; client++) {
+            limiter.tryAcquire("/api/users/me", "ip:" + client);
+        }
+
+        limiter.synchronize();
+
+        assertThat(store.calls).isEqualTo(1);
+        assertThat(store.buckets).hasSize(50);
+    }
+
+    @Test
+    void synchronize_shouldSkipBucketsWithEnoughTokens() {
+        DistributedRateLimiter limiter = limiter(store);
+        limiter.tryAcquire("/api/users/me", "ip:1");
+        limiter.synchronize();
+
+        limiter.synchronize();
+
+        assertThat(store.calls).isEqualTo(1);
+    }
+
+    @Test
+    void synchronize_shouldFallBackToLocalRefill_WhenStoreFails() {
+        DistributedRateLimiter limiter = limiter(requests -> {
+            throw new IllegalStateException("connection refused");
+        });
+        limiter.tryAcquire("/api/auth/login", "ip:1");
+        limiter.tryAcquire("/api/auth/login", "ip:1");
+
+        limiter.synchronize();
+
+        // Меньше секунды при 10 токенах в час — пополнения ещё нет, но и отказа от лимита нет
+        assertThat(limiter.tryAcquire("/api/auth/login", "ip:1").allowed()).isFalse();
+    }
+
+    @Test
+    void synchronize_shouldEvictIdleBuckets() {
+        RateLimitProperties properties = new RateLimitProperties(
+                true, Duration.ofSeconds(1), Duration.ZERO, 1000, 256, List.of(API));
+        DistributedRateLimiter limiter = new DistributedRateLimiter(properties, store);
+        limiter.tryAcquire("/api/users/me", "ip:1");
+
+        limiter.synchronize();
+
+        assertThat(limiter.bucketCount()).isZero();
+    }
+
+    @Test
+    void tryAcquire_shouldShareOverflowBucket_WhenTableIsFull() {
+        RateLimitProperties properties = new RateLimitProperties(
+                true, Duration.ofSeconds(1), Duration.ofMinutes(2), 2, 256, List.of(API));
+        DistributedRateLimiter limiter = new DistributedRateLimiter(properties, store);
+
+        for (int client = 0; client < 10; client++) {
+            limiter.tryAcquire("/api/users/me", "ip:" + client);
+        }
+
+        assertThat(limiter.bucketCount()).isEqualTo(3);
+    }
+
+    /**
+     * Кластерное хранилище без пополнения: проверяется только распределение ёмкости между узлами.
+     */
+    private static class SharedStore implements LeaseStore {
+        final Map<String, Long> buckets = new HashMap<>();
+        int calls;
+
+        @Override
+        public List<Lease> acquire(List<LeaseRequest> requests) {
+            calls++;
+            List<Lease> leases = new ArrayList<>();
+            for (LeaseRequest request : requests) {
+                long tokens = buckets.getOrDefault(request.key(), request.capacity());
+                long granted = Math.min(tokens, request.wanted());
+                buckets.put(request.key(), tokens - granted);
+                leases.add(new Lease(granted, tokens - granted));
+            }
+            return leases;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.id.TimeOrderedIdGenerator;
+import com.ecommerce.model.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@TestPropertySource(properties = "spring.jpa.show-sql=false")
+@Import(TimeOrderedIdGenerator.class)
+class UserRepositoryTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void findByLogin_shouldResolveUserThroughLookupTables() {
+        User user = saveWithLogins("lookup_user", "lookup@example.com");
+
+        assertThat(userRepository.findByUsername("lookup_user")).get().extracting(User::getId).isEqualTo(user.getId());
+        assertThat(userRepository.findByEmail("lookup@example.com")).get().extracting(User::getId).isEqualTo(user.getId());
+        assertThat(userRepository.existsByUsername("lookup_user")).isTrue();
+        assertThat(userRepository.existsByEmail("lookup@example.com")).isTrue();
+        assertThat(userRepository.findByUsername("missing")).isEmpty();
+        assertThat(userRepository.existsByEmail("missing@example.com")).isFalse();
+    }
+
+    @Test
+    void findByLogin_shouldIgnoreUsersWithoutLookupEntry() {
+        userRepository.saveAndFlush(user("unreserved", "unreserved@example.com"));
+
+        assertThat(userRepository.findByUsername("unreserved")).isEmpty();
+        assertThat(userRepository.existsByEmail("unreserved@example.com")).isFalse();
+    }
+
+    @Test
+    void reserveUsername_shouldRejectTakenUsername() {
+        User first = saveWithLogins("taken", "first@example.com");
+        User second = userRepository.saveAndFlush(user("other", "second@example.com"));
+
+        assertThatThrownBy(() -> userRepository.reserveUsername(second.getId(), first.getUsername()))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    void deleteUser_shouldCascadeToLookupTables() {
+        User user = saveWithLogins("deleted", "deleted@example.com");
+
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", user.getId());
+
+        assertThat(userRepository.existsByUsername("deleted")).isFalse();
+        assertThat(userRepository.existsByEmail("deleted@example.com")).isFalse();
+    }
+
+    @Test
+    void save_shouldAssignTimeOrderedIdBeforeInsert() {
+        User user = userRepository.save(user("early_id", "early_id@example.com"));
+
+        assertThat(user.getId()).isPositive();
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM users WHERE id = ?", Long.class, user.getId())).isZero();
+
+        // Нативная вставка в справочник сбрасывает отложенный INSERT пользователя раньше себя
+        userRepository.reserveUsername(user.getId(), "early_id");
+
+        assertThat(userRepository.findByUsername("early_id")).get().extracting(User::getId).isEqualTo(user.getId());
+        assertThat(userRepository.save(user("later_id", "later_id@example.com")).getId()).isGreaterThan(user.getId());
+    }
+
+    private User saveWithLogins(String username, String email) {
+        User user = userRepository.saveAndFlush(user(username, email));
+        userRepository.reserveUsername(user.getId(), username);
+        userRepository.reserveEmail(user.getId(), email);
+        return user;
+    }
+
+    private static User user(String username, String email) {
+        return User.builder().username(username).email(email).password("secret").build();
+    }
+}
@@ -0,0 +1,159 @@
+package com.ecommerce.resilience;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CircuitBreakerTest {
+    private static final CircuitBreakerProperties.Policy POLICY = new CircuitBreakerProperties.Policy(
+            50, Duration.ofMillis(100), 10, 4, Duration.ofSeconds(5), 2);
+
+    private final AtomicInteger calls = new AtomicInteger();
+    private MeterRegistry meterRegistry;
+    private long now;
+    private CircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        breaker = new CircuitBreaker("redis", true, POLICY, meterRegistry, () -> now);
+    }
+
+    @Test
+    void execute_shouldOpenAndShortCircuit_WhenFailureRateReached() {
+        assertThat(breaker.execute(this::ok)).isEqualTo("ok");
+        assertThat(breaker.execute(this::ok)).isEqualTo("ok");
+        assertThat(breaker.execute(this::fail, e -> "fallback")).isEqualTo("fallback");
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThatThrownBy(() -> breaker.execute(this::fail)).isInstanceOf(RedisConnectionFailureException.class);
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        int before = calls.get();
+        now += Duration.ofSeconds(1).toNanos();
+        assertThatThrownBy(() -> breaker.execute(this::ok))
+                .isInstanceOfSatisfying(CallNotPermittedException.class,
+                        e -> assertThat(e.getRetryAfter()).isEqualTo(Duration.ofSeconds(4)));
+        assertThat(breaker.execute(this::ok, e -> "fallback")).isEqualTo("fallback");
+
+        assertThat(calls.get()).isEqualTo(before);
+        assertThat(count("short_circuited")).isEqualTo(2);
+        assertThat(count("failure")).isEqualTo(2);
+        assertThat(meterRegistry.find("circuit.breaker.state").tag("name", "redis").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void execute_shouldCloseAfterSuccessfulTrials() {
+        open();
+        now += POLICY.openDuration().toNanos();
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        breaker.execute(this::ok);
+        breaker.execute(this::ok);
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+        // Окно очищено: прежние сбои не размыкают автомат снова
+        assertThat(breaker.execute(this::fail, e -> "fallback")).isEqualTo("fallback");
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void execute_shouldReopen_WhenTrialFails() {
+        open();
+        now += POLICY.openDuration().toNanos();
+
+        breaker.execute(this::fail, e -> "fallback");
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThatThrownBy(() -> breaker.execute(this::ok)).isInstanceOf(CallNotPermittedException.class);
+    }
+
+    @Test
+    void execute_shouldLimitConcurrentTrials() {
+        open();
+        now += POLICY.openDuration().toNanos();
+        AtomicInteger nested = new AtomicInteger();
+
+        breaker.execute(() -> breaker.execute(() -> breaker.execute(() -> "third", e -> {
+            nested.incrementAndGet();
+            return "rejected";
+        })));
+
+        assertThat(nested.get()).isEqualTo(1);
+    }
+
+    @Test
+    void execute_shouldCountSlowCallsAsFailures() {
+        for (int i = 0; i < 4; i++) {
+            breaker.execute(() -> {
+                now += Duration.ofMillis(150).toNanos();
+                return "slow";
+            });
+        }
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(count("slow")).isEqualTo(4);
+    }
+
+    @Test
+    void execute_shouldNotCountOperationErrors() {
+        for (int i = 0; i < 10; i++) {
+            assertThatThrownBy(() -> breaker.execute(() -> {
+                throw new DataIntegrityViolationException("duplicate");
+            })).isInstanceOf(DataIntegrityViolationException.class);
+        }
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void execute_shouldCountPoolTimeoutAsFailure() {
+        for (int i = 0; i < 4; i++) {
+            breaker.execute(() -> {
+                throw new CannotCreateTransactionException("pool exhausted");
+            }, e -> null);
+        }
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void execute_shouldPassThrough_WhenDisabled() {
+        breaker = new CircuitBreaker("redis", false, POLICY, meterRegistry, () -> now);
+        for (int i = 0; i < 10; i++) {
+            assertThatThrownBy(() -> breaker.execute(this::fail)).isInstanceOf(RedisConnectionFailureException.class);
+        }
+
+        assertThat(breaker.execute(this::ok)).isEqualTo("ok");
+    }
+
+    private void open() {
+        for (int i = 0; i < POLICY.minimumCalls(); i++) {
+            breaker.execute(this::fail, e -> null);
+        }
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    private String ok() {
+        calls.incrementAndGet();
+        return "ok";
+    }
+
+    private String fail() {
+        calls.incrementAndGet();
+        throw new RedisConnectionFailureException("connection refused");
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.counter("circuit.breaker.calls", "name", "redis", "outcome", outcome).count();
+    }
+}
@@ -0,0 +1,124 @@
+package com.ecommerce.resilience;
+
+import com.ecommerce.id.TimeOrderedIdGenerator;
+import com.ecommerce.model.entity.User;
+import com.ecommerce.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.api.Trigger;
+import org.h2.engine.SessionLocal;
+import org.h2.jdbc.JdbcConnection;
+import org.h2.message.DbException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Зависшая БД: триггер H2 задерживает каждое чтение {@code users}, таймаут запроса JPA его прерывает,
+ * а автомат БД считает таймауты и размыкается.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.jakarta.persistence.query.timeout=1000"
+})
+@Import(TimeOrderedIdGenerator.class)
+class DatabaseFaultInjectionTest {
+    private static final CircuitBreakerProperties.Policy POLICY = new CircuitBreakerProperties.Policy(
+            50, Duration.ofSeconds(5), 10, 4, Duration.ofSeconds(30), 2);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private CircuitBreakers circuitBreakers;
+    private long userId;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+        userId = userRepository.saveAndFlush(User.builder()
+                .username("stalled")
+                .email("stalled@example.com")
+                .password("secret")
+                .build()).getId();
+        circuitBreakers = new CircuitBreakers(new CircuitBreakerProperties(true, POLICY, POLICY), new SimpleMeterRegistry());
+        jdbcTemplate.execute("CREATE TRIGGER users_stall BEFORE SELECT ON users CALL \""
+                + StallTrigger.class.getName() + "\"");
+    }
+
+    @AfterEach
+    void tearDown() {
+        StallTrigger.delayMillis = 0;
+        jdbcTemplate.execute("DROP TRIGGER users_stall");
+    }
+
+    @Test
+    void stalledQuery_shouldTimeOut() {
+        assertThat(userRepository.findById(userId)).isPresent();
+        assertThat(userRepository.findByIdIn(List.of(userId))).hasSize(1);
+
+        StallTrigger.delayMillis = 3000;
+
+        assertThatThrownBy(() -> userRepository.findByIdIn(List.of(userId))).isInstanceOf(QueryTimeoutException.class);
+        assertThatThrownBy(() -> userRepository.findById(userId)).isInstanceOf(QueryTimeoutException.class);
+    }
+
+    @Test
+    void stalledQueries_shouldOpenDatabaseBreaker() {
+        StallTrigger.delayMillis = 3000;
+        CircuitBreaker database = circuitBreakers.database();
+
+        for (int i = 0; i < POLICY.minimumCalls(); i++) {
+            assertThatThrownBy(() -> database.execute(() -> userRepository.findById(userId)))
+                    .isInstanceOf(QueryTimeoutException.class);
+        }
+
+        assertThat(database.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThatThrownBy(() -> database.execute(() -> userRepository.findById(userId)))
+                .isInstanceOf(CallNotPermittedException.class);
+    }
+
+    /**
+     * Задерживает выполнение запроса, как перегруженная или заблокированная БД. Отмену по таймауту проверяет
+     * сам, как это делает сервер PostgreSQL: H2 проверяет её не на каждом плане (поиск по первичному ключу — нет).
+     */
+    public static class StallTrigger implements Trigger {
+        static volatile long delayMillis;
+
+        @Override
+        public void fire(Connection connection, Object[] oldRow, Object[] newRow) throws SQLException {
+            SessionLocal session = (SessionLocal) connection.unwrap(JdbcConnection.class).getSession();
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis);
+            try {
+                while (System.nanoTime() < deadline) {
+                    session.checkCanceled();
+                    Thread.sleep(10);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (DbException e) {
+                throw DbException.toSQLException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.ecommerce.resilience;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Местная подмена Redis для тестов отказов: отвечает на команды по протоколу RESP как пустой Redis,
+ * а в режиме {@link #stall(boolean)} принимает команды и молчит — как зависший сервер.
+ */
+class FakeRedis implements AutoCloseable {
+    private final ServerSocket server;
+    private final List<Socket> clients = new CopyOnWriteArrayList<>();
+    private volatile boolean stalled;
+
+    FakeRedis() throws IOException {
+        server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(this::accept, "fake-redis");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    int port() {
+        return server.getLocalPort();
+    }
+
+    /**
+     * Снятие зависания обрывает старые соединения: ответы на брошенные по таймауту команды клиенту не нужны.
+     */
+    void stall(boolean stalled) throws IOException {
+        this.stalled = stalled;
+        if (!stalled) {
+            for (Socket client : clients) {
+                client.close();
+            }
+            clients.clear();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.close();
+        for (Socket client : clients) {
+            client.close();
+        }
+    }
+
+    private void accept() {
+        while (!server.isClosed()) {
+            try {
+                Socket client = server.accept();
+                clients.add(client);
+                Thread handler = new Thread(() -> serve(client), "fake-redis-client");
+                handler.setDaemon(true);
+                handler.start();
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void serve(Socket client) {
+        try (client) {
+            InputStream in = new BufferedInputStream(client.getInputStream());
+            OutputStream out = client.getOutputStream();
+            while (true) {
+                String command = readCommand(in);
+                if (command == null) {
+                    return;
+                }
+                if (stalled) {
+                    continue;
+                }
+                out.write(reply(command).getBytes(StandardCharsets.US_ASCII));
+                out.flush();
+            }
+        } catch (IOException e) {
+            // Соединение закрыто
+        }
+    }
+
+    private static String reply(String command) {
+        return switch (command) {
+            case "HELLO" -> "-ERR unknown command 'HELLO'\r\n";
+            case "PING" -> "+PONG\r\n";
+            case "GET" -> "$-1\r\n";
+            case "DEL", "PUBLISH" -> ":0\r\n";
+            default -> "+OK\r\n";
+        };
+    }
+
+    /**
+     * @return имя команды в верхнем регистре или {@code null}, если клиент отключился
+     */
+    private static String readCommand(InputStream in) throws IOException {
+        String header = readLine(in);
+        if (header == null) {
+            return null;
+        }
+        int arguments = Integer.parseInt(header.substring(1));
+        String name = null;
+        for (int i = 0; i < arguments; i++) {
+            int length = Integer.parseInt(readLine(in).substring(1));
+            byte[] bytes = in.readNBytes(length + 2);
+            if (i == 0) {
+                name = new String(bytes, 0, length, StandardCharsets.UTF_8).toUpperCase();
+            }
+        }
+        return name;
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int c;
+        while ((c = in.read()) != '\n') {
+            if (c < 0) {
+                return null;
+            }
+            if (c != '\r') {
+                line.append((char) c);
+            }
+        }
+        return line.toString();
+    }
+}
@@ -0,0 +1,121 @@
+package com.ecommerce.resilience;
+
+import com.ecommerce.idempotency.IdempotencyService;
+import com.ecommerce.idempotency.RedisIdempotencyStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.SocketOptions;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Настоящий клиент Lettuce против {@link FakeRedis}: зависание сервера, размыкание автомата и восстановление.
+ */
+class RedisFaultInjectionTest {
+    private static final Duration COMMAND_TIMEOUT = Duration.ofMillis(150);
+    private static final CircuitBreakerProperties.Policy POLICY = new CircuitBreakerProperties.Policy(
+            50, Duration.ofMillis(100), 10, 4, Duration.ofMillis(300), 2);
+
+    private FakeRedis redis;
+    private LettuceConnectionFactory connectionFactory;
+    private MeterRegistry meterRegistry;
+    private CircuitBreakers circuitBreakers;
+    private IdempotencyService idempotencyService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        redis = new FakeRedis();
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("127.0.0.1", redis.port()),
+                LettuceClientConfiguration.builder()
+                        .commandTimeout(COMMAND_TIMEOUT)
+                        .clientOptions(ClientOptions.builder()
+                                .socketOptions(SocketOptions.builder().connectTimeout(COMMAND_TIMEOUT).build())
+                                .build())
+                        .build());
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        StringRedisTemplate redisTemplate = new StringRedisTemplate(connectionFactory);
+        warmUp(redisTemplate);
+        meterRegistry = new SimpleMeterRegistry();
+        circuitBreakers = new CircuitBreakers(new CircuitBreakerProperties(true, POLICY, POLICY), meterRegistry);
+        idempotencyService = new IdempotencyService(new RedisIdempotencyStore(redisTemplate, circuitBreakers),
+                new ObjectMapper(), Duration.ofHours(1), Duration.ofSeconds(5), "secret");
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        connectionFactory.destroy();
+        redis.close();
+    }
+
+    @Test
+    void stalledRedis_shouldOpenBreakerAndStopWaitingForTimeouts() throws Exception {
+        timeRequest(0);
+        assertThat(circuitBreakers.redis().state()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        redis.stall(true);
+        // Первые запросы ждут таймаута, пока автомат не наберёт статистику
+        int waited = 0;
+        for (int i = 1; i < 5 && circuitBreakers.redis().state() == CircuitBreaker.State.CLOSED; i++, waited++) {
+            assertThat(timeRequest(i)).isGreaterThanOrEqualTo(COMMAND_TIMEOUT.toMillis());
+        }
+        assertThat(waited).isLessThanOrEqualTo(POLICY.minimumCalls());
+        assertThat(circuitBreakers.redis().state()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        long slowest = 0;
+        for (int i = 10; i < 50; i++) {
+            slowest = Math.max(slowest, timeRequest(i));
+        }
+        assertThat(slowest).isLessThan(COMMAND_TIMEOUT.toMillis() / 2);
+        assertThat(meterRegistry.counter("circuit.breaker.calls", "name", "redis", "outcome", "short_circuited").count())
+                .isGreaterThanOrEqualTo(40);
+
+        redis.stall(false);
+        Thread.sleep(POLICY.openDuration().toMillis());
+        assertThat(circuitBreakers.redis().state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        for (int i = 50; i < 60 && circuitBreakers.redis().state() != CircuitBreaker.State.CLOSED; i++) {
+            timeRequest(i);
+        }
+        assertThat(circuitBreakers.redis().state()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    /**
+     * Первое соединение (инициализация Netty, холодный код) дольше таймаута команды — не должно попасть в статистику.
+     */
+    private static void warmUp(StringRedisTemplate redisTemplate) {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                redisTemplate.opsForValue().get("warmup");
+                return;
+            } catch (RuntimeException e) {
+                if (attempt == 10) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Запрос с ключом идемпотентности; недоступность Redis он переживает, выполняясь без защиты от повторов.
+     */
+    private long timeRequest(int i) {
+        long started = System.nanoTime();
+        Map<?, ?> body = idempotencyService.execute("test", "key-" + i, Map.of("i", i), HttpStatus.OK, Map.class,
+                () -> Map.of("done", i)).getBody();
+        assertThat(body.get("done")).isEqualTo(i);
+        return Duration.ofNanos(System.nanoTime() - started).toMillis();
+    }
+}
@@ -0,0 +1,116 @@
+package com.ecommerce.security;
+
+import com.ecommerce.activity.UserActivityProperties;
+import com.ecommerce.activity.UserActivityTracker;
+import com.ecommerce.model.entity.User;
+import com.ecommerce.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Фиксирует, сколько байт выделяет {@link JwtAuthenticationFilter} на один запрос
+ * (счётчик аллокаций текущего потока HotSpot). Пользователь строится из claims, отзыв проверяется
+ * по {@link TokenVersionCache}, так что в бюджет входят весь разбор JWT, работа самого фильтра
+ * и отметка активности в {@link UserActivityTracker}.
+ */
+class JwtAuthenticationFilterAllocationTest {
+    private static final int WARMUP = 20_000;
+    private static final int MEASURED = 10_000;
+
+    /**
+     * ~39 КБ на JDK 21, почти всё — разбор и проверка подписи в jjwt. Прежний путь (парсер на каждый вызов,
+     * два разбора токена, details и копии полномочий) выделял ~80 КБ. Запас ~20% на разницу JIT.
+     */
+    private static final long AUTHENTICATED_BUDGET = 48 * 1024;
+
+    /**
+     * Публичный маршрут не трогает токен: остаются лишь накладные расходы {@code OncePerRequestFilter}.
+     */
+    private static final long PUBLIC_BUDGET = 256;
+
+    private final FilterChain chain = (request, response) -> { };
+    private JwtAuthenticationFilter filter;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        JwtTokenProvider tokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(tokenProvider, "jwtSecret", "allocation-test-secret-key-of-at-least-32-bytes");
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpiration", 3_600_000L);
+        tokenProvider.init();
+        token = tokenProvider.generateToken(User.builder()
+                .id(1L).username("john").email("john@example.com").role(User.UserRole.USER).build());
+
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findByTokenVersionChangedAtIsNotNull()).thenReturn(List.of());
+        TokenVersionCache tokenVersionCache = new TokenVersionCache(userRepository, Duration.ofMinutes(1));
+        tokenVersionCache.load();
+        tokenVersionCache.advance(2L, 1);
+
+        UserActivityTracker userActivityTracker = new UserActivityTracker(mock(JdbcTemplate.class),
+                new UserActivityProperties(true, Duration.ofSeconds(30), Duration.ofSeconds(60), 500, 1000),
+                new SimpleMeterRegistry());
+
+        filter = new JwtAuthenticationFilter(tokenProvider, tokenVersionCache, userActivityTracker);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void authenticatedRequest_shouldStayWithinAllocationBudget() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/me");
+        request.addHeader("Authorization", "Bearer " + token);
+
+        long bytes = allocatedPerRequest(request);
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isInstanceOf(JwtAuthentication.class);
+        System.out.printf("JwtAuthenticationFilter: %d байт на аутентифицированный запрос%n", bytes);
+        assertThat(bytes).isLessThan(AUTHENTICATED_BUDGET);
+    }
+
+    @Test
+    void publicRequest_shouldSkipTokenProcessing() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+        request.addHeader("Authorization", "Bearer " + token);
+
+        long bytes = allocatedPerRequest(request);
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        System.out.printf("JwtAuthenticationFilter: %d байт на публичный запрос%n", bytes);
+        assertThat(bytes).isLessThan(PUBLIC_BUDGET);
+    }
+
+    private long allocatedPerRequest(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        for (int i = 0; i < WARMUP; i++) {
+            SecurityContextHolder.clearContext();
+            filter.doFilter(request, response, chain);
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < MEASURED; i++) {
+            SecurityContextHolder.clearContext();
+            filter.doFilter(request, response, chain);
+        }
+        return (threads.getCurrentThreadAllocatedBytes() - before) / MEASURED;
+    }
+}
@@ -1,5 +1,7 @@
 package com.ecommerce.security;
 
+import com.ecommerce.activity.UserActivityTracker;
+import com.ecommerce.model.entity.User;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -9,12 +11,14 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 
 import java.io.IOException;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -24,7 +28,10 @@ public class JwtAuthenticationFilterTest {
     private JwtTokenProvider jwtTokenProvider;
 
     @Mock
-    private UserDetailsServiceImpl userDetailsService;
+    private TokenVersionCache tokenVersionCache;
+
+    @Mock
+    private UserActivityTracker userActivityTracker;
 
     @Mock
     private HttpServletRequest request;
@@ -39,46 +46,49 @@ public class JwtAuthenticationFilterTest {
 
     @BeforeEach
     void setUp() {
-        jwtAuthenticationFilter = new JwtAuthenticationFilter(jwtTokenProvider, userDetailsService);
+        jwtAuthenticationFilter = new JwtAuthenticationFilter(jwtTokenProvider, tokenVersionCache, userActivityTracker);
         SecurityContextHolder.clearContext();
     }
 
     @Test
     void doFilterInternal_ShouldSetAuthentication_WhenValidTokenProvided() throws ServletException, IOException {
         String token = "valid.jwt.token";
-        Long userId = 1L;
-        UserDetails userDetails = org.springframework.security.core.userdetails.User.builder()
-                .username("test")
-                .password("pass")
-                .authorities("ROLE_USER")
-                .build();
+        AccessToken accessToken = new AccessToken(1L, "test", User.UserRole.USER, 2);
 
         when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
-        when(jwtTokenProvider.validateToken(token)).thenReturn(true);
-        when(jwtTokenProvider.getUserIdFromToken(token)).thenReturn(userId);
-        when(userDetailsService.loadUserById(userId)).thenReturn(userDetails);
+        when(jwtTokenProvider.parseAccessToken(token)).thenReturn(accessToken);
+        when(tokenVersionCache.isCurrent(1L, 2)).thenReturn(true);
 
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
 
         verify(filterChain).doFilter(request, response);
-        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNotNull();
-        assertThat(SecurityContextHolder.getContext().getAuthentication().getPrincipal()).isEqualTo(userDetails);
+        verify(jwtTokenProvider, never()).validateToken(any());
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(authentication).isNotNull();
+        assertThat(authentication.isAuthenticated()).isTrue();
+        assertThat(authentication.getPrincipal()).isEqualTo(accessToken.toPrincipal());
+        assertThat(authentication.getAuthorities()).isSameAs(UserAuthorities.of(User.UserRole.USER));
+        verify(userActivityTracker).seen(1L);
     }
 
     @Test
-    void doFilterInternal_ShouldNotSetAuthentication_WhenTokenInvalid() throws ServletException, IOException {
-        when(request.getHeader("Authorization")).thenReturn("Bearer invalid.token");
-        when(jwtTokenProvider.validateToken("invalid.token")).thenReturn(false);
+    void doFilterInternal_ShouldNotSetAuthentication_WhenTokenVersionRevoked() throws ServletException, IOException {
+        String token = "revoked.jwt.token";
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+        when(jwtTokenProvider.parseAccessToken(token)).thenReturn(new AccessToken(1L, "test", User.UserRole.USER, 0));
+        when(tokenVersionCache.isCurrent(1L, 0)).thenReturn(false);
 
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
 
         verify(filterChain).doFilter(request, response);
         assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        verifyNoInteractions(userActivityTracker);
     }
 
     @Test
-    void doFilterInternal_ShouldNotSetAuthentication_WhenTokenMissing() throws ServletException, IOException {
-        when(request.getHeader("Authorization")).thenReturn(null);
+    void doFilterInternal_ShouldNotSetAuthentication_WhenTokenInvalid() throws ServletException, IOException {
+        when(request.getHeader("Authorization")).thenReturn("Bearer invalid.token");
+        when(jwtTokenProvider.parseAccessToken("invalid.token")).thenReturn(null);
 
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
 
@@ -87,11 +97,8 @@ public class JwtAuthenticationFilterTest {
     }
 
     @Test
-    void doFilterInternal_ShouldNotSetAuthentication_WhenUserIdIsNull() throws ServletException, IOException {
-        String token = "empty-subject.token";
-        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
-        when(jwtTokenProvider.validateToken(token)).thenReturn(true);
-        when(jwtTokenProvider.getUserIdFromToken(token)).thenReturn(null); // ← null subject
+    void doFilterInternal_ShouldNotSetAuthentication_WhenTokenMissing() throws ServletException, IOException {
+        when(request.getHeader("Authorization")).thenReturn(null);
 
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
 
@@ -100,12 +107,43 @@ public class JwtAuthenticationFilterTest {
     }
 
     @Test
-    void doFilterInternal_ShouldNotCallUserDetailsService_WhenTokenInvalid() throws ServletException, IOException {
+    void doFilterInternal_ShouldNotConsultVersionCache_WhenTokenInvalid() throws ServletException, IOException {
         when(request.getHeader("Authorization")).thenReturn("Bearer bad");
-        when(jwtTokenProvider.validateToken("bad")).thenReturn(false);
+        when(jwtTokenProvider.parseAccessToken("bad")).thenReturn(null);
 
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
 
-        verify(userDetailsService, never()).loadUserById(any());
+        verifyNoInteractions(tokenVersionCache);
+    }
+
+    @Test
+    void shouldNotFilter_ShouldSkipPublicAndInternalRoutes() {
+        assertThat(jwtAuthenticationFilter.shouldNotFilter(new MockHttpServletRequest("POST", "/api/auth/login"))).isTrue();
+        assertThat(jwtAuthenticationFilter.shouldNotFilter(new MockHttpServletRequest("GET", "/internal/users/changes"))).isTrue();
+        assertThat(jwtAuthenticationFilter.shouldNotFilter(new MockHttpServletRequest("GET", "/api/users/me"))).isFalse();
+        assertThat(jwtAuthenticationFilter.shouldNotFilter(new MockHttpServletRequest("GET", "/api/authors"))).isFalse();
+    }
+
+    @Test
+    void shouldNotFilter_ShouldMatchPathAfterContextPath() {
+        MockHttpServletRequest publicRequest = new MockHttpServletRequest("POST", "/shop/api/auth/register");
+        publicRequest.setContextPath("/shop");
+        MockHttpServletRequest protectedRequest = new MockHttpServletRequest("GET", "/shop/api/users/me");
+        protectedRequest.setContextPath("/shop");
+
+        assertThat(jwtAuthenticationFilter.shouldNotFilter(publicRequest)).isTrue();
+        assertThat(jwtAuthenticationFilter.shouldNotFilter(protectedRequest)).isFalse();
+    }
+
+    @Test
+    void jwtAuthentication_ShouldAllowRevokingButNotRestoring() {
+        JwtAuthentication authentication = new JwtAuthentication(
+                new AccessToken(1L, "test", User.UserRole.USER, 0).toPrincipal());
+
+        authentication.setAuthenticated(false);
+
+        assertThat(authentication.isAuthenticated()).isFalse();
+        assertThatThrownBy(() -> authentication.setAuthenticated(true)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(authentication.isAuthenticated()).isFalse();
     }
 }
@@ -34,6 +34,26 @@ public class JwtTokenProviderTest {
         assertEquals(1L, jwtTokenProvider.getUserIdFromToken(token));
     }
 
+    @Test
+    void testParseAccessToken_ShouldCarryTokenVersion() {
+        User user = User.builder()
+                .id(7L)
+                .username("versioned")
+                .email("versioned@example.com")
+                .role(User.UserRole.ADMIN)
+                .tokenVersion(3)
+                .build();
+
+        AccessToken accessToken = jwtTokenProvider.parseAccessToken(jwtTokenProvider.generateToken(user));
+
+        assertEquals(new AccessToken(7L, "versioned", User.UserRole.ADMIN, 3), accessToken);
+    }
+
+    @Test
+    void testParseAccessToken_ShouldReturnNull_WhenTokenInvalid() {
+        assertNull(jwtTokenProvider.parseAccessToken("invalid.token.here"));
+    }
+
     @Test
     void testInvalidToken() {
         assertFalse(jwtTokenProvider.validateToken("invalid.token.here"));
@@ -0,0 +1,92 @@
+package com.ecommerce.security;
+
+import com.ecommerce.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TokenVersionCacheTest {
+    private static final LocalDateTime CHANGED_AT = LocalDateTime.of(2024, 5, 1, 10, 0);
+
+    @Mock
+    private UserRepository userRepository;
+
+    private TokenVersionCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new TokenVersionCache(userRepository, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void isCurrent_shouldAcceptAnyVersion_WhenUserNeverRevoked() {
+        when(userRepository.findByTokenVersionChangedAtIsNotNull()).thenReturn(List.of());
+        cache.load();
+
+        assertThat(cache.isCurrent(1L, 0)).isTrue();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void load_shouldRejectTokensOlderThanStoredVersion() {
+        when(userRepository.findByTokenVersionChangedAtIsNotNull()).thenReturn(List.of(view(1L, 2, CHANGED_AT)));
+        cache.load();
+
+        assertThat(cache.isCurrent(1L, 1)).isFalse();
+        assertThat(cache.isCurrent(1L, 2)).isTrue();
+        assertThat(cache.isCurrent(1L, 3)).isTrue();
+    }
+
+    @Test
+    void advance_shouldIgnoreOutOfOrderOlderVersions() {
+        cache.advance(1L, 3);
+        cache.advance(1L, 2);
+
+        assertThat(cache.isCurrent(1L, 2)).isFalse();
+        assertThat(cache.isCurrent(1L, 3)).isTrue();
+    }
+
+    @Test
+    void sync_shouldReadChangesSinceLastSeenMinusOverlap() {
+        when(userRepository.findByTokenVersionChangedAtIsNotNull()).thenReturn(List.of(view(1L, 1, CHANGED_AT)));
+        cache.load();
+        when(userRepository.findByTokenVersionChangedAtGreaterThanEqual(CHANGED_AT.minusMinutes(1)))
+                .thenReturn(List.of(view(2L, 1, CHANGED_AT.plusSeconds(5))));
+
+        cache.sync();
+
+        verify(userRepository).findByTokenVersionChangedAtGreaterThanEqual(CHANGED_AT.minusMinutes(1));
+        assertThat(cache.isCurrent(2L, 0)).isFalse();
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    private static UserRepository.TokenVersionView view(long id, long version, LocalDateTime changedAt) {
+        return new UserRepository.TokenVersionView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public long getTokenVersion() {
+                return version;
+            }
+
+            @Override
+            public LocalDateTime getTokenVersionChangedAt() {
+                return changedAt;
+            }
+        };
+    }
+}
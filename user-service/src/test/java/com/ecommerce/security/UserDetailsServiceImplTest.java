@@ -71,10 +71,12 @@ public class UserDetailsServiceImplTest {
 
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
 
-        UserDetails details = userDetailsService.loadUserById(1L);
+        AuthenticatedUser details = userDetailsService.loadUserById(1L);
 
         assertThat(details.getUsername()).isEqualTo("jane");
+        assertThat(details.getPassword()).isNull();
         assertThat(details.getAuthorities().iterator().next().getAuthority()).isEqualTo("ROLE_ADMIN");
+        assertThat(details.getAuthorities()).isSameAs(userDetailsService.loadUserById(1L).getAuthorities());
     }
 
     @Test
@@ -0,0 +1,105 @@
+package com.ecommerce.serialization;
+
+import com.ecommerce.exception.ErrorResponse;
+import com.ecommerce.model.dto.response.AuthResponse;
+import com.ecommerce.model.dto.response.UserResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseSerializationModuleTest {
+
+    private final ObjectMapper reflective = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private final ObjectMapper tuned = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .registerModule(new ResponseSerializationModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 10, 100_000, 120_000_000, 123_456_789, 999_999_999})
+    void userResponse_shouldMatchReflectiveSerialization(int nanos) throws Exception {
+        UserResponse response = UserResponse.builder()
+                .id(42L)
+                .username("john")
+                .email("john@example.com")
+                .firstName("Джон")
+                .lastName("O\"Doe\\")
+                .phoneNumber("+7 (999) 123-45-67")
+                .role("USER")
+                .createdAt(LocalDateTime.of(2024, 3, 7, 9, 5, 0, nanos))
+                .build();
+
+        assertThat(tuned.writeValueAsString(response)).isEqualTo(reflective.writeValueAsString(response));
+    }
+
+    @Test
+    void userResponse_shouldWriteNulls() throws Exception {
+        UserResponse response = new UserResponse();
+
+        assertThat(tuned.writeValueAsString(response)).isEqualTo(reflective.writeValueAsString(response));
+    }
+
+    @Test
+    void authResponse_shouldMatchReflectiveSerialization() throws Exception {
+        AuthResponse response = new AuthResponse("header.payload.signature", 7L, "jane");
+
+        assertThat(tuned.writeValueAsString(response)).isEqualTo(reflective.writeValueAsString(response));
+    }
+
+    @Test
+    void errorResponse_shouldMatchReflectiveSerialization() throws Exception {
+        ErrorResponse response = ErrorResponse.builder()
+                .timestamp(LocalDateTime.of(1999, 12, 31, 23, 59, 59, 5_000))
+                .status(404)
+                .error("Not Found")
+                .message("Пользователь с ID 1 не найден")
+                .path("/api/users/me")
+                .build();
+
+        assertThat(tuned.writeValueAsString(response)).isEqualTo(reflective.writeValueAsString(response));
+    }
+
+    @Test
+    void dateOutsideFourDigitYears_shouldFallBackToFormatter() throws Exception {
+        UserResponse response = UserResponse.builder().createdAt(LocalDateTime.of(12024, 1, 1, 0, 0)).build();
+
+        assertThat(tuned.writeValueAsString(response)).isEqualTo(reflective.writeValueAsString(response));
+    }
+
+    @Test
+    void smile_shouldRoundTrip() throws Exception {
+        ObjectMapper smile = new ObjectMapper(new SmileFactory())
+                .registerModule(new JavaTimeModule())
+                .registerModule(new ResponseSerializationModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        UserResponse response = UserResponse.builder()
+                .id(1L)
+                .username("john")
+                .role("ADMIN")
+                .createdAt(LocalDateTime.of(2024, 1, 1, 12, 0, 30))
+                .build();
+
+        byte[] bytes = smile.writeValueAsBytes(response);
+
+        assertThat(smile.readValue(bytes, UserResponse.class)).isEqualTo(response);
+        assertThat(bytes.length).isLessThan(tuned.writeValueAsBytes(response).length);
+    }
+
+    @Test
+    void responseWriters_shouldCacheWriterPerType() {
+        ResponseWriters writers = new ResponseWriters(tuned);
+
+        assertThat(writers.forType(UserResponse.class)).isSameAs(writers.forType(UserResponse.class));
+    }
+}
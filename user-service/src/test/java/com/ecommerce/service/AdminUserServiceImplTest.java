@@ -0,0 +1,129 @@
+package com.ecommerce.service;
+
+import com.ecommerce.exception.custom_exceptions.InvalidSearchCursorException;
+import com.ecommerce.id.TimeOrderedIdGenerator;
+import com.ecommerce.mapper.UserMapper;
+import com.ecommerce.model.dto.request.UserSearchRequest;
+import com.ecommerce.model.dto.response.UserPageResponse;
+import com.ecommerce.model.dto.response.UserResponse;
+import com.ecommerce.model.entity.User;
+import com.ecommerce.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@TestPropertySource(properties = "spring.jpa.show-sql=false")
+@Import({AdminUserServiceImpl.class, UserMapper.class, TimeOrderedIdGenerator.class})
+class AdminUserServiceImplTest {
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    @Autowired
+    private AdminUserService adminUserService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final List<Long> newestFirst = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        // Пары пользователей с одинаковым created_at проверяют, что курсор различает их по id
+        save("alice", "alice@corp.io", "Alice", "Smith", User.UserRole.USER, BASE);
+        save("al_bundy", "al@home.net", "Al", "Bundy", User.UserRole.USER, BASE);
+        save("albert", "albert@corp.io", "Albert", "Ivanov", User.UserRole.ADMIN, BASE.plusDays(1));
+        save("bob", "bob@home.net", "Bob", "Petrov", User.UserRole.USER, BASE.plusDays(2));
+        save("carol", "carol@corp.io", "Carol", "Ivanova", User.UserRole.USER, BASE.plusDays(2));
+        save("dave", "dave@home.net", "Dave", "Jones", User.UserRole.ADMIN, BASE.plusDays(3));
+        save("erin", "erin@corp.io", "Erin", "Sidorova", User.UserRole.USER, BASE.plusDays(4));
+    }
+
+    @Test
+    void searchUsers_shouldPageThroughAllUsersWithoutGapsOrDuplicates() {
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            UserPageResponse page = adminUserService.searchUsers(UserSearchRequest.builder().limit(3).cursor(cursor).build());
+            page.getItems().forEach(user -> seen.add(user.getId()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(seen).containsExactlyElementsOf(newestFirst);
+    }
+
+    @Test
+    void searchUsers_shouldNotReturnCursorOnExactlyFullLastPage() {
+        UserPageResponse page = adminUserService.searchUsers(UserSearchRequest.builder().limit(7).build());
+
+        assertThat(page.getItems()).hasSize(7);
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void searchUsers_shouldMatchUsernamePrefixIgnoringCaseAndEscapingWildcards() {
+        assertThat(usernames(UserSearchRequest.builder().username("ALB").build())).containsExactly("albert");
+        assertThat(usernames(UserSearchRequest.builder().username("al_").build())).containsExactly("al_bundy");
+    }
+
+    @Test
+    void searchUsers_shouldMatchNameSubstringInFirstOrLastName() {
+        assertThat(usernames(UserSearchRequest.builder().name("ivanov").build()))
+                .containsExactly("carol", "albert");
+        assertThat(usernames(UserSearchRequest.builder().name("lbe").build())).containsExactly("albert");
+    }
+
+    @Test
+    void searchUsers_shouldMatchEmailPrefixOrDomain() {
+        assertThat(usernames(UserSearchRequest.builder().email("bob@").build())).containsExactly("bob");
+        assertThat(usernames(UserSearchRequest.builder().email("@home.net").build()))
+                .containsExactly("dave", "bob", "al_bundy");
+    }
+
+    @Test
+    void searchUsers_shouldFilterByRoleAndCreatedRange() {
+        UserSearchRequest request = UserSearchRequest.builder()
+                .role(User.UserRole.USER)
+                .createdFrom(BASE.plusDays(1))
+                .createdTo(BASE.plusDays(4))
+                .build();
+
+        assertThat(usernames(request)).containsExactly("carol", "bob");
+    }
+
+    @Test
+    void searchUsers_shouldRejectMalformedCursor() {
+        assertThatThrownBy(() -> adminUserService.searchUsers(UserSearchRequest.builder().cursor("not-a-cursor").build()))
+                .isInstanceOf(InvalidSearchCursorException.class);
+    }
+
+    private List<String> usernames(UserSearchRequest request) {
+        return adminUserService.searchUsers(request).getItems().stream().map(UserResponse::getUsername).toList();
+    }
+
+    private void save(String username, String email, String firstName, String lastName,
+                      User.UserRole role, LocalDateTime createdAt) {
+        User user = userRepository.save(User.builder()
+                .username(username)
+                .email(email)
+                .password("secret")
+                .firstName(firstName)
+                .lastName(lastName)
+                .role(role)
+                .createdAt(createdAt)
+                .build());
+        newestFirst.add(0, user.getId());
+    }
+}
@@ -0,0 +1,77 @@
+package com.ecommerce.service;
+
+import com.ecommerce.exception.custom_exceptions.UserNotFoundException;
+import com.ecommerce.id.TimeOrderedIdGenerator;
+import com.ecommerce.model.entity.User;
+import com.ecommerce.repository.UserRepository;
+import com.ecommerce.security.TokenVersionCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = "spring.jpa.show-sql=false")
+@Import({TokenRevocationServiceImpl.class, TokenVersionCache.class, TimeOrderedIdGenerator.class})
+class TokenRevocationServiceImplTest {
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private TokenVersionCache tokenVersionCache;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+        user = userRepository.save(User.builder()
+                .username("revoker")
+                .email("revoker@example.com")
+                .password("secret")
+                .build());
+    }
+
+    @Test
+    void revokeAllTokens_shouldBumpVersionAndRejectOlderTokensAfterCommit() {
+        assertThat(tokenVersionCache.isCurrent(user.getId(), 0)).isTrue();
+
+        long version = tokenRevocationService.revokeAllTokens(user.getId());
+
+        assertThat(version).isEqualTo(1);
+        assertThat(tokenVersionCache.isCurrent(user.getId(), 0)).isFalse();
+        assertThat(tokenVersionCache.isCurrent(user.getId(), 1)).isTrue();
+        User reloaded = userRepository.findById(user.getId()).orElseThrow();
+        assertThat(reloaded.getTokenVersion()).isEqualTo(1);
+        assertThat(reloaded.getTokenVersionChangedAt()).isNotNull();
+    }
+
+    @Test
+    void profileSave_shouldNotOverwriteConcurrentRevocation() {
+        User stale = userRepository.findById(user.getId()).orElseThrow();
+        tokenRevocationService.revokeAllTokens(user.getId());
+
+        stale.setFirstName("Stale");
+        userRepository.save(stale);
+
+        assertThat(userRepository.findTokenVersionById(user.getId())).isEqualTo(1);
+    }
+
+    @Test
+    void revokeAllTokens_shouldThrow_WhenUserMissing() {
+        assertThatThrownBy(() -> tokenRevocationService.revokeAllTokens(Long.MAX_VALUE))
+                .isInstanceOf(UserNotFoundException.class);
+    }
+}
@@ -0,0 +1,163 @@
+package com.ecommerce.service;
+
+import com.ecommerce.id.TimeOrderedIdGenerator;
+import com.ecommerce.mapper.UserMapper;
+import com.ecommerce.model.dto.request.UserUpdateRequest;
+import com.ecommerce.model.dto.response.UserBatchUpdateResponse;
+import com.ecommerce.model.dto.response.UserBatchUpdateResult;
+import com.ecommerce.model.dto.response.UserBatchUpdateResult.Status;
+import com.ecommerce.model.entity.OutboxEvent;
+import com.ecommerce.model.entity.User;
+import com.ecommerce.outbox.OutboxMessage;
+import com.ecommerce.outbox.UserEventOutbox;
+import com.ecommerce.outbox.UserProfilesUpdatedEvent;
+import com.ecommerce.repository.OutboxEventRepository;
+import com.ecommerce.repository.UserRepository;
+import com.ecommerce.serialization.ResponseWriters;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {"spring.jpa.show-sql=false", "user-batch-update.chunk-size=2"})
+@Import({UserBatchUpdateServiceImpl.class, UserMapper.class, UserEventOutbox.class, TimeOrderedIdGenerator.class,
+        UserBatchUpdateServiceImplTest.Config.class})
+@RecordApplicationEvents
+class UserBatchUpdateServiceImplTest {
+
+    @Autowired
+    private UserBatchUpdateService userBatchUpdateService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        ResponseWriters responseWriters(ObjectMapper objectMapper) {
+            return new ResponseWriters(objectMapper);
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        outboxEventRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void updateProfiles_shouldApplyChunksAndReportEveryItem() {
+        User first = save("first");
+        User same = save("same");
+        User second = save("second");
+        User erased = save("erased");
+        jdbcTemplate.update("UPDATE users SET anonymized_at = ? WHERE id = ?", LocalDateTime.now(), erased.getId());
+
+        Map<Long, UserUpdateRequest> updates = new LinkedHashMap<>();
+        updates.put(second.getId(), UserUpdateRequest.builder().lastName("Petrov").phoneNumber("89990001122").build());
+        updates.put(first.getId(), UserUpdateRequest.builder().firstName("Ivan").build());
+        updates.put(404L, UserUpdateRequest.builder().firstName("Nobody").build());
+        updates.put(same.getId(), UserUpdateRequest.builder().firstName("Name").build());
+        updates.put(erased.getId(), UserUpdateRequest.builder().firstName("Back").build());
+
+        UserBatchUpdateResponse response = userBatchUpdateService.updateProfiles(updates);
+
+        assertThat(response.getResults()).extracting(UserBatchUpdateResult::getId)
+                .containsExactly(second.getId(), first.getId(), 404L, same.getId(), erased.getId());
+        assertThat(response.getResults()).extracting(UserBatchUpdateResult::getStatus)
+                .containsExactly(Status.UPDATED, Status.UPDATED, Status.NOT_FOUND, Status.UNCHANGED, Status.NOT_FOUND);
+        assertThat(response.getResults().get(0).getChangedFields()).containsExactly("lastName", "phoneNumber");
+        assertThat(response.getUpdated()).isEqualTo(2);
+        assertThat(response.getUnchanged()).isEqualTo(1);
+        assertThat(response.getNotFound()).isEqualTo(2);
+
+        User secondSaved = userRepository.findById(second.getId()).orElseThrow();
+        assertThat(secondSaved.getLastName()).isEqualTo("Petrov");
+        assertThat(secondSaved.getFirstName()).isEqualTo("Name");
+        assertThat(secondSaved.getVersion()).isEqualTo(second.getVersion() + 1);
+        assertThat(secondSaved.getUpdatedAt()).isNotNull();
+        assertThat(userRepository.findById(first.getId()).orElseThrow().getFirstName()).isEqualTo("Ivan");
+        assertThat(userRepository.findById(same.getId()).orElseThrow().getVersion()).isEqualTo(same.getVersion());
+        assertThat(userRepository.findById(erased.getId()).orElseThrow().getFirstName()).isEqualTo("Name");
+
+        List<OutboxEvent> outbox = outboxEventRepository.findAll();
+        assertThat(outbox).extracting(OutboxEvent::getAggregateId).containsExactlyInAnyOrder(first.getId(), second.getId());
+        assertThat(outbox).allSatisfy(event -> {
+            assertThat(event.getEventType()).isEqualTo("UserProfileUpdated");
+            assertThat(event.getAggregateVersion()).isEqualTo(1);
+        });
+        assertThat(outbox).allSatisfy(event -> assertThat(event.getChangedFields()).isNotBlank());
+        assertThat(events.stream(OutboxMessage.class)).isEmpty();
+        assertThat(events.stream(UserProfilesUpdatedEvent.class)).singleElement()
+                .satisfies(event -> assertThat(event.userIds()).containsExactlyInAnyOrder(first.getId(), second.getId()));
+    }
+
+    @Test
+    void updateProfiles_shouldRollBackOnlyFailedChunk() {
+        User a = save("a");
+        User b = save("b");
+        User c = save("c");
+
+        Map<Long, UserUpdateRequest> updates = new LinkedHashMap<>();
+        updates.put(a.getId(), UserUpdateRequest.builder().firstName("Anna").build());
+        // Длиннее столбца first_name: падает UPDATE всей первой порции
+        updates.put(b.getId(), UserUpdateRequest.builder().firstName("x".repeat(80)).build());
+        updates.put(c.getId(), UserUpdateRequest.builder().firstName("Carl").build());
+
+        UserBatchUpdateResponse response = userBatchUpdateService.updateProfiles(updates);
+
+        assertThat(response.getResults()).extracting(UserBatchUpdateResult::getStatus)
+                .containsExactly(Status.FAILED, Status.FAILED, Status.UPDATED);
+        assertThat(response.getResults().get(0).getError()).isNotBlank();
+        assertThat(userRepository.findById(a.getId()).orElseThrow().getFirstName()).isEqualTo("Name");
+        assertThat(userRepository.findById(c.getId()).orElseThrow().getFirstName()).isEqualTo("Carl");
+        assertThat(outboxEventRepository.findAll()).extracting(OutboxEvent::getAggregateId).containsExactly(c.getId());
+    }
+
+    private User save(String username) {
+        return userRepository.saveAndFlush(User.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .password("secret")
+                .firstName("Name")
+                .build());
+    }
+}
@@ -1,5 +1,9 @@
 package com.ecommerce.service;
 
+import com.ecommerce.activity.UserActivityTracker;
+import com.ecommerce.audit.LoginAuditor;
+import com.ecommerce.audit.LoginOutcome;
+import com.ecommerce.cache.UserProfileCache;
 import com.ecommerce.exception.custom_exceptions.InvalidCredentialsException;
 import com.ecommerce.exception.custom_exceptions.UserAlreadyExistsException;
 import com.ecommerce.exception.custom_exceptions.UserNotFoundException;
@@ -10,18 +14,27 @@ import com.ecommerce.model.dto.request.UserUpdateRequest;
 import com.ecommerce.model.dto.response.AuthResponse;
 import com.ecommerce.model.dto.response.UserResponse;
 import com.ecommerce.model.entity.User;
+import com.ecommerce.outbox.UserEventOutbox;
 import com.ecommerce.repository.UserRepository;
+import com.ecommerce.resilience.CircuitBreakerProperties;
+import com.ecommerce.resilience.CircuitBreakers;
 import com.ecommerce.security.JwtTokenProvider;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.sql.SQLException;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -41,6 +54,27 @@ public class UserServiceImplTest {
     @Mock
     private JwtTokenProvider jwtTokenProvider;
 
+    @Mock
+    private UserEventOutbox userEventOutbox;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    @Mock
+    private LoginAuditor loginAuditor;
+
+    @Mock
+    private UserActivityTracker userActivityTracker;
+
+    @Mock
+    private UserProfileCache userProfileCache;
+
+    @Spy
+    private CircuitBreakers circuitBreakers = new CircuitBreakers(new CircuitBreakerProperties(false,
+            new CircuitBreakerProperties.Policy(50, Duration.ofSeconds(1), 10, 5, Duration.ofSeconds(5), 3),
+            new CircuitBreakerProperties.Policy(50, Duration.ofSeconds(1), 10, 5, Duration.ofSeconds(5), 3)),
+            new SimpleMeterRegistry());
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -159,7 +193,81 @@ public class UserServiceImplTest {
         verify(userRepository).existsByEmail("john.doe@example.com");
         verify(passwordEncoder).encode("password123");
         verify(userRepository).save(any(User.class));
+        verify(userRepository).reserveUsername(1L, "testUser");
+        verify(userRepository).reserveEmail(1L, "john.doe@example.com");
         verify(userMapper).toDto(savedUser);
+        verify(userEventOutbox).userRegistered(expectedResponse);
+    }
+
+    @Test
+    void registerConcurrentDuplicateEmail_ShouldFailOnLookupKey() {
+        UserRegistrationRequest request = new UserRegistrationRequest(
+                "racer", "race@example.com", "password123",
+                "John", "Doe", "1122334455"
+        );
+        User savedUser = User.builder().id(5L).username("racer").email("race@example.com").build();
+
+        when(userRepository.existsByUsername("racer")).thenReturn(false);
+        when(userRepository.existsByEmail("race@example.com")).thenReturn(false);
+        when(userRepository.save(any(User.class))).thenReturn(savedUser);
+        doThrow(new DataIntegrityViolationException("pk_user_emails"))
+                .when(userRepository).reserveEmail(5L, "race@example.com");
+
+        UserAlreadyExistsException exception = assertThrows(
+                UserAlreadyExistsException.class,
+                () -> userService.registerUser(request)
+        );
+
+        assertEquals("Пользователь с email 'race@example.com' уже существует", exception.getMessage());
+        verify(userRepository).reserveUsername(5L, "racer");
+        verifyNoInteractions(userEventOutbox);
+    }
+
+    @Test
+    void registerConcurrentDuplicateEmail_ShouldMapUsersConstraintByName() {
+        UserRegistrationRequest request = new UserRegistrationRequest(
+                "racer", "race@example.com", "password123",
+                "John", "Doe", "1122334455"
+        );
+        User savedUser = User.builder().id(5L).username("racer").email("race@example.com").build();
+
+        when(userRepository.existsByUsername("racer")).thenReturn(false);
+        when(userRepository.existsByEmail("race@example.com")).thenReturn(false);
+        when(userRepository.save(any(User.class))).thenReturn(savedUser);
+        doThrow(new DataIntegrityViolationException("could not execute statement",
+                new SQLException("Unique index or primary key violation: \"PUBLIC.UNIQUE_EMAIL_INDEX_4 ON PUBLIC.USERS(EMAIL NULLS FIRST)\"")))
+                .when(userRepository).flush();
+
+        UserAlreadyExistsException exception = assertThrows(
+                UserAlreadyExistsException.class,
+                () -> userService.registerUser(request)
+        );
+
+        assertEquals("Пользователь с email 'race@example.com' уже существует", exception.getMessage());
+        verify(userRepository, never()).reserveUsername(anyLong(), any());
+    }
+
+    @Test
+    void registerConcurrentDuplicateUsername_ShouldMapUsersConstraintByName() {
+        UserRegistrationRequest request = new UserRegistrationRequest(
+                "racer", "race@example.com", "password123",
+                "John", "Doe", "1122334455"
+        );
+        User savedUser = User.builder().id(5L).username("racer").email("race@example.com").build();
+
+        when(userRepository.existsByUsername("racer")).thenReturn(false);
+        when(userRepository.existsByEmail("race@example.com")).thenReturn(false);
+        when(userRepository.save(any(User.class))).thenReturn(savedUser);
+        doThrow(new DataIntegrityViolationException("could not execute statement",
+                new SQLException("duplicate key value violates unique constraint \"unique_name\"")))
+                .when(userRepository).flush();
+
+        UserAlreadyExistsException exception = assertThrows(
+                UserAlreadyExistsException.class,
+                () -> userService.registerUser(request)
+        );
+
+        assertEquals("Пользователь с именем 'racer' уже существует", exception.getMessage());
     }
 
     @Test
@@ -180,7 +288,7 @@ public class UserServiceImplTest {
         verify(userRepository).existsByUsername("testUser");
         verify(userRepository, never()).existsByEmail(anyString());
         verify(userRepository, never()).save(any(User.class));
-
+        verifyNoInteractions(userEventOutbox);
     }
 
     @Test
@@ -226,6 +334,8 @@ public class UserServiceImplTest {
         verify(userRepository, times(1)).findByUsername("testuser");
         verify(passwordEncoder, times(1)).matches("rawPassword123", "encodedPassword123");
         verify(jwtTokenProvider, times(1)).generateToken(testUser);
+        verify(loginAuditor).record(LoginOutcome.SUCCESS, "testuser", testUser.getId());
+        verify(userActivityTracker).loggedIn(testUser.getId());
     }
 
     @Test
@@ -266,6 +376,7 @@ public class UserServiceImplTest {
         verify(userRepository, times(1)).findByUsername("nonexistent");
         verify(passwordEncoder, never()).matches(anyString(), anyString());
         verify(jwtTokenProvider, never()).generateToken(any(User.class));
+        verify(loginAuditor).record(LoginOutcome.UNKNOWN_LOGIN, "nonexistent");
     }
 
     @Test
@@ -285,6 +396,31 @@ public class UserServiceImplTest {
         verify(userRepository, times(1)).findByUsername("testuser");
         verify(passwordEncoder, times(1)).matches("wrongPassword", "encodedPassword123");
         verify(jwtTokenProvider, never()).generateToken(any(User.class));
+        verify(loginAuditor).record(LoginOutcome.BAD_PASSWORD, "testuser", testUser.getId());
+        verifyNoInteractions(userActivityTracker);
+    }
+
+    @Test
+    void authenticateUser_WhenDeletionRequested_ShouldThrowInvalidCredentialsException() {
+        testUser.setDeletionRequestedAt(LocalDateTime.now());
+        when(userRepository.findByEmail("testuser")).thenReturn(Optional.empty());
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        when(passwordEncoder.matches("rawPassword123", "encodedPassword123")).thenReturn(true);
+
+        assertThrows(InvalidCredentialsException.class, () -> userService.authenticateUser(validLoginRequest));
+
+        verify(jwtTokenProvider, never()).generateToken(any(User.class));
+        verify(loginAuditor).record(LoginOutcome.ACCOUNT_CLOSED, "testuser", testUser.getId());
+    }
+
+    @Test
+    void requestDeletion_ShouldRevokeTokensAndMarkAccount() {
+        when(userRepository.markDeletionRequested(1L)).thenReturn(1);
+
+        userService.requestDeletion(1L);
+
+        verify(tokenRevocationService).revokeAllTokens(1L);
+        verify(userRepository).markDeletionRequested(1L);
     }
 
     @Test
@@ -390,6 +526,17 @@ public class UserServiceImplTest {
 
         verify(userRepository).findById(1L);
         verify(userMapper).toDto(testUser);
+        verify(userProfileCache).put(result, testUser.getUpdatedAt());
+    }
+
+    @Test
+    void getUserProfile_ShouldNotQueryDatabase_WhenCached() {
+        UserResponse cached = UserResponse.builder().id(1L).username("testuser").build();
+        when(userProfileCache.get(1L)).thenReturn(cached);
+
+        assertSame(cached, userService.getUserProfile(1L));
+
+        verifyNoInteractions(userRepository, userMapper);
     }
 
     @Test
@@ -400,6 +547,7 @@ public class UserServiceImplTest {
 
         verify(userRepository).findById(999L);
         verify(userMapper, never()).toDto(any(User.class));
+        verify(userProfileCache, never()).put(any(), any());
     }
 
     @Test
@@ -412,6 +560,8 @@ public class UserServiceImplTest {
                 .build();
 
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(userMapper.updateEntityFromDto(updateRequest, testUser))
+                .thenReturn(Set.of("firstName", "lastName", "phoneNumber"));
         when(userMapper.toDto(updatedUser)).thenReturn(userResponse);
         when(userRepository.save(any(User.class))).thenReturn(updatedUser);
 
@@ -424,6 +574,9 @@ public class UserServiceImplTest {
         verify(userMapper).updateEntityFromDto(updateRequest, testUser);
         verify(userRepository).save(testUser);
         verify(userMapper).toDto(updatedUser);
+        verify(userRepository).flush();
+        verify(userEventOutbox).userProfileUpdated(userResponse, updatedUser.getVersion(),
+                Set.of("firstName", "lastName", "phoneNumber"));
     }
 
     @Test
@@ -486,6 +639,7 @@ public class UserServiceImplTest {
 
         verify(userMapper).updateEntityFromDto(emptyRequest, testUser);
         verify(userRepository).save(testUser); // даже если без изменений — save вызывается
+        verifyNoInteractions(userEventOutbox); // но событие об изменении не пишется
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,167 @@
+package com.ecommerce.suggest;
+
+import com.ecommerce.id.IdGenerator;
+import com.ecommerce.model.dto.response.UserSuggestionResponse;
+import com.ecommerce.outbox.OutboxMessage;
+import com.ecommerce.repository.OutboxEventRepository;
+import com.ecommerce.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UsernameSuggestIndexTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final OutboxEventRepository outboxEventRepository = mock(OutboxEventRepository.class);
+    private final IdGenerator idGenerator = mock(IdGenerator.class);
+    private final List<UserRepository.UsernameView> table = new ArrayList<>();
+    private UsernameSuggestIndex index;
+
+    @BeforeEach
+    void setUp() {
+        when(userRepository.findByIdGreaterThanAndAnonymizedAtIsNullOrderByIdAsc(anyLong(), any(Limit.class))).thenAnswer(invocation -> {
+            long afterId = invocation.getArgument(0);
+            Limit limit = invocation.getArgument(1);
+            return table.stream()
+                    .filter(user -> user.getId() > afterId)
+                    .sorted(Comparator.comparing(UserRepository.UsernameView::getId))
+                    .limit(limit.max())
+                    .toList();
+        });
+        // Окно перечитывания пусто, пока тест не задаст его явно
+        when(idGenerator.lowestIdSince(any())).thenReturn(Long.MAX_VALUE);
+        // Маленькие страницы и порог слияния, чтобы проверить постраничную загрузку и слияние дельты
+        index = new UsernameSuggestIndex(userRepository, outboxEventRepository, new ObjectMapper(), idGenerator, 2, 2, Duration.ofSeconds(10));
+        insert(1, "annette");
+        insert(2, "bob");
+        insert(3, "Ann");
+        insert(4, "anna_k");
+        insert(5, "anna");
+        index.rebuild();
+    }
+
+    @Test
+    void suggest_shouldMatchPrefixIgnoringCaseInLexicographicOrder() {
+        assertThat(usernames("ANN", 10)).containsExactly("Ann", "anna", "anna_k", "annette");
+        assertThat(index.suggest("bo", 10)).extracting(UserSuggestionResponse::getId).containsExactly(2L);
+        assertThat(usernames("z", 10)).isEmpty();
+    }
+
+    @Test
+    void suggest_shouldReturnAtMostLimit() {
+        assertThat(usernames("a", 2)).containsExactly("Ann", "anna");
+    }
+
+    @Test
+    void suggest_shouldOrderUsersWithSameLowercaseNameById() {
+        insert(6, "ANNA");
+        index.refresh();
+
+        assertThat(index.suggest("anna", 2)).extracting(UserSuggestionResponse::getUsername, UserSuggestionResponse::getId)
+                .containsExactly(tuple("anna", 5L), tuple("ANNA", 6L));
+    }
+
+    @Test
+    void onCommitted_shouldIndexRegisteredUserImmediately() {
+        index.onCommitted(message("UserRegistered", 10, "{\"id\":10,\"username\":\"Émile\"}"));
+        index.onCommitted(message("UserProfileUpdated", 11, "{\"id\":11,\"username\":\"émilie\"}"));
+
+        assertThat(usernames("émi", 10)).containsExactly("Émile");
+    }
+
+    @Test
+    void onCommitted_shouldHideErasedUsersUntilRebuild() {
+        index.onCommitted(message("UserRegistered", 10, "{\"id\":10,\"username\":\"annika\"}"));
+
+        index.onCommitted(message("UserErased", 5, "{\"id\":5}"));
+        index.onCommitted(message("UserErased", 10, "{\"id\":10}"));
+
+        assertThat(usernames("ann", 10)).containsExactly("Ann", "anna_k", "annette");
+        table.removeIf(user -> user.getId() == 5);
+        index.rebuild();
+        assertThat(usernames("ann", 10)).containsExactly("Ann", "anna_k", "annette");
+    }
+
+    @Test
+    void refresh_shouldPickUpOtherNodesAndMergeDeltaWithoutDuplicates() {
+        index.onCommitted(message("UserRegistered", 6, "{\"id\":6,\"username\":\"carl\"}"));
+        insert(6, "carl");
+        insert(7, "carla");
+        insert(8, "carmen");
+
+        index.refresh();
+        index.refresh();
+
+        assertThat(usernames("car", 10)).containsExactly("carl", "carla", "carmen");
+        assertThat(index.size()).isEqualTo(8);
+    }
+
+    @Test
+    void refresh_shouldRereadIdsIssuedWithinOverlapWindow() {
+        insert(8, "zed");
+        index.refresh();
+        // id 6 выдан раньше, но зафиксирован после того, как прочитан id 8
+        insert(6, "zoe");
+        insert(7, "zara");
+        when(idGenerator.lowestIdSince(any())).thenReturn(5L);
+
+        index.refresh();
+
+        assertThat(usernames("z", 10)).containsExactly("zara", "zed", "zoe");
+    }
+
+    @Test
+    void refresh_shouldHideUsersErasedOnOtherNodes() {
+        when(outboxEventRepository.findAggregateIdsByEventTypeSince(eq("UserErased"), any(LocalDateTime.class)))
+                .thenReturn(List.of(5L));
+
+        index.refresh();
+
+        assertThat(usernames("ann", 10)).containsExactly("Ann", "anna_k", "annette");
+    }
+
+    @Test
+    void memoryBytes_shouldBeDominatedByNameBytesAndPrimitiveArrays() {
+        // 6 записей: ключи в нижнем регистре + "ann\0Ann", 4 байта смещения и 8 байт id на запись
+        long names = "annette".length() + "bob".length() + "ann".length() + 1 + "Ann".length()
+                + "anna_k".length() + "anna".length();
+        assertThat(index.memoryBytes()).isEqualTo(48 + names + 4 * 6 + 8 * 5);
+    }
+
+    private List<String> usernames(String prefix, int limit) {
+        return index.suggest(prefix, limit).stream().map(UserSuggestionResponse::getUsername).toList();
+    }
+
+    private void insert(long id, String username) {
+        table.add(new UserRepository.UsernameView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getUsername() {
+                return username;
+            }
+        });
+    }
+
+    private static OutboxMessage message(String eventType, long userId, String payload) {
+        return new OutboxMessage(userId, "User", userId, 0, eventType, List.of(), payload, LocalDateTime.now());
+    }
+}
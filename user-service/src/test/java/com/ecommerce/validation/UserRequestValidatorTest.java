@@ -0,0 +1,149 @@
+package com.ecommerce.validation;
+
+import com.ecommerce.model.dto.request.UserBatchUpdateRequest;
+import com.ecommerce.model.dto.request.UserLoginRequest;
+import com.ecommerce.model.dto.request.UserRegistrationRequest;
+import com.ecommerce.model.dto.request.UserUpdateRequest;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.Test;
+import org.springframework.validation.Errors;
+import org.springframework.validation.FieldError;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+import org.springframework.web.bind.WebDataBinder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Рукописный валидатор сверяется с Bean Validation на тех же DTO: совпадать должны поля и сообщения ошибок.
+ */
+class UserRequestValidatorTest {
+    private static final List<String> STRINGS = List.of("", " ", "  ", "\t\n", "\u0001", "\u00A0", "\u2003", "ab", "abc", " ab ",
+            "john_doe", "a".repeat(50), "a".repeat(51), "a".repeat(100), "a".repeat(101), "1234567", "12345678",
+            "secret123", "test@example.com", "not-an-email", "a@b", "a@@b.com", "user@пример.рф", "@example.com",
+            "user@", "user@-example.com", "x".repeat(65) + "@example.com");
+    private static final List<String> PHONES = List.of("+7 (999) 999-99-99", "+7\t(999)\n999-99-99", "+7  (999) 999-99-99",
+            "+7 (999) 999-99-9x", "+79999999999", "89999999999", "9999999999", "99999999999", "+7999999999",
+            "8999999999", "79999999999", "+8 (999) 999-99-99", "９９９９９９９９９９", "9999999999\n", "invalid-phone", "invalid");
+
+    private final Validator beanValidator = Validation.buildDefaultValidatorFactory().getValidator();
+    private final UserRequestValidator validator = new UserRequestValidator(beanValidator);
+
+    @Test
+    void loginRequest_shouldMatchBeanValidation() {
+        List<String> values = new ArrayList<>(STRINGS);
+        values.add(null);
+        for (String login : values) {
+            for (String password : values) {
+                assertSameErrors(new UserLoginRequest(login, password));
+            }
+        }
+    }
+
+    @Test
+    void registrationRequest_shouldMatchBeanValidation() {
+        for (String value : STRINGS) {
+            assertSameErrors(registration().username(value).build());
+            assertSameErrors(registration().email(value).build());
+            assertSameErrors(registration().password(value).build());
+            assertSameErrors(registration().firstName(value).lastName(value).build());
+        }
+        for (String phone : PHONES) {
+            assertSameErrors(registration().phoneNumber(phone).build());
+        }
+        assertSameErrors(new UserRegistrationRequest());
+        assertSameErrors(UserRegistrationRequest.builder().username(" ").email(" ").password(" ")
+                .firstName("a".repeat(101)).lastName("b".repeat(101)).phoneNumber("1").build());
+    }
+
+    @Test
+    void updateRequest_shouldMatchBeanValidation() {
+        for (String value : STRINGS) {
+            assertSameErrors(UserUpdateRequest.builder().firstName(value).lastName(value).build());
+        }
+        for (String phone : PHONES) {
+            assertSameErrors(UserUpdateRequest.builder().phoneNumber(phone).build());
+        }
+        assertSameErrors(new UserUpdateRequest());
+    }
+
+    @Test
+    void isPhone_shouldMatchRegexOnRandomInput() {
+        Pattern pattern = Pattern.compile(UserRequestConstraints.PHONE_REGEX);
+        String alphabet = "0123456789+78() -\t\n\u000Ba";
+        Random random = new Random(42);
+        List<String> inputs = new ArrayList<>(PHONES);
+        for (int i = 0; i < 200_000; i++) {
+            StringBuilder phone = new StringBuilder(random.nextBoolean() ? "+7 (999) 123-45-67" : "89991234567");
+            for (int edits = random.nextInt(3); edits > 0 && !phone.isEmpty(); edits--) {
+                int at = random.nextInt(phone.length());
+                char c = alphabet.charAt(random.nextInt(alphabet.length()));
+                switch (random.nextInt(3)) {
+                    case 0 -> phone.setCharAt(at, c);
+                    case 1 -> phone.insert(at, c);
+                    default -> phone.deleteCharAt(at);
+                }
+            }
+            inputs.add(phone.toString());
+        }
+
+        for (String input : inputs) {
+            assertThat(UserRequestValidator.isPhone(input)).as(input).isEqualTo(pattern.matcher(input).matches());
+        }
+    }
+
+    @Test
+    void validate_shouldUseConstraintNamesAsErrorCodes() {
+        Errors errors = validator.validateObject(UserRegistrationRequest.builder()
+                .username("ab").email("a@@b").password("secret123").phoneNumber("1").build());
+
+        assertThat(errors.getFieldErrors()).extracting(FieldError::getField, FieldError::getCode, FieldError::getRejectedValue)
+                .containsExactly(
+                        tuple("username", "Size", "ab"),
+                        tuple("email", "Email", "a@@b"),
+                        tuple("phoneNumber", "Pattern", "1"));
+    }
+
+    @Test
+    void advice_shouldReplaceBeanValidationOnlyForUserRequests() {
+        UserRequestValidationAdvice advice = new UserRequestValidationAdvice(validator);
+        LocalValidatorFactoryBean beanValidation = new LocalValidatorFactoryBean();
+        beanValidation.afterPropertiesSet();
+
+        WebDataBinder login = new WebDataBinder(new UserLoginRequest(), "userLoginRequest");
+        login.setValidator(beanValidation);
+        advice.initBinder(login);
+        WebDataBinder batch = new WebDataBinder(new UserBatchUpdateRequest(), "userBatchUpdateRequest");
+        batch.setValidator(beanValidation);
+        advice.initBinder(batch);
+
+        assertThat(login.getValidators()).singleElement().isInstanceOf(UserRequestValidator.class);
+        assertThat(batch.getValidators()).containsExactly(beanValidation);
+    }
+
+    private static UserRegistrationRequest.UserRegistrationRequestBuilder registration() {
+        return UserRegistrationRequest.builder()
+                .username("john_doe")
+                .email("john@example.com")
+                .password("secret1234")
+                .phoneNumber("+7 (999) 999-99-99");
+    }
+
+    private void assertSameErrors(Object dto) {
+        Set<String> expected = beanValidator.validate(dto).stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .collect(Collectors.toSet());
+        Set<String> actual = validator.validateObject(dto).getFieldErrors().stream()
+                .map(error -> error.getField() + ": " + error.getDefaultMessage())
+                .collect(Collectors.toSet());
+        assertThat(actual).as(dto.toString()).isEqualTo(expected);
+    }
+}
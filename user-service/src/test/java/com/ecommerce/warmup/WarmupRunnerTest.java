@@ -0,0 +1,119 @@
+package com.ecommerce.warmup;
+
+import com.ecommerce.mapper.UserMapper;
+import com.ecommerce.model.entity.User;
+import com.ecommerce.repository.UserRepository;
+import com.ecommerce.security.AccessToken;
+import com.ecommerce.security.JwtTokenProvider;
+import com.ecommerce.serialization.ResponseWriters;
+import com.ecommerce.validation.UserRequestValidator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WarmupRunnerTest {
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Mock
+    private UserRepository userRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void run_shouldExerciseEveryHotPathAndFillPool() throws Exception {
+        stubAll();
+
+        runner(new WarmupProperties(true, 50, 2, 3, 4, Duration.ofSeconds(30))).run(new DefaultApplicationArguments());
+
+        verify(dataSource, times(4)).getConnection();
+        verify(connection, times(4)).close();
+        verify(passwordEncoder, times(2)).matches(eq("warmup-password"), anyString());
+        verify(jwtTokenProvider, times(50)).generateToken(any(User.class));
+        verify(jwtTokenProvider, times(50)).parseAccessToken("token");
+        verify(userRepository, times(3)).findUserIdByUsername(anyString());
+        verify(userRepository, times(3)).findById(0L);
+        assertThat(meterRegistry.find("app.warmup").tag("step", "total").timer()).isNotNull();
+        assertThat(meterRegistry.find("app.warmup").tag("step", "jackson").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void run_shouldContinueWithNextSteps_WhenStepFails() throws Exception {
+        stubAll();
+        when(passwordEncoder.matches(anyString(), anyString())).thenThrow(new IllegalStateException("boom"));
+
+        runner(new WarmupProperties(true, 10, 2, 1, 1, Duration.ofSeconds(30))).run(new DefaultApplicationArguments());
+
+        verify(passwordEncoder, times(1)).matches(anyString(), anyString());
+        verify(jwtTokenProvider, times(10)).parseAccessToken("token");
+        verify(userRepository).findById(0L);
+    }
+
+    @Test
+    void run_shouldSkipSteps_WhenTimeoutExpired() throws Exception {
+        runner(new WarmupProperties(true, 10, 2, 1, 1, Duration.ZERO)).run(new DefaultApplicationArguments());
+
+        verifyNoInteractions(dataSource, jwtTokenProvider, userRepository);
+    }
+
+    @Test
+    void run_shouldDoNothing_WhenDisabled() throws Exception {
+        runner(new WarmupProperties(false, 10, 2, 1, 1, Duration.ofSeconds(30))).run(new DefaultApplicationArguments());
+
+        verifyNoInteractions(dataSource, passwordEncoder, jwtTokenProvider, userRepository);
+    }
+
+    private void stubAll() throws Exception {
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(passwordEncoder.encode("warmup-password")).thenReturn("encoded");
+        lenient().when(passwordEncoder.matches("warmup-password", "encoded")).thenReturn(true);
+        when(jwtTokenProvider.generateToken(any(User.class))).thenReturn("token");
+        when(jwtTokenProvider.parseAccessToken("token")).thenReturn(new AccessToken(0L, "warmup", User.UserRole.USER, 0));
+        when(userRepository.findUserIdByUsername(anyString())).thenReturn(Optional.empty());
+        when(userRepository.findUserIdByEmail(anyString())).thenReturn(Optional.empty());
+        when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+    }
+
+    private WarmupRunner runner(WarmupProperties properties) {
+        return new WarmupRunner(properties, dataSource, passwordEncoder, jwtTokenProvider, new UserMapper(), objectMapper,
+                new ResponseWriters(objectMapper),
+                new UserRequestValidator(Validation.buildDefaultValidatorFactory().getValidator()), userRepository, meterRegistry);
+    }
+}